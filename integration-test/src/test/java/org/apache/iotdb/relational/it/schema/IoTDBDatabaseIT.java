@@ -393,6 +393,7 @@ public class IoTDBDatabaseIT {
               "pipe_plugins,INF,",
               "pipes,INF,",
               "queries,INF,",
+              "queries_profile,INF,",
               "regions,INF,",
               "subscriptions,INF,",
               "tables,INF,",
@@ -629,12 +630,13 @@ public class IoTDBDatabaseIT {
                   "information_schema,nodes,INF,USING,null,SYSTEM VIEW,",
                   "information_schema,config_nodes,INF,USING,null,SYSTEM VIEW,",
                   "information_schema,data_nodes,INF,USING,null,SYSTEM VIEW,",
+                  "information_schema,queries_profile,INF,USING,null,SYSTEM VIEW,",
                   "test,test,INF,USING,test,BASE TABLE,",
                   "test,view_table,100,USING,null,VIEW FROM TREE,")));
       TestUtils.assertResultSetEqual(
           statement.executeQuery("count devices from tables where status = 'USING'"),
           "count(devices),",
-          Collections.singleton("19,"));
+          Collections.singleton("20,"));
       TestUtils.assertResultSetEqual(
           statement.executeQuery(
               "select * from columns where table_name = 'queries' or database = 'test'"),
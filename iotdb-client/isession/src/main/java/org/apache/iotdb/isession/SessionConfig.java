@@ -56,5 +56,16 @@ public class SessionConfig {
 
   public static final String SQL_DIALECT = "tree";
 
+  /** the asynchronous tablet writer sends a batch once it reaches 4MB */
+  public static final long DEFAULT_ASYNC_WRITE_MAX_BATCH_BYTES = 4L * 1024 * 1024;
+
+  /** the asynchronous tablet writer waits at most 5ms for more tablets before sending a batch */
+  public static final long DEFAULT_ASYNC_WRITE_LINGER_MS = 5;
+
+  public static final int DEFAULT_ASYNC_WRITE_MAX_IN_FLIGHT_REQUESTS = DEFAULT_SESSION_POOL_MAX_SIZE;
+
+  /** writes block or get rejected once 64MB of tablets are queued or in flight */
+  public static final long DEFAULT_ASYNC_WRITE_MAX_PENDING_BYTES = 64L * 1024 * 1024;
+
   private SessionConfig() {}
 }
@@ -0,0 +1,451 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.isession.ITableSession;
+import org.apache.iotdb.isession.SessionConfig;
+import org.apache.iotdb.isession.pool.ITableSessionPool;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.iotdb.session.util.SessionUtils;
+import org.apache.iotdb.session.util.ThreadUtils;
+
+import org.apache.tsfile.write.record.Tablet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking tablet writer. Tablets are accumulated into batches on the client side, a batch is
+ * sent once it reaches {@code maxBatchBytes} or once its first tablet has waited for {@code
+ * lingerMs}. At most {@code maxInFlightRequests} batches are sent at the same time, each on its own
+ * connection, and writes block or get rejected once {@code maxPendingBytes} of tablets are queued
+ * or in flight.
+ *
+ * <p>A tablet must not be modified after it is handed to {@link #write}, until its future
+ * completes.
+ */
+public class AsyncTabletWriter implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTabletWriter.class);
+
+  /** Sends one batch of tablets synchronously. */
+  @FunctionalInterface
+  public interface TabletBatchSender {
+
+    void send(List<Tablet> tablets, boolean isAligned)
+        throws IoTDBConnectionException, StatementExecutionException;
+  }
+
+  private final TabletBatchSender sender;
+  private final long maxBatchBytes;
+  private final long lingerMs;
+  private final int maxInFlightRequests;
+  private final long maxPendingBytes;
+  private final boolean blockOnBackpressure;
+
+  private final ExecutorService senderExecutor;
+  private final ScheduledExecutorService lingerScheduler;
+
+  private final Object lock = new Object();
+
+  // guarded by lock
+  private Batch nonAlignedBatch = new Batch(false);
+  private Batch alignedBatch = new Batch(true);
+  private long pendingBytes = 0;
+  private boolean isClosed = false;
+
+  private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+  private AsyncTabletWriter(Builder builder, TabletBatchSender sender, int maxInFlightRequests) {
+    this.sender = sender;
+    this.maxBatchBytes = builder.maxBatchBytes;
+    this.lingerMs = builder.lingerMs;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.maxPendingBytes = builder.maxPendingBytes;
+    this.blockOnBackpressure = builder.blockOnBackpressure;
+    // the number of sender threads bounds the number of in-flight requests
+    this.senderExecutor =
+        Executors.newFixedThreadPool(
+            maxInFlightRequests, ThreadUtils.createThreadFactory("AsyncTabletWriter-Sender", true));
+    this.lingerScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            ThreadUtils.createThreadFactory("AsyncTabletWriter-Linger", true));
+  }
+
+  /**
+   * Queue a non-aligned tablet, or a relational tablet if the writer is built for the table model.
+   *
+   * @return a future completed once the batch containing the tablet has been written
+   */
+  public CompletableFuture<Void> write(Tablet tablet) {
+    return write(tablet, false);
+  }
+
+  /**
+   * @return a future completed once the batch containing the tablet has been written
+   */
+  public CompletableFuture<Void> writeAligned(Tablet tablet) {
+    return write(tablet, true);
+  }
+
+  private CompletableFuture<Void> write(Tablet tablet, boolean isAligned) {
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    if (tablet.getRowSize() == 0) {
+      future.complete(null);
+      return future;
+    }
+    final long size = SessionUtils.getTabletSerializedSize(tablet);
+    Batch batchToSend = null;
+    synchronized (lock) {
+      // a single tablet larger than maxPendingBytes is admitted once nothing else is pending
+      while (!isClosed && pendingBytes > 0 && pendingBytes + size > maxPendingBytes) {
+        if (!blockOnBackpressure) {
+          future.completeExceptionally(
+              new RejectedExecutionException(
+                  String.format(
+                      "Too many pending bytes in AsyncTabletWriter: %d, max: %d",
+                      pendingBytes, maxPendingBytes)));
+          return future;
+        }
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          future.completeExceptionally(e);
+          return future;
+        }
+      }
+      if (isClosed) {
+        future.completeExceptionally(new IllegalStateException("AsyncTabletWriter is closed"));
+        return future;
+      }
+
+      pendingBytes += size;
+      final Batch batch = isAligned ? alignedBatch : nonAlignedBatch;
+      batch.add(tablet, size, future);
+      if (batch.bytes >= maxBatchBytes) {
+        batchToSend = detach(isAligned);
+      } else if (batch.tablets.size() == 1) {
+        lingerScheduler.schedule(() -> flushIfCurrent(batch), lingerMs, TimeUnit.MILLISECONDS);
+      }
+    }
+    if (batchToSend != null) {
+      submit(batchToSend);
+    }
+    return future;
+  }
+
+  /**
+   * Send all queued tablets without waiting for the linger time.
+   *
+   * @return a future completed once all tablets queued before this call have been written
+   */
+  public CompletableFuture<Void> flush() {
+    final List<Batch> batches = new ArrayList<>(2);
+    synchronized (lock) {
+      if (!nonAlignedBatch.tablets.isEmpty()) {
+        batches.add(detach(false));
+      }
+      if (!alignedBatch.tablets.isEmpty()) {
+        batches.add(detach(true));
+      }
+    }
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Batch batch : batches) {
+      futures.addAll(batch.futures);
+      submit(batch);
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  }
+
+  /** Flush the queued tablets and wait until every in-flight batch has completed. */
+  @Override
+  public void close() {
+    final CompletableFuture<Void> flushed;
+    synchronized (lock) {
+      if (isClosed) {
+        return;
+      }
+      flushed = flush();
+      isClosed = true;
+      lock.notifyAll();
+    }
+    try {
+      flushed.join();
+    } catch (Exception e) {
+      // failures have been reported through the futures of the tablets
+      LOGGER.debug("Some tablets failed to be written before AsyncTabletWriter closed", e);
+    }
+    lingerScheduler.shutdownNow();
+    senderExecutor.shutdown();
+  }
+
+  /** The bytes of tablets that are queued or in flight. */
+  public long getPendingBytes() {
+    synchronized (lock) {
+      return pendingBytes;
+    }
+  }
+
+  public int getInFlightRequests() {
+    return inFlightRequests.get();
+  }
+
+  /**
+   * Whether less than one more batch fits into the pending bytes, i.e. the server can not keep up
+   * and further writes are about to block or be rejected.
+   */
+  public boolean isBackpressured() {
+    synchronized (lock) {
+      return pendingBytes + maxBatchBytes > maxPendingBytes;
+    }
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  private void flushIfCurrent(Batch batch) {
+    Batch batchToSend = null;
+    synchronized (lock) {
+      if (batch == (batch.isAligned ? alignedBatch : nonAlignedBatch)
+          && !batch.tablets.isEmpty()) {
+        batchToSend = detach(batch.isAligned);
+      }
+    }
+    if (batchToSend != null) {
+      submit(batchToSend);
+    }
+  }
+
+  // must be called while holding lock
+  private Batch detach(boolean isAligned) {
+    final Batch batch;
+    if (isAligned) {
+      batch = alignedBatch;
+      alignedBatch = new Batch(true);
+    } else {
+      batch = nonAlignedBatch;
+      nonAlignedBatch = new Batch(false);
+    }
+    return batch;
+  }
+
+  private void submit(Batch batch) {
+    try {
+      senderExecutor.execute(() -> send(batch));
+    } catch (RejectedExecutionException e) {
+      complete(batch, e);
+    }
+  }
+
+  private void send(Batch batch) {
+    inFlightRequests.incrementAndGet();
+    Exception failure = null;
+    try {
+      sender.send(batch.tablets, batch.isAligned);
+    } catch (Exception e) {
+      failure = e;
+    } finally {
+      inFlightRequests.decrementAndGet();
+    }
+    complete(batch, failure);
+  }
+
+  private void complete(Batch batch, Exception failure) {
+    synchronized (lock) {
+      pendingBytes -= batch.bytes;
+      lock.notifyAll();
+    }
+    for (CompletableFuture<Void> future : batch.futures) {
+      if (failure == null) {
+        future.complete(null);
+      } else {
+        future.completeExceptionally(failure);
+      }
+    }
+  }
+
+  /**
+   * Split the tablets into groups in which every device appears at most once, keeping the order of
+   * the tablets of the same device.
+   */
+  static List<Map<String, Tablet>> groupByDevice(List<Tablet> tablets) {
+    final List<Map<String, Tablet>> groups = new ArrayList<>();
+    final Map<String, Integer> nextGroupIndexOfDevice = new HashMap<>();
+    for (Tablet tablet : tablets) {
+      final int groupIndex = nextGroupIndexOfDevice.getOrDefault(tablet.getDeviceId(), 0);
+      if (groupIndex == groups.size()) {
+        groups.add(new HashMap<>());
+      }
+      groups.get(groupIndex).put(tablet.getDeviceId(), tablet);
+      nextGroupIndexOfDevice.put(tablet.getDeviceId(), groupIndex + 1);
+    }
+    return groups;
+  }
+
+  private static class Batch {
+
+    private final boolean isAligned;
+    private final List<Tablet> tablets = new ArrayList<>();
+    private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    private long bytes = 0;
+
+    private Batch(boolean isAligned) {
+      this.isAligned = isAligned;
+    }
+
+    private void add(Tablet tablet, long size, CompletableFuture<Void> future) {
+      tablets.add(tablet);
+      futures.add(future);
+      bytes += size;
+    }
+  }
+
+  public static class Builder {
+
+    private long maxBatchBytes = SessionConfig.DEFAULT_ASYNC_WRITE_MAX_BATCH_BYTES;
+    private long lingerMs = SessionConfig.DEFAULT_ASYNC_WRITE_LINGER_MS;
+    private int maxInFlightRequests = SessionConfig.DEFAULT_ASYNC_WRITE_MAX_IN_FLIGHT_REQUESTS;
+    private long maxPendingBytes = SessionConfig.DEFAULT_ASYNC_WRITE_MAX_PENDING_BYTES;
+    private boolean blockOnBackpressure = true;
+
+    public Builder maxBatchBytes(long maxBatchBytes) {
+      this.maxBatchBytes = maxBatchBytes;
+      return this;
+    }
+
+    public Builder lingerMs(long lingerMs) {
+      this.lingerMs = lingerMs;
+      return this;
+    }
+
+    /** Ignored when the writer is built on a single {@link Session}. */
+    public Builder maxInFlightRequests(int maxInFlightRequests) {
+      this.maxInFlightRequests = maxInFlightRequests;
+      return this;
+    }
+
+    public Builder maxPendingBytes(long maxPendingBytes) {
+      this.maxPendingBytes = maxPendingBytes;
+      return this;
+    }
+
+    /**
+     * @param blockOnBackpressure if true, {@link #write} blocks once too many bytes are pending,
+     *     otherwise the returned future fails with a {@link RejectedExecutionException}
+     */
+    public Builder blockOnBackpressure(boolean blockOnBackpressure) {
+      this.blockOnBackpressure = blockOnBackpressure;
+      return this;
+    }
+
+    /**
+     * Build a tree model writer on a single session. A session holds one connection which can only
+     * carry one request at a time, so at most one batch is in flight. The session must not be used
+     * by other threads meanwhile.
+     */
+    public AsyncTabletWriter build(Session session) {
+      return new AsyncTabletWriter(
+          this,
+          (tablets, isAligned) -> {
+            for (Map<String, Tablet> group : groupByDevice(tablets)) {
+              if (isAligned) {
+                session.insertAlignedTablets(group);
+              } else {
+                session.insertTablets(group);
+              }
+            }
+          },
+          1);
+    }
+
+    /**
+     * Build a table model writer on a single session. At most one batch is in flight, see {@link
+     * #build(Session)}.
+     */
+    public AsyncTabletWriter buildRelational(Session session) {
+      return new AsyncTabletWriter(
+          this,
+          (tablets, isAligned) -> {
+            for (Tablet tablet : tablets) {
+              session.insertRelationalTablet(tablet);
+            }
+          },
+          1);
+    }
+
+    /** Build a tree model writer sending up to maxInFlightRequests batches concurrently. */
+    public AsyncTabletWriter build(SessionPool sessionPool) {
+      return new AsyncTabletWriter(
+          this,
+          (tablets, isAligned) -> {
+            for (Map<String, Tablet> group : groupByDevice(tablets)) {
+              if (isAligned) {
+                sessionPool.insertAlignedTablets(group);
+              } else {
+                sessionPool.insertTablets(group);
+              }
+            }
+          },
+          checkMaxInFlightRequests());
+    }
+
+    /** Build a table model writer sending up to maxInFlightRequests batches concurrently. */
+    public AsyncTabletWriter build(ITableSessionPool tableSessionPool) {
+      return new AsyncTabletWriter(
+          this,
+          (tablets, isAligned) -> {
+            try (ITableSession session = tableSessionPool.getSession()) {
+              for (Tablet tablet : tablets) {
+                session.insert(tablet);
+              }
+            }
+          },
+          checkMaxInFlightRequests());
+    }
+
+    /** Build a writer on a custom sender, which must be thread-safe if maxInFlightRequests > 1. */
+    public AsyncTabletWriter build(TabletBatchSender sender) {
+      return new AsyncTabletWriter(this, sender, checkMaxInFlightRequests());
+    }
+
+    private int checkMaxInFlightRequests() {
+      if (maxInFlightRequests <= 0) {
+        throw new IllegalArgumentException(
+            "maxInFlightRequests should be positive, but is " + maxInFlightRequests);
+      }
+      return maxInFlightRequests;
+    }
+  }
+}
@@ -50,6 +50,7 @@ import org.apache.iotdb.service.rpc.thrift.TSInsertStringRecordsOfOneDeviceReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertStringRecordsReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletReq;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSPruneSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateReq;
@@ -197,6 +198,12 @@ public class Session implements ISession {
   // may be null
   protected volatile String database;
 
+  // created on the first asynchronous write, see getAsyncTabletWriter
+  private AsyncTabletWriter asyncTabletWriter;
+
+  // no asynchronous write is accepted while the queued ones are drained by close
+  private boolean isDrainingAsyncTabletWriter = false;
+
   private static final String REDIRECT_TWICE = "redirect twice";
 
   private static final String REDIRECT_TWICE_RETRY = "redirect twice, please try again.";
@@ -626,7 +633,28 @@ public class Session implements ISession {
   }
 
   @Override
-  public synchronized void close() throws IoTDBConnectionException {
+  public void close() throws IoTDBConnectionException {
+    // send the tablets still queued before the connections are gone. The batches are sent through
+    // this session, so they are drained without holding the lock of this session.
+    final AsyncTabletWriter writer;
+    synchronized (this) {
+      writer = asyncTabletWriter;
+      asyncTabletWriter = null;
+      isDrainingAsyncTabletWriter = true;
+    }
+    try {
+      if (writer != null) {
+        writer.close();
+      }
+      closeConnections();
+    } finally {
+      synchronized (this) {
+        isDrainingAsyncTabletWriter = false;
+      }
+    }
+  }
+
+  private synchronized void closeConnections() throws IoTDBConnectionException {
     try {
       if (isClosed) {
         return;
@@ -2978,6 +3006,151 @@ public class Session implements ISession {
     }
   }
 
+  /**
+   * Register the layout of the tablet, i.e. its device, measurements, data types and alignment, on
+   * the server. Once the first write of the layout has been validated, tablets written through
+   * {@link #insertTablet(Tablet, long)} skip the schema validation and partition fetching on the
+   * server. The returned handle belongs to the current connection, writes through an unknown or
+   * outdated handle are executed as normal insertTablet requests.
+   *
+   * @param tablet a tablet whose layout is the same as the tablets to be written
+   * @return the prepared handle
+   */
+  public long prepareInsertTablet(Tablet tablet)
+      throws IoTDBConnectionException, StatementExecutionException {
+    return getSessionConnection(tablet.getDeviceId())
+        .prepareInsertTablet(genTSPrepareInsertTabletReq(tablet, false));
+  }
+
+  /**
+   * Register the layout of the aligned tablet on the server.
+   *
+   * @see #prepareInsertTablet(Tablet)
+   */
+  public long prepareInsertAlignedTablet(Tablet tablet)
+      throws IoTDBConnectionException, StatementExecutionException {
+    return getSessionConnection(tablet.getDeviceId())
+        .prepareInsertTablet(genTSPrepareInsertTabletReq(tablet, true));
+  }
+
+  /**
+   * insert a Tablet whose layout has been registered by {@link #prepareInsertTablet(Tablet)}
+   *
+   * @param tablet data batch
+   * @param preparedId the prepared handle
+   */
+  public void insertTablet(Tablet tablet, long preparedId)
+      throws IoTDBConnectionException, StatementExecutionException {
+    TSInsertTabletReq request = genTSInsertTabletReq(tablet, false, false);
+    request.setPreparedId(preparedId);
+    insertTabletInternal(tablet, request);
+  }
+
+  /**
+   * insert an aligned Tablet whose layout has been registered by {@link
+   * #prepareInsertAlignedTablet(Tablet)}
+   *
+   * @param tablet data batch
+   * @param preparedId the prepared handle
+   */
+  public void insertAlignedTablet(Tablet tablet, long preparedId)
+      throws IoTDBConnectionException, StatementExecutionException {
+    TSInsertTabletReq request = genTSInsertTabletReq(tablet, false, true);
+    request.setPreparedId(preparedId);
+    insertTabletInternal(tablet, request);
+  }
+
+  /**
+   * insert a Tablet asynchronously. Tablets are batched on the client side and sent by a
+   * background thread, so this session must not be used by other threads concurrently. Use {@link
+   * AsyncTabletWriter.Builder#build(org.apache.iotdb.session.pool.SessionPool)} to keep several
+   * batches in flight.
+   *
+   * @param tablet data batch, must not be modified until the returned future completes
+   * @return a future completed once the tablet has been written
+   */
+  public CompletableFuture<Void> insertTabletAsync(Tablet tablet) {
+    return insertTabletAsync(tablet, false);
+  }
+
+  /**
+   * insert an aligned Tablet asynchronously, see {@link #insertTabletAsync(Tablet)}
+   *
+   * @param tablet data batch, must not be modified until the returned future completes
+   * @return a future completed once the tablet has been written
+   */
+  public CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet) {
+    return insertTabletAsync(tablet, true);
+  }
+
+  /**
+   * insert a relational Tablet asynchronously, see {@link #insertTabletAsync(Tablet)}. Note: This
+   * method is for internal use only, we do not guarantee compatibility with subsequent versions.
+   *
+   * @param tablet data batch, must not be modified until the returned future completes
+   * @return a future completed once the tablet has been written
+   */
+  public CompletableFuture<Void> insertRelationalTabletAsync(Tablet tablet) {
+    return insertTabletAsync(tablet, false);
+  }
+
+  private CompletableFuture<Void> insertTabletAsync(Tablet tablet, boolean isAligned) {
+    final AsyncTabletWriter writer = getAsyncTabletWriter();
+    if (writer == null) {
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      future.completeExceptionally(new IllegalStateException("Session is closed"));
+      return future;
+    }
+    return isAligned ? writer.writeAligned(tablet) : writer.write(tablet);
+  }
+
+  /** Send the tablets queued by the asynchronous insertions without waiting for the linger time. */
+  public CompletableFuture<Void> flushAsyncInsertions() {
+    AsyncTabletWriter writer;
+    synchronized (this) {
+      writer = asyncTabletWriter;
+    }
+    return writer == null ? CompletableFuture.completedFuture(null) : writer.flush();
+  }
+
+  // null if the session is closed or being closed
+  private synchronized AsyncTabletWriter getAsyncTabletWriter() {
+    if (isClosed || isDrainingAsyncTabletWriter) {
+      return null;
+    }
+    if (asyncTabletWriter == null) {
+      AsyncTabletWriter.Builder builder = new AsyncTabletWriter.Builder();
+      asyncTabletWriter =
+          TABLE.equals(sqlDialect) ? builder.buildRelational(this) : builder.build(this);
+    }
+    return asyncTabletWriter;
+  }
+
+  /**
+   * Release a prepared handle on the server.
+   *
+   * @param tablet a tablet of the prepared layout, used to locate the connection
+   * @param preparedId the prepared handle
+   */
+  public void closePreparedInsertTablet(Tablet tablet, long preparedId)
+      throws IoTDBConnectionException, StatementExecutionException {
+    getSessionConnection(tablet.getDeviceId()).closePreparedInsertTablet(preparedId);
+  }
+
+  private TSPrepareInsertTabletReq genTSPrepareInsertTabletReq(Tablet tablet, boolean isAligned) {
+    TSPrepareInsertTabletReq request = new TSPrepareInsertTabletReq();
+    for (IMeasurementSchema measurementSchema : tablet.getSchemas()) {
+      if (measurementSchema.getMeasurementName() == null) {
+        throw new IllegalArgumentException("measurement should be non null value");
+      }
+      request.addToMeasurements(measurementSchema.getMeasurementName());
+      request.addToTypes(measurementSchema.getType().ordinal());
+    }
+    request.setPrefixPath(tablet.getDeviceId());
+    request.setIsAligned(isAligned);
+    return request;
+  }
+
   private TSInsertTabletReq genTSInsertTabletReq(Tablet tablet, boolean sorted, boolean isAligned) {
     if (!checkSorted(tablet)) {
       sortTablet(tablet);
@@ -58,6 +58,8 @@ import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
 import org.apache.iotdb.service.rpc.thrift.TSLastDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletResp;
 import org.apache.iotdb.service.rpc.thrift.TSPruneSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateResp;
@@ -835,6 +837,28 @@ public class SessionConnection {
     return client.insertTablet(request);
   }
 
+  protected long prepareInsertTablet(TSPrepareInsertTabletReq request)
+      throws IoTDBConnectionException, StatementExecutionException {
+    final TSPrepareInsertTabletResp resp =
+        callWithRetryAndReconnect(
+                () -> {
+                  request.setSessionId(sessionId);
+                  return client.prepareInsertTablet(request);
+                },
+                TSPrepareInsertTabletResp::getStatus)
+            .getResult();
+    RpcUtils.verifySuccess(resp.getStatus());
+    return resp.getPreparedId();
+  }
+
+  protected void closePreparedInsertTablet(long preparedId)
+      throws IoTDBConnectionException, StatementExecutionException {
+    final TSStatus status =
+        callWithRetryAndReconnect(() -> client.closePreparedInsertTablet(sessionId, preparedId))
+            .getResult();
+    RpcUtils.verifySuccess(status);
+  }
+
   protected void insertTablets(TSInsertTabletsReq request)
       throws IoTDBConnectionException, StatementExecutionException, RedirectException {
     callWithRetryAndVerifyWithRedirectionForMultipleDevices(
@@ -26,6 +26,8 @@ import org.apache.iotdb.rpc.StatementExecutionException;
 
 import org.apache.tsfile.write.record.Tablet;
 
+import java.util.concurrent.CompletableFuture;
+
 public class TableSession implements ITableSession {
 
   private final Session session;
@@ -39,6 +41,24 @@ public class TableSession implements ITableSession {
     session.insertRelationalTablet(tablet);
   }
 
+  /**
+   * Insert a Tablet asynchronously. Tablets are batched on the client side and sent by a
+   * background thread, at most one batch at a time. Use {@link
+   * AsyncTabletWriter.Builder#build(org.apache.iotdb.isession.pool.ITableSessionPool)} to keep
+   * several batches in flight.
+   *
+   * @param tablet data batch, must not be modified until the returned future completes
+   * @return a future completed once the tablet has been written
+   */
+  public CompletableFuture<Void> insertAsync(Tablet tablet) {
+    return session.insertRelationalTabletAsync(tablet);
+  }
+
+  /** Send the tablets queued by {@link #insertAsync(Tablet)} without waiting for linger time. */
+  public CompletableFuture<Void> flushAsyncInsertions() {
+    return session.flushAsyncInsertions();
+  }
+
   @Override
   public void executeNonQueryStatement(String sql)
       throws IoTDBConnectionException, StatementExecutionException {
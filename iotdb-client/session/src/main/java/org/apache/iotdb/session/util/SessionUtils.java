@@ -77,6 +77,13 @@ public class SessionUtils {
     return valueBuffer;
   }
 
+  /**
+   * @return the number of bytes the time and value buffers of the tablet occupy on the wire
+   */
+  public static long getTabletSerializedSize(Tablet tablet) {
+    return (long) getTimeBytesSize(tablet) + getTotalValueOccupation(tablet);
+  }
+
   private static int getTimeBytesSize(Tablet tablet) {
     return tablet.getRowSize() * 8;
   }
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.StatementExecutionException;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTabletWriterTest {
+
+  // one INT64 column and the time column, 16 bytes per row
+  private static Tablet newTablet(String deviceId, int rowSize) {
+    List<IMeasurementSchema> schemaList =
+        Collections.singletonList(new MeasurementSchema("s1", TSDataType.INT64));
+    Tablet tablet = new Tablet(deviceId, schemaList, rowSize);
+    long[] times = new long[rowSize];
+    long[] values = new long[rowSize];
+    for (int i = 0; i < rowSize; i++) {
+      times[i] = i;
+      values[i] = i;
+    }
+    tablet.setTimestamps(times);
+    tablet.getValues()[0] = values;
+    tablet.setRowSize(rowSize);
+    return tablet;
+  }
+
+  @Test
+  public void testBatchByBytes() throws Exception {
+    List<List<Tablet>> batches = new CopyOnWriteArrayList<>();
+    AsyncTabletWriter writer =
+        new AsyncTabletWriter.Builder()
+            .maxBatchBytes(32)
+            .lingerMs(TimeUnit.HOURS.toMillis(1))
+            .build((tablets, isAligned) -> batches.add(new ArrayList<>(tablets)));
+    try {
+      CompletableFuture<Void> first = writer.write(newTablet("root.sg.d1", 1));
+      Assert.assertFalse(first.isDone());
+      CompletableFuture<Void> second = writer.write(newTablet("root.sg.d2", 1));
+      second.get(10, TimeUnit.SECONDS);
+      first.get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(1, batches.size());
+      Assert.assertEquals(2, batches.get(0).size());
+      Assert.assertEquals(0, writer.getPendingBytes());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testLingerAndFlush() throws Exception {
+    List<Boolean> alignments = new CopyOnWriteArrayList<>();
+    AsyncTabletWriter writer =
+        new AsyncTabletWriter.Builder()
+            .lingerMs(10)
+            .build((tablets, isAligned) -> alignments.add(isAligned));
+    try {
+      writer.write(newTablet("root.sg.d1", 1)).get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(Collections.singletonList(false), alignments);
+
+      writer.close();
+      // closing flushes, further writes fail
+      try {
+        writer.writeAligned(newTablet("root.sg.d1", 1)).get(10, TimeUnit.SECONDS);
+        Assert.fail();
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testFailurePropagation() throws Exception {
+    AsyncTabletWriter writer =
+        new AsyncTabletWriter.Builder()
+            .lingerMs(TimeUnit.HOURS.toMillis(1))
+            .build(
+                (tablets, isAligned) -> {
+                  throw new StatementExecutionException("mock failure");
+                });
+    try {
+      CompletableFuture<Void> future = writer.write(newTablet("root.sg.d1", 1));
+      writer.flush();
+      future.get(10, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof StatementExecutionException);
+      Assert.assertEquals(0, writer.getPendingBytes());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testRejectOnBackpressure() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncTabletWriter writer =
+        new AsyncTabletWriter.Builder()
+            .maxBatchBytes(16)
+            .maxPendingBytes(16)
+            .blockOnBackpressure(false)
+            .build(
+                (tablets, isAligned) -> {
+                  sending.countDown();
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+    try {
+      CompletableFuture<Void> first = writer.write(newTablet("root.sg.d1", 1));
+      Assert.assertTrue(sending.await(10, TimeUnit.SECONDS));
+      Assert.assertTrue(writer.isBackpressured());
+      Assert.assertEquals(1, writer.getInFlightRequests());
+      try {
+        writer.write(newTablet("root.sg.d1", 1)).get(10, TimeUnit.SECONDS);
+        Assert.fail();
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+      }
+      release.countDown();
+      first.get(10, TimeUnit.SECONDS);
+      Assert.assertFalse(writer.isBackpressured());
+    } finally {
+      release.countDown();
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testGroupByDevice() {
+    Tablet d1First = newTablet("root.sg.d1", 1);
+    Tablet d2 = newTablet("root.sg.d2", 1);
+    Tablet d1Second = newTablet("root.sg.d1", 1);
+    List<Map<String, Tablet>> groups =
+        AsyncTabletWriter.groupByDevice(Arrays.asList(d1First, d2, d1Second));
+    Assert.assertEquals(2, groups.size());
+    Assert.assertSame(d1First, groups.get(0).get("root.sg.d1"));
+    Assert.assertSame(d2, groups.get(0).get("root.sg.d2"));
+    Assert.assertSame(d1Second, groups.get(1).get("root.sg.d1"));
+  }
+}
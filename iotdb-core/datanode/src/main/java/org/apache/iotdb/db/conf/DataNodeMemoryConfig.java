@@ -56,6 +56,9 @@ public class DataNodeMemoryConfig {
   /** whether to cache metadata(ChunkMetaData and TsFileMetaData) or not. */
   private boolean metaDataCacheEnable = true;
 
+  /** whether to cache the parsed modifications of TsFiles, only works with the metadata cache. */
+  private boolean modificationCacheEnable = true;
+
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int queryThreadCount = Runtime.getRuntime().availableProcessors();
 
@@ -102,6 +105,9 @@ public class DataNodeMemoryConfig {
   /** Memory manager for chunk cache in read process */
   private MemoryManager chunkCacheMemoryManager;
 
+  /** Memory manager for the modification cache, which shares the budget of the chunk cache */
+  private MemoryManager modificationCacheMemoryManager;
+
   /** Memory manager for coordinator */
   private MemoryManager coordinatorMemoryManager;
 
@@ -407,6 +413,10 @@ public class DataNodeMemoryConfig {
         Boolean.parseBoolean(
             properties.getProperty(
                 "meta_data_cache_enable", Boolean.toString(isMetaDataCacheEnable()))));
+    setModificationCacheEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "modification_cache_enable", Boolean.toString(isModificationCacheEnable()))));
     setQueryThreadCount(
         Integer.parseInt(
             properties.getProperty("query_thread_count", Integer.toString(getQueryThreadCount()))));
@@ -482,6 +492,13 @@ public class DataNodeMemoryConfig {
       dataExchangeMemorySize += partForDataExchange;
       operatorsMemorySize += partForOperators;
     }
+    // the parsed modifications of TsFiles are cached with a tenth of the chunk cache budget
+    long modificationCacheMemorySize = 0;
+    if (isModificationCacheEnable()) {
+      modificationCacheMemorySize = chunkCacheMemorySize / 10;
+      chunkCacheMemorySize -= modificationCacheMemorySize;
+    }
+
     // set max bytes per fragment instance
     setMaxBytesPerFragmentInstance(dataExchangeMemorySize / getQueryThreadCount());
 
@@ -490,6 +507,9 @@ public class DataNodeMemoryConfig {
             "BloomFilterCache", bloomFilterCacheMemorySize);
     chunkCacheMemoryManager =
         queryEngineMemoryManager.getOrCreateMemoryManager("ChunkCache", chunkCacheMemorySize);
+    modificationCacheMemoryManager =
+        queryEngineMemoryManager.getOrCreateMemoryManager(
+            "ModificationCache", modificationCacheMemorySize);
     timeSeriesMetaDataCacheMemoryManager =
         queryEngineMemoryManager.getOrCreateMemoryManager(
             "TimeSeriesMetaDataCache", timeSeriesMetaDataCacheMemorySize);
@@ -560,6 +580,14 @@ public class DataNodeMemoryConfig {
     this.metaDataCacheEnable = metaDataCacheEnable;
   }
 
+  public boolean isModificationCacheEnable() {
+    return modificationCacheEnable;
+  }
+
+  public void setModificationCacheEnable(boolean modificationCacheEnable) {
+    this.modificationCacheEnable = modificationCacheEnable;
+  }
+
   public int getQueryThreadCount() {
     return queryThreadCount;
   }
@@ -636,6 +664,10 @@ public class DataNodeMemoryConfig {
     return chunkCacheMemoryManager;
   }
 
+  public MemoryManager getModificationCacheMemoryManager() {
+    return modificationCacheMemoryManager;
+  }
+
   public MemoryManager getCoordinatorMemoryManager() {
     return coordinatorMemoryManager;
   }
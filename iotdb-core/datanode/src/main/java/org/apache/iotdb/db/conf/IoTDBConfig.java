@@ -63,9 +63,11 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
@@ -171,6 +173,12 @@ public class IoTDBConfig {
   /** Write mode of wal */
   private volatile WALMode walMode = WALMode.ASYNC;
 
+  /**
+   * Databases whose writes skip the wal. Their unflushed data is only protected by the replicas of
+   * the consensus protocol, so they are rejected when the protocol replicates via the wal.
+   */
+  private Set<String> walFreeDatabases = Collections.emptySet();
+
   /** Max number of wal nodes, each node corresponds to one wal directory */
   private int maxWalNodesNum = 0;
 
@@ -189,6 +197,9 @@ public class IoTDBConfig {
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 32 * 1024 * 1024;
 
+  /** Number of threads redoing wal entries into the recovering memTables during restart */
+  private int walRecoverThreadCount = Runtime.getRuntime().availableProcessors();
+
   /** Blocking queue capacity of each delete ahead log buffer */
   private int deletionAheadLogBufferQueueCapacity = 500;
 
@@ -330,6 +341,12 @@ public class IoTDBConfig {
 
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * The min number of devices scanned by one pipeline when a table scan of one data region is split
+   * into several pipelines by device ranges. When <= 0, the table scan is not split.
+   */
+  private int minDeviceNumOfTableScanPipeline = 32;
+
   private int mergeThresholdOfExplainAnalyze = 10;
 
   private int modeMapSizeThreshold = 10000;
@@ -400,6 +417,12 @@ public class IoTDBConfig {
    */
   private int tvListSortThreshold = 0;
 
+  /**
+   * the max number of distinct values interned by the dictionary of each binary column in the
+   * memtable, the repeated values of the column share one object. 0 means disabled.
+   */
+  private int memTableTextDictionaryMaxSize = 0;
+
   /** Enable inner space compaction for sequence files */
   private volatile boolean enableSeqSpaceCompaction = true;
 
@@ -412,9 +435,24 @@ public class IoTDBConfig {
   /** Enable auto repair compaction */
   private volatile boolean enableAutoRepairCompaction = true;
 
+  /** Migrate the sealed TsFiles whose data exceeds the tier TTL to the next tier by compaction */
+  private volatile boolean enableTierMigration = false;
+
+  /** TsFiles queried within this time will not be migrated to the next tier */
+  private volatile long tierMigrationMinIdleTimeInMs = 3_600_000L;
+
+  /** The compressor of the migrated TsFiles, null means keeping the original compressors */
+  private volatile CompressionType tierMigrationCompressor = null;
+
   /** The buffer for sort operation */
   private long sortBufferSize = 1024 * 1024L;
 
+  /**
+   * The memory for the TsBlocks of one partition in window and pattern recognition operators, the
+   * TsBlocks exceeding it are spilled to sort_tmp_dir. Spilling is disabled if it is not positive.
+   */
+  private long windowPartitionBufferSize = 64 * 1024 * 1024L;
+
   /**
    * The strategy of inner space compaction task. There are just one inner space compaction strategy
    * SIZE_TIRED_COMPACTION:
@@ -464,6 +502,18 @@ public class IoTDBConfig {
   /** The target chunk point num in compaction and flushing. */
   private long targetChunkPointNum = 100000L;
 
+  /**
+   * Whether to build quantile and distinct count sketches of each series when flushing and
+   * compacting sequence TsFiles, they are stored in a .sketch file beside the TsFile.
+   */
+  private boolean enableSeriesSketch = false;
+
+  /** The sketches of a TsFile are dropped if they are larger than this, 64 MB by default */
+  private long seriesSketchMaxSizePerFileInByte = 67108864L;
+
+  /** The memory for caching the sketch file indexes of TsFiles, 32 MB by default */
+  private long seriesSketchCacheSizeInByte = 33554432L;
+
   /**
    * If the chunk size is lower than this threshold, it will be deserialized into points, default is
    * 10 KB
@@ -565,6 +615,12 @@ public class IoTDBConfig {
   /** the max time to live of a session in ms. Unit: millisecond */
   private int sessionTimeoutThreshold = 0;
 
+  /**
+   * The max number of prepared insertTablet handles a session can hold. Set to 0 to disable the
+   * prepared insertTablet fast path.
+   */
+  private int maxPreparedInsertTabletNumPerSession = 1000;
+
   /** Replace implementation class of JDBC service */
   private String rpcImplClassName = ClientRPCServiceImpl.class.getName();
 
@@ -659,6 +715,18 @@ public class IoTDBConfig {
   /** The limit of compaction read operation can reach per second. When <= 0, no limit. */
   private int compactionReadOperationPerSec = 0;
 
+  /**
+   * Whether to throttle the background IO of compaction and load on a data directory when the
+   * latency of query reads on it is high. The throughput limits above still work as upper bounds.
+   */
+  private boolean enableAdaptiveIOScheduling = false;
+
+  /**
+   * The background IO on a data directory is throttled when the average latency of query reads on
+   * it exceeds this threshold. unit: ms
+   */
+  private long ioSchedulingQueryLatencyThresholdInMs = 20;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -671,6 +739,13 @@ public class IoTDBConfig {
    */
   private int compactionMaxAlignedSeriesNumInOneBatch = 10;
 
+  /**
+   * Whether the read chunk compaction of aligned series reads the value chunks page by page instead
+   * of loading whole chunks, so that the memory cost of a wide aligned device is bounded by its page
+   * size. The too wide devices are also split into column groups by the memory budget of one task.
+   */
+  private boolean enablePageStreamingInAlignedCompaction = false;
+
   /*
    * How many thread will be set up to perform continuous queries. When <= 0, use max(1, CPU core number / 2).
    */
@@ -793,6 +868,12 @@ public class IoTDBConfig {
   /** time cost(ms) threshold for slow query. Unit: millisecond */
   private long slowQueryThreshold = 30000;
 
+  /**
+   * The max number of fragment instance profiles kept for information_schema.queries_profile. Only
+   * fragment instances running longer than slowQueryThreshold are kept. 0 means disabled.
+   */
+  private int queryProfileBufferSize = 1000;
+
   private int patternMatchingThreshold = 1000000;
 
   /**
@@ -810,6 +891,14 @@ public class IoTDBConfig {
   /** the interval to log recover progress of each vsg when starting iotdb */
   private long recoveryLogIntervalInMs = 5_000L;
 
+  /**
+   * Whether to keep only the file level time index of the sealed TsFiles recorded in the
+   * FileTimeIndexCache when restarting. The device time index of such a TsFile is loaded in
+   * background after it is first queried, and degraded again when the memory of time index is
+   * insufficient.
+   */
+  private boolean enableLazyLoadTsFileResource = false;
+
   /**
    * Separate sequence and unsequence data or not. If it is false, then all data will be written
    * into unsequence data dir.
@@ -1059,6 +1148,7 @@ public class IoTDBConfig {
 
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
+  private int iotConsensusV2ReceiverMaxApplyBatchSize = 16;
   private String iotConsensusV2Mode = ConsensusFactory.IOT_CONSENSUS_V2_BATCH_MODE;
   private long tsFileWriterCheckInterval = TimeUnit.MINUTES.toMillis(5);
   private long tsFileWriterZombieThreshold = TimeUnit.MINUTES.toMillis(10);
@@ -1096,6 +1186,10 @@ public class IoTDBConfig {
 
   private int loadTsFileRetryCountOnRegionChange = 10;
 
+  // the max number of TsFiles of one load that are split and dispatched in parallel
+  private int loadTsFileSchedulerParallelism =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
   private double loadWriteThroughputBytesPerSecond = -1; // Bytes/s
 
   private long loadTabletConversionThresholdBytes = -1;
@@ -1201,6 +1295,15 @@ public class IoTDBConfig {
     this.iotConsensusV2PipelineSize = iotConsensusV2PipelineSize;
   }
 
+  public int getIotConsensusV2ReceiverMaxApplyBatchSize() {
+    return iotConsensusV2ReceiverMaxApplyBatchSize;
+  }
+
+  public void setIotConsensusV2ReceiverMaxApplyBatchSize(
+      int iotConsensusV2ReceiverMaxApplyBatchSize) {
+    this.iotConsensusV2ReceiverMaxApplyBatchSize = iotConsensusV2ReceiverMaxApplyBatchSize;
+  }
+
   public long getTsFileWriterCheckInterval() {
     return tsFileWriterCheckInterval;
   }
@@ -1740,6 +1843,14 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getMinDeviceNumOfTableScanPipeline() {
+    return minDeviceNumOfTableScanPipeline;
+  }
+
+  public void setMinDeviceNumOfTableScanPipeline(int minDeviceNumOfTableScanPipeline) {
+    this.minDeviceNumOfTableScanPipeline = minDeviceNumOfTableScanPipeline;
+  }
+
   public void setMergeThresholdOfExplainAnalyze(int mergeThresholdOfExplainAnalyze) {
     this.mergeThresholdOfExplainAnalyze = mergeThresholdOfExplainAnalyze;
   }
@@ -1858,6 +1969,14 @@ public class IoTDBConfig {
     this.sessionTimeoutThreshold = sessionTimeoutThreshold;
   }
 
+  public int getMaxPreparedInsertTabletNumPerSession() {
+    return maxPreparedInsertTabletNumPerSession;
+  }
+
+  public void setMaxPreparedInsertTabletNumPerSession(int maxPreparedInsertTabletNumPerSession) {
+    this.maxPreparedInsertTabletNumPerSession = maxPreparedInsertTabletNumPerSession;
+  }
+
   public String getRpcImplClassName() {
     return rpcImplClassName;
   }
@@ -1874,6 +1993,18 @@ public class IoTDBConfig {
     this.walMode = walMode;
   }
 
+  public Set<String> getWalFreeDatabases() {
+    return walFreeDatabases;
+  }
+
+  public void setWalFreeDatabases(Set<String> walFreeDatabases) {
+    this.walFreeDatabases = walFreeDatabases;
+  }
+
+  public boolean isWalFreeDatabase(String databaseName) {
+    return walFreeDatabases.contains(databaseName);
+  }
+
   public int getMaxWalNodesNum() {
     return maxWalNodesNum;
   }
@@ -1906,6 +2037,14 @@ public class IoTDBConfig {
     this.walBufferSize = walBufferSize;
   }
 
+  public int getWalRecoverThreadCount() {
+    return walRecoverThreadCount;
+  }
+
+  public void setWalRecoverThreadCount(int walRecoverThreadCount) {
+    this.walRecoverThreadCount = walRecoverThreadCount;
+  }
+
   public int getDeletionAheadLogBufferQueueCapacity() {
     return deletionAheadLogBufferQueueCapacity;
   }
@@ -2035,6 +2174,15 @@ public class IoTDBConfig {
     this.compactionMaxAlignedSeriesNumInOneBatch = compactionMaxAlignedSeriesNumInOneBatch;
   }
 
+  public boolean isEnablePageStreamingInAlignedCompaction() {
+    return enablePageStreamingInAlignedCompaction;
+  }
+
+  public void setEnablePageStreamingInAlignedCompaction(
+      boolean enablePageStreamingInAlignedCompaction) {
+    this.enablePageStreamingInAlignedCompaction = enablePageStreamingInAlignedCompaction;
+  }
+
   public int getContinuousQueryThreadNum() {
     return continuousQueryThreadNum;
   }
@@ -2099,6 +2247,22 @@ public class IoTDBConfig {
     this.compactionReadOperationPerSec = compactionReadOperationPerSec;
   }
 
+  public boolean isEnableAdaptiveIOScheduling() {
+    return enableAdaptiveIOScheduling;
+  }
+
+  public void setEnableAdaptiveIOScheduling(boolean enableAdaptiveIOScheduling) {
+    this.enableAdaptiveIOScheduling = enableAdaptiveIOScheduling;
+  }
+
+  public long getIoSchedulingQueryLatencyThresholdInMs() {
+    return ioSchedulingQueryLatencyThresholdInMs;
+  }
+
+  public void setIoSchedulingQueryLatencyThresholdInMs(long ioSchedulingQueryLatencyThresholdInMs) {
+    this.ioSchedulingQueryLatencyThresholdInMs = ioSchedulingQueryLatencyThresholdInMs;
+  }
+
   public boolean isEnableTimedFlushSeqMemtable() {
     return enableTimedFlushSeqMemtable;
   }
@@ -2163,6 +2327,14 @@ public class IoTDBConfig {
     this.tvListSortThreshold = tvListSortThreshold;
   }
 
+  public int getMemTableTextDictionaryMaxSize() {
+    return memTableTextDictionaryMaxSize;
+  }
+
+  public void setMemTableTextDictionaryMaxSize(int memTableTextDictionaryMaxSize) {
+    this.memTableTextDictionaryMaxSize = memTableTextDictionaryMaxSize;
+  }
+
   public boolean isRpcThriftCompressionEnable() {
     return rpcThriftCompressionEnable;
   }
@@ -2563,6 +2735,14 @@ public class IoTDBConfig {
     this.slowQueryThreshold = slowQueryThreshold;
   }
 
+  public int getQueryProfileBufferSize() {
+    return queryProfileBufferSize;
+  }
+
+  public void setQueryProfileBufferSize(int queryProfileBufferSize) {
+    this.queryProfileBufferSize = queryProfileBufferSize;
+  }
+
   public boolean isEnableIndex() {
     return enableIndex;
   }
@@ -2611,6 +2791,14 @@ public class IoTDBConfig {
     this.recoveryLogIntervalInMs = recoveryLogIntervalInMs;
   }
 
+  public boolean isEnableLazyLoadTsFileResource() {
+    return enableLazyLoadTsFileResource;
+  }
+
+  public void setEnableLazyLoadTsFileResource(boolean enableLazyLoadTsFileResource) {
+    this.enableLazyLoadTsFileResource = enableLazyLoadTsFileResource;
+  }
+
   public boolean isRpcAdvancedCompressionEnable() {
     return rpcAdvancedCompressionEnable;
   }
@@ -2684,6 +2872,30 @@ public class IoTDBConfig {
     this.enableAutoRepairCompaction = enableAutoRepairCompaction;
   }
 
+  public boolean isEnableTierMigration() {
+    return enableTierMigration;
+  }
+
+  public void setEnableTierMigration(boolean enableTierMigration) {
+    this.enableTierMigration = enableTierMigration;
+  }
+
+  public long getTierMigrationMinIdleTimeInMs() {
+    return tierMigrationMinIdleTimeInMs;
+  }
+
+  public void setTierMigrationMinIdleTimeInMs(long tierMigrationMinIdleTimeInMs) {
+    this.tierMigrationMinIdleTimeInMs = tierMigrationMinIdleTimeInMs;
+  }
+
+  public CompressionType getTierMigrationCompressor() {
+    return tierMigrationCompressor;
+  }
+
+  public void setTierMigrationCompressor(CompressionType tierMigrationCompressor) {
+    this.tierMigrationCompressor = tierMigrationCompressor;
+  }
+
   public InnerSequenceCompactionSelector getInnerSequenceCompactionSelector() {
     return innerSequenceCompactionSelector;
   }
@@ -2801,6 +3013,30 @@ public class IoTDBConfig {
     this.targetChunkPointNum = targetChunkPointNum;
   }
 
+  public boolean isEnableSeriesSketch() {
+    return enableSeriesSketch;
+  }
+
+  public void setEnableSeriesSketch(boolean enableSeriesSketch) {
+    this.enableSeriesSketch = enableSeriesSketch;
+  }
+
+  public long getSeriesSketchMaxSizePerFileInByte() {
+    return seriesSketchMaxSizePerFileInByte;
+  }
+
+  public void setSeriesSketchMaxSizePerFileInByte(long seriesSketchMaxSizePerFileInByte) {
+    this.seriesSketchMaxSizePerFileInByte = seriesSketchMaxSizePerFileInByte;
+  }
+
+  public long getSeriesSketchCacheSizeInByte() {
+    return seriesSketchCacheSizeInByte;
+  }
+
+  public void setSeriesSketchCacheSizeInByte(long seriesSketchCacheSizeInByte) {
+    this.seriesSketchCacheSizeInByte = seriesSketchCacheSizeInByte;
+  }
+
   public long getChunkPointNumLowerBoundInCompaction() {
     return chunkPointNumLowerBoundInCompaction;
   }
@@ -3853,6 +4089,14 @@ public class IoTDBConfig {
     this.loadTsFileRetryCountOnRegionChange = loadTsFileRetryCountOnRegionChange;
   }
 
+  public int getLoadTsFileSchedulerParallelism() {
+    return loadTsFileSchedulerParallelism;
+  }
+
+  public void setLoadTsFileSchedulerParallelism(int loadTsFileSchedulerParallelism) {
+    this.loadTsFileSchedulerParallelism = loadTsFileSchedulerParallelism;
+  }
+
   public double getLoadWriteThroughputBytesPerSecond() {
     return loadWriteThroughputBytesPerSecond;
   }
@@ -4014,6 +4258,14 @@ public class IoTDBConfig {
     return sortBufferSize;
   }
 
+  public long getWindowPartitionBufferSize() {
+    return windowPartitionBufferSize;
+  }
+
+  public void setWindowPartitionBufferSize(long windowPartitionBufferSize) {
+    this.windowPartitionBufferSize = windowPartitionBufferSize;
+  }
+
   public void setSortTmpDir(String sortTmpDir) {
     this.sortTmpDir = sortTmpDir;
   }
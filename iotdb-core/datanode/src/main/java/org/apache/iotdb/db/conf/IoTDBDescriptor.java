@@ -93,6 +93,7 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class IoTDBDescriptor {
 
@@ -370,6 +371,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_threshold", Integer.toString(conf.getTvListSortThreshold()))));
 
+    conf.setMemTableTextDictionaryMaxSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "memtable_text_dictionary_max_size",
+                Integer.toString(conf.getMemTableTextDictionaryMaxSize()))));
+
     conf.setCheckPeriodWhenInsertBlocked(
         Integer.parseInt(
             properties.getProperty(
@@ -405,6 +412,8 @@ public class IoTDBDescriptor {
                 "enable_auto_repair_compaction",
                 Boolean.toString(conf.isEnableAutoRepairCompaction()))));
 
+    loadTierMigrationProps(properties);
+
     conf.setEnableCrossSpaceCompaction(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -487,6 +496,12 @@ public class IoTDBDescriptor {
                 "dn_session_timeout_threshold",
                 Integer.toString(conf.getSessionTimeoutThreshold()))));
 
+    conf.setMaxPreparedInsertTabletNumPerSession(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_prepared_insert_tablet_num_per_session",
+                Integer.toString(conf.getMaxPreparedInsertTabletNumPerSession()))));
+
     conf.setFlushThreadCount(
         Integer.parseInt(
             properties.getProperty(
@@ -528,6 +543,12 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Runtime.getRuntime().availableProcessors() / 2);
     }
 
+    conf.setMinDeviceNumOfTableScanPipeline(
+        Integer.parseInt(
+            properties.getProperty(
+                "min_device_num_of_table_scan_pipeline",
+                Integer.toString(conf.getMinDeviceNumOfTableScanPipeline()))));
+
     conf.setMergeThresholdOfExplainAnalyze(
         Integer.parseInt(
             properties.getProperty(
@@ -585,6 +606,11 @@ public class IoTDBDescriptor {
         maxConcurrentAlignedSeriesInCompaction <= 0
             ? Integer.MAX_VALUE
             : maxConcurrentAlignedSeriesInCompaction);
+    conf.setEnablePageStreamingInAlignedCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_page_streaming_in_aligned_compaction",
+                Boolean.toString(conf.isEnablePageStreamingInAlignedCompaction()))));
     conf.setChunkMetadataSizeProportion(
         Double.parseDouble(
             properties.getProperty(
@@ -623,6 +649,23 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "target_chunk_point_num", Long.toString(conf.getTargetChunkPointNum()))));
 
+    conf.setEnableSeriesSketch(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_series_sketch", String.valueOf(conf.isEnableSeriesSketch()))));
+
+    conf.setSeriesSketchMaxSizePerFileInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "series_sketch_max_size_per_file_in_byte",
+                Long.toString(conf.getSeriesSketchMaxSizePerFileInByte()))));
+
+    conf.setSeriesSketchCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "series_sketch_cache_size_in_byte",
+                Long.toString(conf.getSeriesSketchCacheSizeInByte()))));
+
     conf.setChunkPointNumLowerBoundInCompaction(
         Long.parseLong(
             properties.getProperty(
@@ -677,6 +720,18 @@ public class IoTDBDescriptor {
                 "compaction_read_operation_per_sec",
                 Integer.toString(conf.getCompactionReadOperationPerSec()))));
 
+    conf.setEnableAdaptiveIOScheduling(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_io_scheduling",
+                String.valueOf(conf.isEnableAdaptiveIOScheduling()))));
+
+    conf.setIoSchedulingQueryLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "io_scheduling_query_latency_threshold_in_ms",
+                Long.toString(conf.getIoSchedulingQueryLatencyThresholdInMs()))));
+
     conf.setEnableTsFileValidation(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -814,6 +869,11 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "slow_query_threshold", String.valueOf(conf.getSlowQueryThreshold()))));
 
+    conf.setQueryProfileBufferSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "query_profile_buffer_size", String.valueOf(conf.getQueryProfileBufferSize()))));
+
     conf.setDataRegionNum(
         Integer.parseInt(
             properties.getProperty("data_region_num", String.valueOf(conf.getDataRegionNum()))));
@@ -823,6 +883,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "recovery_log_interval_in_ms", String.valueOf(conf.getRecoveryLogIntervalInMs()))));
 
+    conf.setEnableLazyLoadTsFileResource(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_lazy_load_tsfile_resource",
+                String.valueOf(conf.isEnableLazyLoadTsFileResource()))));
+
     conf.setEnableSeparateData(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1028,6 +1094,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "sort_buffer_size_in_bytes", Long.toString(conf.getSortBufferSize()))));
 
+    conf.setWindowPartitionBufferSize(
+        Long.parseLong(
+            properties.getProperty(
+                "window_partition_buffer_size_in_bytes",
+                Long.toString(conf.getWindowPartitionBufferSize()))));
+
     // tmp filePath for sort operator
     conf.setSortTmpDir(properties.getProperty("sort_tmp_dir", conf.getSortTmpDir()));
 
@@ -1134,6 +1206,14 @@ public class IoTDBDescriptor {
     if (conf.getIotConsensusV2PipelineSize() <= 0) {
       conf.setIotConsensusV2PipelineSize(5);
     }
+    conf.setIotConsensusV2ReceiverMaxApplyBatchSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "iot_consensus_v2_receiver_max_apply_batch_size",
+                String.valueOf(conf.getIotConsensusV2ReceiverMaxApplyBatchSize()))));
+    if (conf.getIotConsensusV2ReceiverMaxApplyBatchSize() <= 0) {
+      conf.setIotConsensusV2ReceiverMaxApplyBatchSize(1);
+    }
     conf.setIotConsensusV2Mode(
         properties.getProperty(
             "iot_consensus_v2_mode", PipeConsensusConfig.ReplicateMode.BATCH.getValue()));
@@ -1180,6 +1260,15 @@ public class IoTDBDescriptor {
     conf.setWalMode(
         WALMode.valueOf((properties.getProperty("wal_mode", conf.getWalMode().toString()))));
 
+    conf.setWalFreeDatabases(
+        Arrays.stream(
+                properties
+                    .getProperty("wal_free_databases", String.join(",", conf.getWalFreeDatabases()))
+                    .split(","))
+            .map(String::trim)
+            .filter(database -> !database.isEmpty())
+            .collect(Collectors.toSet()));
+
     int maxWalNodesNum =
         Integer.parseInt(
             properties.getProperty(
@@ -1196,6 +1285,14 @@ public class IoTDBDescriptor {
       conf.setWalBufferSize(walBufferSize);
     }
 
+    int walRecoverThreadCount =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_recover_thread_count", Integer.toString(conf.getWalRecoverThreadCount())));
+    if (walRecoverThreadCount > 0) {
+      conf.setWalRecoverThreadCount(walRecoverThreadCount);
+    }
+
     boolean WALInsertNodeCacheShrinkClearEnabled =
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1247,6 +1344,30 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "enable_auto_repair_compaction",
                 Boolean.toString(conf.isEnableAutoRepairCompaction()))));
+
+    loadTierMigrationProps(properties);
+  }
+
+  private void loadTierMigrationProps(TrimProperties properties) {
+    conf.setEnableTierMigration(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tier_migration", Boolean.toString(conf.isEnableTierMigration()))));
+    conf.setTierMigrationMinIdleTimeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "tier_migration_min_idle_time_in_ms",
+                Long.toString(conf.getTierMigrationMinIdleTimeInMs()))));
+    String tierMigrationCompressor =
+        properties.getProperty(
+            "tier_migration_compressor",
+            conf.getTierMigrationCompressor() == null
+                ? ""
+                : conf.getTierMigrationCompressor().name());
+    conf.setTierMigrationCompressor(
+        tierMigrationCompressor.trim().isEmpty()
+            ? null
+            : CompressionType.valueOf(tierMigrationCompressor.trim().toUpperCase()));
   }
 
   private boolean loadCompactionTaskHotModifiedProps(TrimProperties properties) throws IOException {
@@ -1447,6 +1568,18 @@ public class IoTDBDescriptor {
     configModified |=
         compactionMaxAlignedSeriesNumInOneBatch
             != conf.getCompactionMaxAlignedSeriesNumInOneBatch();
+
+    // update enable_page_streaming_in_aligned_compaction
+    boolean enablePageStreamingInAlignedCompaction =
+        conf.isEnablePageStreamingInAlignedCompaction();
+    conf.setEnablePageStreamingInAlignedCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_page_streaming_in_aligned_compaction",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "enable_page_streaming_in_aligned_compaction"))));
+    configModified |=
+        enablePageStreamingInAlignedCompaction != conf.isEnablePageStreamingInAlignedCompaction();
     return configModified;
   }
 
@@ -1989,6 +2122,20 @@ public class IoTDBDescriptor {
       // update load config
       loadLoadTsFileHotModifiedProp(properties);
 
+      // update io scheduling config
+      conf.setEnableAdaptiveIOScheduling(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_adaptive_io_scheduling",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "enable_adaptive_io_scheduling"))));
+      conf.setIoSchedulingQueryLatencyThresholdInMs(
+          Long.parseLong(
+              properties.getProperty(
+                  "io_scheduling_query_latency_threshold_in_ms",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "io_scheduling_query_latency_threshold_in_ms"))));
+
       // update pipe config
       loadPipeHotModifiedProp(properties);
 
@@ -2198,6 +2345,13 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "load_tsfile_retry_count_on_region_change",
                 String.valueOf(conf.getLoadTsFileRetryCountOnRegionChange()))));
+    conf.setLoadTsFileSchedulerParallelism(
+        Math.max(
+            1,
+            Integer.parseInt(
+                properties.getProperty(
+                    "load_tsfile_scheduler_parallelism",
+                    String.valueOf(conf.getLoadTsFileSchedulerParallelism())))));
     conf.setLoadWriteThroughputBytesPerSecond(
         Double.parseDouble(
             properties.getProperty(
@@ -43,6 +43,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.function.Supplier;
 
 public class IoTDBStartCheck {
@@ -222,6 +223,9 @@ public class IoTDBStartCheck {
     // read properties from system.properties
     properties = systemPropertiesHandler.read();
 
+    checkWALFreeDatabases(
+        config.getDataRegionConsensusProtocolClass(), config.getWalFreeDatabases());
+
     if (systemPropertiesHandler.isFirstStart()) {
       if ((config.getDataRegionConsensusProtocolClass().equals(ConsensusFactory.IOT_CONSENSUS)
               || (config
@@ -251,6 +255,21 @@ public class IoTDBStartCheck {
     }
   }
 
+  /**
+   * The unflushed data of WAL-free databases is only protected by the Raft log of RatisConsensus,
+   * the other protocols either have no replica or replicate the data via the wal and the realtime
+   * insert events, which are skipped for WAL-free databases.
+   */
+  static void checkWALFreeDatabases(
+      String dataRegionConsensusProtocolClass, Set<String> walFreeDatabases)
+      throws ConfigurationException {
+    if (!walFreeDatabases.isEmpty()
+        && !ConsensusFactory.RATIS_CONSENSUS.equals(dataRegionConsensusProtocolClass)) {
+      throw new ConfigurationException(
+          "Configuring wal_free_databases is only supported under RatisConsensus");
+    }
+  }
+
   /** repair broken properties */
   private void upgradePropertiesFileFromBrokenFile() throws IOException {
     systemProperties.forEach(
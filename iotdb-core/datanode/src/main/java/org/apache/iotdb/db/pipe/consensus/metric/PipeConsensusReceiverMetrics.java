@@ -25,6 +25,7 @@ import org.apache.iotdb.db.pipe.receiver.protocol.pipeconsensus.PipeConsensusRec
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -42,6 +43,7 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
   private Timer receiveWALTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer receiveTsFileTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer receiveEventTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Histogram applyBatchSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
   private static final String RECEIVER = "pipeConsensusReceiver";
 
@@ -89,11 +91,16 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
     receiveEventTimer.updateNanos(costTimeInNanos);
   }
 
+  public void recordApplyBatchSize(int batchSize) {
+    applyBatchSizeHistogram.update(batchSize);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindAutoGauge(metricService);
     bindStageTimer(metricService);
     bindReceiveTimer(metricService);
+    bindApplyBatchSize(metricService);
   }
 
   @Override
@@ -101,6 +108,7 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
     unbindAutoGauge(metricService);
     unbindStageTimer(metricService);
     unbindReceiveTimer(metricService);
+    unbindApplyBatchSize(metricService);
   }
 
   public void bindAutoGauge(AbstractMetricService metricService) {
@@ -137,6 +145,17 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
         pipeConsensusReceiver.getConsensusGroupIdStr(),
         Tag.TYPE.toString(),
         "tsFileEventCount");
+    metricService.createAutoGauge(
+        Metric.PIPE_RECEIVE_EVENT.toString(),
+        MetricLevel.IMPORTANT,
+        pipeConsensusReceiver,
+        PipeConsensusReceiver::getReplicaLag,
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.REGION.toString(),
+        pipeConsensusReceiver.getConsensusGroupIdStr(),
+        Tag.TYPE.toString(),
+        "replicaLag");
   }
 
   public void bindStageTimer(AbstractMetricService metricService) {
@@ -273,6 +292,15 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
         pipeConsensusReceiver.getConsensusGroupIdStr(),
         Tag.TYPE.toString(),
         "tsFileEventCount");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.PIPE_RECEIVE_EVENT.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.REGION.toString(),
+        pipeConsensusReceiver.getConsensusGroupIdStr(),
+        Tag.TYPE.toString(),
+        "replicaLag");
   }
 
   public void unbindStageTimer(AbstractMetricService metricService) {
@@ -381,4 +409,30 @@ public class PipeConsensusReceiverMetrics implements IMetricSet {
         Tag.TYPE.toString(),
         "receiveEvent");
   }
+
+  public void bindApplyBatchSize(AbstractMetricService metricService) {
+    applyBatchSizeHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.PIPE_RECEIVE_EVENT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            RECEIVER,
+            Tag.REGION.toString(),
+            pipeConsensusReceiver.getConsensusGroupIdStr(),
+            Tag.TYPE.toString(),
+            "applyBatchSize");
+  }
+
+  public void unbindApplyBatchSize(AbstractMetricService metricService) {
+    applyBatchSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    metricService.remove(
+        MetricType.HISTOGRAM,
+        Metric.PIPE_RECEIVE_EVENT.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.REGION.toString(),
+        pipeConsensusReceiver.getConsensusGroupIdStr(),
+        Tag.TYPE.toString(),
+        "applyBatchSize");
+  }
 }
@@ -55,7 +55,11 @@ import org.apache.iotdb.db.pipe.connector.protocol.pipeconsensus.payload.request
 import org.apache.iotdb.db.pipe.consensus.metric.PipeConsensusReceiverMetrics;
 import org.apache.iotdb.db.pipe.event.common.tsfile.aggregator.TsFileInsertionPointCounter;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.AbstractDeleteDataNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertMultiTabletsNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -81,6 +85,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeSet;
@@ -94,6 +99,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class PipeConsensusReceiver {
@@ -331,6 +337,53 @@ public class PipeConsensusReceiver {
     return new TPipeConsensusTransferResp(impl.writeOnFollowerReplica(planNode));
   }
 
+  /**
+   * Deserializes the insert node carried by a tablet request, marked and indexed the same way as
+   * when the request is applied alone.
+   *
+   * @return null if the request does not carry an insert node
+   */
+  private InsertNode deserializeInsertNode(final TPipeConsensusTransferReq req) {
+    final InsertNode insertNode;
+    switch (PipeConsensusRequestType.valueOf(req.getType())) {
+      case TRANSFER_TABLET_INSERT_NODE:
+        insertNode =
+            PipeConsensusTabletInsertNodeReq.fromTPipeConsensusTransferReq(req).getInsertNode();
+        break;
+      case TRANSFER_TABLET_BINARY:
+        insertNode =
+            PipeConsensusTabletBinaryReq.fromTPipeConsensusTransferReq(req).convertToInsertNode();
+        break;
+      default:
+        return null;
+    }
+    if (insertNode == null) {
+      return null;
+    }
+    insertNode.markAsGeneratedByRemoteConsensusLeader();
+    insertNode.setProgressIndex(
+        ProgressIndexType.deserializeFrom(ByteBuffer.wrap(req.getProgressIndex())));
+    return insertNode;
+  }
+
+  private TPipeConsensusTransferResp loadInsertNode(
+      final TCommitId commitId, final InsertNode insertNode) {
+    if (isClosed.get()) {
+      return PipeConsensusReceiverAgent.closedResp(consensusPipeName.toString(), commitId);
+    }
+    try {
+      PipeConsensusServerImpl impl =
+          Optional.ofNullable(pipeConsensus.getImpl(consensusGroupId))
+              .orElseThrow(() -> new ConsensusGroupNotExistException(consensusGroupId));
+      return new TPipeConsensusTransferResp(impl.writeOnFollowerReplica(insertNode));
+    } catch (Exception e) {
+      final String error =
+          String.format("Failed to apply insert node during pipe receiving, %s", e);
+      LOGGER.warn("PipeConsensus-PipeName-{}: {}", consensusPipeName, error, e);
+      return new TPipeConsensusTransferResp(RpcUtils.getStatus(TSStatusCode.PIPE_ERROR, error));
+    }
+  }
+
   private TPipeConsensusTransferResp handleTransferFilePiece(
       final PipeConsensusTransferFilePieceReq req, final boolean isSingleFile) {
     tsFilePieceReadWriteLock.readLock().lock();
@@ -1408,6 +1461,7 @@ public class PipeConsensusReceiver {
     private final AtomicInteger WALEventCount = new AtomicInteger(0);
     private final AtomicInteger tsFileEventCount = new AtomicInteger(0);
     private volatile long onSyncedReplicateIndex = 0;
+    private volatile long maxReceivedReplicateIndex = 0;
     private volatile int connectorRebootTimes = 0;
     private volatile int pipeTaskRestartTimes = 0;
 
@@ -1494,7 +1548,19 @@ public class PipeConsensusReceiver {
         if (!isTransferTsFileSeal && !isTransferTsFilePiece) {
           WALEventCount.incrementAndGet();
         }
-        reqExecutionOrderBuffer.add(requestMeta);
+        final boolean isBatchable =
+            !isTransferTsFileSeal && !isTransferTsFilePiece && isBatchable(req);
+        if (isBatchable) {
+          // keep the request, so that it can be written in batch by the thread of a former one
+          requestMeta.setReq(req);
+        }
+        if (!reqExecutionOrderBuffer.add(requestMeta) && isBatchable) {
+          // The sender retries a tablet req which is still buffered. Go on with the buffered meta,
+          // because the req may have been written in the batch of a former req.
+          requestMeta = reqExecutionOrderBuffer.ceiling(requestMeta);
+        }
+        maxReceivedReplicateIndex =
+            Math.max(maxReceivedReplicateIndex, tCommitId.getReplicateIndex());
 
         // TsFilePieceTransferEvent will not enter further procedure, it just holds a place in
         // buffer. Only after the corresponding sealing event is processed, this event can be
@@ -1522,18 +1588,13 @@ public class PipeConsensusReceiver {
             metric.recordDispatchWaitingTimer(startApplyNanos - startDispatchNanos);
             requestMeta.setStartApplyNanos(startApplyNanos);
             // If current req is supposed to be process, load this event through
-            // DataRegionStateMachine.
-            TPipeConsensusTransferResp resp = loadEvent(req);
-
+            // DataRegionStateMachine, together with the following events that are already in
+            // order.
             // Only when event apply is successful and what is transmitted is not TsFilePiece, req
             // will be removed from the buffer and onSyncedCommitIndex will be updated. Because pipe
             // will transfer multi reqs with same commitId in a single TsFileInsertionEvent, only
             // when the last seal req is applied, we can discard this event.
-            if (resp != null
-                && resp.getStatus().getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-              onSuccess(tCommitId, isTransferTsFileSeal);
-            }
-            return resp;
+            return applyInOrder(requestMeta, req, isTransferTsFileSeal);
           }
 
           if (reqExecutionOrderBuffer.size() >= IOTDB_CONFIG.getIotConsensusV2PipelineSize()
@@ -1548,7 +1609,7 @@ public class PipeConsensusReceiver {
             metric.recordDispatchWaitingTimer(startApplyNanos - startDispatchNanos);
             requestMeta.setStartApplyNanos(startApplyNanos);
             // If the reqBuffer is full and its peek is hold by current thread, load this event.
-            TPipeConsensusTransferResp resp = loadEvent(req);
+            TPipeConsensusTransferResp resp = applyEvent(requestMeta, req);
 
             if (resp != null
                 && resp.getStatus().getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
@@ -1592,7 +1653,7 @@ public class PipeConsensusReceiver {
                   long startApplyNanos = System.nanoTime();
                   metric.recordDispatchWaitingTimer(startApplyNanos - startDispatchNanos);
                   requestMeta.setStartApplyNanos(startApplyNanos);
-                  TPipeConsensusTransferResp resp = loadEvent(req);
+                  TPipeConsensusTransferResp resp = applyEvent(requestMeta, req);
 
                   if (resp != null
                       && resp.getStatus().getCode()
@@ -1642,6 +1703,117 @@ public class PipeConsensusReceiver {
       }
     }
 
+    private boolean isBatchable(final TPipeConsensusTransferReq req) {
+      final short rawRequestType = req.getType();
+      return PipeConsensusRequestType.isValidatedRequestType(rawRequestType)
+          && (PipeConsensusRequestType.valueOf(rawRequestType)
+                  == PipeConsensusRequestType.TRANSFER_TABLET_INSERT_NODE
+              || PipeConsensusRequestType.valueOf(rawRequestType)
+                  == PipeConsensusRequestType.TRANSFER_TABLET_BINARY);
+    }
+
+    /**
+     * Apply the req at the peek of reqBuffer, which is the next one in order. The tablet reqs
+     * buffered right behind it with consecutive replicate indexes are merged into one insert node
+     * and written into the state machine at once, so that a lagging replica goes through the state
+     * machine and takes the insert lock of the data region once per batch instead of once per req.
+     * The WAL is not shared: DataRegion#insertTablets still writes one WAL entry per tablet, and
+     * rows are written in one WAL entry per TsFileProcessor. Each merged insert node keeps its own
+     * progress index.
+     *
+     * <p>Only the req at the peek is completed here. The other reqs written in the batch are
+     * marked, and their own threads complete them in order without writing them again.
+     */
+    private TPipeConsensusTransferResp applyInOrder(
+        final RequestMeta requestMeta,
+        final TPipeConsensusTransferReq req,
+        final boolean isTransferTsFileSeal) {
+      final List<RequestMeta> batch =
+          requestMeta.getReq() == null || reqExecutionOrderBuffer.first() != requestMeta
+              ? new ArrayList<>()
+              : collectBatch(
+                  reqExecutionOrderBuffer,
+                  IOTDB_CONFIG.getIotConsensusV2ReceiverMaxApplyBatchSize(),
+                  this::getOrDeserializeInsertNode);
+      final boolean isWrittenAlone = requestMeta.getReq() != null && !requestMeta.isWrittenInBatch();
+      final TPipeConsensusTransferResp resp =
+          batch.isEmpty() ? applyEvent(requestMeta, req) : applyBatch(batch, req.getCommitId());
+      if (resp != null
+          && resp.getStatus().getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        if (batch.isEmpty() && isWrittenAlone) {
+          metric.recordApplyBatchSize(1);
+        }
+        onSuccess(req.getCommitId(), isTransferTsFileSeal);
+      }
+      return resp;
+    }
+
+    /**
+     * Write the insert nodes of the batch as one merged node. The merged node records the status of
+     * each insert node that fails, so the others are never written again even if the batch fails.
+     *
+     * @return the response of the first req of the batch
+     */
+    private TPipeConsensusTransferResp applyBatch(
+        final List<RequestMeta> batch, final TCommitId commitId) {
+      final List<InsertNode> insertNodes =
+          batch.stream().map(RequestMeta::getInsertNode).collect(Collectors.toList());
+      final InsertNode mergedNode = insertNodes.get(0).mergeInsertNode(insertNodes);
+      mergedNode.markAsGeneratedByRemoteConsensusLeader();
+      if (mergedNode instanceof InsertRowsNode) {
+        insertNodes.forEach(
+            insertNode ->
+                ((InsertRowsNode) mergedNode).updateProgressIndex(insertNode.getProgressIndex()));
+      }
+
+      final TPipeConsensusTransferResp resp = loadInsertNode(commitId, mergedNode);
+      metric.recordApplyBatchSize(batch.size());
+      if (resp.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOGGER.info(
+            "PipeConsensus-PipeName-{}: failed to apply {} events in batch from no.{} event, response status = {}, the failed ones will be applied alone.",
+            consensusPipeName,
+            batch.size(),
+            commitId,
+            resp.getStatus());
+      }
+      return new TPipeConsensusTransferResp(
+          markWrittenInBatch(batch, mergedNode, resp.getStatus()));
+    }
+
+    private InsertNode getOrDeserializeInsertNode(final RequestMeta meta) {
+      if (meta.getInsertNode() != null) {
+        return meta.getInsertNode();
+      }
+      final ByteBuffer body = meta.getReq().body;
+      final int position = body.position();
+      try {
+        meta.setInsertNode(deserializeInsertNode(meta.getReq()));
+      } catch (Exception e) {
+        LOGGER.debug(
+            "PipeConsensus-PipeName-{}: failed to deserialize no.{} event for batch applying.",
+            consensusPipeName,
+            meta.commitId,
+            e);
+      }
+      if (meta.getInsertNode() == null) {
+        // let the req be applied alone later, which reports the error as usual
+        body.position(position);
+      }
+      return meta.getInsertNode();
+    }
+
+    private TPipeConsensusTransferResp applyEvent(
+        final RequestMeta requestMeta, final TPipeConsensusTransferReq req) {
+      if (requestMeta.isWrittenInBatch()) {
+        // Written in the batch of a former req, only the progress is left to be updated
+        return new TPipeConsensusTransferResp(RpcUtils.SUCCESS_STATUS);
+      }
+      // The body of the req has been consumed if it has been deserialized for a batch before
+      return requestMeta.getInsertNode() != null
+          ? loadInsertNode(req.getCommitId(), requestMeta.getInsertNode())
+          : loadEvent(req);
+    }
+
     /**
      * Reset all data to initial status and set connectorRebootTimes properly. This method is called
      * when receiver identifies connector has rebooted.
@@ -1697,6 +1869,7 @@ public class PipeConsensusReceiver {
         if (resetSyncIndex) {
           this.onSyncedReplicateIndex = 0;
         }
+        this.maxReceivedReplicateIndex = this.onSyncedReplicateIndex;
         if (cleanBaseDir) {
           clearAllReceiverBaseDir();
         }
@@ -1735,14 +1908,115 @@ public class PipeConsensusReceiver {
     }
   }
 
-  private static class RequestMeta {
+  /**
+   * Collect the tablet reqs at the head of the buffer that can be written in one batch. They must
+   * have consecutive replicate indexes and carry insert nodes of the same kind in the tree model. A
+   * TsFile, deletion or table model req, a gap of replicate indexes or a req already written in a
+   * former batch ends the batch.
+   *
+   * @return an empty list if the first req can not be written together with any following req
+   */
+  static List<RequestMeta> collectBatch(
+      final Iterable<RequestMeta> buffer,
+      final int maxBatchSize,
+      final Function<RequestMeta, InsertNode> insertNodeGetter) {
+    final List<RequestMeta> batch = new ArrayList<>();
+    if (maxBatchSize <= 1) {
+      return batch;
+    }
+    Class<?> batchNodeClass = null;
+    for (final RequestMeta meta : buffer) {
+      if (batch.size() >= maxBatchSize || meta.getReq() == null || meta.isWrittenInBatch()) {
+        break;
+      }
+      if (!batch.isEmpty()) {
+        final RequestMeta last = batch.get(batch.size() - 1);
+        if (meta.getDataNodeRebootTimes() != last.getDataNodeRebootTimes()
+            || meta.getPipeTaskRestartTimes() != last.getPipeTaskRestartTimes()
+            || meta.getReplicateIndex() != last.getReplicateIndex() + 1) {
+          break;
+        }
+      }
+      final InsertNode insertNode = insertNodeGetter.apply(meta);
+      if (insertNode == null
+          || (insertNode.getClass() != InsertTabletNode.class
+              && insertNode.getClass() != InsertRowNode.class)
+          || (batchNodeClass != null && insertNode.getClass() != batchNodeClass)) {
+        break;
+      }
+      batchNodeClass = insertNode.getClass();
+      batch.add(meta);
+    }
+    return batch.size() > 1 ? batch : new ArrayList<>();
+  }
+
+  /**
+   * Mark the reqs whose insert nodes have been written by the merged node of the batch. A merged
+   * node which fails records the status of each insert node that fails, the others have been
+   * written. If no status is recorded, the batch fails as a whole, or is rejected after the results
+   * are cleared for the retry of consensus. In that case nothing is marked and each req is applied
+   * alone, which writes the same points again if some of them have been written before the reject.
+   *
+   * @return the status of the first req of the batch
+   */
+  static TSStatus markWrittenInBatch(
+      final List<RequestMeta> batch, final InsertNode mergedNode, final TSStatus status) {
+    if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      batch.forEach(meta -> meta.setWrittenInBatch(true));
+      return status;
+    }
+    final Map<Integer, TSStatus> results =
+        mergedNode instanceof InsertMultiTabletsNode
+            ? ((InsertMultiTabletsNode) mergedNode).getResults()
+            : ((InsertRowsNode) mergedNode).getResults();
+    if (results.isEmpty()) {
+      return status;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      if (!results.containsKey(i)) {
+        batch.get(i).setWrittenInBatch(true);
+      }
+    }
+    return results.getOrDefault(0, RpcUtils.SUCCESS_STATUS);
+  }
+
+  static class RequestMeta {
     private final TCommitId commitId;
     private long startApplyNanos = 0;
 
-    public RequestMeta(TCommitId commitId) {
+    // Only kept for the tablet reqs, which may be written in batch. Guarded by the executor lock.
+    private TPipeConsensusTransferReq req;
+    private InsertNode insertNode;
+    private boolean isWrittenInBatch;
+
+    RequestMeta(TCommitId commitId) {
       this.commitId = commitId;
     }
 
+    public TPipeConsensusTransferReq getReq() {
+      return req;
+    }
+
+    public void setReq(TPipeConsensusTransferReq req) {
+      this.req = req;
+    }
+
+    public InsertNode getInsertNode() {
+      return insertNode;
+    }
+
+    public void setInsertNode(InsertNode insertNode) {
+      this.insertNode = insertNode;
+    }
+
+    public boolean isWrittenInBatch() {
+      return isWrittenInBatch;
+    }
+
+    public void setWrittenInBatch(boolean isWrittenInBatch) {
+      this.isWrittenInBatch = isWrittenInBatch;
+    }
+
     public int getDataNodeRebootTimes() {
       return commitId.getDataNodeRebootTimes();
     }
@@ -1802,6 +2076,13 @@ public class PipeConsensusReceiver {
     return this.requestExecutor.tsFileEventCount.get();
   }
 
+  public long getReplicaLag() {
+    return Math.max(
+        0,
+        this.requestExecutor.maxReceivedReplicateIndex
+            - this.requestExecutor.onSyncedReplicateIndex);
+  }
+
   public String getConsensusGroupIdStr() {
     return consensusGroupId.toString();
   }
@@ -25,6 +25,8 @@ import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -162,10 +164,14 @@ public class PipeTsFileResourceManager {
 
       // If the file is a tsfile, create a hardlink in pipe dir and will return it.
       // otherwise, copy the file (.mod or .resource) to pipe dir and will return it.
-      final File resultFile =
-          isTsFile
-              ? FileUtils.createHardLink(file, hardlinkOrCopiedFile)
-              : FileUtils.copyFile(file, hardlinkOrCopiedFile);
+      final File resultFile;
+      if (isTsFile) {
+        resultFile = FileUtils.createHardLink(file, hardlinkOrCopiedFile);
+      } else {
+        // only the copy reads and writes the data, the hardlink doesn't
+        IOScheduler.getInstance().getDiskIOScheduler(file).acquire(IOClass.PIPE, file.length());
+        resultFile = FileUtils.copyFile(file, hardlinkOrCopiedFile);
+      }
 
       // If the file is not a hardlink or copied file, and there is no related hardlink or copied
       // file in pipe dir, create a hardlink or copy it to pipe dir, maintain a reference count for
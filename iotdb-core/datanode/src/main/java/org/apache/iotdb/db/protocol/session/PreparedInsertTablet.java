@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.session;
+
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A tablet layout registered by a client through prepareInsertTablet. Once a write of this layout
+ * has gone through the normal analysis path, the validated measurement schemas and the data
+ * partition of the device are kept here so that later writes with the same layout can be sent to
+ * the local data regions directly.
+ */
+public class PreparedInsertTablet {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final long preparedId;
+  private final long sessionId;
+
+  private final String prefixPath;
+  private final List<String> measurements;
+  private final List<Integer> types;
+  private final boolean isAligned;
+
+  private volatile ResolvedSchema resolvedSchema;
+  private volatile ResolvedRouting resolvedRouting;
+
+  public PreparedInsertTablet(
+      long preparedId,
+      long sessionId,
+      String prefixPath,
+      List<String> measurements,
+      List<Integer> types,
+      boolean isAligned) {
+    this.preparedId = preparedId;
+    this.sessionId = sessionId;
+    this.prefixPath = prefixPath;
+    this.measurements = measurements;
+    this.types = types;
+    this.isAligned = isAligned;
+  }
+
+  public long getPreparedId() {
+    return preparedId;
+  }
+
+  public long getSessionId() {
+    return sessionId;
+  }
+
+  /** Whether the request carries exactly the layout this handle was prepared with. */
+  public boolean matches(TSInsertTabletReq req) {
+    return !req.isWriteToTable()
+        && req.isIsAligned() == isAligned
+        && prefixPath.equals(req.getPrefixPath())
+        && measurements.equals(req.getMeasurements())
+        && types.equals(req.getTypes());
+  }
+
+  public ResolvedSchema getResolvedSchema() {
+    return resolvedSchema;
+  }
+
+  /**
+   * Record the schema validated by the normal analysis path. Nothing is recorded if the statement
+   * needed any adjustment (failed measurements, logical views or type conversion), since such
+   * writes can not be replayed without analysis.
+   *
+   * @param epoch the schema epoch observed before the statement was analyzed
+   */
+  public void resolveSchema(InsertTabletStatement statement, long epoch) {
+    final MeasurementSchema[] measurementSchemas = statement.getMeasurementSchemas();
+    if (measurementSchemas == null
+        || statement.hasFailedMeasurements()
+        || statement.hasLogicalViewNeedProcess()) {
+      return;
+    }
+    final TSDataType[] dataTypes = statement.getDataTypes();
+    for (int i = 0; i < measurementSchemas.length; i++) {
+      if (measurementSchemas[i] == null
+          || dataTypes[i] == null
+          || dataTypes[i] != TSDataType.deserialize((byte) types.get(i).intValue())) {
+        return;
+      }
+    }
+    resolvedSchema = new ResolvedSchema(measurementSchemas.clone(), statement.isAligned(), epoch);
+  }
+
+  public ResolvedRouting getResolvedRouting() {
+    return resolvedRouting;
+  }
+
+  public synchronized void mergeRouting(
+      DataPartition dataPartition, List<TTimePartitionSlot> timePartitionSlots, long epoch) {
+    final ResolvedRouting current = resolvedRouting;
+    if (current == null || current.epoch != epoch) {
+      resolvedRouting =
+          new ResolvedRouting(dataPartition, new HashSet<>(timePartitionSlots), epoch);
+      return;
+    }
+    final Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
+        mergedMap = new HashMap<>();
+    mergeInto(mergedMap, current.dataPartition.getDataPartitionMap());
+    mergeInto(mergedMap, dataPartition.getDataPartitionMap());
+    final DataPartition merged =
+        new DataPartition(
+            mergedMap,
+            CONFIG.getSeriesPartitionExecutorClass(),
+            CONFIG.getSeriesPartitionSlotNum());
+    final Set<TTimePartitionSlot> slots = new HashSet<>(current.timePartitionSlots);
+    slots.addAll(timePartitionSlots);
+    resolvedRouting = new ResolvedRouting(merged, slots, epoch);
+  }
+
+  private static void mergeInto(
+      Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
+          target,
+      Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
+          source) {
+    source.forEach(
+        (database, seriesSlotMap) ->
+            seriesSlotMap.forEach(
+                (seriesSlot, timeSlotMap) ->
+                    target
+                        .computeIfAbsent(database, k -> new HashMap<>())
+                        .computeIfAbsent(seriesSlot, k -> new HashMap<>())
+                        .putAll(timeSlotMap)));
+  }
+
+  public void invalidateRouting() {
+    resolvedRouting = null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PreparedInsertTablet that = (PreparedInsertTablet) o;
+    return preparedId == that.preparedId;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(preparedId);
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedInsertTablet{"
+        + "preparedId="
+        + preparedId
+        + ", prefixPath='"
+        + prefixPath
+        + '\''
+        + ", measurements="
+        + measurements
+        + ", isAligned="
+        + isAligned
+        + '}';
+  }
+
+  public static class ResolvedSchema {
+
+    private final MeasurementSchema[] measurementSchemas;
+    private final boolean isAligned;
+    private final long epoch;
+
+    private ResolvedSchema(MeasurementSchema[] measurementSchemas, boolean isAligned, long epoch) {
+      this.measurementSchemas = measurementSchemas;
+      this.isAligned = isAligned;
+      this.epoch = epoch;
+    }
+
+    /** Returns a copy, since insert nodes mark failed measurements in place. */
+    public MeasurementSchema[] getMeasurementSchemas() {
+      return Arrays.copyOf(measurementSchemas, measurementSchemas.length);
+    }
+
+    public boolean isAligned() {
+      return isAligned;
+    }
+
+    public long getEpoch() {
+      return epoch;
+    }
+  }
+
+  public static class ResolvedRouting {
+
+    private final DataPartition dataPartition;
+    private final Set<TTimePartitionSlot> timePartitionSlots;
+    private final long epoch;
+
+    private ResolvedRouting(
+        DataPartition dataPartition, Set<TTimePartitionSlot> timePartitionSlots, long epoch) {
+      this.dataPartition = dataPartition;
+      this.timePartitionSlots = Collections.unmodifiableSet(timePartitionSlots);
+      this.epoch = epoch;
+    }
+
+    public DataPartition getDataPartition() {
+      return dataPartition;
+    }
+
+    public boolean containsAll(List<TTimePartitionSlot> slots) {
+      return timePartitionSlots.containsAll(slots);
+    }
+
+    public long getEpoch() {
+      return epoch;
+    }
+  }
+}
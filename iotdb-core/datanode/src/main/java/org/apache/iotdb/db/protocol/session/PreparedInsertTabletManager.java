@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.session;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionExecutionResult;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionWriteExecutor;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.IPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.analyze.lock.DataNodeSchemaLockManager;
+import org.apache.iotdb.db.queryengine.plan.analyze.lock.SchemaLockType;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.WritePlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletReq;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages the {@link PreparedInsertTablet} handles of all client sessions on this DataNode and
+ * executes the fast path of prepared tree model insertTablet requests.
+ *
+ * <p>Cached schemas and routings are stamped with an epoch. Any schema cache or partition cache
+ * invalidation received from the ConfigNode bumps the corresponding epoch, which makes every stale
+ * handle fall back to the normal analysis path once and re-resolve from its result.
+ */
+public class PreparedInsertTabletManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PreparedInsertTabletManager.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final AtomicLong preparedIdGenerator = new AtomicLong();
+
+  private final Map<Long, Map<Long, PreparedInsertTablet>> sessionId2PreparedInsertTablets =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong schemaEpoch = new AtomicLong();
+  private final AtomicLong partitionEpoch = new AtomicLong();
+
+  private final String localhostInternalAddress = CONFIG.getInternalAddress();
+  private final int localhostInternalPort = CONFIG.getInternalPort();
+
+  private PreparedInsertTabletManager() {
+    // singleton
+  }
+
+  /////////////////////////////// Handle management ///////////////////////////////
+
+  /**
+   * @return the registered handle, or null if the session already holds too many handles
+   */
+  public PreparedInsertTablet register(long sessionId, TSPrepareInsertTabletReq req) {
+    final Map<Long, PreparedInsertTablet> preparedInsertTablets =
+        sessionId2PreparedInsertTablets.computeIfAbsent(
+            sessionId, k -> new ConcurrentHashMap<>());
+    if (preparedInsertTablets.size() >= CONFIG.getMaxPreparedInsertTabletNumPerSession()) {
+      return null;
+    }
+    final PreparedInsertTablet preparedInsertTablet =
+        new PreparedInsertTablet(
+            preparedIdGenerator.incrementAndGet(),
+            sessionId,
+            req.getPrefixPath(),
+            req.getMeasurements(),
+            req.getTypes(),
+            req.isIsAligned());
+    preparedInsertTablets.put(preparedInsertTablet.getPreparedId(), preparedInsertTablet);
+    return preparedInsertTablet;
+  }
+
+  /**
+   * @return the handle, or null if the handle is unknown to this session, e.g. the client has
+   *     reconnected and thus holds a new session
+   */
+  public PreparedInsertTablet get(long sessionId, long preparedId) {
+    final Map<Long, PreparedInsertTablet> preparedInsertTablets =
+        sessionId2PreparedInsertTablets.get(sessionId);
+    return preparedInsertTablets == null ? null : preparedInsertTablets.get(preparedId);
+  }
+
+  public void close(long sessionId, long preparedId) {
+    final Map<Long, PreparedInsertTablet> preparedInsertTablets =
+        sessionId2PreparedInsertTablets.get(sessionId);
+    if (preparedInsertTablets != null) {
+      preparedInsertTablets.remove(preparedId);
+    }
+  }
+
+  public void releaseSession(long sessionId) {
+    sessionId2PreparedInsertTablets.remove(sessionId);
+  }
+
+  /////////////////////////////// Invalidation ///////////////////////////////
+
+  public long getSchemaEpoch() {
+    return schemaEpoch.get();
+  }
+
+  /**
+   * Should be called while holding the write lock of {@link
+   * SchemaLockType#VALIDATE_VS_DELETION_TREE}, so that no fast path write is in flight.
+   */
+  public void invalidateSchema() {
+    schemaEpoch.incrementAndGet();
+  }
+
+  public void invalidatePartition() {
+    partitionEpoch.incrementAndGet();
+  }
+
+  /////////////////////////////// Fast path ///////////////////////////////
+
+  /**
+   * Write the statement directly to the data regions with the cached schema and routing of the
+   * handle.
+   *
+   * @return the execution status, or null if the fast path is not applicable and the caller shall
+   *     execute the statement through the normal path
+   */
+  public TSStatus tryExecute(
+      PreparedInsertTablet preparedInsertTablet,
+      InsertTabletStatement statement,
+      IPartitionFetcher partitionFetcher,
+      String userName) {
+    DataNodeSchemaLockManager.getInstance()
+        .takeReadLock(SchemaLockType.VALIDATE_VS_DELETION_TREE);
+    try {
+      final PreparedInsertTablet.ResolvedSchema resolvedSchema =
+          preparedInsertTablet.getResolvedSchema();
+      if (resolvedSchema == null || resolvedSchema.getEpoch() != schemaEpoch.get()) {
+        return null;
+      }
+
+      final List<TTimePartitionSlot> timePartitionSlots = statement.getTimePartitionSlots();
+      final DataPartition dataPartition =
+          getDataPartition(
+              preparedInsertTablet, statement, timePartitionSlots, partitionFetcher, userName);
+      if (dataPartition == null) {
+        return null;
+      }
+
+      final InsertTabletNode insertTabletNode =
+          new InsertTabletNode(
+              new PlanNodeId(""),
+              statement.getDevicePath(),
+              resolvedSchema.isAligned(),
+              statement.getMeasurements(),
+              statement.getDataTypes(),
+              resolvedSchema.getMeasurementSchemas(),
+              statement.getTimes(),
+              statement.getBitMaps(),
+              statement.getColumns(),
+              statement.getRowCount());
+      final Analysis analysis = new Analysis();
+      analysis.setDataPartitionInfo(dataPartition);
+      final List<WritePlanNode> splits = insertTabletNode.splitByPartition(analysis);
+
+      // only take the fast path if every split can be written locally, otherwise the normal path
+      // takes care of the remote dispatching and retrying
+      for (final WritePlanNode split : splits) {
+        if (!isLocalLeader(split.getRegionReplicaSet())) {
+          return null;
+        }
+      }
+
+      final RegionWriteExecutor writeExecutor = new RegionWriteExecutor();
+      for (final WritePlanNode split : splits) {
+        final ConsensusGroupId groupId =
+            ConsensusGroupId.Factory.createFromTConsensusGroupId(
+                split.getRegionReplicaSet().getRegionId());
+        final RegionExecutionResult result = writeExecutor.execute(groupId, split);
+        final TSStatus status = result.getStatus();
+        if (!result.isAccepted()) {
+          // the region may have been migrated or lost its leadership, resolve again next time and
+          // let the normal path retry the write. Rewriting the splits already written is harmless
+          // because the same points are overwritten with the same values.
+          preparedInsertTablet.invalidateRouting();
+          return null;
+        }
+        if (status != null && status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          return status;
+        }
+      }
+      return RpcUtils.SUCCESS_STATUS;
+    } finally {
+      DataNodeSchemaLockManager.getInstance()
+          .releaseReadLock(SchemaLockType.VALIDATE_VS_DELETION_TREE);
+    }
+  }
+
+  private DataPartition getDataPartition(
+      PreparedInsertTablet preparedInsertTablet,
+      InsertTabletStatement statement,
+      List<TTimePartitionSlot> timePartitionSlots,
+      IPartitionFetcher partitionFetcher,
+      String userName) {
+    final long epoch = partitionEpoch.get();
+    final PreparedInsertTablet.ResolvedRouting resolvedRouting =
+        preparedInsertTablet.getResolvedRouting();
+    if (resolvedRouting != null
+        && resolvedRouting.getEpoch() == epoch
+        && resolvedRouting.containsAll(timePartitionSlots)) {
+      return resolvedRouting.getDataPartition();
+    }
+
+    // a new time partition or a stale routing, resolve it through the partition cache
+    final DataPartitionQueryParam queryParam = new DataPartitionQueryParam();
+    queryParam.setDeviceID(statement.getDevicePath().getIDeviceIDAsFullDevice());
+    queryParam.setTimePartitionSlotList(timePartitionSlots);
+    final DataPartition dataPartition;
+    try {
+      dataPartition =
+          partitionFetcher.getOrCreateDataPartition(
+              Collections.singletonList(queryParam), userName);
+    } catch (final Exception e) {
+      LOGGER.debug("Failed to resolve the routing of {}", preparedInsertTablet, e);
+      return null;
+    }
+    if (dataPartition == null || dataPartition.isEmpty()) {
+      return null;
+    }
+    preparedInsertTablet.mergeRouting(dataPartition, timePartitionSlots, epoch);
+    return dataPartition;
+  }
+
+  private boolean isLocalLeader(TRegionReplicaSet regionReplicaSet) {
+    if (regionReplicaSet == null || regionReplicaSet.getDataNodeLocations().isEmpty()) {
+      return false;
+    }
+    // the same choice as the write dispatcher, which sends the request to the first location
+    final TEndPoint endPoint =
+        regionReplicaSet.getDataNodeLocations().get(0).getInternalEndPoint();
+    return localhostInternalAddress.equals(endPoint.getIp())
+        && localhostInternalPort == endPoint.getPort();
+  }
+
+  public static PreparedInsertTabletManager getInstance() {
+    return PreparedInsertTabletManagerHolder.INSTANCE;
+  }
+
+  private static class PreparedInsertTabletManagerHolder {
+
+    private static final PreparedInsertTabletManager INSTANCE = new PreparedInsertTabletManager();
+
+    private PreparedInsertTabletManagerHolder() {}
+  }
+}
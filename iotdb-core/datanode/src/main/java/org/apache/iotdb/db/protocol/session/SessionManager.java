@@ -195,6 +195,7 @@ public class SessionManager implements SessionManagerMBean {
   }
 
   private void releaseSessionResource(IClientSession session, LongConsumer releaseQueryResource) {
+    PreparedInsertTabletManager.getInstance().releaseSession(session.getId());
     Iterable<Long> statementIds = session.getStatementIds();
     if (statementIds != null) {
       for (Long statementId : statementIds) {
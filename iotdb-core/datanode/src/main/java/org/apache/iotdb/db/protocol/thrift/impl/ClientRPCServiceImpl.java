@@ -54,6 +54,8 @@ import org.apache.iotdb.db.protocol.client.ConfigNodeClient;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClientManager;
 import org.apache.iotdb.db.protocol.client.ConfigNodeInfo;
 import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.protocol.session.PreparedInsertTablet;
+import org.apache.iotdb.db.protocol.session.PreparedInsertTabletManager;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
 import org.apache.iotdb.db.queryengine.common.SessionInfo;
@@ -170,6 +172,8 @@ import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
 import org.apache.iotdb.service.rpc.thrift.TSLastDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareInsertTabletResp;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSPruneSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
@@ -245,6 +249,9 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
 
   private static final SessionManager SESSION_MANAGER = SessionManager.getInstance();
 
+  private static final PreparedInsertTabletManager PREPARED_INSERT_TABLET_MANAGER =
+      PreparedInsertTabletManager.getInstance();
+
   public static final String ERROR_CODE = "error code: ";
 
   private static final TSProtocolVersion CURRENT_RPC_VERSION =
@@ -2372,6 +2379,56 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
     }
   }
 
+  @Override
+  public TSPrepareInsertTabletResp prepareInsertTablet(TSPrepareInsertTabletReq req) {
+    TSPrepareInsertTabletResp resp = new TSPrepareInsertTabletResp();
+    try {
+      IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
+      if (!SESSION_MANAGER.checkLogin(clientSession)) {
+        return resp.setStatus(getNotLoggedInStatus());
+      }
+      if (req.getMeasurementsSize() != req.getTypesSize()) {
+        return resp.setStatus(
+            RpcUtils.getStatus(
+                TSStatusCode.ILLEGAL_PARAMETER,
+                "The size of measurements and types of the prepared tablet are not consistent"));
+      }
+
+      // the handle only matches requests carrying the validated measurements
+      req.setMeasurements(PathUtils.checkIsLegalSingleMeasurementsAndUpdate(req.getMeasurements()));
+      PreparedInsertTablet preparedInsertTablet =
+          PREPARED_INSERT_TABLET_MANAGER.register(clientSession.getId(), req);
+      if (preparedInsertTablet == null) {
+        return resp.setStatus(
+            RpcUtils.getStatus(
+                TSStatusCode.EXECUTE_STATEMENT_ERROR,
+                String.format(
+                    "The session has reached the limit of %d prepared tablets",
+                    config.getMaxPreparedInsertTabletNumPerSession())));
+      }
+      return resp.setStatus(RpcUtils.SUCCESS_STATUS)
+          .setPreparedId(preparedInsertTablet.getPreparedId());
+    } catch (IoTDBException e) {
+      return resp.setStatus(onIoTDBException(e, OperationType.INSERT_TABLET, e.getErrorCode()));
+    } catch (Exception e) {
+      return resp.setStatus(
+          onQueryException(
+              e, OperationType.INSERT_TABLET.getName(), TSStatusCode.EXECUTE_STATEMENT_ERROR));
+    } finally {
+      SESSION_MANAGER.updateIdleTime();
+    }
+  }
+
+  @Override
+  public TSStatus closePreparedInsertTablet(long sessionId, long preparedId) {
+    IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
+    if (!SESSION_MANAGER.checkLogin(clientSession)) {
+      return getNotLoggedInStatus();
+    }
+    PREPARED_INSERT_TABLET_MANAGER.close(clientSession.getId(), preparedId);
+    return RpcUtils.SUCCESS_STATUS;
+  }
+
   @Override
   public TSStatus insertTablet(TSInsertTabletReq req) {
     long t1 = System.nanoTime();
@@ -2382,8 +2439,18 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
         return getNotLoggedInStatus();
       }
 
-      // check whether measurement is legal according to syntax convention (only for tree model)
-      if (!req.isWriteToTable()) {
+      PreparedInsertTablet preparedInsertTablet = null;
+      if (req.isSetPreparedId()) {
+        preparedInsertTablet =
+            PREPARED_INSERT_TABLET_MANAGER.get(clientSession.getId(), req.getPreparedId());
+        if (preparedInsertTablet != null && !preparedInsertTablet.matches(req)) {
+          preparedInsertTablet = null;
+        }
+      }
+
+      // check whether measurement is legal according to syntax convention (only for tree model),
+      // the measurements of a matched prepared tablet have been checked when it was prepared
+      if (!req.isWriteToTable() && preparedInsertTablet == null) {
         req.setMeasurements(
             PathUtils.checkIsLegalSingleMeasurementsAndUpdate(req.getMeasurements()));
       }
@@ -2407,7 +2474,18 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
           DataNodeThrottleQuotaManager.getInstance()
               .checkQuota(SESSION_MANAGER.getCurrSession().getUsername(), statement);
 
-      // Step 2: call the coordinator
+      // Step 2: write with the resolved schema and routing of the prepared tablet if possible
+      long schemaEpoch = PREPARED_INSERT_TABLET_MANAGER.getSchemaEpoch();
+      if (preparedInsertTablet != null) {
+        TSStatus status =
+            PREPARED_INSERT_TABLET_MANAGER.tryExecute(
+                preparedInsertTablet, statement, partitionFetcher, clientSession.getUsername());
+        if (status != null) {
+          return status;
+        }
+      }
+
+      // Step 3: call the coordinator
       long queryId = SESSION_MANAGER.requestQueryId();
       ExecutionResult result;
       if (statement.isWriteToTable()) {
@@ -2431,6 +2509,10 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
                 partitionFetcher,
                 schemaFetcher);
       }
+      if (preparedInsertTablet != null
+          && result.status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        preparedInsertTablet.resolveSchema(statement, schemaEpoch);
+      }
       return result.status;
     } catch (IoTDBException e) {
       return onIoTDBException(e, OperationType.INSERT_TABLET, e.getErrorCode());
@@ -96,6 +96,7 @@ import org.apache.iotdb.db.protocol.client.dn.DnToDnInternalServiceAsyncRequestM
 import org.apache.iotdb.db.protocol.client.dn.DnToDnRequestType;
 import org.apache.iotdb.db.protocol.session.IClientSession;
 import org.apache.iotdb.db.protocol.session.InternalClientSession;
+import org.apache.iotdb.db.protocol.session.PreparedInsertTabletManager;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
@@ -571,6 +572,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
   @Override
   public TSStatus invalidatePartitionCache(final TInvalidateCacheReq req) {
     ClusterPartitionFetcher.getInstance().invalidAllCache();
+    PreparedInsertTabletManager.getInstance().invalidatePartition();
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -594,6 +596,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
           ClusterTemplateManager.getInstance().invalid(database);
         }
         tableDeviceSchemaCache.invalidate(database);
+        PreparedInsertTabletManager.getInstance().invalidateSchema();
         LOGGER.info("Schema cache of {} has been invalidated", req.getFullPath());
         return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
       } finally {
@@ -673,6 +676,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       cache.takeWriteLock();
       try {
         cache.invalidate(PathPatternTree.deserialize(req.pathPatternTree).getAllPathPatterns(true));
+        PreparedInsertTabletManager.getInstance().invalidateSchema();
       } finally {
         cache.releaseWriteLock();
       }
@@ -2061,6 +2065,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
   @Override
   public TSStatus updateRegionCache(TRegionRouteReq req) {
     boolean result = ClusterPartitionFetcher.getInstance().updateRegionCache(req);
+    PreparedInsertTabletManager.getInstance().invalidatePartition();
     if (result) {
       return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
     } else {
@@ -2276,6 +2281,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
           && options.contains(CacheClearOptions.TABLE_ATTRIBUTE)
           && options.contains(CacheClearOptions.TREE_SCHEMA)) {
         tableDeviceSchemaCache.invalidateAll();
+        PreparedInsertTabletManager.getInstance().invalidateSchema();
         return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
       }
       if (options.contains(CacheClearOptions.QUERY)) {
@@ -2286,6 +2292,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       }
       if (options.contains(CacheClearOptions.TREE_SCHEMA)) {
         tableDeviceSchemaCache.invalidateTreeSchema();
+        PreparedInsertTabletManager.getInstance().invalidateSchema();
       }
     } catch (final Exception e) {
       return RpcUtils.getStatus(TSStatusCode.EXECUTE_STATEMENT_ERROR, e.getMessage());
@@ -2811,6 +2818,8 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
     status.setMessage("disable datanode succeed");
     // TODO what need to clean?
     ClusterPartitionFetcher.getInstance().invalidAllCache();
+    PreparedInsertTabletManager.getInstance().invalidatePartition();
+    PreparedInsertTabletManager.getInstance().invalidateSchema();
     TreeDeviceSchemaCacheManager.getInstance().takeWriteLock();
     try {
       TreeDeviceSchemaCacheManager.getInstance().cleanUp();
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.queryengine.execution.aggregation;
 
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.enums.TSDataType;
@@ -58,6 +60,25 @@ public interface Accumulator {
    */
   void addStatistics(Statistics statistics);
 
+  /**
+   * This method can only be used in seriesAggregateScanOperator. If it returns true, the
+   * accumulator is calculated from the sketches of TsFiles instead of the statistics, so that
+   * statistics can be used only for the TsFiles with sketches.
+   */
+  default boolean useSketch() {
+    return false;
+  }
+
+  /** Returns true if the sketch of the input series can be added by {@link #addSketch}. */
+  default boolean canUseSketch(SeriesSketch sketch) {
+    return false;
+  }
+
+  /** This method can only be used in seriesAggregateScanOperator. */
+  default void addSketch(SeriesSketch sketch) {
+    throw new UnsupportedOperationException("This type of accumulator does not support sketches!");
+  }
+
   /**
    * Attention: setFinal should be invoked only once, and addInput() and addIntermediate() are not
    * allowed again.
@@ -35,6 +35,9 @@ import static com.google.common.base.Preconditions.checkState;
 
 public class AccumulatorFactory {
 
+  /** e.g. approx_percentile(s1, 'percentile'='0.99') */
+  public static final String APPROX_PERCENTILE_ATTRIBUTE = "percentile";
+
   public static Accumulator createAccumulator(
       String functionName,
       TAggregationType aggregationType,
@@ -140,6 +143,9 @@ public class AccumulatorFactory {
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_SAMP);
       case VAR_POP:
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_POP);
+      case APPROX_PERCENTILE:
+        return new ApproxPercentileAccumulator(
+            tsDataType, Double.parseDouble(inputAttributes.get(APPROX_PERCENTILE_ATTRIBUTE)));
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class ApproxPercentileAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+  private final double percentile;
+  private final TDigest digest = new TDigest();
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType, double percentile) {
+    this.seriesDataType = seriesDataType;
+    this.percentile = percentile;
+  }
+
+  @Override
+  public void addInput(Column[] columns, BitMap bitMap) {
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(columns, bitMap);
+        return;
+      case INT64:
+        addLongInput(columns, bitMap);
+        return;
+      case FLOAT:
+        addFloatInput(columns, bitMap);
+        return;
+      case DOUBLE:
+        addDoubleInput(columns, bitMap);
+        return;
+      case TEXT:
+      case BLOB:
+      case BOOLEAN:
+      case DATE:
+      case STRING:
+      case TIMESTAMP:
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation approx_percentile : %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of approx_percentile should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    digest.merge(new TDigest(partialResult[0].getBinary(0).getValues()));
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public boolean useSketch() {
+    return true;
+  }
+
+  @Override
+  public boolean canUseSketch(SeriesSketch sketch) {
+    return sketch.getDigest() != null;
+  }
+
+  @Override
+  public void addSketch(SeriesSketch sketch) {
+    digest.merge(sketch.getDigest());
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    reset();
+    if (finalResult.isNull(0)) {
+      return;
+    }
+    digest.add(finalResult.getDouble(0));
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of approx_percentile should be 1");
+    if (digest.isEmpty()) {
+      columnBuilders[0].appendNull();
+    } else {
+      columnBuilders[0].writeBinary(new Binary(digest.serialize()));
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentile));
+    }
+  }
+
+  @Override
+  public void reset() {
+    digest.reset();
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.DOUBLE;
+  }
+
+  private void addIntInput(Column[] columns, BitMap bitmap) {
+    int size = columns[0].getPositionCount();
+    for (int i = 0; i < size; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        digest.add(columns[1].getInt(i));
+      }
+    }
+  }
+
+  private void addLongInput(Column[] columns, BitMap bitmap) {
+    int size = columns[0].getPositionCount();
+    for (int i = 0; i < size; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        digest.add(columns[1].getLong(i));
+      }
+    }
+  }
+
+  private void addFloatInput(Column[] columns, BitMap bitmap) {
+    int size = columns[0].getPositionCount();
+    for (int i = 0; i < size; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        digest.add(columns[1].getFloat(i));
+      }
+    }
+  }
+
+  private void addDoubleInput(Column[] columns, BitMap bitmap) {
+    int size = columns[0].getPositionCount();
+    for (int i = 0; i < size; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        digest.add(columns[1].getDouble(i));
+      }
+    }
+  }
+}
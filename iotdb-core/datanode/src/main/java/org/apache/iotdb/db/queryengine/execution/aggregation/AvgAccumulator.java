@@ -174,6 +174,19 @@ public class AvgAccumulator implements Accumulator {
 
   private void addIntInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getInt(i);
+      }
+      sumValue = sum;
+      countValue += count;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -188,6 +201,19 @@ public class AvgAccumulator implements Accumulator {
 
   private void addLongInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getLong(i);
+      }
+      sumValue = sum;
+      countValue += count;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -202,6 +228,19 @@ public class AvgAccumulator implements Accumulator {
 
   private void addFloatInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getFloat(i);
+      }
+      sumValue = sum;
+      countValue += count;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -216,6 +255,19 @@ public class AvgAccumulator implements Accumulator {
 
   private void addDoubleInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getDouble(i);
+      }
+      sumValue = sum;
+      countValue += count;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -262,6 +262,13 @@ public class MaxValueAccumulator implements Accumulator {
 
   private void addIntInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, compare the column without per-row checks
+      for (int i = 0; i < count; i++) {
+        updateIntResult(column[1].getInt(i));
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -281,6 +288,13 @@ public class MaxValueAccumulator implements Accumulator {
 
   private void addLongInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, compare the column without per-row checks
+      for (int i = 0; i < count; i++) {
+        updateLongResult(column[1].getLong(i));
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -300,6 +314,13 @@ public class MaxValueAccumulator implements Accumulator {
 
   private void addFloatInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, compare the column without per-row checks
+      for (int i = 0; i < count; i++) {
+        updateFloatResult(column[1].getFloat(i));
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -319,6 +340,13 @@ public class MaxValueAccumulator implements Accumulator {
 
   private void addDoubleInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, compare the column without per-row checks
+      for (int i = 0; i < count; i++) {
+        updateDoubleResult(column[1].getDouble(i));
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -154,6 +154,18 @@ public class SumAccumulator implements Accumulator {
 
   private void addIntInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getInt(i);
+      }
+      sumValue = sum;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -167,6 +179,18 @@ public class SumAccumulator implements Accumulator {
 
   private void addLongInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getLong(i);
+      }
+      sumValue = sum;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -180,6 +204,18 @@ public class SumAccumulator implements Accumulator {
 
   private void addFloatInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getFloat(i);
+      }
+      sumValue = sum;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -193,6 +229,18 @@ public class SumAccumulator implements Accumulator {
 
   private void addDoubleInput(Column[] column, BitMap bitMap) {
     int count = column[0].getPositionCount();
+    if (!column[1].mayHaveNull() && (bitMap == null || bitMap.isAllMarked())) {
+      // All rows are selected and non-null, accumulate the column without per-row checks
+      double sum = sumValue;
+      for (int i = 0; i < count; i++) {
+        sum += column[1].getDouble(i);
+      }
+      sumValue = sum;
+      if (count > 0) {
+        initResult = true;
+      }
+      return;
+    }
     for (int i = 0; i < count; i++) {
       if (bitMap != null && !bitMap.isMarked(i)) {
         continue;
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.aggregation;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -32,6 +33,7 @@ import org.apache.tsfile.utils.BitMap;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet.AGGREGATION_FROM_RAW_DATA;
@@ -141,6 +143,38 @@ public class TreeAggregator {
     }
   }
 
+  public boolean useSketch() {
+    return accumulator.useSketch();
+  }
+
+  /** Used for SeriesAggregateScanOperator, sketches are indexed like the value statistics. */
+  public boolean canUseSketch(IntFunction<SeriesSketch> sketches) {
+    for (InputLocation[] inputLocations : inputLocationList) {
+      int valueIndex = inputLocations[0].getValueColumnIndex();
+      if (valueIndex == -1) {
+        return false;
+      }
+      SeriesSketch sketch = sketches.apply(valueIndex);
+      if (sketch == null || !accumulator.canUseSketch(sketch)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Used for SeriesAggregateScanOperator, it should be called after {@link #canUseSketch}. */
+  public void processSketch(SeriesSketch[] sketches) {
+    long startTime = System.nanoTime();
+    try {
+      for (InputLocation[] inputLocations : inputLocationList) {
+        accumulator.addSketch(sketches[inputLocations[0].getValueColumnIndex()]);
+      }
+    } finally {
+      QUERY_EXECUTION_METRICS.recordExecutionCost(
+          AGGREGATION_FROM_STATISTICS, System.nanoTime() - startTime);
+    }
+  }
+
   public TSDataType[] getOutputType() {
     if (step.isOutputPartial()) {
       return accumulator.getIntermediateType();
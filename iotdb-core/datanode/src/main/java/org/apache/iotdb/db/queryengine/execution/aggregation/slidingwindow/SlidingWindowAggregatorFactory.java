@@ -233,6 +233,8 @@ public class SlidingWindowAggregatorFactory {
         throw new SemanticException("TIME_DURATION with slidingWindow is not supported now");
       case MODE:
         throw new SemanticException("MODE with slidingWindow is not supported now");
+      case APPROX_PERCENTILE:
+        throw new SemanticException("APPROX_PERCENTILE with slidingWindow is not supported now");
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationType);
     }
@@ -288,6 +288,8 @@ public class FragmentInstanceExecution {
             staticsRemoved = true;
             statisticsLock.writeLock().unlock();
 
+            recordProfileIfSlow(newState);
+
             clearShuffleSinkHandle(newState);
 
             // delete tmp file if exists
@@ -323,6 +325,23 @@ public class FragmentInstanceExecution {
         });
   }
 
+  // keep the statistics of slow instances for information_schema.queries_profile, must be called
+  // before the drivers are closed
+  private void recordProfileIfSlow(FragmentInstanceState newState) {
+    final QueryProfileBuffer queryProfileBuffer = QueryProfileBuffer.getInstance();
+    final long endTime =
+        context.isEndTimeUpdate() ? context.getEndTime() : System.currentTimeMillis();
+    if (!queryProfileBuffer.shouldRecord(endTime - context.getStartTime())) {
+      return;
+    }
+    try {
+      queryProfileBuffer.record(FragmentInstanceProfile.create(context, drivers, newState));
+    } catch (Exception e) {
+      // never let profiling block the release of resources below
+      LOGGER.warn("Failed to record the profile of {}", instanceId.getFullId(), e);
+    }
+  }
+
   private void clearShuffleSinkHandle(FragmentInstanceState newState) {
     if (newState.isFailed()) {
       sink.abort();
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.fragment;
+
+import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the statistics of a finished fragment instance and its operators, kept
+ * in {@link QueryProfileBuffer} after the instance has released its resources.
+ */
+public class FragmentInstanceProfile {
+
+  private final String queryId;
+  private final String fragmentInstanceId;
+  private final String dataRegionId;
+  private final String userName;
+  private final String state;
+
+  private final long startTime;
+  private final long endTime;
+
+  // in nanoseconds
+  private final long blockQueuedTime;
+  private final long readyQueuedTime;
+
+  private final long chunkCacheHitCount;
+  private final long chunkCacheMissCount;
+  private final long timeSeriesMetadataCacheHitCount;
+  private final long timeSeriesMetadataCacheMissCount;
+  private final long actualIOSize;
+
+  private final List<OperatorProfile> operatorProfiles;
+
+  @SuppressWarnings("squid:S107")
+  public FragmentInstanceProfile(
+      String queryId,
+      String fragmentInstanceId,
+      String dataRegionId,
+      String userName,
+      String state,
+      long startTime,
+      long endTime,
+      long blockQueuedTime,
+      long readyQueuedTime,
+      long chunkCacheHitCount,
+      long chunkCacheMissCount,
+      long timeSeriesMetadataCacheHitCount,
+      long timeSeriesMetadataCacheMissCount,
+      long actualIOSize,
+      List<OperatorProfile> operatorProfiles) {
+    this.queryId = queryId;
+    this.fragmentInstanceId = fragmentInstanceId;
+    this.dataRegionId = dataRegionId;
+    this.userName = userName;
+    this.state = state;
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.blockQueuedTime = blockQueuedTime;
+    this.readyQueuedTime = readyQueuedTime;
+    this.chunkCacheHitCount = chunkCacheHitCount;
+    this.chunkCacheMissCount = chunkCacheMissCount;
+    this.timeSeriesMetadataCacheHitCount = timeSeriesMetadataCacheHitCount;
+    this.timeSeriesMetadataCacheMissCount = timeSeriesMetadataCacheMissCount;
+    this.actualIOSize = actualIOSize;
+    this.operatorProfiles = Collections.unmodifiableList(operatorProfiles);
+  }
+
+  /** Must be called before the drivers of the instance are closed. */
+  public static FragmentInstanceProfile create(
+      FragmentInstanceContext context, List<IDriver> drivers, FragmentInstanceState state) {
+    final List<OperatorProfile> operatorProfiles = new ArrayList<>();
+    for (IDriver driver : drivers) {
+      for (OperatorContext operatorContext : driver.getDriverContext().getOperatorContexts()) {
+        // some exchange operators don't have planNodeId
+        if (operatorContext.getPlanNodeId() == null) {
+          continue;
+        }
+        operatorProfiles.add(
+            new OperatorProfile(
+                operatorContext.getPlanNodeId().toString(),
+                operatorContext.getOperatorType(),
+                operatorContext.getTotalExecutionTimeInNanos(),
+                operatorContext.getOutputRows(),
+                operatorContext.getEstimatedMemorySize()));
+      }
+    }
+
+    final QueryStatistics statistics = context.getQueryStatistics();
+    final String dataRegionId =
+        context.getDataRegion() instanceof DataRegion
+            ? ((DataRegion) context.getDataRegion()).getDataRegionId()
+            : "";
+    final String userName =
+        context.getSessionInfo() == null ? "" : context.getSessionInfo().getUserName();
+    return new FragmentInstanceProfile(
+        context.getId().getQueryId().getId(),
+        context.getId().getFullId(),
+        dataRegionId,
+        userName,
+        state.toString(),
+        context.getStartTime(),
+        context.isEndTimeUpdate() ? context.getEndTime() : System.currentTimeMillis(),
+        context.getBlockQueueTime(),
+        context.getReadyQueueTime(),
+        statistics.getLoadChunkFromCacheCount().get(),
+        statistics.getLoadChunkFromDiskCount().get(),
+        statistics.getLoadTimeSeriesMetadataFromCacheCount().get(),
+        statistics.getLoadTimeSeriesMetadataFromDiskCount().get(),
+        statistics.getLoadChunkActualIOSize().get()
+            + statistics.getLoadTimeSeriesMetadataActualIOSize().get()
+            + statistics.getLoadBloomFilterActualIOSize().get(),
+        operatorProfiles);
+  }
+
+  public String getQueryId() {
+    return queryId;
+  }
+
+  public String getFragmentInstanceId() {
+    return fragmentInstanceId;
+  }
+
+  public String getDataRegionId() {
+    return dataRegionId;
+  }
+
+  public String getUserName() {
+    return userName;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public long getBlockQueuedTime() {
+    return blockQueuedTime;
+  }
+
+  public long getReadyQueuedTime() {
+    return readyQueuedTime;
+  }
+
+  public long getChunkCacheHitCount() {
+    return chunkCacheHitCount;
+  }
+
+  public long getChunkCacheMissCount() {
+    return chunkCacheMissCount;
+  }
+
+  public long getTimeSeriesMetadataCacheHitCount() {
+    return timeSeriesMetadataCacheHitCount;
+  }
+
+  public long getTimeSeriesMetadataCacheMissCount() {
+    return timeSeriesMetadataCacheMissCount;
+  }
+
+  public long getActualIOSize() {
+    return actualIOSize;
+  }
+
+  public List<OperatorProfile> getOperatorProfiles() {
+    return operatorProfiles;
+  }
+
+  public static class OperatorProfile {
+
+    private final String planNodeId;
+    private final String operatorType;
+    // wall time (not CPU time) of the operator's next() and hasNext() calls
+    private final long executionTimeInNanos;
+    private final long outputRows;
+    private final long memoryUsage;
+
+    public OperatorProfile(
+        String planNodeId,
+        String operatorType,
+        long executionTimeInNanos,
+        long outputRows,
+        long memoryUsage) {
+      this.planNodeId = planNodeId;
+      this.operatorType = operatorType;
+      this.executionTimeInNanos = executionTimeInNanos;
+      this.outputRows = outputRows;
+      this.memoryUsage = memoryUsage;
+    }
+
+    public String getPlanNodeId() {
+      return planNodeId;
+    }
+
+    public String getOperatorType() {
+      return operatorType;
+    }
+
+    public long getExecutionTimeInNanos() {
+      return executionTimeInNanos;
+    }
+
+    public long getOutputRows() {
+      return outputRows;
+    }
+
+    public long getMemoryUsage() {
+      return memoryUsage;
+    }
+  }
+}
@@ -22,11 +22,11 @@ package org.apache.iotdb.db.queryengine.execution.fragment;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.ModificationUtils;
-import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 
@@ -104,16 +104,10 @@ public class QueryContext {
   }
 
   private PatternTreeMap<ModEntry, ModsSerializer> getAllModifications(TsFileResource resource) {
+    // the modifications are shared across queries, and kept in this query once got so that the
+    // deletions applied in a query are consistent
     return fileModCache.computeIfAbsent(
-        resource.getTsFilePath(),
-        k -> {
-          PatternTreeMap<ModEntry, ModsSerializer> modifications =
-              PatternTreeMapFactory.getModsPatternTreeMap();
-          for (ModEntry modification : resource.getAllModEntries()) {
-            modifications.append(modification.keyOfPatternTree(), modification);
-          }
-          return modifications;
-        });
+        resource.getTsFilePath(), k -> ModificationCache.getInstance().get(resource));
   }
 
   public List<ModEntry> getPathModifications(
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.fragment;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A bounded ring buffer of the profiles of the slow fragment instances finished on this DataNode,
+ * which backs information_schema.queries_profile. The oldest profile is evicted once the buffer is
+ * full.
+ */
+public class QueryProfileBuffer {
+
+  private final int capacity;
+
+  // guarded by this
+  private final Deque<FragmentInstanceProfile> profiles = new ArrayDeque<>();
+
+  QueryProfileBuffer(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public boolean isEnabled() {
+    return capacity > 0;
+  }
+
+  /** Whether a fragment instance running for the given time should be kept. */
+  public boolean shouldRecord(long elapsedTimeInMs) {
+    return isEnabled()
+        && elapsedTimeInMs >= IoTDBDescriptor.getInstance().getConfig().getSlowQueryThreshold();
+  }
+
+  public synchronized void record(FragmentInstanceProfile profile) {
+    if (!isEnabled()) {
+      return;
+    }
+    if (profiles.size() >= capacity) {
+      profiles.pollFirst();
+    }
+    profiles.addLast(profile);
+  }
+
+  /** Returns the kept profiles, from the oldest to the newest. */
+  public synchronized List<FragmentInstanceProfile> getProfiles() {
+    return new ArrayList<>(profiles);
+  }
+
+  public static QueryProfileBuffer getInstance() {
+    return QueryProfileBufferHolder.INSTANCE;
+  }
+
+  private static class QueryProfileBufferHolder {
+
+    private static final QueryProfileBuffer INSTANCE =
+        new QueryProfileBuffer(
+            IoTDBDescriptor.getInstance().getConfig().getQueryProfileBufferSize());
+
+    private QueryProfileBufferHolder() {}
+  }
+}
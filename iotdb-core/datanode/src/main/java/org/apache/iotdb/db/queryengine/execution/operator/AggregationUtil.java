@@ -31,7 +31,6 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationDe
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.db.queryengine.statistics.StatisticsManager;
 
-import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
@@ -131,14 +130,9 @@ public class AggregationUtil {
       TsBlock inputTsBlock, TimeRange curTimeRange, List<TreeAggregator> aggregators) {
     // Get the row which need to be processed by aggregator
     IWindow curWindow = new TimeWindow(curTimeRange);
-    Column timeColumn = inputTsBlock.getTimeColumn();
-    int lastIndexToProcess = 0;
-    for (int i = 0; i < inputTsBlock.getPositionCount(); i++) {
-      if (!curWindow.satisfy(timeColumn, i)) {
-        break;
-      }
-      lastIndexToProcess = i;
-    }
+    // The points before current time range have been skipped, so the first row is always processed
+    int lastIndexToProcess =
+        Math.max(curWindow.getLeadingSatisfiedCount(inputTsBlock.getTimeColumn()), 1) - 1;
 
     TsBlock inputRegion = inputTsBlock.getRegion(0, lastIndexToProcess + 1);
     for (TreeAggregator aggregator : aggregators) {
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.execution.operator.process;
 
 import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
@@ -85,6 +86,22 @@ public abstract class AbstractSortOperator implements ProcessOperator {
       List<TSDataType> dataTypes,
       DiskSpiller diskSpiller,
       Comparator<SortKey> comparator) {
+    this(
+        operatorContext,
+        inputOperator,
+        dataTypes,
+        diskSpiller,
+        comparator,
+        IoTDBDescriptor.getInstance().getConfig().getSortBufferSize());
+  }
+
+  AbstractSortOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> dataTypes,
+      DiskSpiller diskSpiller,
+      Comparator<SortKey> comparator,
+      long sortBufferSize) {
     this.operatorContext = operatorContext;
     this.inputOperator = inputOperator;
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
@@ -94,8 +111,7 @@ public abstract class AbstractSortOperator implements ProcessOperator {
     this.diskSpiller = diskSpiller;
     this.sortBufferManager =
         new SortBufferManager(
-            TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes(),
-            IoTDBDescriptor.getInstance().getConfig().getSortBufferSize());
+            TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes(), sortBufferSize);
   }
 
   protected void buildResult() throws IoTDBException {
@@ -366,4 +382,9 @@ public abstract class AbstractSortOperator implements ProcessOperator {
     mergeSortHeap = null;
     noMoreData = null;
   }
+
+  @TestOnly
+  public long getSortBufferSize() {
+    return sortBufferManager.getSortBufferSize();
+  }
 }
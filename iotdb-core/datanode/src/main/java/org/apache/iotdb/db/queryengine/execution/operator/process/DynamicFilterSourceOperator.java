@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.JoinDynamicFilter;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+/**
+ * Passes through the rows of the build side of an inner join, and collects their join keys into
+ * the {@link JoinDynamicFilter} which is published when the child is finished.
+ */
+public class DynamicFilterSourceOperator implements ProcessOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(DynamicFilterSourceOperator.class);
+
+  private final OperatorContext operatorContext;
+  private final Operator child;
+  private final JoinDynamicFilter dynamicFilter;
+
+  public DynamicFilterSourceOperator(
+      OperatorContext operatorContext, Operator child, JoinDynamicFilter dynamicFilter) {
+    this.operatorContext = operatorContext;
+    this.child = child;
+    this.dynamicFilter = dynamicFilter;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return child.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    TsBlock tsBlock = child.nextWithTimer();
+    if (tsBlock == null || tsBlock.isEmpty()) {
+      return null;
+    }
+    dynamicFilter.collect(tsBlock.getColumn(dynamicFilter.getBuildChannel()));
+    return tsBlock;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    if (child.hasNextWithTimer()) {
+      return true;
+    }
+    dynamicFilter.complete();
+    return false;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (child != null) {
+      child.close();
+    }
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    if (child.isFinished()) {
+      dynamicFilter.complete();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return child.calculateMaxPeekMemory();
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return child.calculateMaxReturnSize();
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return child.calculateRetainedSizeAfterCallingNext();
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(child)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext);
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+}
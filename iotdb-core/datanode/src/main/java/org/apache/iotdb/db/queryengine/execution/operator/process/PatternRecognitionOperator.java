@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.process;
 
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
@@ -27,10 +29,12 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.Pat
 import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.PatternVariableRecognizer;
 import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.PatternExpressionComputation;
 import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.matcher.Matcher;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.SpillableTsBlockList;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.utils.RowComparator;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.RowsPerMatch;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SkipToPosition;
+import org.apache.iotdb.db.utils.sort.TsBlockPageSpiller;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -51,6 +55,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.TIME_COLUMN_TEMPLATE;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.MAX_RESERVED_MEMORY;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.SPILLED_DATA_SIZE;
 
 public class PatternRecognitionOperator implements ProcessOperator {
 
@@ -67,7 +72,7 @@ public class PatternRecognitionOperator implements ProcessOperator {
   // Partition
   private final List<Integer> partitionChannels;
   private final RowComparator partitionComparator;
-  private final List<TsBlock> cachedTsBlocks;
+  private SpillableTsBlockList cachedTsBlocks;
   private int startIndexInFirstBlock;
 
   // Sort
@@ -86,6 +91,12 @@ public class PatternRecognitionOperator implements ProcessOperator {
   private final List<PatternExpressionComputation> measureComputations;
   private final List<String> labelNames;
 
+  // Spill, null folder path means spilling is disabled
+  private final String spillFolderPath;
+  private final long partitionBufferSize;
+  private int cachedPartitionCount;
+  private long spilledDataSize;
+
   private long totalMemorySize;
   private long maxUsedMemory;
   private final long maxRuntime;
@@ -104,7 +115,8 @@ public class PatternRecognitionOperator implements ProcessOperator {
       Matcher matcher,
       List<PatternVariableRecognizer.PatternVariableComputation> labelPatternVariableComputations,
       List<PatternExpressionComputation> measureComputations,
-      List<String> labelNames) {
+      List<String> labelNames,
+      String spillFolderPath) {
     this.operatorContext = operatorContext;
     this.child = child;
     this.inputDataTypes = ImmutableList.copyOf(inputDataTypes);
@@ -135,7 +147,6 @@ public class PatternRecognitionOperator implements ProcessOperator {
     this.measureComputations = ImmutableList.copyOf(measureComputations);
     this.labelNames = ImmutableList.copyOf(labelNames);
 
-    this.cachedTsBlocks = new ArrayList<>();
     this.startIndexInFirstBlock = -1;
 
     this.maxRuntime = this.operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
@@ -146,6 +157,14 @@ public class PatternRecognitionOperator implements ProcessOperator {
             .getDriverContext()
             .getFragmentInstanceContext()
             .getMemoryReservationContext();
+
+    // Spill part
+    this.spillFolderPath = spillFolderPath;
+    this.partitionBufferSize =
+        IoTDBDescriptor.getInstance().getConfig().getWindowPartitionBufferSize();
+    this.cachedPartitionCount = 0;
+    this.spilledDataSize = 0;
+    this.cachedTsBlocks = createCachedTsBlocks();
   }
 
   @Override
@@ -209,8 +228,8 @@ public class PatternRecognitionOperator implements ProcessOperator {
               measureComputations,
               labelNames);
       cachedPartitionExecutors.addLast(partitionExecutor);
-      cachedTsBlocks.clear();
       releaseAllCachedTsBlockMemory();
+      cachedTsBlocks = createCachedTsBlocks();
 
       TsBlock tsBlock = transform(startTime);
       if (tsBlock == null) {
@@ -234,7 +253,7 @@ public class PatternRecognitionOperator implements ProcessOperator {
     return null;
   }
 
-  private LinkedList<PatternPartitionExecutor> partition(TsBlock tsBlock) {
+  private LinkedList<PatternPartitionExecutor> partition(TsBlock tsBlock) throws IoTDBException {
     LinkedList<PatternPartitionExecutor> partitionExecutors = new LinkedList<>();
 
     int partitionStartInCurrentBlock = 0;
@@ -271,8 +290,8 @@ public class PatternRecognitionOperator implements ProcessOperator {
                 labelNames);
 
         partitionExecutors.addLast(partitionExecutor);
-        cachedTsBlocks.clear();
         releaseAllCachedTsBlockMemory();
+        cachedTsBlocks = createCachedTsBlocks();
         startIndexInFirstBlock = -1;
       }
     }
@@ -327,8 +346,8 @@ public class PatternRecognitionOperator implements ProcessOperator {
                   measureComputations,
                   labelNames);
           // Clear TsBlock of last partition
-          cachedTsBlocks.clear();
           releaseAllCachedTsBlockMemory();
+          cachedTsBlocks = createCachedTsBlocks();
         }
         partitionExecutors.addLast(partitionExecutor);
 
@@ -342,6 +361,7 @@ public class PatternRecognitionOperator implements ProcessOperator {
         }
         reserveOneTsBlockMemory(tsBlock);
         cachedTsBlocks.add(tsBlock);
+        spillCachedTsBlocksIfNeeded();
         // For count == 1
         break;
       }
@@ -361,7 +381,7 @@ public class PatternRecognitionOperator implements ProcessOperator {
       }
 
       if (!partitionExecutor.hasNext()) {
-        cachedPartitionExecutors.removeFirst();
+        cachedPartitionExecutors.removeFirst().close();
       }
 
       if (System.nanoTime() - startTime >= maxRuntime || tsBlockBuilder.isFull()) {
@@ -401,6 +421,11 @@ public class PatternRecognitionOperator implements ProcessOperator {
   @Override
   public void close() throws Exception {
     child.close();
+    for (PatternPartitionExecutor partitionExecutor : cachedPartitionExecutors) {
+      partitionExecutor.close();
+    }
+    cachedPartitionExecutors.clear();
+    cachedTsBlocks.close();
     if (totalMemorySize != 0) {
       memoryReservationManager.releaseMemoryCumulatively(totalMemorySize);
     }
@@ -420,13 +445,40 @@ public class PatternRecognitionOperator implements ProcessOperator {
   }
 
   private void releaseAllCachedTsBlockMemory() {
-    long released = cachedTsBlocks.stream().mapToInt(TsBlock::getTotalInstanceSize).sum();
+    long released = cachedTsBlocks.getInMemorySize();
     memoryReservationManager.releaseMemoryCumulatively(released);
     totalMemorySize -= released;
     // No need to update maxUsedMemory
     operatorContext.recordSpecifiedInfo(MAX_RESERVED_MEMORY, Long.toString(maxUsedMemory));
   }
 
+  private SpillableTsBlockList createCachedTsBlocks() {
+    TsBlockPageSpiller spiller = null;
+    if (spillFolderPath != null && partitionBufferSize > 0) {
+      spiller =
+          new TsBlockPageSpiller(
+              spillFolderPath,
+              spillFolderPath
+                  + operatorContext.getOperatorId()
+                  + "-"
+                  + String.format("%05d", cachedPartitionCount++));
+    }
+    return new SpillableTsBlockList(
+        spiller, sortChannels, partitionBufferSize, memoryReservationManager);
+  }
+
+  private void spillCachedTsBlocksIfNeeded() throws IoTDBException {
+    if (!cachedTsBlocks.needSpill()) {
+      return;
+    }
+    long spilledSizeBefore = cachedTsBlocks.getSpilledSize();
+    long released = cachedTsBlocks.spill();
+    memoryReservationManager.releaseMemoryCumulatively(released);
+    totalMemorySize -= released;
+    spilledDataSize += cachedTsBlocks.getSpilledSize() - spilledSizeBefore;
+    operatorContext.recordSpecifiedInfo(SPILLED_DATA_SIZE, Long.toString(spilledDataSize));
+  }
+
   @Override
   public long calculateMaxPeekMemory() {
     long maxPeekMemoryFromInput = child.calculateMaxPeekMemoryWithCounter();
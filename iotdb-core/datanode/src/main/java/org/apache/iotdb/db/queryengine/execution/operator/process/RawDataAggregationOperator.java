@@ -171,6 +171,14 @@ public class RawDataAggregationOperator extends SingleInputAggregationOperator {
       controlAndTimeColumn[0] = curWindow.getControlColumn(inputTsBlock);
       controlAndTimeColumn[1] = inputTsBlock.getTimeColumn();
 
+      // Split the whole tsBlock by current window at once if no row needs to skip
+      if (!windowManager.isIgnoringNull() || !controlAndTimeColumn[0].mayHaveNull()) {
+        int satisfiedCount = curWindow.getLeadingSatisfiedCount(controlAndTimeColumn[0]);
+        if (satisfiedCount >= 0) {
+          return processRawData(satisfiedCount - 1, null);
+        }
+      }
+
       BitMap needProcess = new BitMap(tsBlockSize);
       int lastIndexToProcess = -1;
       boolean hasSkip = false;
@@ -190,40 +198,40 @@ public class RawDataAggregationOperator extends SingleInputAggregationOperator {
       }
 
       // if no row needs to skip, just send a null parameter.
-      if (!hasSkip) {
-        needProcess = null;
-      }
-
-      TsBlock inputRegion = inputTsBlock.getRegion(0, lastIndexToProcess + 1);
-      for (TreeAggregator aggregator : aggregators) {
-        // Current agg method has been calculated
-        if (aggregator.hasFinalResult()) {
-          continue;
-        }
-
-        aggregator.processTsBlock(inputRegion, needProcess);
-      }
-      int lastReadRowIndex = lastIndexToProcess + 1;
-      // If lastReadRowIndex is not zero, some of tsBlock is consumed and result is cached in
-      // aggregators.
-      if (lastReadRowIndex != 0) {
-        hasCachedDataInAggregator = true;
-      }
-      if (lastReadRowIndex >= inputTsBlock.getPositionCount()) {
-        inputTsBlock = null;
-        // For the last index of TsBlock, if we can know the aggregation calculation is over
-        // we can directly updateResultTsBlock and return true
-        return isAllAggregatorsHasFinalResult(aggregators);
-      } else {
-        inputTsBlock = inputTsBlock.subTsBlock(lastReadRowIndex);
-        return true;
-      }
+      return processRawData(lastIndexToProcess, hasSkip ? needProcess : null);
     }
 
     boolean isTsBlockOutOfBound = windowManager.isTsBlockOutOfBound(inputTsBlock);
     return isAllAggregatorsHasFinalResult(aggregators) || isTsBlockOutOfBound;
   }
 
+  private boolean processRawData(int lastIndexToProcess, BitMap needProcess) {
+    TsBlock inputRegion = inputTsBlock.getRegion(0, lastIndexToProcess + 1);
+    for (TreeAggregator aggregator : aggregators) {
+      // Current agg method has been calculated
+      if (aggregator.hasFinalResult()) {
+        continue;
+      }
+
+      aggregator.processTsBlock(inputRegion, needProcess);
+    }
+    int lastReadRowIndex = lastIndexToProcess + 1;
+    // If lastReadRowIndex is not zero, some of tsBlock is consumed and result is cached in
+    // aggregators.
+    if (lastReadRowIndex != 0) {
+      hasCachedDataInAggregator = true;
+    }
+    if (lastReadRowIndex >= inputTsBlock.getPositionCount()) {
+      inputTsBlock = null;
+      // For the last index of TsBlock, if we can know the aggregation calculation is over
+      // we can directly updateResultTsBlock and return true
+      return isAllAggregatorsHasFinalResult(aggregators);
+    } else {
+      inputTsBlock = inputTsBlock.subTsBlock(lastReadRowIndex);
+      return true;
+    }
+  }
+
   @Override
   protected void updateResultTsBlock() {
     windowManager.appendAggregationResult(resultTsBlockBuilder, aggregators);
@@ -48,6 +48,16 @@ public abstract class SortOperator extends AbstractSortOperator {
     super(operatorContext, inputOperator, dataTypes, diskSpiller, comparator);
   }
 
+  SortOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> dataTypes,
+      DiskSpiller diskSpiller,
+      Comparator<SortKey> comparator,
+      long sortBufferSize) {
+    super(operatorContext, inputOperator, dataTypes, diskSpiller, comparator, sortBufferSize);
+  }
+
   @Override
   public TsBlock next() throws Exception {
     if (!inputOperator.hasNextWithTimer()) {
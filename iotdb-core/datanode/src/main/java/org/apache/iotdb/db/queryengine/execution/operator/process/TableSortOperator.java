@@ -50,6 +50,23 @@ public class TableSortOperator extends SortOperator {
         comparator);
   }
 
+  /** The sort buffer is a share of sort_buffer_size_in_bytes when several sorts run in parallel. */
+  public TableSortOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> dataTypes,
+      String folderPath,
+      Comparator<SortKey> comparator,
+      long sortBufferSize) {
+    super(
+        operatorContext,
+        inputOperator,
+        dataTypes,
+        new TableDiskSpiller(folderPath, folderPath + operatorContext.getOperatorId(), dataTypes),
+        comparator,
+        sortBufferSize);
+  }
+
   @Override
   protected void appendTime(TimeColumnBuilder timeBuilder, long time) {
     // do nothing for table related operator
@@ -127,6 +127,10 @@ public final class PatternPartitionExecutor {
     return currentPosition < partitionEnd;
   }
 
+  public void close() {
+    partition.close();
+  }
+
   public void processNextRow(TsBlockBuilder builder) {
     if (currentPosition == peerGroupEnd) {
       updatePeerGroup();
@@ -19,15 +19,19 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.process.window;
 
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.WindowFunction;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.PartitionExecutor;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.SpillableTsBlockList;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.frame.FrameInfo;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.utils.RowComparator;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+import org.apache.iotdb.db.utils.sort.TsBlockPageSpiller;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -47,6 +51,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.MAX_RESERVED_MEMORY;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.SPILLED_DATA_SIZE;
 
 public class TableWindowOperator implements ProcessOperator {
   private static final long INSTANCE_SIZE =
@@ -67,7 +72,7 @@ public class TableWindowOperator implements ProcessOperator {
   // Partition
   private final List<Integer> partitionChannels;
   private final RowComparator partitionComparator;
-  private final List<TsBlock> cachedTsBlocks;
+  private SpillableTsBlockList cachedTsBlocks;
   private int startIndexInFirstBlock;
 
   // Sort
@@ -76,6 +81,12 @@ public class TableWindowOperator implements ProcessOperator {
   // Transformation
   private LinkedList<PartitionExecutor> cachedPartitionExecutors;
 
+  // Spill, null folder path means spilling is disabled
+  private final String spillFolderPath;
+  private final long partitionBufferSize;
+  private int cachedPartitionCount;
+  private long spilledDataSize;
+
   // Misc
   private long totalMemorySize;
   private long maxUsedMemory;
@@ -90,7 +101,8 @@ public class TableWindowOperator implements ProcessOperator {
       List<WindowFunction> windowFunctions,
       List<FrameInfo> frameInfoList,
       List<Integer> partitionChannels,
-      List<Integer> sortChannels) {
+      List<Integer> sortChannels,
+      String spillFolderPath) {
     // Common part(among all other operators)
     this.operatorContext = operatorContext;
     this.inputOperator = inputOperator;
@@ -118,7 +130,6 @@ public class TableWindowOperator implements ProcessOperator {
     this.cachedPartitionExecutors = new LinkedList<>();
 
     // Misc
-    this.cachedTsBlocks = new ArrayList<>();
     this.startIndexInFirstBlock = -1;
     this.maxRuntime = this.operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
     this.totalMemorySize = 0;
@@ -128,6 +139,14 @@ public class TableWindowOperator implements ProcessOperator {
             .getDriverContext()
             .getFragmentInstanceContext()
             .getMemoryReservationContext();
+
+    // Spill part
+    this.spillFolderPath = spillFolderPath;
+    this.partitionBufferSize =
+        IoTDBDescriptor.getInstance().getConfig().getWindowPartitionBufferSize();
+    this.cachedPartitionCount = 0;
+    this.spilledDataSize = 0;
+    this.cachedTsBlocks = createCachedTsBlocks();
   }
 
   @Override
@@ -186,8 +205,8 @@ public class TableWindowOperator implements ProcessOperator {
               frameInfoList,
               sortChannels);
       cachedPartitionExecutors.addLast(partitionExecutor);
-      cachedTsBlocks.clear();
       releaseAllCachedTsBlockMemory();
+      cachedTsBlocks = createCachedTsBlocks();
 
       TsBlock tsBlock = transform(startTime);
       if (tsBlock == null) {
@@ -211,7 +230,7 @@ public class TableWindowOperator implements ProcessOperator {
     return null;
   }
 
-  private LinkedList<PartitionExecutor> partition(TsBlock tsBlock) {
+  private LinkedList<PartitionExecutor> partition(TsBlock tsBlock) throws IoTDBException {
     LinkedList<PartitionExecutor> partitionExecutors = new LinkedList<>();
 
     int partitionStartInCurrentBlock = 0;
@@ -242,8 +261,8 @@ public class TableWindowOperator implements ProcessOperator {
                 sortChannels);
 
         partitionExecutors.addLast(partitionExecutor);
-        cachedTsBlocks.clear();
         releaseAllCachedTsBlockMemory();
+        cachedTsBlocks = createCachedTsBlocks();
         startIndexInFirstBlock = -1;
       }
     }
@@ -288,8 +307,8 @@ public class TableWindowOperator implements ProcessOperator {
                   frameInfoList,
                   sortChannels);
           // Clear TsBlock of last partition
-          cachedTsBlocks.clear();
           releaseAllCachedTsBlockMemory();
+          cachedTsBlocks = createCachedTsBlocks();
         }
         partitionExecutors.addLast(partitionExecutor);
 
@@ -302,6 +321,7 @@ public class TableWindowOperator implements ProcessOperator {
         }
         reserveOneTsBlockMemory(tsBlock);
         cachedTsBlocks.add(tsBlock);
+        spillCachedTsBlocksIfNeeded();
         // For count == 1
         break;
       }
@@ -323,7 +343,7 @@ public class TableWindowOperator implements ProcessOperator {
       }
 
       if (!partitionExecutor.hasNext()) {
-        cachedPartitionExecutors.removeFirst();
+        cachedPartitionExecutors.removeFirst().close();
       }
 
       if (System.nanoTime() - startTime >= maxRuntime || tsBlockBuilder.isFull()) {
@@ -363,6 +383,11 @@ public class TableWindowOperator implements ProcessOperator {
   @Override
   public void close() throws Exception {
     inputOperator.close();
+    for (PartitionExecutor partitionExecutor : cachedPartitionExecutors) {
+      partitionExecutor.close();
+    }
+    cachedPartitionExecutors.clear();
+    cachedTsBlocks.close();
     if (totalMemorySize != 0) {
       memoryReservationManager.releaseMemoryCumulatively(totalMemorySize);
     }
@@ -382,13 +407,40 @@ public class TableWindowOperator implements ProcessOperator {
   }
 
   private void releaseAllCachedTsBlockMemory() {
-    long released = cachedTsBlocks.stream().mapToInt(TsBlock::getTotalInstanceSize).sum();
+    long released = cachedTsBlocks.getInMemorySize();
     memoryReservationManager.releaseMemoryCumulatively(released);
     totalMemorySize -= released;
     // No need to update maxUsedMemory
     operatorContext.recordSpecifiedInfo(MAX_RESERVED_MEMORY, Long.toString(maxUsedMemory));
   }
 
+  private SpillableTsBlockList createCachedTsBlocks() {
+    TsBlockPageSpiller spiller = null;
+    if (spillFolderPath != null && partitionBufferSize > 0) {
+      spiller =
+          new TsBlockPageSpiller(
+              spillFolderPath,
+              spillFolderPath
+                  + operatorContext.getOperatorId()
+                  + "-"
+                  + String.format("%05d", cachedPartitionCount++));
+    }
+    return new SpillableTsBlockList(
+        spiller, sortChannels, partitionBufferSize, memoryReservationManager);
+  }
+
+  private void spillCachedTsBlocksIfNeeded() throws IoTDBException {
+    if (!cachedTsBlocks.needSpill()) {
+      return;
+    }
+    long spilledSizeBefore = cachedTsBlocks.getSpilledSize();
+    long released = cachedTsBlocks.spill();
+    memoryReservationManager.releaseMemoryCumulatively(released);
+    totalMemorySize -= released;
+    spilledDataSize += cachedTsBlocks.getSpilledSize() - spilledSizeBefore;
+    operatorContext.recordSpecifiedInfo(SPILLED_DATA_SIZE, Long.toString(spilledDataSize));
+  }
+
   @Override
   public long calculateMaxPeekMemory() {
     long maxPeekMemoryFromInput = inputOperator.calculateMaxPeekMemoryWithCounter();
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.window;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.ProcessOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode.RankingType;
+import org.apache.iotdb.db.utils.datastructure.SortKey;
+
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.DEFAULT_GROUP_NUMBER;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.CURRENT_USED_MEMORY;
+
+/**
+ * Keeps the rows whose row_number() or rank() is not greater than maxRankingPerPartition in each
+ * partition. Rows are assigned to partitions by {@link GroupByHash}, and each partition keeps a
+ * bounded heap whose top is the last row in sort order, so the input doesn't need to be sorted.
+ */
+public class TopKRankingOperator implements ProcessOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TopKRankingOperator.class);
+  private static final long SORT_KEY_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(SortKey.class)
+          + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+  private final OperatorContext operatorContext;
+  private final Operator child;
+  private final List<TSDataType> inputDataTypes;
+  private final int[] partitionChannels;
+  // null if there is no partition channel, then all the rows belong to group 0
+  private final GroupByHash groupByHash;
+
+  private final Comparator<SortKey> comparator;
+  private final Comparator<SortKey> reversedComparator;
+  private final RankingType rankingType;
+  private final int maxRankingPerPartition;
+  private final boolean generateRanking;
+
+  private final List<PriorityQueue<SortKey>> heaps = new ArrayList<>();
+  private long heapEntryCount = 0;
+
+  // TsBlocks referenced by the SortKeys in heaps
+  private List<TsBlock> retainedTsBlocks = new ArrayList<>();
+  private long retainedTsBlocksSize = 0;
+  // compact retained TsBlocks when their size exceeds this threshold
+  private long compactionThreshold;
+
+  private final TsBlockBuilder tsBlockBuilder;
+
+  // state of output
+  private boolean inputFinished = false;
+  private int outputGroupIndex = 0;
+  private SortKey[] outputRows;
+  private long[] outputRankings;
+  private int outputRowIndex = 0;
+
+  private final MemoryReservationManager memoryReservationManager;
+  private long previousRetainedSize = 0;
+
+  public TopKRankingOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<TSDataType> inputDataTypes,
+      List<Type> partitionTypes,
+      List<Integer> partitionChannels,
+      Comparator<SortKey> comparator,
+      RankingType rankingType,
+      int maxRankingPerPartition,
+      boolean generateRanking) {
+    this.operatorContext = operatorContext;
+    this.child = child;
+    this.inputDataTypes = inputDataTypes;
+    this.partitionChannels = Ints.toArray(partitionChannels);
+    this.groupByHash =
+        partitionChannels.isEmpty()
+            ? null
+            : GroupByHash.createGroupByHash(
+                partitionTypes, false, DEFAULT_GROUP_NUMBER, UpdateMemory.NOOP);
+    this.comparator = comparator;
+    this.reversedComparator = comparator.reversed();
+    this.rankingType = rankingType;
+    this.maxRankingPerPartition = maxRankingPerPartition;
+    this.generateRanking = generateRanking;
+
+    List<TSDataType> outputDataTypes = new ArrayList<>(inputDataTypes);
+    if (generateRanking) {
+      outputDataTypes.add(TSDataType.INT64);
+    }
+    this.tsBlockBuilder = new TsBlockBuilder(outputDataTypes);
+    this.compactionThreshold = getMinCompactionThreshold();
+    this.memoryReservationManager =
+        operatorContext
+            .getDriverContext()
+            .getFragmentInstanceContext()
+            .getMemoryReservationContext();
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return inputFinished ? NOT_BLOCKED : child.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (!inputFinished) {
+      // Each call only consumes at most one TsBlock, no need to check time slice.
+      if (child.hasNextWithTimer()) {
+        TsBlock tsBlock = child.nextWithTimer();
+        if (tsBlock != null && !tsBlock.isEmpty()) {
+          addTsBlock(tsBlock);
+          updateOccupiedMemorySize();
+        }
+        return null;
+      }
+      inputFinished = true;
+    }
+    return buildResult();
+  }
+
+  private void addTsBlock(TsBlock tsBlock) {
+    int positionCount = tsBlock.getPositionCount();
+    int[] groupIds =
+        groupByHash == null ? null : groupByHash.getGroupIds(tsBlock.getColumns(partitionChannels));
+    int groupCount = groupByHash == null ? 1 : groupByHash.getGroupCount();
+    while (heaps.size() < groupCount) {
+      heaps.add(new PriorityQueue<>(reversedComparator));
+    }
+
+    boolean retained = false;
+    for (int i = 0; i < positionCount; i++) {
+      PriorityQueue<SortKey> heap = heaps.get(groupIds == null ? 0 : groupIds[i]);
+      retained |= addRow(heap, new SortKey(tsBlock, i));
+    }
+    if (retained) {
+      retainedTsBlocks.add(tsBlock);
+      retainedTsBlocksSize += tsBlock.getRetainedSizeInBytes();
+      if (retainedTsBlocksSize > compactionThreshold) {
+        compactRetainedTsBlocks();
+      }
+    }
+  }
+
+  /**
+   * @return true if the row is added into the heap
+   */
+  private boolean addRow(PriorityQueue<SortKey> heap, SortKey row) {
+    if (heap.size() < maxRankingPerPartition) {
+      heap.add(row);
+      heapEntryCount++;
+      return true;
+    }
+
+    int compareWithLast = comparator.compare(row, heap.peek());
+    if (rankingType == RankingType.ROW_NUMBER) {
+      if (compareWithLast >= 0) {
+        return false;
+      }
+      heap.poll();
+      heap.add(row);
+      return true;
+    }
+
+    // RANK: rows ranked after all the kept rows can't be in the result
+    if (compareWithLast > 0) {
+      return false;
+    }
+    heap.add(row);
+    heapEntryCount++;
+    if (compareWithLast < 0) {
+      // The rows equal to the last one are ranked after one more row now, remove them if their
+      // ranking exceeds the limit.
+      SortKey last = heap.poll();
+      List<SortKey> ties = new ArrayList<>();
+      ties.add(last);
+      while (!heap.isEmpty() && comparator.compare(heap.peek(), last) == 0) {
+        ties.add(heap.poll());
+      }
+      if (heap.size() < maxRankingPerPartition) {
+        heap.addAll(ties);
+      } else {
+        heapEntryCount -= ties.size();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The heaps only keep a few rows of each TsBlock in most cases, copy them into new TsBlocks so
+   * that the input TsBlocks can be released.
+   */
+  private void compactRetainedTsBlocks() {
+    TsBlockBuilder builder = new TsBlockBuilder(inputDataTypes);
+    List<TsBlock> compactedTsBlocks = new ArrayList<>();
+    List<SortKey> pendingRows = new ArrayList<>();
+    for (PriorityQueue<SortKey> heap : heaps) {
+      for (SortKey row : heap) {
+        if (builder.isFull()) {
+          compactedTsBlocks.add(buildCompactedTsBlock(builder, pendingRows));
+        }
+        appendRow(builder, row);
+        pendingRows.add(row);
+      }
+    }
+    if (!builder.isEmpty()) {
+      compactedTsBlocks.add(buildCompactedTsBlock(builder, pendingRows));
+    }
+
+    retainedTsBlocks = compactedTsBlocks;
+    retainedTsBlocksSize = 0;
+    for (TsBlock tsBlock : compactedTsBlocks) {
+      retainedTsBlocksSize += tsBlock.getRetainedSizeInBytes();
+    }
+    compactionThreshold = Math.max(retainedTsBlocksSize * 2, getMinCompactionThreshold());
+  }
+
+  private TsBlock buildCompactedTsBlock(TsBlockBuilder builder, List<SortKey> pendingRows) {
+    TsBlock tsBlock =
+        builder.build(new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, builder.getPositionCount()));
+    // SortKeys in heaps point to the compacted TsBlock now, their order in heaps is not changed
+    for (int i = 0; i < pendingRows.size(); i++) {
+      SortKey row = pendingRows.get(i);
+      row.tsBlock = tsBlock;
+      row.rowIndex = i;
+    }
+    pendingRows.clear();
+    builder.reset();
+    return tsBlock;
+  }
+
+  private void appendRow(TsBlockBuilder builder, SortKey row) {
+    for (int i = 0; i < inputDataTypes.size(); i++) {
+      Column column = row.tsBlock.getColumn(i);
+      ColumnBuilder columnBuilder = builder.getColumnBuilder(i);
+      if (column.isNull(row.rowIndex)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.write(column, row.rowIndex);
+      }
+    }
+    builder.declarePosition();
+  }
+
+  private TsBlock buildResult() {
+    tsBlockBuilder.reset();
+    while (!tsBlockBuilder.isFull()) {
+      if (outputRows == null || outputRowIndex == outputRows.length) {
+        if (outputGroupIndex == heaps.size()) {
+          break;
+        }
+        prepareGroupOutput(heaps.get(outputGroupIndex));
+        // release the heap as soon as it is output
+        heaps.set(outputGroupIndex, null);
+        outputGroupIndex++;
+        continue;
+      }
+
+      SortKey row = outputRows[outputRowIndex];
+      appendRow(tsBlockBuilder, row);
+      if (generateRanking) {
+        tsBlockBuilder
+            .getColumnBuilder(inputDataTypes.size())
+            .writeLong(outputRankings[outputRowIndex]);
+      }
+      outputRowIndex++;
+    }
+
+    if (outputGroupIndex == heaps.size()
+        && (outputRows == null || outputRowIndex == outputRows.length)) {
+      releaseRetainedTsBlocks();
+    }
+    if (tsBlockBuilder.isEmpty()) {
+      return null;
+    }
+    return tsBlockBuilder.build(
+        new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, tsBlockBuilder.getPositionCount()));
+  }
+
+  private void prepareGroupOutput(PriorityQueue<SortKey> heap) {
+    int size = heap.size();
+    outputRows = new SortKey[size];
+    // the top of heap is the last row in sort order
+    for (int i = size - 1; i >= 0; i--) {
+      outputRows[i] = heap.poll();
+    }
+    outputRankings = new long[size];
+    for (int i = 0; i < size; i++) {
+      if (rankingType == RankingType.RANK
+          && i > 0
+          && comparator.compare(outputRows[i - 1], outputRows[i]) == 0) {
+        outputRankings[i] = outputRankings[i - 1];
+      } else {
+        outputRankings[i] = i + 1;
+      }
+    }
+    outputRowIndex = 0;
+  }
+
+  private void releaseRetainedTsBlocks() {
+    heaps.clear();
+    outputGroupIndex = 0;
+    outputRows = null;
+    outputRankings = null;
+    outputRowIndex = 0;
+    heapEntryCount = 0;
+    retainedTsBlocks.clear();
+    retainedTsBlocksSize = 0;
+    updateOccupiedMemorySize();
+  }
+
+  private long getMinCompactionThreshold() {
+    return TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes() * 4L;
+  }
+
+  private long getEstimatedSize() {
+    return (groupByHash == null ? 0 : groupByHash.getEstimatedSize())
+        + retainedTsBlocksSize
+        + heapEntryCount * SORT_KEY_SIZE;
+  }
+
+  private void updateOccupiedMemorySize() {
+    long memorySize = getEstimatedSize();
+    operatorContext.recordSpecifiedInfo(CURRENT_USED_MEMORY, Long.toString(memorySize));
+    long delta = memorySize - previousRetainedSize;
+    if (delta > 0) {
+      memoryReservationManager.reserveMemoryCumulatively(delta);
+    } else if (delta < 0) {
+      memoryReservationManager.releaseMemoryCumulatively(-delta);
+    }
+    previousRetainedSize = memorySize;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return !inputFinished || !heaps.isEmpty();
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNextWithTimer();
+  }
+
+  @Override
+  public void close() throws Exception {
+    child.close();
+    if (previousRetainedSize > 0) {
+      memoryReservationManager.releaseMemoryCumulatively(previousRetainedSize);
+      previousRetainedSize = 0;
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return Math.max(
+        child.calculateMaxPeekMemoryWithCounter(),
+        calculateRetainedSizeAfterCallingNext() + calculateMaxReturnSize());
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return child.calculateMaxReturnSize() + child.calculateRetainedSizeAfterCallingNext();
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(child)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + tsBlockBuilder.getRetainedSizeInBytes();
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.window.function.aggregate;
+
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.WindowFunction;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.Partition;
+
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.Arrays;
+
+/**
+ * Evaluate MIN and MAX over moving frames by a monotonic deque of the row indexes in the frame, the
+ * value of each row is not better than the value of the row before it in the deque. As the frames
+ * of ROWS, RANGE and GROUPS only move forward in a partition, each row is added and removed at most
+ * once, so the frame is evaluated in amortized O(1) instead of re-adding the whole frame to the
+ * accumulator, which can't remove input.
+ *
+ * <p>The result is the same as MinAccumulator and MaxAccumulator, which keep the current result
+ * unless a later value is strictly better by the primitive comparison. So the first of the equal
+ * values (e.g. -0.0 and 0.0) is returned, and NaN is returned only if it is the first non-null
+ * value in the frame, otherwise it is ignored.
+ */
+public class SlidingExtremaWindowFunction implements WindowFunction {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final int channel;
+  private final TSDataType dataType;
+  private final boolean isMax;
+
+  // row indexes in the deque are deque[head, tail)
+  private int[] deque = new int[INITIAL_CAPACITY];
+  private int head;
+  private int tail;
+
+  private int currentStart;
+  private int currentEnd;
+
+  // the first row in the frame which is not null, only maintained for FLOAT and DOUBLE
+  private int firstNonNullRow;
+
+  public SlidingExtremaWindowFunction(int channel, TSDataType dataType, boolean isMax) {
+    this.channel = channel;
+    this.dataType = dataType;
+    this.isMax = isMax;
+    reset();
+  }
+
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+      case FLOAT:
+      case DOUBLE:
+      case TEXT:
+      case STRING:
+      case BLOB:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public void reset() {
+    head = 0;
+    tail = 0;
+    currentStart = -1;
+    currentEnd = -1;
+    firstNonNullRow = -1;
+  }
+
+  @Override
+  public void transform(
+      Partition partition,
+      ColumnBuilder builder,
+      int index,
+      int frameStart,
+      int frameEnd,
+      int peerGroupStart,
+      int peerGroupEnd) {
+    if (frameStart < 0) {
+      // Empty frame
+      reset();
+      builder.appendNull();
+      return;
+    }
+
+    if (currentStart < 0
+        || frameStart < currentStart
+        || frameEnd < currentEnd
+        || frameStart > currentEnd) {
+      // The frame moves backward or doesn't overlap the current one, rebuild it
+      head = 0;
+      tail = 0;
+      firstNonNullRow = frameStart;
+      addRows(partition, frameStart, frameEnd);
+    } else {
+      addRows(partition, currentEnd + 1, frameEnd);
+      while (head < tail && deque[head] < frameStart) {
+        head++;
+      }
+    }
+    currentStart = frameStart;
+    currentEnd = frameEnd;
+
+    if (isFloatingPoint()) {
+      firstNonNullRow = Math.max(firstNonNullRow, frameStart);
+      while (firstNonNullRow <= frameEnd && partition.isNull(channel, firstNonNullRow)) {
+        firstNonNullRow++;
+      }
+      if (firstNonNullRow <= frameEnd && isNaN(partition, firstNonNullRow)) {
+        // the accumulator never replaces NaN once it is the first value
+        partition.writeTo(builder, channel, firstNonNullRow);
+        return;
+      }
+    }
+
+    if (head == tail) {
+      // All values in the frame are null
+      builder.appendNull();
+    } else {
+      partition.writeTo(builder, channel, deque[head]);
+    }
+  }
+
+  private void addRows(Partition partition, int start, int end) {
+    for (int row = start; row <= end; row++) {
+      // NaN is never better than or worse than other values, it is handled by firstNonNullRow
+      if (partition.isNull(channel, row) || isNaN(partition, row)) {
+        continue;
+      }
+      // keep the former of the equal values, just like the accumulator
+      while (head < tail && isBetter(partition, row, deque[tail - 1])) {
+        tail--;
+      }
+      if (tail == deque.length) {
+        if (head > 0) {
+          // Reuse the space of the removed rows
+          System.arraycopy(deque, head, deque, 0, tail - head);
+          tail -= head;
+          head = 0;
+        } else {
+          deque = Arrays.copyOf(deque, deque.length * 2);
+        }
+      }
+      deque[tail++] = row;
+    }
+  }
+
+  private boolean isFloatingPoint() {
+    return dataType == TSDataType.FLOAT || dataType == TSDataType.DOUBLE;
+  }
+
+  private boolean isNaN(Partition partition, int row) {
+    switch (dataType) {
+      case FLOAT:
+        return Float.isNaN(partition.getFloat(channel, row));
+      case DOUBLE:
+        return Double.isNaN(partition.getDouble(channel, row));
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Whether the value of the row is strictly better than the value of the other row, compared in
+   * the same way as MinAccumulator and MaxAccumulator.
+   */
+  private boolean isBetter(Partition partition, int row, int otherRow) {
+    switch (dataType) {
+      case INT32:
+      case DATE:
+        int intValue = partition.getInt(channel, row);
+        int otherIntValue = partition.getInt(channel, otherRow);
+        return isMax ? intValue > otherIntValue : intValue < otherIntValue;
+      case INT64:
+      case TIMESTAMP:
+        long longValue = partition.getLong(channel, row);
+        long otherLongValue = partition.getLong(channel, otherRow);
+        return isMax ? longValue > otherLongValue : longValue < otherLongValue;
+      case FLOAT:
+        float floatValue = partition.getFloat(channel, row);
+        float otherFloatValue = partition.getFloat(channel, otherRow);
+        return isMax ? floatValue > otherFloatValue : floatValue < otherFloatValue;
+      case DOUBLE:
+        double doubleValue = partition.getDouble(channel, row);
+        double otherDoubleValue = partition.getDouble(channel, otherRow);
+        return isMax ? doubleValue > otherDoubleValue : doubleValue < otherDoubleValue;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        int result =
+            partition.getBinary(channel, row).compareTo(partition.getBinary(channel, otherRow));
+        return isMax ? result > 0 : result < 0;
+      default:
+        throw new UnsupportedOperationException(
+            String.format("Unsupported data type in MIN/MAX window function: %s", dataType));
+    }
+  }
+
+  @Override
+  public boolean needPeerGroup() {
+    return false;
+  }
+}
@@ -26,45 +26,62 @@ import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.Binary;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 public class Partition {
   private final List<TsBlock> tsBlocks;
-  private int cachedPositionCount = -1;
+  // Not null if some TsBlocks of the partition are spilled
+  private final SpilledTsBlocks spilledTsBlocks;
+  // Index of the first row of each TsBlock within partition
+  private final int[] tsBlockStartIndexes;
+  private final int positionCount;
 
   public Partition(List<TsBlock> tsBlocks, int startIndexInFirstBlock, int endIndexInLastBlock) {
-    if (tsBlocks.size() == 1) {
+    if (tsBlocks instanceof SpillableTsBlockList
+        && ((SpillableTsBlockList) tsBlocks).hasSpilledTsBlocks()) {
+      // TsBlocks are paged in on access
+      this.spilledTsBlocks =
+          new SpilledTsBlocks(
+              (SpillableTsBlockList) tsBlocks, startIndexInFirstBlock, endIndexInLastBlock);
+      this.tsBlocks = spilledTsBlocks;
+    } else if (tsBlocks.size() == 1) {
       int length = endIndexInLastBlock - startIndexInFirstBlock;
+      this.spilledTsBlocks = null;
       this.tsBlocks =
           Collections.singletonList(tsBlocks.get(0).getRegion(startIndexInFirstBlock, length));
-      return;
+    } else {
+      this.spilledTsBlocks = null;
+      this.tsBlocks = new ArrayList<>(tsBlocks.size());
+      // First TsBlock
+      TsBlock firstBlock = tsBlocks.get(0).subTsBlock(startIndexInFirstBlock);
+      this.tsBlocks.add(firstBlock);
+      // Middle TsBlock
+      for (int i = 1; i < tsBlocks.size() - 1; i++) {
+        this.tsBlocks.add(tsBlocks.get(i));
+      }
+      // Last TsBlock
+      TsBlock lastBlock = tsBlocks.get(tsBlocks.size() - 1).getRegion(0, endIndexInLastBlock);
+      this.tsBlocks.add(lastBlock);
     }
 
-    this.tsBlocks = new ArrayList<>(tsBlocks.size());
-    // First TsBlock
-    TsBlock firstBlock = tsBlocks.get(0).subTsBlock(startIndexInFirstBlock);
-    this.tsBlocks.add(firstBlock);
-    // Middle TsBlock
-    for (int i = 1; i < tsBlocks.size() - 1; i++) {
-      this.tsBlocks.add(tsBlocks.get(i));
+    this.tsBlockStartIndexes = new int[this.tsBlocks.size()];
+    int count = 0;
+    for (int i = 0; i < tsBlockStartIndexes.length; i++) {
+      tsBlockStartIndexes[i] = count;
+      count +=
+          spilledTsBlocks != null
+              ? spilledTsBlocks.getPositionCount(i)
+              : this.tsBlocks.get(i).getPositionCount();
     }
-    // Last TsBlock
-    TsBlock lastBlock = tsBlocks.get(tsBlocks.size() - 1).getRegion(0, endIndexInLastBlock);
-    this.tsBlocks.add(lastBlock);
+    this.positionCount = count;
   }
 
   public int getPositionCount() {
-    if (cachedPositionCount == -1) {
-      // Lazy initialized
-      cachedPositionCount = 0;
-      for (TsBlock block : tsBlocks) {
-        cachedPositionCount += block.getPositionCount();
-      }
-    }
-
-    return cachedPositionCount;
+    return positionCount;
   }
 
   public int getValueColumnCount() {
@@ -194,20 +211,22 @@ public class Partition {
 
   // rowIndex is index within partition
   public PartitionIndex getPartitionIndex(int rowIndex) {
-    int tsBlockIndex = 0;
-    while (tsBlockIndex < tsBlocks.size()
-        && rowIndex >= tsBlocks.get(tsBlockIndex).getPositionCount()) {
-      rowIndex -= tsBlocks.get(tsBlockIndex).getPositionCount();
-      // Enter next TsBlock
-      tsBlockIndex++;
+    if (rowIndex < 0 || rowIndex >= positionCount) {
+      // Unlikely
+      throw new IndexOutOfBoundsException("Index out of Partition's bounds!");
     }
 
-    if (tsBlockIndex != tsBlocks.size()) {
-      return new PartitionIndex(tsBlockIndex, rowIndex);
+    int tsBlockIndex = Arrays.binarySearch(tsBlockStartIndexes, rowIndex);
+    if (tsBlockIndex < 0) {
+      tsBlockIndex = -tsBlockIndex - 2;
     } else {
-      // Unlikely
-      throw new IndexOutOfBoundsException("Index out of Partition's bounds!");
+      // Skip empty TsBlocks
+      while (tsBlockIndex < tsBlockStartIndexes.length - 1
+          && tsBlockStartIndexes[tsBlockIndex + 1] == rowIndex) {
+        tsBlockIndex++;
+      }
     }
+    return new PartitionIndex(tsBlockIndex, rowIndex - tsBlockStartIndexes[tsBlockIndex]);
   }
 
   public List<ColumnList> getSortedColumnList(List<Integer> sortedChannels) {
@@ -215,12 +234,95 @@ public class Partition {
 
     for (Integer sortedChannel : sortedChannels) {
       List<Column> columns = new ArrayList<>();
-      for (TsBlock tsBlock : tsBlocks) {
-        columns.add(tsBlock.getColumn(sortedChannel));
+      for (int i = 0; i < tsBlocks.size(); i++) {
+        // Sort channels of spilled TsBlocks are resident in memory
+        columns.add(
+            spilledTsBlocks != null
+                ? spilledTsBlocks.getColumn(i, sortedChannel)
+                : tsBlocks.get(i).getColumn(sortedChannel));
       }
       columnLists.add(new ColumnList(columns));
     }
 
     return columnLists;
   }
+
+  /** Delete the spilled TsBlocks of the partition, should be called when it is processed. */
+  public void close() {
+    if (spilledTsBlocks != null) {
+      spilledTsBlocks.tsBlocks.close();
+    }
+  }
+
+  /** The spilled TsBlocks of the partition, the first and the last TsBlock are cut on access. */
+  private static class SpilledTsBlocks extends AbstractList<TsBlock> {
+    private final SpillableTsBlockList tsBlocks;
+    private final int startIndexInFirstBlock;
+    private final int endIndexInLastBlock;
+
+    // Cut TsBlocks of the first and the last paged in TsBlock
+    private TsBlock firstBlock;
+    private TsBlock cutFirstBlock;
+    private TsBlock lastBlock;
+    private TsBlock cutLastBlock;
+
+    private SpilledTsBlocks(
+        SpillableTsBlockList tsBlocks, int startIndexInFirstBlock, int endIndexInLastBlock) {
+      this.tsBlocks = tsBlocks;
+      this.startIndexInFirstBlock = startIndexInFirstBlock;
+      this.endIndexInLastBlock = endIndexInLastBlock;
+    }
+
+    @Override
+    public TsBlock get(int index) {
+      TsBlock tsBlock = tsBlocks.get(index);
+      if (index == 0) {
+        if (tsBlock != firstBlock) {
+          firstBlock = tsBlock;
+          cutFirstBlock =
+              tsBlocks.size() == 1
+                  ? tsBlock.getRegion(
+                      startIndexInFirstBlock, endIndexInLastBlock - startIndexInFirstBlock)
+                  : tsBlock.subTsBlock(startIndexInFirstBlock);
+        }
+        return cutFirstBlock;
+      } else if (index == tsBlocks.size() - 1) {
+        if (tsBlock != lastBlock) {
+          lastBlock = tsBlock;
+          cutLastBlock = tsBlock.getRegion(0, endIndexInLastBlock);
+        }
+        return cutLastBlock;
+      }
+      return tsBlock;
+    }
+
+    @Override
+    public int size() {
+      return tsBlocks.size();
+    }
+
+    private int getPositionCount(int index) {
+      if (index == 0) {
+        return tsBlocks.size() == 1
+            ? endIndexInLastBlock - startIndexInFirstBlock
+            : tsBlocks.getPositionCount(0) - startIndexInFirstBlock;
+      } else if (index == tsBlocks.size() - 1) {
+        return endIndexInLastBlock;
+      }
+      return tsBlocks.getPositionCount(index);
+    }
+
+    private Column getColumn(int index, int channel) {
+      Column column = tsBlocks.getColumn(index, channel);
+      if (index == 0) {
+        return tsBlocks.size() == 1
+            ? column.getRegion(
+                startIndexInFirstBlock, endIndexInLastBlock - startIndexInFirstBlock)
+            : column.subColumn(startIndexInFirstBlock);
+      } else if (index == tsBlocks.size() - 1) {
+        return column.getRegion(0, endIndexInLastBlock);
+      }
+      return column;
+    }
+  }
 }
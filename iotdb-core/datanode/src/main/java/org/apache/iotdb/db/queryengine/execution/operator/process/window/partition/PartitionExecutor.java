@@ -199,4 +199,8 @@ public final class PartitionExecutor {
       windowFunction.reset();
     }
   }
+
+  public void close() {
+    partition.close();
+  }
 }
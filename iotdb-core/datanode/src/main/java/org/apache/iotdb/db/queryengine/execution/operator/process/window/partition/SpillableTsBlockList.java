@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.window.partition;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+import org.apache.iotdb.db.utils.sort.TsBlockPageSpiller;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TsBlocks of one partition cached by the window or pattern recognition operator. When the
+ * TsBlocks in memory exceed the buffer, all of them except the last one are spilled to disk as
+ * pages. Only the resident channels (i.e. the sort channels for locating peer groups and frames) of
+ * the spilled TsBlocks stay in memory. The spilled TsBlocks are paged back in on access, and the
+ * recently accessed pages are cached within the buffer, as the frames mostly move forward.
+ *
+ * <p>The memory of the TsBlocks in memory is reserved by the operator, while the memory of the
+ * resident columns and the cached pages is reserved by this list and released in {@link #close()}.
+ */
+public class SpillableTsBlockList extends AbstractList<TsBlock> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpillableTsBlockList.class);
+
+  private static final QueryRelatedResourceMetricSet METRICS =
+      QueryRelatedResourceMetricSet.getInstance();
+
+  private final TsBlockPageSpiller spiller;
+  private final List<Integer> residentChannels;
+  private final long bufferSizeInBytes;
+  private final MemoryReservationManager memoryReservationManager;
+
+  // null if the TsBlock is spilled
+  private final List<TsBlock> tsBlocks = new ArrayList<>();
+  private final List<Integer> positionCounts = new ArrayList<>();
+  // page index of the spilled TsBlock, -1 if the TsBlock is in memory
+  private final List<Integer> pageIndexes = new ArrayList<>();
+  // resident columns of the spilled TsBlock, null if the TsBlock is in memory
+  private final List<Column[]> residentColumns = new ArrayList<>();
+
+  // page index -> TsBlock, in access order
+  private final LinkedHashMap<Integer, TsBlock> pageCache = new LinkedHashMap<>(16, 0.75f, true);
+  private long pageCacheSize = 0;
+  private long residentColumnsSize = 0;
+  private long inMemorySize = 0;
+
+  /**
+   * @param spiller null means the TsBlocks are never spilled
+   */
+  public SpillableTsBlockList(
+      TsBlockPageSpiller spiller,
+      List<Integer> residentChannels,
+      long bufferSizeInBytes,
+      MemoryReservationManager memoryReservationManager) {
+    this.spiller = spiller;
+    this.residentChannels = residentChannels;
+    this.bufferSizeInBytes = bufferSizeInBytes;
+    this.memoryReservationManager = memoryReservationManager;
+  }
+
+  @Override
+  public boolean add(TsBlock tsBlock) {
+    tsBlocks.add(tsBlock);
+    positionCounts.add(tsBlock.getPositionCount());
+    pageIndexes.add(-1);
+    residentColumns.add(null);
+    inMemorySize += tsBlock.getTotalInstanceSize();
+    return true;
+  }
+
+  @Override
+  public TsBlock get(int index) {
+    TsBlock tsBlock = tsBlocks.get(index);
+    if (tsBlock != null) {
+      return tsBlock;
+    }
+    int pageIndex = pageIndexes.get(index);
+    tsBlock = pageCache.get(pageIndex);
+    if (tsBlock == null) {
+      tsBlock = pageIn(pageIndex);
+    }
+    return tsBlock;
+  }
+
+  @Override
+  public int size() {
+    return tsBlocks.size();
+  }
+
+  public int getPositionCount(int index) {
+    return positionCounts.get(index);
+  }
+
+  /** Get the column without paging the TsBlock in if the channel is resident. */
+  public Column getColumn(int index, int channel) {
+    Column[] columns = residentColumns.get(index);
+    if (columns != null && columns[channel] != null) {
+      return columns[channel];
+    }
+    return get(index).getColumn(channel);
+  }
+
+  public boolean hasSpilledTsBlocks() {
+    return spiller != null && spiller.getPageNum() > 0;
+  }
+
+  public boolean needSpill() {
+    return spiller != null && bufferSizeInBytes > 0 && inMemorySize > bufferSizeInBytes;
+  }
+
+  /** The size of the TsBlocks in memory, measured by {@link TsBlock#getTotalInstanceSize()}. */
+  public long getInMemorySize() {
+    return inMemorySize;
+  }
+
+  /**
+   * Spill all TsBlocks in memory except the last one, which is still needed to find the end of the
+   * partition.
+   *
+   * @return the size of the spilled TsBlocks, whose memory should be released by the operator
+   */
+  public long spill() throws IoTDBException {
+    long spilledSize = 0;
+    long spilledBytes = spiller.getFileSize();
+    for (int i = 0; i < tsBlocks.size() - 1; i++) {
+      TsBlock tsBlock = tsBlocks.get(i);
+      if (tsBlock == null) {
+        continue;
+      }
+      pageIndexes.set(i, spiller.spill(tsBlock));
+
+      Column[] columns = new Column[tsBlock.getValueColumnCount()];
+      long columnsSize = 0;
+      for (int channel : residentChannels) {
+        columns[channel] = tsBlock.getColumn(channel);
+        columnsSize += columns[channel].getRetainedSizeInBytes();
+      }
+      memoryReservationManager.reserveMemoryCumulatively(columnsSize);
+      residentColumnsSize += columnsSize;
+      residentColumns.set(i, columns);
+
+      tsBlocks.set(i, null);
+      spilledSize += tsBlock.getTotalInstanceSize();
+    }
+    inMemorySize -= spilledSize;
+    METRICS.recordPartitionSpilledSize(spiller.getFileSize() - spilledBytes);
+    return spilledSize;
+  }
+
+  /**
+   * @return the size of the spilled file
+   */
+  public long getSpilledSize() {
+    return spiller == null ? 0 : spiller.getFileSize();
+  }
+
+  private TsBlock pageIn(int pageIndex) {
+    TsBlock tsBlock;
+    try {
+      tsBlock = spiller.read(pageIndex);
+    } catch (IoTDBException e) {
+      throw new IoTDBRuntimeException(e.getMessage(), e, e.getErrorCode());
+    }
+    long size = tsBlock.getRetainedSizeInBytes();
+    // Keep at least the page being accessed
+    Iterator<Map.Entry<Integer, TsBlock>> iterator = pageCache.entrySet().iterator();
+    while (pageCacheSize + size > bufferSizeInBytes && iterator.hasNext()) {
+      long evictedSize = iterator.next().getValue().getRetainedSizeInBytes();
+      iterator.remove();
+      memoryReservationManager.releaseMemoryCumulatively(evictedSize);
+      pageCacheSize -= evictedSize;
+    }
+    memoryReservationManager.reserveMemoryCumulatively(size);
+    pageCacheSize += size;
+    pageCache.put(pageIndex, tsBlock);
+    METRICS.recordPartitionPageInSize(size);
+    return tsBlock;
+  }
+
+  /** Release the memory reserved by this list and delete the spilled file. */
+  public void close() {
+    if (spiller == null) {
+      return;
+    }
+    if (pageCacheSize + residentColumnsSize != 0) {
+      memoryReservationManager.releaseMemoryCumulatively(pageCacheSize + residentColumnsSize);
+    }
+    pageCache.clear();
+    pageCacheSize = 0;
+    residentColumnsSize = 0;
+    try {
+      spiller.close();
+    } catch (IoTDBException e) {
+      // The file is also deleted with the temporary folder of the fragment instance
+      LOGGER.warn("Failed to delete the spilled partition file", e);
+    }
+  }
+}
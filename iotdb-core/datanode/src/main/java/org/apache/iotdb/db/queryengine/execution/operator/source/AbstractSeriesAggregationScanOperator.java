@@ -24,6 +24,7 @@ import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.I
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -70,6 +71,12 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   /** Some special data types(like BLOB) cannot use statistics. */
   protected final boolean canUseStatistics;
 
+  /**
+   * Some aggregators (like approx_percentile) can only use the sketches of TsFiles instead of
+   * statistics, then statistics can only be used for the files with sketches.
+   */
+  protected final boolean needSketch;
+
   @SuppressWarnings("squid:S107")
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
@@ -97,6 +104,7 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.maxReturnSize = maxReturnSize;
     this.outputEndTime = outputEndTime;
     this.canUseStatistics = canUseStatistics;
+    this.needSketch = canUseStatistics && aggregators.stream().anyMatch(TreeAggregator::useSketch);
   }
 
   @Override
@@ -229,12 +237,50 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   }
 
   protected void calcFromStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
+    calcFromStatistics(timeStatistics, valueStatistics, null);
+  }
+
+  /**
+   * @param sketches sketches of the current file indexed like valueStatistics, the aggregators
+   *     using sketches are calculated from them instead of statistics
+   */
+  protected void calcFromStatistics(
+      Statistics timeStatistics, Statistics[] valueStatistics, SeriesSketch[] sketches) {
     for (TreeAggregator aggregator : aggregators) {
       if (aggregator.hasFinalResult()) {
         continue;
       }
-      aggregator.processStatistics(timeStatistics, valueStatistics);
+      if (sketches != null && aggregator.useSketch()) {
+        aggregator.processSketch(sketches);
+      } else {
+        aggregator.processStatistics(timeStatistics, valueStatistics);
+      }
+    }
+  }
+
+  /**
+   * Get the sketches of the current file for the aggregators using sketches.
+   *
+   * @return sketches indexed like the value statistics, or null if any of the aggregators can not
+   *     be calculated from the sketches of the current file
+   */
+  private SeriesSketch[] currentFileSketches() {
+    SeriesSketch[] sketches = new SeriesSketch[subSensorSize];
+    for (TreeAggregator aggregator : aggregators) {
+      if (aggregator.useSketch()
+          && !aggregator.hasFinalResult()
+          && !aggregator.canUseSketch(index -> currentFileSketch(sketches, index))) {
+        return null;
+      }
     }
+    return sketches;
+  }
+
+  private SeriesSketch currentFileSketch(SeriesSketch[] sketches, int index) {
+    if (sketches[index] == null) {
+      sketches[index] = seriesScanUtil.currentFileSketch(index);
+    }
+    return sketches[index];
   }
 
   @SuppressWarnings({"squid:S3776", "squid:S135", "squid:S3740"})
@@ -255,16 +301,19 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         // calc from fileMetaData
         if (curTimeRange.contains(
             fileTimeStatistics.getStartTime(), fileTimeStatistics.getEndTime())) {
-          Statistics[] statisticsList = new Statistics[subSensorSize];
-          for (int i = 0; i < subSensorSize; i++) {
-            statisticsList[i] = seriesScanUtil.currentFileStatistics(i);
-          }
-          calcFromStatistics(fileTimeStatistics, statisticsList);
-          seriesScanUtil.skipCurrentFile();
-          if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
-            return true;
-          } else {
-            continue;
+          SeriesSketch[] sketches = needSketch ? currentFileSketches() : null;
+          if (!needSketch || sketches != null) {
+            Statistics[] statisticsList = new Statistics[subSensorSize];
+            for (int i = 0; i < subSensorSize; i++) {
+              statisticsList[i] = seriesScanUtil.currentFileStatistics(i);
+            }
+            calcFromStatistics(fileTimeStatistics, statisticsList, sketches);
+            seriesScanUtil.skipCurrentFile();
+            if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
+              return true;
+            } else {
+              continue;
+            }
           }
         }
       }
@@ -283,7 +332,7 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     // start stopwatch
     long start = System.nanoTime();
     while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextChunk()) {
-      if (canUseStatistics && seriesScanUtil.canUseCurrentChunkStatistics()) {
+      if (canUseStatistics && !needSketch && seriesScanUtil.canUseCurrentChunkStatistics()) {
         Statistics chunkTimeStatistics = seriesScanUtil.currentChunkTimeStatistics();
         if (chunkTimeStatistics.getStartTime() > curTimeRange.getMax()) {
           if (ascending) {
@@ -325,7 +374,7 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     long start = System.nanoTime();
     try {
       while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextPage()) {
-        if (canUseStatistics && seriesScanUtil.canUseCurrentPageStatistics()) {
+        if (canUseStatistics && !needSketch && seriesScanUtil.canUseCurrentPageStatistics()) {
           Statistics pageTimeStatistics = seriesScanUtil.currentPageTimeStatistics();
           // There is no more eligible points in current time range
           if (pageTimeStatistics.getStartTime() > curTimeRange.getMax()) {
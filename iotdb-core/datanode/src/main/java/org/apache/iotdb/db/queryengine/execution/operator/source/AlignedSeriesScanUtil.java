@@ -108,6 +108,11 @@ public class AlignedSeriesScanUtil extends SeriesScanUtil {
     return dataTypes;
   }
 
+  @Override
+  protected String getMeasurement(int index) {
+    return ((AlignedFullPath) seriesPath).getMeasurementList().get(index);
+  }
+
   @Override
   protected IPointReader getPointReader(TsBlock tsBlock) {
     return tsBlock.getTsBlockAlignedRowIterator();
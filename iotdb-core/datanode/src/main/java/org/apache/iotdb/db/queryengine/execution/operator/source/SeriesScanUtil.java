@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source;
 
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -28,12 +29,15 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCach
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.LateMaterializedAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeReaderPriority;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketchCache;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -61,8 +65,10 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
@@ -75,6 +81,8 @@ import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUI
 public class SeriesScanUtil implements Accountable {
 
   public static final StringArrayDeviceID EMPTY_DEVICE_ID = new StringArrayDeviceID("");
+  private static final boolean SKETCH_ENABLED =
+      IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSketch();
   protected final FragmentInstanceContext context;
 
   // The path of the target series which will be scanned.
@@ -97,6 +105,11 @@ public class SeriesScanUtil implements Accountable {
   private ITimeSeriesMetadata firstTimeSeriesMetadata;
   private final List<ITimeSeriesMetadata> seqTimeSeriesMetadata;
   private final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
+  // the sealed seq files of the cached TimeSeriesMetadata, only recorded if sketches are enabled
+  private final Map<ITimeSeriesMetadata, TsFileResource> seqFileOfTimeSeriesMetadata =
+      new IdentityHashMap<>();
+  // the sealed seq file of firstTimeSeriesMetadata, null if it is from an unseq or unsealed file
+  private TsFileResource firstTsFileResource;
 
   // chunk cache
   private IChunkMetadata firstChunkMetadata;
@@ -287,6 +300,31 @@ public class SeriesScanUtil implements Accountable {
     return firstTimeSeriesMetadata.getMeasurementStatistics(index).orElse(null);
   }
 
+  /**
+   * Get the sketch of the measurement in the current file. It should be called only if the
+   * statistics of the current file can be used.
+   *
+   * @param index index of the measurement in {@link #getTsDataTypeList()}
+   * @return null if the current file has no sketch of the measurement, or the sketch does not
+   *     match the statistics of the measurement
+   */
+  @SuppressWarnings("squid:S3740")
+  public SeriesSketch currentFileSketch(int index) {
+    if (firstTsFileResource == null) {
+      return null;
+    }
+    SeriesSketch sketch =
+        TsFileSketchCache.getInstance().get(firstTsFileResource, deviceID, getMeasurement(index));
+    Statistics statistics = currentFileStatistics(index);
+    if (sketch == null
+        || statistics == null
+        || sketch.getDataType() != getTsDataTypeList().get(index)
+        || sketch.getCount() != statistics.getCount()) {
+      return null;
+    }
+    return sketch;
+  }
+
   public void skipCurrentFile() {
     firstTimeSeriesMetadata = null;
   }
@@ -393,7 +431,9 @@ public class SeriesScanUtil implements Accountable {
       long endpointTime, boolean init) {
     while (!seqTimeSeriesMetadata.isEmpty()
         && orderUtils.isOverlapped(endpointTime, seqTimeSeriesMetadata.get(0).getStatistics())) {
-      unpackOneTimeSeriesMetadata(seqTimeSeriesMetadata.remove(0));
+      ITimeSeriesMetadata timeSeriesMetadata = seqTimeSeriesMetadata.remove(0);
+      seqFileOfTimeSeriesMetadata.remove(timeSeriesMetadata);
+      unpackOneTimeSeriesMetadata(timeSeriesMetadata);
     }
     while (!unSeqTimeSeriesMetadata.isEmpty()
         && orderUtils.isOverlapped(endpointTime, unSeqTimeSeriesMetadata.peek().getStatistics())) {
@@ -1114,17 +1154,21 @@ public class SeriesScanUtil implements Accountable {
     if (!seqTimeSeriesMetadata.isEmpty() && unSeqTimeSeriesMetadata.isEmpty()) {
       // only has seq
       firstTimeSeriesMetadata = seqTimeSeriesMetadata.remove(0);
+      firstTsFileResource = seqFileOfTimeSeriesMetadata.remove(firstTimeSeriesMetadata);
     } else if (seqTimeSeriesMetadata.isEmpty() && !unSeqTimeSeriesMetadata.isEmpty()) {
       // only has unseq
       firstTimeSeriesMetadata = unSeqTimeSeriesMetadata.poll();
+      firstTsFileResource = null;
     } else if (!seqTimeSeriesMetadata.isEmpty()) {
       // has seq and unseq
       if (orderUtils.isTakeSeqAsFirst(
           seqTimeSeriesMetadata.get(0).getStatistics(),
           unSeqTimeSeriesMetadata.peek().getStatistics())) {
         firstTimeSeriesMetadata = seqTimeSeriesMetadata.remove(0);
+        firstTsFileResource = seqFileOfTimeSeriesMetadata.remove(firstTimeSeriesMetadata);
       } else {
         firstTimeSeriesMetadata = unSeqTimeSeriesMetadata.poll();
+        firstTsFileResource = null;
       }
     }
   }
@@ -1175,12 +1219,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private Optional<ITimeSeriesMetadata> unpackSeqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, true);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (SKETCH_ENABLED && resource.isClosed()) {
+        seqFileOfTimeSeriesMetadata.put(timeseriesMetadata, resource);
+      }
       return Optional.of(timeseriesMetadata);
     } else {
       return Optional.empty();
@@ -1212,6 +1259,10 @@ public class SeriesScanUtil implements Accountable {
     return Collections.singletonList(dataType);
   }
 
+  protected String getMeasurement(int index) {
+    return ((NonAlignedFullPath) seriesPath).getMeasurement();
+  }
+
   protected IPointReader getPointReader(TsBlock tsBlock) {
     return tsBlock.getTsBlockSingleColumnIterator();
   }
@@ -1246,6 +1297,7 @@ public class SeriesScanUtil implements Accountable {
       this.isSeq = isSeq;
       this.isAligned =
           data instanceof AlignedPageReader
+              || data instanceof LateMaterializedAlignedPageReader
               || data instanceof MemAlignedPageReader
               || data instanceof TablePageReader;
       this.isMem = data instanceof MemPageReader || data instanceof MemAlignedPageReader;
@@ -37,6 +37,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -98,6 +99,9 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
   private final Ordering scanOrder;
   // Some special data types(like BLOB) cannot use statistics
   protected final boolean canUseStatistics;
+  // some aggregators (like APPROX_PERCENTILE) can only use the sketches of TsFiles instead of
+  // statistics, then statistics can only be used for the files with sketches
+  protected final boolean needSketch;
   private final long cachedRawDataSize;
 
   // stores all inputChannels of tableAggregators,
@@ -116,6 +120,9 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     this.operatorContext = parameter.context;
     this.canUseStatistics = parameter.canUseStatistics;
     this.tableAggregators = parameter.tableAggregators;
+    this.needSketch =
+        parameter.canUseStatistics
+            && parameter.tableAggregators.stream().anyMatch(TableAggregator::useSketch);
     this.groupingKeySchemas = parameter.groupingKeySchemas;
     this.groupingKeyIndex = parameter.groupingKeyIndex;
     this.groupingKeySize =
@@ -383,14 +390,30 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
   }
 
   protected void calcFromStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
+    calcFromStatistics(timeStatistics, valueStatistics, null);
+  }
+
+  /**
+   * @param sketches sketches of the input series indexed by the aggregators, the aggregators with
+   *     a sketch are calculated from the sketch instead of statistics
+   */
+  protected void calcFromStatistics(
+      Statistics timeStatistics, Statistics[] valueStatistics, SeriesSketch[] sketches) {
     int idx = -1;
 
-    for (TableAggregator aggregator : tableAggregators) {
+    for (int aggregatorIndex = 0; aggregatorIndex < tableAggregators.size(); aggregatorIndex++) {
+      TableAggregator aggregator = tableAggregators.get(aggregatorIndex);
       if (aggregator.hasFinalResult()) {
         idx += aggregator.getChannelCount();
         continue;
       }
 
+      if (sketches != null && sketches[aggregatorIndex] != null) {
+        idx += aggregator.getChannelCount();
+        aggregator.processSketch(sketches[aggregatorIndex]);
+        continue;
+      }
+
       Statistics[] statisticsArray = new Statistics[aggregator.getChannelCount()];
       for (int i = 0; i < aggregator.getChannelCount(); i++) {
         idx++;
@@ -435,6 +458,33 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     }
   }
 
+  /**
+   * Get the sketches of the current file for the aggregators using sketches.
+   *
+   * @return sketches indexed by the aggregators, or null if any of the aggregators can not be
+   *     calculated from the sketches of the current file
+   */
+  private SeriesSketch[] currentFileSketches() {
+    SeriesSketch[] sketches = new SeriesSketch[tableAggregators.size()];
+    int idx = 0;
+    for (int aggregatorIndex = 0; aggregatorIndex < tableAggregators.size(); aggregatorIndex++) {
+      TableAggregator aggregator = tableAggregators.get(aggregatorIndex);
+      if (aggregator.useSketch() && !aggregator.hasFinalResult()) {
+        int channel = aggregatorInputChannels.get(idx);
+        if (aggColumnSchemas.get(channel).getColumnCategory() != TsTableColumnCategory.FIELD) {
+          return null;
+        }
+        SeriesSketch sketch = seriesScanUtil.currentFileSketch(aggColumnsIndexArray[channel]);
+        if (sketch == null || !aggregator.canUseSketch(sketch)) {
+          return null;
+        }
+        sketches[aggregatorIndex] = sketch;
+      }
+      idx += aggregator.getChannelCount();
+    }
+    return sketches;
+  }
+
   private Statistics getStatistics(Statistics timeStatistics, Binary columnName) {
     if (columnName == null) {
       return null;
@@ -471,16 +521,19 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
         if (timeIterator
             .getCurTimeRange()
             .contains(fileTimeStatistics.getStartTime(), fileTimeStatistics.getEndTime())) {
-          Statistics[] statisticsList = new Statistics[measurementCount];
-          for (int i = 0; i < measurementCount; i++) {
-            statisticsList[i] = seriesScanUtil.currentFileStatistics(i);
-          }
-          calcFromStatistics(fileTimeStatistics, statisticsList);
-          seriesScanUtil.skipCurrentFile();
-          if (isAllAggregatorsHasFinalResult(tableAggregators)) {
-            return true;
-          } else {
-            continue;
+          SeriesSketch[] sketches = needSketch ? currentFileSketches() : null;
+          if (!needSketch || sketches != null) {
+            Statistics[] statisticsList = new Statistics[measurementCount];
+            for (int i = 0; i < measurementCount; i++) {
+              statisticsList[i] = seriesScanUtil.currentFileStatistics(i);
+            }
+            calcFromStatistics(fileTimeStatistics, statisticsList, sketches);
+            seriesScanUtil.skipCurrentFile();
+            if (isAllAggregatorsHasFinalResult(tableAggregators)) {
+              return true;
+            } else {
+              continue;
+            }
           }
         }
       }
@@ -499,7 +552,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     // start stopwatch
     long start = System.nanoTime();
     while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextChunk()) {
-      if (canUseStatistics && seriesScanUtil.canUseCurrentChunkStatistics()) {
+      if (canUseStatistics && !needSketch && seriesScanUtil.canUseCurrentChunkStatistics()) {
         Statistics chunkTimeStatistics = seriesScanUtil.currentChunkTimeStatistics();
 
         updateCurTimeRange(chunkTimeStatistics.getStartTime());
@@ -547,7 +600,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     long start = System.nanoTime();
     try {
       while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextPage()) {
-        if (canUseStatistics && seriesScanUtil.canUseCurrentPageStatistics()) {
+        if (canUseStatistics && !needSketch && seriesScanUtil.canUseCurrentPageStatistics()) {
           Statistics pageTimeStatistics = seriesScanUtil.currentPageTimeStatistics();
 
           updateCurTimeRange(pageTimeStatistics.getStartTime());
@@ -32,11 +32,13 @@ import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.RamUsageEstimator;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
@@ -58,6 +60,9 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
   public static final String CURRENT_DEVICE_INDEX_STRING = "CurrentDeviceIndex";
 
+  public static final String DYNAMIC_FILTER_SKIPPED_DEVICE_NUMBER =
+      "DynamicFilterSkippedDeviceNumber";
+
   public static final LongColumn TIME_COLUMN_TEMPLATE =
       new LongColumn(1, Optional.empty(), new long[] {0});
 
@@ -90,6 +95,14 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
   private int currentDeviceIndex;
 
+  // filter of the devices collected from the build side of the join above this scan
+  private JoinDynamicFilter dynamicFilter;
+
+  private int dynamicFilterSkippedDeviceCount;
+
+  // the first device is prepared in the constructor, before the dynamic filter is set
+  private boolean firstDeviceFiltered;
+
   public AbstractTableScanOperator(AbstractTableScanOperatorParameter parameter) {
     this.sourceId = parameter.sourceId;
     this.operatorContext = parameter.context;
@@ -129,6 +142,16 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
     try {
 
+      if (!firstDeviceFiltered) {
+        firstDeviceFiltered = true;
+        if (skipDevicesByDynamicFilter()) {
+          prepareForNextDevice();
+          if (currentDeviceIndex >= deviceCount) {
+            return null;
+          }
+        }
+      }
+
       // start stopwatch
       long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
       long start = System.nanoTime();
@@ -156,6 +179,7 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
           && measurementDataBlock == null
           && currentDeviceNoMoreData) {
         currentDeviceIndex++;
+        skipDevicesByDynamicFilter();
         prepareForNextDevice();
       }
 
@@ -245,6 +269,50 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     this.measurementDataBuilder.setMaxTsBlockLineNumber(this.maxTsBlockLineNum);
   }
 
+  public void setDynamicFilter(JoinDynamicFilter dynamicFilter) {
+    this.dynamicFilter = dynamicFilter;
+  }
+
+  /**
+   * Skip the devices whose join key can't match any key of the build side of the join.
+   *
+   * @return true if any device is skipped
+   */
+  private boolean skipDevicesByDynamicFilter() {
+    if (dynamicFilter == null || !dynamicFilter.isReady()) {
+      return false;
+    }
+    int skippedDeviceCount = 0;
+    while (currentDeviceIndex < deviceCount
+        && !dynamicFilter.mightMatch(getJoinKeyOfDevice(deviceEntries.get(currentDeviceIndex)))) {
+      currentDeviceIndex++;
+      skippedDeviceCount++;
+    }
+    if (skippedDeviceCount > 0) {
+      dynamicFilterSkippedDeviceCount += skippedDeviceCount;
+      operatorContext.recordSpecifiedInfo(
+          DYNAMIC_FILTER_SKIPPED_DEVICE_NUMBER, Integer.toString(dynamicFilterSkippedDeviceCount));
+    }
+    return skippedDeviceCount > 0;
+  }
+
+  private Binary getJoinKeyOfDevice(DeviceEntry deviceEntry) {
+    int columnIndex = dynamicFilter.getProbeColumnIndex();
+    switch (columnSchemas.get(columnIndex).getColumnCategory()) {
+      case TAG:
+        String idColumnValue = getNthIdColumnValue(deviceEntry, columnsIndexArray[columnIndex]);
+        return idColumnValue == null
+            ? null
+            : new Binary(idColumnValue, TSFileConfig.STRING_CHARSET);
+      case ATTRIBUTE:
+        return deviceEntry.getAttributeColumnValues()[columnsIndexArray[columnIndex]];
+      default:
+        throw new IllegalStateException(
+            "Unexpected column category of dynamic filter: "
+                + columnSchemas.get(columnIndex).getColumnCategory());
+    }
+  }
+
   private void prepareForNextDevice() {
     if (currentDeviceIndex < deviceCount) {
       // construct AlignedSeriesScanUtil for next device
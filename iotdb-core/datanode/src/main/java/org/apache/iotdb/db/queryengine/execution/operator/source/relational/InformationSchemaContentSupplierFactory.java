@@ -59,11 +59,14 @@ import org.apache.iotdb.confignode.rpc.thrift.TShowSubscriptionReq;
 import org.apache.iotdb.confignode.rpc.thrift.TShowTopicInfo;
 import org.apache.iotdb.confignode.rpc.thrift.TShowTopicReq;
 import org.apache.iotdb.confignode.rpc.thrift.TTableInfo;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeRemainingEventAndTimeMetrics;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClient;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClientManager;
 import org.apache.iotdb.db.protocol.client.ConfigNodeInfo;
 import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceProfile;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryProfileBuffer;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
 import org.apache.iotdb.db.queryengine.plan.execution.config.metadata.relational.ShowCreateViewTask;
@@ -157,6 +160,8 @@ public class InformationSchemaContentSupplierFactory {
         return new ConfigNodesSupplier(dataTypes, userName);
       case InformationSchema.DATA_NODES:
         return new DataNodesSupplier(dataTypes, userName);
+      case InformationSchema.QUERIES_PROFILE:
+        return new QueriesProfileSupplier(dataTypes, userName);
       default:
         throw new UnsupportedOperationException("Unknown table: " + tableName);
     }
@@ -212,6 +217,92 @@ public class InformationSchemaContentSupplierFactory {
     }
   }
 
+  private static class QueriesProfileSupplier extends TsBlockSupplier {
+    private static final double NS_TO_MS_FACTOR = 1.0 / 1_000_000;
+
+    private final int dataNodeId = IoTDBDescriptor.getInstance().getConfig().getDataNodeId();
+    private final Iterator<FragmentInstanceProfile> profileIterator;
+    private FragmentInstanceProfile currentProfile;
+    private int nextOperatorIndex;
+
+    private QueriesProfileSupplier(final List<TSDataType> dataTypes, final String userName) {
+      super(dataTypes);
+      List<FragmentInstanceProfile> profiles = QueryProfileBuffer.getInstance().getProfiles();
+      try {
+        accessControl.checkUserIsAdmin(userName);
+      } catch (final AccessDeniedException e) {
+        profiles =
+            profiles.stream()
+                .filter(profile -> userName.equals(profile.getUserName()))
+                .collect(Collectors.toList());
+      }
+      profileIterator = profiles.iterator();
+    }
+
+    @Override
+    protected void constructLine() {
+      if (currentProfile == null
+          || nextOperatorIndex >= currentProfile.getOperatorProfiles().size()) {
+        currentProfile = profileIterator.next();
+        nextOperatorIndex = 0;
+      }
+      final FragmentInstanceProfile profile = currentProfile;
+
+      columnBuilders[0].writeBinary(BytesUtils.valueOf(profile.getQueryId()));
+      columnBuilders[1].writeBinary(BytesUtils.valueOf(profile.getFragmentInstanceId()));
+      // an instance without any operator still gets one line for its fragment-level statistics
+      if (profile.getOperatorProfiles().isEmpty()) {
+        columnBuilders[2].appendNull();
+      } else {
+        columnBuilders[2].writeBinary(
+            BytesUtils.valueOf(
+                profile.getOperatorProfiles().get(nextOperatorIndex).getPlanNodeId()));
+      }
+      columnBuilders[3].writeInt(dataNodeId);
+      columnBuilders[4].writeBinary(BytesUtils.valueOf(profile.getDataRegionId()));
+      columnBuilders[5].writeBinary(BytesUtils.valueOf(profile.getUserName()));
+      columnBuilders[6].writeBinary(BytesUtils.valueOf(profile.getState()));
+      columnBuilders[7].writeLong(
+          TimestampPrecisionUtils.convertToCurrPrecision(
+              profile.getStartTime(), TimeUnit.MILLISECONDS));
+      columnBuilders[8].writeFloat((float) (profile.getEndTime() - profile.getStartTime()) / 1000);
+      if (profile.getOperatorProfiles().isEmpty()) {
+        columnBuilders[9].appendNull();
+        columnBuilders[10].appendNull();
+        columnBuilders[11].appendNull();
+        columnBuilders[12].appendNull();
+      } else {
+        final FragmentInstanceProfile.OperatorProfile operatorProfile =
+            profile.getOperatorProfiles().get(nextOperatorIndex);
+        if (operatorProfile.getOperatorType() == null) {
+          columnBuilders[9].appendNull();
+        } else {
+          columnBuilders[9].writeBinary(BytesUtils.valueOf(operatorProfile.getOperatorType()));
+        }
+        columnBuilders[10].writeFloat(
+            (float) (operatorProfile.getExecutionTimeInNanos() * NS_TO_MS_FACTOR));
+        columnBuilders[11].writeLong(operatorProfile.getOutputRows());
+        columnBuilders[12].writeLong(operatorProfile.getMemoryUsage());
+      }
+      columnBuilders[13].writeFloat((float) (profile.getBlockQueuedTime() * NS_TO_MS_FACTOR));
+      columnBuilders[14].writeFloat((float) (profile.getReadyQueuedTime() * NS_TO_MS_FACTOR));
+      columnBuilders[15].writeLong(profile.getChunkCacheHitCount());
+      columnBuilders[16].writeLong(profile.getChunkCacheMissCount());
+      columnBuilders[17].writeLong(profile.getTimeSeriesMetadataCacheHitCount());
+      columnBuilders[18].writeLong(profile.getTimeSeriesMetadataCacheMissCount());
+      columnBuilders[19].writeLong(profile.getActualIOSize());
+      resultBuilder.declarePosition();
+      nextOperatorIndex++;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return (currentProfile != null
+              && nextOperatorIndex < currentProfile.getOperatorProfiles().size())
+          || profileIterator.hasNext();
+    }
+  }
+
   private static class DatabaseSupplier extends TsBlockSupplier {
     private Iterator<Map.Entry<String, TDatabaseInfo>> iterator;
     private TDatabaseInfo currentDatabase;
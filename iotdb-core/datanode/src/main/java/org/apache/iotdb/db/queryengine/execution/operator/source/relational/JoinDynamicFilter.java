@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Join keys collected from the build side (right child) of an inner join at runtime, which are
+ * used by the scan of the probe side (left child) to skip the devices whose tag or attribute
+ * column used as join key can't match any row of the build side.
+ *
+ * <p>The build side is consumed up by the sort below the join before any of its rows are joined,
+ * so the collected keys are published once the input of that sort is finished. The distinct keys
+ * are kept if there are no more than {@link #MAX_DISTINCT_VALUE_COUNT} of them, otherwise only the
+ * min and max key are kept. Before the filter is published, every device is scanned.
+ *
+ * <p>The keys are collected by the pipeline of the build side and read by the pipelines of the
+ * probe side scan, so the result is published through a volatile field.
+ */
+public class JoinDynamicFilter {
+
+  public static final int MAX_DISTINCT_VALUE_COUNT = 10_000;
+
+  // index of the join key in the output of the probe side scan
+  private final int probeColumnIndex;
+  // index of the join key in the input of the build side sort
+  private final int buildChannel;
+
+  // only accessed by the build side pipeline
+  private Set<Binary> collectingValues = new HashSet<>();
+  private Binary collectingMin;
+  private Binary collectingMax;
+
+  private volatile Domain domain;
+
+  public JoinDynamicFilter(int probeColumnIndex, int buildChannel) {
+    this.probeColumnIndex = probeColumnIndex;
+    this.buildChannel = buildChannel;
+  }
+
+  public int getProbeColumnIndex() {
+    return probeColumnIndex;
+  }
+
+  public int getBuildChannel() {
+    return buildChannel;
+  }
+
+  /** Collect the join keys of one block of the build side. */
+  public void collect(Column column) {
+    if (domain != null) {
+      return;
+    }
+    if (column instanceof RunLengthEncodedColumn) {
+      // tag and attribute columns of a device are run-length encoded
+      if (!column.isNull(0)) {
+        collect(column.getBinary(0));
+      }
+      return;
+    }
+    if (!column.mayHaveNull()) {
+      for (int i = 0, size = column.getPositionCount(); i < size; i++) {
+        collect(column.getBinary(i));
+      }
+      return;
+    }
+    for (int i = 0, size = column.getPositionCount(); i < size; i++) {
+      // NULL can't match anything in inner join
+      if (!column.isNull(i)) {
+        collect(column.getBinary(i));
+      }
+    }
+  }
+
+  private void collect(Binary value) {
+    if (collectingMin == null || value.compareTo(collectingMin) < 0) {
+      collectingMin = value;
+    }
+    if (collectingMax == null || value.compareTo(collectingMax) > 0) {
+      collectingMax = value;
+    }
+    if (collectingValues != null) {
+      collectingValues.add(value);
+      if (collectingValues.size() > MAX_DISTINCT_VALUE_COUNT) {
+        // too many keys, fall back to the range of keys
+        collectingValues = null;
+      }
+    }
+  }
+
+  /** Publish the collected keys, invoked when all the rows of the build side are collected. */
+  public void complete() {
+    if (domain != null) {
+      return;
+    }
+    domain = new Domain(collectingValues, collectingMin, collectingMax);
+    collectingValues = null;
+  }
+
+  public boolean isReady() {
+    return domain != null;
+  }
+
+  /**
+   * @return false if the value can't match any key of the build side, true if it may match or the
+   *     keys of the build side are not all collected yet
+   */
+  public boolean mightMatch(Binary value) {
+    Domain current = domain;
+    if (current == null) {
+      return true;
+    }
+    if (value == null || current.min == null) {
+      // NULL can't match anything and nothing can match an empty build side
+      return false;
+    }
+    if (current.values != null) {
+      return current.values.contains(value);
+    }
+    return value.compareTo(current.min) >= 0 && value.compareTo(current.max) <= 0;
+  }
+
+  private static class Domain {
+    // null if there are too many distinct keys
+    private final Set<Binary> values;
+    // null if the build side is empty
+    private final Binary min;
+    private final Binary max;
+
+    private Domain(Set<Binary> values, Binary min, Binary max) {
+      this.values = values;
+      this.min = min;
+      this.max = max;
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggr
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.FloatGroupedApproxMostFrequentAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxCountDistinctAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAvgAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedCountAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedCountAllAccumulator;
@@ -50,7 +51,9 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggr
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.LongGroupedApproxMostFrequentAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.MarkDistinctHash;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DoubleLiteral;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
 import org.apache.iotdb.db.queryengine.plan.relational.type.InternalTypeManager;
 import org.apache.iotdb.db.queryengine.plan.udf.TableUDFUtils;
 import org.apache.iotdb.udf.api.customizer.parameter.FunctionArguments;
@@ -256,6 +259,8 @@ public class AccumulatorFactory {
         return new GroupedApproxCountDistinctAccumulator(inputDataTypes.get(0));
       case APPROX_MOST_FREQUENT:
         return getGroupedApproxMostFrequentAccumulator(inputDataTypes.get(0));
+      case APPROX_PERCENTILE:
+        return new GroupedApproxPercentileAccumulator(inputDataTypes.get(0));
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
@@ -322,9 +327,17 @@ public class AccumulatorFactory {
         return new TableVarianceAccumulator(
             inputDataTypes.get(0), VarianceAccumulator.VarianceType.VAR_POP);
       case APPROX_COUNT_DISTINCT:
-        return new ApproxCountDistinctAccumulator(inputDataTypes.get(0));
+        return isLiteralParameter(inputExpressions)
+            ? new ApproxCountDistinctAccumulator(
+                inputDataTypes.get(0), getLiteralParameter(inputExpressions))
+            : new ApproxCountDistinctAccumulator(inputDataTypes.get(0));
       case APPROX_MOST_FREQUENT:
         return getApproxMostFrequentAccumulator(inputDataTypes.get(0));
+      case APPROX_PERCENTILE:
+        return isLiteralParameter(inputExpressions)
+            ? new ApproxPercentileAccumulator(
+                inputDataTypes.get(0), getLiteralParameter(inputExpressions))
+            : new ApproxPercentileAccumulator(inputDataTypes.get(0));
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
@@ -380,6 +393,21 @@ public class AccumulatorFactory {
     }
   }
 
+  // the second argument is a literal only if it is not read from the input, see
+  // AggregationTableScanNode#isLiteralParameter
+  private static boolean isLiteralParameter(List<Expression> inputExpressions) {
+    return inputExpressions.size() > 1
+        && (inputExpressions.get(1) instanceof DoubleLiteral
+            || inputExpressions.get(1) instanceof LongLiteral);
+  }
+
+  private static double getLiteralParameter(List<Expression> inputExpressions) {
+    Expression literal = inputExpressions.get(1);
+    return literal instanceof DoubleLiteral
+        ? ((DoubleLiteral) literal).getValue()
+        : ((LongLiteral) literal).getParsedValue();
+  }
+
   public static boolean isMultiInputAggregation(TAggregationType aggregationType) {
     switch (aggregationType) {
       case MAX_BY:
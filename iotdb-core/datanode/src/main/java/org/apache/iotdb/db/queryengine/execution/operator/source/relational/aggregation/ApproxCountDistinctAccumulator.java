@@ -16,6 +16,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational.agg
 
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLogStateFactory;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -38,8 +39,17 @@ public class ApproxCountDistinctAccumulator implements TableAccumulator {
 
   private static final int DEFAULT_HYPERLOGLOG_BUCKET_SIZE = 2048;
 
+  // used when the max standard error is not fed as an argument
+  private final double constantMaxStandardError;
+
   public ApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this(seriesDataType, DEFAULT_STANDARD_ERROR);
+  }
+
+  public ApproxCountDistinctAccumulator(
+      TSDataType seriesDataType, double constantMaxStandardError) {
     this.seriesDataType = seriesDataType;
+    this.constantMaxStandardError = constantMaxStandardError;
   }
 
   @Override
@@ -51,13 +61,13 @@ public class ApproxCountDistinctAccumulator implements TableAccumulator {
 
   @Override
   public TableAccumulator copy() {
-    return new ApproxCountDistinctAccumulator(seriesDataType);
+    return new ApproxCountDistinctAccumulator(seriesDataType, constantMaxStandardError);
   }
 
   @Override
   public void addInput(Column[] arguments, AggregationMask mask) {
     double maxStandardError =
-        arguments.length == 1 ? DEFAULT_STANDARD_ERROR : arguments[1].getDouble(0);
+        arguments.length == 1 ? constantMaxStandardError : arguments[1].getDouble(0);
     HyperLogLog hll = getOrCreateHyperLogLog(state, maxStandardError);
 
     switch (seriesDataType) {
@@ -125,6 +135,23 @@ public class ApproxCountDistinctAccumulator implements TableAccumulator {
         "ApproxCountDistinctAccumulator does not support statistics");
   }
 
+  @Override
+  public boolean useSketch() {
+    return true;
+  }
+
+  @Override
+  public boolean canUseSketch(SeriesSketch sketch) {
+    return getOrCreateHyperLogLog(state, constantMaxStandardError)
+        .canMerge(sketch.getHyperLogLog());
+  }
+
+  @Override
+  public void addSketch(SeriesSketch sketch) {
+    // merge into the own registers, the sketch may be shared by the TsFileSketchCache
+    getOrCreateHyperLogLog(state, constantMaxStandardError).merge(sketch.getHyperLogLog());
+  }
+
   @Override
   public void reset() {
     state.getHyperLogLog().reset();
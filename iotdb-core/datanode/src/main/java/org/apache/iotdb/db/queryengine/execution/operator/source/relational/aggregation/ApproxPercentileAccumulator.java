@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class ApproxPercentileAccumulator implements TableAccumulator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+  private final TDigest digest = new TDigest();
+  // percentile known at planning time, NaN if it is only carried by the input
+  private final double constantPercentile;
+  // percentile is carried in the intermediate result, it is NaN before any input is received
+  private double percentile;
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this(seriesDataType, Double.NaN);
+  }
+
+  /**
+   * Used when the percentile is a literal, so that the operator does not need to feed it as an
+   * argument and the TDigest sketches of TsFiles can be merged before any input is received.
+   */
+  public ApproxPercentileAccumulator(TSDataType seriesDataType, double constantPercentile) {
+    this.seriesDataType = seriesDataType;
+    this.constantPercentile =
+        Double.isNaN(constantPercentile) ? constantPercentile : checkPercentile(constantPercentile);
+    this.percentile = constantPercentile;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + digest.getEstimatedSize();
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new ApproxPercentileAccumulator(seriesDataType, constantPercentile);
+  }
+
+  @Override
+  public void addInput(Column[] arguments, AggregationMask mask) {
+    if (arguments.length > 1) {
+      percentile = getPercentile(arguments[1]);
+    }
+
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(arguments[0], mask);
+        return;
+      case INT64:
+        addLongInput(arguments[0], mask);
+        return;
+      case FLOAT:
+        addFloatInput(arguments[0], mask);
+        return;
+      case DOUBLE:
+        addDoubleInput(arguments[0], mask);
+        return;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in APPROX_PERCENTILE Aggregation: %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (!argument.isNull(i)) {
+        ByteBuffer buffer = ByteBuffer.wrap(argument.getBinary(i).getValues());
+        double currentPercentile = ReadWriteIOUtils.readDouble(buffer);
+        if (!Double.isNaN(currentPercentile)) {
+          percentile = currentPercentile;
+        }
+        digest.merge(deserializeDigest(buffer));
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of APPROX_PERCENTILE should be BinaryColumn");
+    columnBuilder.writeBinary(serializeIntermediate(percentile, digest));
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentile));
+    }
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(
+        "ApproxPercentileAccumulator does not support statistics");
+  }
+
+  @Override
+  public boolean useSketch() {
+    return true;
+  }
+
+  @Override
+  public boolean canUseSketch(SeriesSketch sketch) {
+    return !Double.isNaN(percentile) && sketch.getDigest() != null;
+  }
+
+  @Override
+  public void addSketch(SeriesSketch sketch) {
+    digest.merge(sketch.getDigest());
+  }
+
+  @Override
+  public void reset() {
+    digest.reset();
+    percentile = constantPercentile;
+  }
+
+  public static double getPercentile(Column percentileColumn) {
+    return checkPercentile(percentileColumn.getDouble(0));
+  }
+
+  public static double checkPercentile(double percentile) {
+    if (percentile < 0 || percentile > 1) {
+      throw new SemanticException(
+          "The second argument of 'approx_percentile' must be in range [0, 1], but got "
+              + percentile);
+    }
+    return percentile;
+  }
+
+  /** Intermediate result is like: | percentile | serialized TDigest |. */
+  public static Binary serializeIntermediate(double percentile, TDigest digest) {
+    byte[] digestBytes = digest.serialize();
+    ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + digestBytes.length);
+    ReadWriteIOUtils.write(percentile, buffer);
+    buffer.put(digestBytes);
+    return new Binary(buffer.array());
+  }
+
+  public static TDigest deserializeDigest(ByteBuffer buffer) {
+    byte[] digestBytes = new byte[buffer.remaining()];
+    buffer.get(digestBytes);
+    return new TDigest(digestBytes);
+  }
+
+  private void addIntInput(Column valueColumn, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getInt(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getInt(position));
+        }
+      }
+    }
+  }
+
+  private void addLongInput(Column valueColumn, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getLong(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getLong(position));
+        }
+      }
+    }
+  }
+
+  private void addFloatInput(Column valueColumn, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getFloat(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getFloat(position));
+        }
+      }
+    }
+  }
+
+  private void addDoubleInput(Column valueColumn, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getDouble(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getDouble(position));
+        }
+      }
+    }
+  }
+}
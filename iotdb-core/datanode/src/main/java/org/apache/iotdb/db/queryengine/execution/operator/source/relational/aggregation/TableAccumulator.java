@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
 
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -52,6 +54,25 @@ public interface TableAccumulator {
    */
   void addStatistics(Statistics[] statistics);
 
+  /**
+   * This method can only be used in AggTableScan. If it returns true, the accumulator is computed
+   * from the sketches of TsFiles instead of the statistics, so that statistics can be used only for
+   * the TsFiles with sketches.
+   */
+  default boolean useSketch() {
+    return false;
+  }
+
+  /** Returns true if the sketch of the input series can be added by {@link #addSketch}. */
+  default boolean canUseSketch(SeriesSketch sketch) {
+    return false;
+  }
+
+  /** This method can only be used in AggTableScan, it adds the sketch of the input series. */
+  default void addSketch(SeriesSketch sketch) {
+    throw new UnsupportedOperationException("This Accumulator does not support sketches!");
+  }
+
   void reset();
 
   default boolean removable() {
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
 
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import com.google.common.primitives.Ints;
 import org.apache.tsfile.block.column.Column;
@@ -108,6 +109,18 @@ public class TableAggregator {
     accumulator.addStatistics(statistics);
   }
 
+  public boolean useSketch() {
+    return accumulator.useSketch();
+  }
+
+  public boolean canUseSketch(SeriesSketch sketch) {
+    return accumulator.canUseSketch(sketch);
+  }
+
+  public void processSketch(SeriesSketch sketch) {
+    accumulator.addSketch(sketch);
+  }
+
   public boolean hasFinalResult() {
     return accumulator.hasFinalResult();
   }
@@ -78,6 +78,13 @@ public class HyperLogLog {
     this.alpha = getAlpha(b, m);
   }
 
+  private HyperLogLog(int precision) {
+    this.b = precision;
+    this.m = 1 << precision;
+    this.registers = new int[m];
+    this.alpha = getAlpha(b, m);
+  }
+
   private static double getAlpha(int precision, int m) {
     switch (precision) {
       case 4:
@@ -224,6 +231,11 @@ public class HyperLogLog {
     }
   }
 
+  /** Returns true if the other one has the same precision, so that it can be merged. */
+  public boolean canMerge(HyperLogLog other) {
+    return m == other.m;
+  }
+
   // serialize
   public byte[] serialize() {
     int totalBytes = Integer.BYTES * 2 + registers.length * Integer.BYTES;
@@ -236,6 +248,55 @@ public class HyperLogLog {
     return byteBuffer.array();
   }
 
+  /**
+   * Serializes the registers in one byte each, or as (index, value) pairs if most of them are zero.
+   * It is used for the sketches stored on disk, which are much smaller than {@link #serialize()}.
+   */
+  public byte[] serializeCompact() {
+    int nonZeroCount = 0;
+    for (int register : registers) {
+      if (register != 0) {
+        nonZeroCount++;
+      }
+    }
+    // an index takes two bytes and a value takes one byte in the sparse format
+    boolean sparse = nonZeroCount * 3 + Integer.BYTES < m;
+    ByteBuffer byteBuffer =
+        ByteBuffer.allocate(2 + (sparse ? Integer.BYTES + nonZeroCount * 3 : m));
+    byteBuffer.put((byte) b);
+    ReadWriteIOUtils.write(sparse, byteBuffer);
+    if (sparse) {
+      ReadWriteIOUtils.write(nonZeroCount, byteBuffer);
+      for (int i = 0; i < m; i++) {
+        if (registers[i] != 0) {
+          byteBuffer.putShort((short) i);
+          byteBuffer.put((byte) registers[i]);
+        }
+      }
+    } else {
+      for (int i = 0; i < m; i++) {
+        byteBuffer.put((byte) registers[i]);
+      }
+    }
+    return byteBuffer.array();
+  }
+
+  public static HyperLogLog deserializeCompact(ByteBuffer byteBuffer) {
+    HyperLogLog hyperLogLog = new HyperLogLog(byteBuffer.get());
+    if (ReadWriteIOUtils.readBool(byteBuffer)) {
+      int nonZeroCount = ReadWriteIOUtils.readInt(byteBuffer);
+      for (int i = 0; i < nonZeroCount; i++) {
+        int index = byteBuffer.getShort() & 0xFFFF;
+        hyperLogLog.registers[index] = byteBuffer.get();
+      }
+    } else {
+      for (int i = 0; i < hyperLogLog.m; i++) {
+        hyperLogLog.registers[i] = byteBuffer.get();
+      }
+    }
+    return hyperLogLog;
+  }
+
   public boolean equals(HyperLogLog hll) {
     return Arrays.equals(this.serialize(), hll.serialize());
   }
@@ -0,0 +1,261 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A merging t-digest which estimates quantiles of a stream of double values with bounded memory.
+ *
+ * <p>Values are buffered and merged into sorted centroids in batch. The weight of a centroid is
+ * limited by {@code 4 * q * (1 - q) / compression} of the total weight, where q is the quantile of
+ * the centroid, so centroids near the tails stay small and the error of extreme quantiles is low.
+ * Digests built on different data can be merged into one, which makes it usable as the partial
+ * result of a distributed aggregation.
+ */
+public class TDigest {
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(TDigest.class);
+  private static final long EMPTY_BUFFER_SIZE = RamUsageEstimator.sizeOf(new double[0]);
+
+  private final double compression;
+
+  // sorted centroids
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+  private double totalWeight;
+
+  // values which have not been merged into centroids, each of them has weight 1, allocated on the
+  // first added value so that digests of empty groups and deserialized digests stay small
+  private double[] buffer;
+  private int bufferSize;
+
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    if (compression < 10) {
+      throw new IllegalArgumentException("Compression of TDigest should not be less than 10");
+    }
+    this.compression = compression;
+    this.means = new double[0];
+    this.weights = new double[0];
+  }
+
+  public TDigest(byte[] bytes) {
+    // deserialize
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    this.compression = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.totalWeight = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.min = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.max = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.centroidCount = ReadWriteIOUtils.readInt(byteBuffer);
+    this.means = new double[centroidCount];
+    this.weights = new double[centroidCount];
+    for (int i = 0; i < centroidCount; i++) {
+      means[i] = ReadWriteIOUtils.readDouble(byteBuffer);
+      weights[i] = ReadWriteIOUtils.readDouble(byteBuffer);
+    }
+  }
+
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (buffer == null) {
+      buffer = new double[bufferCapacity()];
+    } else if (bufferSize == buffer.length) {
+      compress();
+    }
+    buffer[bufferSize++] = value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /** Merges another TDigest into this one, the other one is compressed but not changed. */
+  public void merge(TDigest other) {
+    other.compress();
+    if (other.centroidCount == 0) {
+      return;
+    }
+    compress();
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    rebuild(other.means, other.weights, other.centroidCount, other.totalWeight);
+  }
+
+  public boolean isEmpty() {
+    return centroidCount == 0 && bufferSize == 0;
+  }
+
+  /**
+   * Estimates the value at the given quantile.
+   *
+   * @param quantile in range [0, 1]
+   * @return the estimated value, or NaN if no value has been added
+   */
+  public double quantile(double quantile) {
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+
+    double index = quantile * totalWeight;
+    if (index < weights[0] / 2) {
+      // between min and the center of the first centroid
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < centroidCount - 1; i++) {
+      double delta = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + delta > index) {
+        double leftWeight = index - weightSoFar;
+        return means[i] + (means[i + 1] - means[i]) * leftWeight / delta;
+      }
+      weightSoFar += delta;
+    }
+    // between the center of the last centroid and max
+    double lastHalfWeight = weights[centroidCount - 1] / 2;
+    double result =
+        means[centroidCount - 1]
+            + (max - means[centroidCount - 1])
+                * Math.min(1, (index - weightSoFar) / lastHalfWeight);
+    return Math.min(result, max);
+  }
+
+  public void reset() {
+    means = new double[0];
+    weights = new double[0];
+    centroidCount = 0;
+    totalWeight = 0;
+    bufferSize = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  // serialize
+  public byte[] serialize() {
+    compress();
+    int totalBytes = Double.BYTES * 4 + Integer.BYTES + centroidCount * Double.BYTES * 2;
+    ByteBuffer byteBuffer = ByteBuffer.allocate(totalBytes);
+    ReadWriteIOUtils.write(compression, byteBuffer);
+    ReadWriteIOUtils.write(totalWeight, byteBuffer);
+    ReadWriteIOUtils.write(min, byteBuffer);
+    ReadWriteIOUtils.write(max, byteBuffer);
+    ReadWriteIOUtils.write(centroidCount, byteBuffer);
+    for (int i = 0; i < centroidCount; i++) {
+      ReadWriteIOUtils.write(means[i], byteBuffer);
+      ReadWriteIOUtils.write(weights[i], byteBuffer);
+    }
+    return byteBuffer.array();
+  }
+
+  /**
+   * The number of centroids grows with the logarithm of the number of values, the estimated size
+   * takes {@code compression * 10} centroids and the full buffer as the upper bound so that it is
+   * stable while values are added.
+   */
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + EMPTY_BUFFER_SIZE
+        + (long) bufferCapacity() * Double.BYTES
+        + (long) Math.ceil(compression) * 10 * Double.BYTES * 2;
+  }
+
+  private int bufferCapacity() {
+    return (int) Math.ceil(compression) * 5;
+  }
+
+  /** Merges buffered values into centroids. */
+  private void compress() {
+    if (bufferSize == 0) {
+      return;
+    }
+    Arrays.sort(buffer, 0, bufferSize);
+    int size = bufferSize;
+    bufferSize = 0;
+    rebuild(buffer, null, size, size);
+  }
+
+  /**
+   * Merges the sorted points into the sorted centroids, adjacent points are combined as long as the
+   * weight of the combined centroid does not exceed the limit at its quantile.
+   *
+   * @param otherWeights null means every point has weight 1
+   */
+  private void rebuild(
+      double[] otherMeans, double[] otherWeights, int otherCount, double otherTotalWeight) {
+    double newTotalWeight = totalWeight + otherTotalWeight;
+    double[] newMeans = new double[centroidCount + otherCount];
+    double[] newWeights = new double[centroidCount + otherCount];
+    int newCount = 0;
+    // weight of the centroids before the last one in newMeans
+    double weightSoFar = 0;
+
+    int i = 0;
+    int j = 0;
+    while (i < centroidCount || j < otherCount) {
+      double mean;
+      double weight;
+      if (j >= otherCount || (i < centroidCount && means[i] <= otherMeans[j])) {
+        mean = means[i];
+        weight = weights[i];
+        i++;
+      } else {
+        mean = otherMeans[j];
+        weight = otherWeights == null ? 1 : otherWeights[j];
+        j++;
+      }
+
+      if (newCount > 0) {
+        double proposedWeight = newWeights[newCount - 1] + weight;
+        double q0 = weightSoFar / newTotalWeight;
+        double q2 = (weightSoFar + proposedWeight) / newTotalWeight;
+        if (proposedWeight <= newTotalWeight * Math.min(maxWeightRatio(q0), maxWeightRatio(q2))) {
+          newWeights[newCount - 1] = proposedWeight;
+          newMeans[newCount - 1] += (mean - newMeans[newCount - 1]) * weight / proposedWeight;
+          continue;
+        }
+        weightSoFar += newWeights[newCount - 1];
+      }
+      newMeans[newCount] = mean;
+      newWeights[newCount] = weight;
+      newCount++;
+    }
+
+    means = Arrays.copyOf(newMeans, newCount);
+    weights = Arrays.copyOf(newWeights, newCount);
+    centroidCount = newCount;
+    totalWeight = newTotalWeight;
+  }
+
+  private double maxWeightRatio(double quantile) {
+    return 4 * quantile * (1 - quantile) / compression;
+  }
+}
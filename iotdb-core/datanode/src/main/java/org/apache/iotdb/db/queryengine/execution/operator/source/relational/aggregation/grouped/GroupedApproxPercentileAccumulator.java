@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AggregationMask;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.TDigestBigArray;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.deserializeDigest;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.getPercentile;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.serializeIntermediate;
+
+public class GroupedApproxPercentileAccumulator implements GroupedAccumulator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(GroupedApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+  private final TDigestBigArray digests = new TDigestBigArray();
+  // percentile is carried in the intermediate result, it is NaN before any input is received
+  private double percentile = Double.NaN;
+
+  public GroupedApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + digests.sizeOf();
+  }
+
+  @Override
+  public void setGroupCount(long groupCount) {
+    digests.ensureCapacity(groupCount);
+  }
+
+  @Override
+  public void addInput(int[] groupIds, Column[] arguments, AggregationMask mask) {
+    percentile = getPercentile(arguments[1]);
+
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(groupIds, arguments[0], mask);
+        return;
+      case INT64:
+        addLongInput(groupIds, arguments[0], mask);
+        return;
+      case FLOAT:
+        addFloatInput(groupIds, arguments[0], mask);
+        return;
+      case DOUBLE:
+        addDoubleInput(groupIds, arguments[0], mask);
+        return;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in APPROX_PERCENTILE Aggregation: %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(int[] groupIds, Column argument) {
+    for (int i = 0; i < groupIds.length; i++) {
+      if (!argument.isNull(i)) {
+        ByteBuffer buffer = ByteBuffer.wrap(argument.getBinary(i).getValues());
+        double currentPercentile = ReadWriteIOUtils.readDouble(buffer);
+        if (!Double.isNaN(currentPercentile)) {
+          percentile = currentPercentile;
+        }
+        digests.getOrCreate(groupIds[i]).merge(deserializeDigest(buffer));
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    TDigest digest = digests.get(groupId);
+    if (digest == null) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(serializeIntermediate(percentile, digest));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(int groupId, ColumnBuilder columnBuilder) {
+    TDigest digest = digests.get(groupId);
+    if (digest == null || digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentile));
+    }
+  }
+
+  @Override
+  public void prepareFinal() {}
+
+  @Override
+  public void reset() {
+    digests.reset();
+    percentile = Double.NaN;
+  }
+
+  private void addIntInput(int[] groupIds, Column column, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < column.getPositionCount(); i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getInt(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getInt(position));
+        }
+      }
+    }
+  }
+
+  private void addLongInput(int[] groupIds, Column column, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < column.getPositionCount(); i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getLong(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getLong(position));
+        }
+      }
+    }
+  }
+
+  private void addFloatInput(int[] groupIds, Column column, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < column.getPositionCount(); i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getFloat(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getFloat(position));
+        }
+      }
+    }
+  }
+
+  private void addDoubleInput(int[] groupIds, Column column, AggregationMask mask) {
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < column.getPositionCount(); i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getDouble(i));
+        }
+      }
+    } else {
+      int positionCount = mask.getPositionCount();
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getDouble(position));
+        }
+      }
+    }
+  }
+}
@@ -54,4 +54,17 @@ public interface IWindow {
    * @return if the whole column satisfy the window
    */
   boolean contains(Column column);
+
+  /**
+   * Judge the leading rows of the column at once instead of calling {@link #satisfy(Column, int)}
+   * row by row. Only windows whose status does not change in {@link #mergeOnePoint(Column[], int)}
+   * can support it.
+   *
+   * @param column the controlColumn of window
+   * @return the number of leading rows of column which satisfy the window, or -1 if the window has
+   *     to be judged row by row
+   */
+  default int getLeadingSatisfiedCount(Column column) {
+    return -1;
+  }
 }
@@ -70,6 +70,27 @@ public class TimeWindow implements IWindow {
     return curTimeRange.contains(minTime, maxTime);
   }
 
+  @Override
+  public int getLeadingSatisfiedCount(Column column) {
+    int positionCount = column.getPositionCount();
+    if (positionCount == 0 || !satisfy(column, 0)) {
+      return 0;
+    }
+    // Time column is ordered, so the satisfied rows starting from the first one are continuous and
+    // we can use bisection method to find the first row out of current time range
+    int low = 1;
+    int high = positionCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (satisfy(column, mid)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
   public void update(TimeRange curTimeRange) {
     this.curTimeRange = curTimeRange;
   }
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -120,6 +121,23 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
     estimatedMemoryHistogram.update(memory);
   }
 
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  // Partition spill of window and pattern recognition operators
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  private static final String QUERY_PARTITION_SPILL = Metric.QUERY_PARTITION_SPILL.toString();
+  private static final String SPILLED_SIZE = "spilled_size";
+  private static final String PAGE_IN_SIZE = "page_in_size";
+  private Counter partitionSpilledSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter partitionPageInSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
+  public void recordPartitionSpilledSize(long size) {
+    partitionSpilledSizeCounter.inc(size);
+  }
+
+  public void recordPartitionPageInSize(long size) {
+    partitionPageInSizeCounter.inc(size);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     // Coordinator
@@ -206,6 +224,14 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
             Tag.NAME.toString(),
             ESTIMATED_MEMORY_SIZE);
 
+    // Partition spill
+    partitionSpilledSizeCounter =
+        metricService.getOrCreateCounter(
+            QUERY_PARTITION_SPILL, MetricLevel.IMPORTANT, Tag.NAME.toString(), SPILLED_SIZE);
+    partitionPageInSizeCounter =
+        metricService.getOrCreateCounter(
+            QUERY_PARTITION_SPILL, MetricLevel.IMPORTANT, Tag.NAME.toString(), PAGE_IN_SIZE);
+
     // resource index
     metricService.createAutoGauge(
         RESOURCE_INDEX,
@@ -301,6 +327,14 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
     metricService.remove(
         MetricType.HISTOGRAM, LOCAL_EXECUTION_PLANNER, Tag.NAME.toString(), ESTIMATED_MEMORY_SIZE);
 
+    // Partition spill
+    partitionSpilledSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    partitionPageInSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    metricService.remove(
+        MetricType.COUNTER, QUERY_PARTITION_SPILL, Tag.NAME.toString(), SPILLED_SIZE);
+    metricService.remove(
+        MetricType.COUNTER, QUERY_PARTITION_SPILL, Tag.NAME.toString(), PAGE_IN_SIZE);
+
     // resource index
     metricService.remove(
         MetricType.AUTO_GAUGE,
@@ -515,6 +515,7 @@ public class ExpressionTypeAnalyzer {
       case SqlConstant.VAR_SAMP:
       case SqlConstant.MAX_BY:
       case SqlConstant.MIN_BY:
+      case SqlConstant.APPROX_PERCENTILE:
         return expressionTypes.get(NodeRef.of(inputExpressions.get(0)));
       default:
         throw new IllegalArgumentException(
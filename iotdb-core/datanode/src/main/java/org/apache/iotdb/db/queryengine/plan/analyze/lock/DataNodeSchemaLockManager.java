@@ -58,6 +58,15 @@ public class DataNodeSchemaLockManager {
     }
   }
 
+  /** Used by callers that bypass the analysis and thus have no {@link MPPQueryContext}. */
+  public void takeReadLock(final SchemaLockType lockType) {
+    locks[lockType.ordinal()].readLock().lock();
+  }
+
+  public void releaseReadLock(final SchemaLockType lockType) {
+    locks[lockType.ordinal()].readLock().unlock();
+  }
+
   public void takeWriteLock(final SchemaLockType lockType) {
     locks[lockType.ordinal()].writeLock().lock();
   }
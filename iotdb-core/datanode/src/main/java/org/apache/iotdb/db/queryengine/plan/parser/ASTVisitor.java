@@ -292,6 +292,7 @@ import static org.apache.iotdb.commons.schema.SchemaConstant.ALL_RESULT_NODES;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.FIELD;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TAG;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TIME;
+import static org.apache.iotdb.db.queryengine.execution.aggregation.AccumulatorFactory.APPROX_PERCENTILE_ATTRIBUTE;
 import static org.apache.iotdb.db.queryengine.plan.expression.unary.LikeExpression.getEscapeCharacter;
 import static org.apache.iotdb.db.queryengine.plan.optimization.LimitOffsetPushDown.canPushDownLimitOffsetToGroupByTime;
 import static org.apache.iotdb.db.queryengine.plan.optimization.LimitOffsetPushDown.pushDownLimitOffsetToTimeParameter;
@@ -3190,6 +3191,13 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
             functionExpression.getExpressions().size(),
             1);
         return;
+      case SqlConstant.APPROX_PERCENTILE:
+        checkFunctionExpressionInputSize(
+            functionExpression.getExpressionString(),
+            functionExpression.getExpressions().size(),
+            1);
+        checkApproxPercentileAttribute(functionExpression);
+        return;
       case SqlConstant.COUNT_IF:
       case SqlConstant.MAX_BY:
       case SqlConstant.MIN_BY:
@@ -3204,6 +3212,22 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     }
   }
 
+  private void checkApproxPercentileAttribute(FunctionExpression functionExpression) {
+    String percentile = functionExpression.getFunctionAttributes().get(APPROX_PERCENTILE_ATTRIBUTE);
+    double value;
+    try {
+      value = percentile == null ? Double.NaN : Double.parseDouble(percentile);
+    } catch (NumberFormatException e) {
+      value = Double.NaN;
+    }
+    if (!(value >= 0 && value <= 1)) {
+      throw new SemanticException(
+          String.format(
+              "The attribute 'percentile' of %s must be a number in range [0, 1]",
+              functionExpression.getExpressionString()));
+    }
+  }
+
   private void checkBuiltInScalarFunctionInput(FunctionExpression functionExpression) {
     BuiltInScalarFunctionHelperFactory.createHelper(functionExpression.getFunctionName())
         .checkBuiltInScalarFunctionInputSize(functionExpression);
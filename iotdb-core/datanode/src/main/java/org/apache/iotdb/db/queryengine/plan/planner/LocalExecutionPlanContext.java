@@ -28,6 +28,7 @@ import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.ExchangeOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.JoinDynamicFilter;
 import org.apache.iotdb.db.queryengine.plan.analyze.TemplatedInfo;
 import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.PipelineMemoryEstimator;
@@ -101,6 +102,11 @@ public class LocalExecutionPlanContext {
   private Map<PlanNodeId, List<PipelineMemoryEstimator>> parentPlanNodeIdToMemoryEstimator =
       new ConcurrentHashMap<>();
 
+  /** Dynamic filters of the joins, keyed by the probe side scan and by the build side sort. */
+  private Map<PlanNodeId, JoinDynamicFilter> probeScanToDynamicFilter = new ConcurrentHashMap<>();
+
+  private Map<PlanNodeId, JoinDynamicFilter> buildSortToDynamicFilter = new ConcurrentHashMap<>();
+
   // for data region
   public LocalExecutionPlanContext(
       TypeProvider typeProvider,
@@ -131,6 +137,8 @@ public class LocalExecutionPlanContext {
     this.dataNodeQueryContext = parentContext.dataNodeQueryContext;
     this.timePartitions = parentContext.timePartitions;
     this.parentPlanNodeIdToMemoryEstimator = parentContext.parentPlanNodeIdToMemoryEstimator;
+    this.probeScanToDynamicFilter = parentContext.probeScanToDynamicFilter;
+    this.buildSortToDynamicFilter = parentContext.buildSortToDynamicFilter;
   }
 
   // for schema region
@@ -187,6 +195,26 @@ public class LocalExecutionPlanContext {
     return currentPipelineMemoryEstimator;
   }
 
+  public void addJoinDynamicFilter(
+      PlanNodeId probeScanId, PlanNodeId buildSortId, JoinDynamicFilter dynamicFilter) {
+    probeScanToDynamicFilter.put(probeScanId, dynamicFilter);
+    buildSortToDynamicFilter.put(buildSortId, dynamicFilter);
+  }
+
+  public void addProbeScanDynamicFilter(PlanNodeId probeScanId, JoinDynamicFilter dynamicFilter) {
+    probeScanToDynamicFilter.put(probeScanId, dynamicFilter);
+  }
+
+  @Nullable
+  public JoinDynamicFilter getProbeScanDynamicFilter(PlanNodeId probeScanId) {
+    return probeScanToDynamicFilter.get(probeScanId);
+  }
+
+  @Nullable
+  public JoinDynamicFilter getBuildSortDynamicFilter(PlanNodeId buildSortId) {
+    return buildSortToDynamicFilter.get(buildSortId);
+  }
+
   public LocalExecutionPlanContext createSubContext() {
     return new LocalExecutionPlanContext(this);
   }
@@ -836,6 +836,10 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
 
   private boolean judgeCanUseStatistics(
       final TAggregationType aggregationType, final TSDataType seriesType) {
+    if (TAggregationType.APPROX_PERCENTILE.equals(aggregationType)) {
+      // only the sketches of sealed TsFiles can replace the raw data
+      return IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSketch();
+    }
     return !TSDataType.BLOB.equals(seriesType)
         || (!TAggregationType.LAST_VALUE.equals(aggregationType)
             && !TAggregationType.FIRST_VALUE.equals(aggregationType));
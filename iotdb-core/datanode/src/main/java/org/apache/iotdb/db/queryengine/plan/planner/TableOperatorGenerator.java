@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.table.TsTable;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnSchema;
+import org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
@@ -37,7 +38,9 @@ import org.apache.iotdb.db.queryengine.execution.driver.DataDriverContext;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.DownStreamChannelIndex;
+import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISinkChannel;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISinkHandle;
+import org.apache.iotdb.db.queryengine.execution.exchange.sink.LocalSinkChannel;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ShuffleSinkHandle;
 import org.apache.iotdb.db.queryengine.execution.exchange.source.ISourceHandle;
 import org.apache.iotdb.db.queryengine.execution.operator.EmptyDataOperator;
@@ -46,6 +49,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.operator.process.AssignUniqueIdOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.CollectOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.DynamicFilterSourceOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.EnforceSingleRowOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.FilterAndProjectOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.LimitOperator;
@@ -93,9 +97,11 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.mat
 import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.matcher.Matcher;
 import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.matcher.Program;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.TableWindowOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.TopKRankingOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.WindowFunction;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.WindowFunctionFactory;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.aggregate.AggregationWindowFunction;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.aggregate.SlidingExtremaWindowFunction;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.aggregate.WindowAggregator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.frame.FrameInfo;
 import org.apache.iotdb.db.queryengine.execution.operator.schema.CountMergeOperator;
@@ -114,6 +120,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.Asof
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DefaultAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DeviceIteratorScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.InformationSchemaTableScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.JoinDynamicFilter;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.LastQueryAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.MarkDistinctOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.MergeSortFullOuterJoinOperator;
@@ -154,6 +161,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.NonAlignedDevice
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.ResolvedFunction;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceSchemaCache;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.CastToBlobLiteralVisitor;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.CastToBooleanLiteralVisitor;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.CastToDateLiteralVisitor;
@@ -198,6 +206,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.StreamSortNo
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionProcessorNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeAlignedDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeNonAlignedDeviceViewScanNode;
@@ -218,6 +227,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.FunctionCall;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Literal;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
 import org.apache.iotdb.db.queryengine.plan.relational.type.InternalTypeManager;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
@@ -261,6 +271,7 @@ import org.apache.tsfile.utils.TsPrimitiveType;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
 import java.io.File;
@@ -286,7 +297,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.util.Objects.requireNonNull;
+import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.ATTRIBUTE;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.FIELD;
+import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TAG;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TIME;
 import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getAggregationTypeByFuncName;
 import static org.apache.iotdb.db.queryengine.common.DataNodeEndPoints.isSameNode;
@@ -314,6 +327,8 @@ import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.RowsP
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.SkipToPosition.LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.sql.ast.BooleanLiteral.TRUE_LITERAL;
 import static org.apache.iotdb.db.queryengine.plan.relational.type.InternalTypeManager.getTSDataType;
+import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_COUNT_DISTINCT;
+import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_PERCENTILE;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.AVG;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.COUNT;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.EXTREME;
@@ -1037,6 +1052,10 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
 
     TreeAlignedDeviceViewScanOperator treeAlignedDeviceViewScanOperator =
         new TreeAlignedDeviceViewScanOperator(parameter, idColumnValueExtractor);
+    JoinDynamicFilter dynamicFilter = context.getProbeScanDynamicFilter(node.getPlanNodeId());
+    if (dynamicFilter != null) {
+      treeAlignedDeviceViewScanOperator.setDynamicFilter(dynamicFilter);
+    }
 
     addSource(
         treeAlignedDeviceViewScanOperator,
@@ -1175,11 +1194,30 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
   @Override
   public Operator visitDeviceTableScan(
       DeviceTableScanNode node, LocalExecutionPlanContext context) {
+    // the sub scans of device ranges have their own plan node ids, so look up the filter here
+    JoinDynamicFilter dynamicFilter = context.getProbeScanDynamicFilter(node.getPlanNodeId());
+    int pipelineNum = getDeviceRangePipelineNum(node, context);
+    if (pipelineNum > 1) {
+      return constructDeviceRangePipelines(
+          node,
+          context,
+          pipelineNum,
+          (subNode, subContext) -> constructTableScanOperator(subNode, subContext, dynamicFilter));
+    }
+    return constructTableScanOperator(node, context, dynamicFilter);
+  }
 
+  private Operator constructTableScanOperator(
+      DeviceTableScanNode node,
+      LocalExecutionPlanContext context,
+      @Nullable JoinDynamicFilter dynamicFilter) {
     AbstractTableScanOperator.AbstractTableScanOperatorParameter parameter =
         constructAbstractTableScanOperatorParameter(node, context);
 
     TableScanOperator tableScanOperator = new TableScanOperator(parameter);
+    if (dynamicFilter != null) {
+      tableScanOperator.setDynamicFilter(dynamicFilter);
+    }
 
     addSource(
         tableScanOperator,
@@ -1193,6 +1231,104 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     return tableScanOperator;
   }
 
+  /**
+   * The devices of the scan are split into ranges scanned by different pipelines when the scan
+   * reads enough devices, so that one data region with many devices can be scanned by multiple
+   * threads. The limit and offset of all devices can't be split, so the scan is kept in one
+   * pipeline if they are pushed down.
+   */
+  private int getDeviceRangePipelineNum(
+      DeviceTableScanNode node, LocalExecutionPlanContext context) {
+    int minDeviceNum =
+        IoTDBDescriptor.getInstance().getConfig().getMinDeviceNumOfTableScanPipeline();
+    if (minDeviceNum <= 0
+        || context.getDegreeOfParallelism() <= 1
+        || node.getPushDownOffset() > 0
+        || (node.getPushDownLimit() > 0 && !node.isPushLimitToEachDevice())) {
+      return 1;
+    }
+    return Math.min(
+        context.getDegreeOfParallelism(), node.getDeviceEntries().size() / minDeviceNum);
+  }
+
+  /**
+   * Scan each device range by the scan operator in its own pipeline, the first range is scanned in
+   * the current pipeline. The CollectOperator consumes the ranges in the order of the devices, so
+   * the output order is the same as scanning all devices in one operator, while the pipelines of
+   * the following ranges run concurrently and buffer their results in the local exchanges.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends DeviceTableScanNode> Operator constructDeviceRangePipelines(
+      T node,
+      LocalExecutionPlanContext context,
+      int pipelineNum,
+      BiFunction<T, LocalExecutionPlanContext, Operator> scanOperatorGenerator) {
+    List<DeviceEntry> deviceEntries = node.getDeviceEntries();
+    // the rest dop is left for the other scans in this fragment instance
+    context.setDegreeOfParallelism(context.getDegreeOfParallelism() - pipelineNum + 1);
+
+    List<Operator> children = new ArrayList<>(pipelineNum);
+    for (int i = 0; i < pipelineNum; i++) {
+      T subNode = (T) node.clone();
+      subNode.setPlanNodeId(new PlanNodeId(String.format("%s-%s", node.getPlanNodeId(), i)));
+      subNode.setDeviceEntries(
+          new ArrayList<>(
+              deviceEntries.subList(
+                  deviceEntries.size() * i / pipelineNum,
+                  deviceEntries.size() * (i + 1) / pipelineNum)));
+      if (i == 0) {
+        children.add(scanOperatorGenerator.apply(subNode, context));
+        continue;
+      }
+
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      Operator scanOperator = scanOperatorGenerator.apply(subNode, subContext);
+      children.add(
+          addLocalPipeline(scanOperator, subNode.getPlanNodeId(), subContext, context));
+    }
+
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                CollectOperator.class.getSimpleName());
+    return new CollectOperator(operatorContext, children);
+  }
+
+  /**
+   * Run the operator tree generated by the sub context in its own pipeline, the result is consumed
+   * by the returned ExchangeOperator in the pipeline of the parent context.
+   */
+  private ExchangeOperator addLocalPipeline(
+      Operator root,
+      PlanNodeId planNodeId,
+      LocalExecutionPlanContext subContext,
+      LocalExecutionPlanContext context) {
+    ISinkChannel localSinkChannel =
+        MPP_DATA_EXCHANGE_MANAGER.createLocalSinkChannelForPipeline(
+            subContext.getDriverContext(), planNodeId.getId());
+    subContext.setISink(localSinkChannel);
+    subContext.addPipelineDriverFactory(root, subContext.getDriverContext(), 0);
+
+    ExchangeOperator exchangeOperator =
+        new ExchangeOperator(
+            context
+                .getDriverContext()
+                .addOperatorContext(
+                    context.getNextOperatorId(), null, ExchangeOperator.class.getSimpleName()),
+            MPP_DATA_EXCHANGE_MANAGER.createLocalSourceHandleForPipeline(
+                ((LocalSinkChannel) localSinkChannel).getSharedTsBlockQueue(),
+                context.getDriverContext()),
+            planNodeId,
+            root.calculateMaxReturnSize());
+    context.addExchangeOperator(exchangeOperator);
+    context.addExchangeSumNum(1);
+    return exchangeOperator;
+  }
+
   public static Map<Symbol, List<InputLocation>> makeLayout(final List<PlanNode> children) {
     final Map<Symbol, List<InputLocation>> outputMappings = new LinkedHashMap<>();
     int tsBlockIndex = 0;
@@ -1815,6 +1951,52 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
 
   @Override
   public Operator visitSort(SortNode node, LocalExecutionPlanContext context) {
+    long sortBufferSize = IoTDBDescriptor.getInstance().getConfig().getSortBufferSize();
+    DeviceTableScanNode scanNode = getDeviceTableScanBelowSort(node, context);
+    if (scanNode != null) {
+      int pipelineNum = getParallelSortPipelineNum(scanNode, context);
+      if (pipelineNum > 1) {
+        return constructParallelSortPipelines(node, scanNode, context, pipelineNum);
+      }
+    }
+    return constructSortOperator(node, context, sortBufferSize);
+  }
+
+  /**
+   * One sort pipeline for each core left in the degree of parallelism, which is derived from the
+   * available processors, and at most one pipeline for each device. Unlike the plain scan, the sort
+   * is split whatever the number of devices, since the cost of sorting grows faster than the rows.
+   */
+  private int getParallelSortPipelineNum(
+      DeviceTableScanNode scanNode, LocalExecutionPlanContext context) {
+    if (context.getDegreeOfParallelism() <= 1
+        || scanNode.getPushDownOffset() > 0
+        || (scanNode.getPushDownLimit() > 0 && !scanNode.isPushLimitToEachDevice())) {
+      return 1;
+    }
+    return Math.min(context.getDegreeOfParallelism(), scanNode.getDeviceEntries().size());
+  }
+
+  /**
+   * Each pipeline gets its share of sort_buffer_size_in_bytes, but no less than the buffer it needs
+   * to spill and merge. The memory of the sort operators is counted by the fragment instance.
+   */
+  private static long getSortBufferSizeOfPipeline(int pipelineNum) {
+    return Math.max(
+        IoTDBDescriptor.getInstance().getConfig().getSortBufferSize() / pipelineNum,
+        getMinSortBufferSizeOfPipeline());
+  }
+
+  /**
+   * One TsBlock for the output, one for the data in memory and at least two branches of spilled
+   * data to merge.
+   */
+  private static long getMinSortBufferSizeOfPipeline() {
+    return 4L * TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+  }
+
+  private Operator constructSortOperator(
+      SortNode node, LocalExecutionPlanContext context, long sortBufferSize) {
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -1847,15 +2029,134 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
 
     Operator child = node.getChild().accept(this, context);
 
+    JoinDynamicFilter dynamicFilter = context.getBuildSortDynamicFilter(node.getPlanNodeId());
+    if (dynamicFilter != null) {
+      // collect the join keys before sorting, so that they are ready once the input is consumed up
+      child =
+          new DynamicFilterSourceOperator(
+              context
+                  .getDriverContext()
+                  .addOperatorContext(
+                      context.getNextOperatorId(),
+                      node.getPlanNodeId(),
+                      DynamicFilterSourceOperator.class.getSimpleName()),
+              child,
+              dynamicFilter);
+    }
+
     return new TableSortOperator(
         operatorContext,
         child,
         dataTypes,
         filePrefix,
+        getComparatorForTable(
+            node.getOrderingScheme().getOrderingList(), sortItemIndexList, sortItemDataTypeList),
+        sortBufferSize);
+  }
+
+  /**
+   * @return the scan which only passes its rows through filter and project nodes to the sort, null
+   *     if there is no such scan or the sort collects the keys of the join above it
+   */
+  @Nullable
+  private DeviceTableScanNode getDeviceTableScanBelowSort(
+      SortNode node, LocalExecutionPlanContext context) {
+    if (context.getBuildSortDynamicFilter(node.getPlanNodeId()) != null) {
+      return null;
+    }
+    PlanNode child = node.getChild();
+    while (child instanceof ProjectNode || child instanceof FilterNode) {
+      child = ((SingleChildProcessNode) child).getChild();
+    }
+    return child.getClass() == DeviceTableScanNode.class ? (DeviceTableScanNode) child : null;
+  }
+
+  /**
+   * The devices of the scan are split into ranges, the rows of each range are sorted by its own
+   * sort operator in its own pipeline, then the sorted ranges are merged by the
+   * TableMergeSortOperator in the current pipeline. So that sorting a large result is not limited
+   * to one thread.
+   *
+   * <p>The rows are partitioned by devices instead of by sampled ranges of the sort keys. Ranges of
+   * the sort keys would need every scan to route its rows to all the sort pipelines by the key
+   * values, which no operator does inside a fragment instance, and sampling the keys would have to
+   * read the data before the plan is built. The merge of N sorted device ranges costs only log(N)
+   * comparisons per row, which is cheap compared with the sort, so splitting by devices gets the
+   * same parallelism for the sort itself.
+   */
+  private Operator constructParallelSortPipelines(
+      SortNode node,
+      DeviceTableScanNode scanNode,
+      LocalExecutionPlanContext context,
+      int pipelineNum) {
+    List<DeviceEntry> deviceEntries = scanNode.getDeviceEntries();
+    JoinDynamicFilter dynamicFilter = context.getProbeScanDynamicFilter(scanNode.getPlanNodeId());
+    // the rest dop is left for the other operators in this fragment instance
+    context.setDegreeOfParallelism(context.getDegreeOfParallelism() - pipelineNum + 1);
+
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                TableMergeSortOperator.class.getSimpleName());
+    long sortBufferSize = getSortBufferSizeOfPipeline(pipelineNum);
+    List<Operator> children = new ArrayList<>(pipelineNum);
+    for (int i = 0; i < pipelineNum; i++) {
+      DeviceTableScanNode subScanNode = scanNode.clone();
+      subScanNode.setPlanNodeId(
+          new PlanNodeId(String.format("%s-%s", scanNode.getPlanNodeId(), i)));
+      subScanNode.setDeviceEntries(
+          new ArrayList<>(
+              deviceEntries.subList(
+                  deviceEntries.size() * i / pipelineNum,
+                  deviceEntries.size() * (i + 1) / pipelineNum)));
+      if (dynamicFilter != null) {
+        context.addProbeScanDynamicFilter(subScanNode.getPlanNodeId(), dynamicFilter);
+      }
+      SortNode subSortNode = (SortNode) replaceScanBelow(node, subScanNode, i);
+
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      Operator sortOperator = constructSortOperator(subSortNode, subContext, sortBufferSize);
+      children.add(
+          addLocalPipeline(sortOperator, subSortNode.getPlanNodeId(), subContext, context));
+    }
+
+    List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
+    int sortItemsCount = node.getOrderingScheme().getOrderBy().size();
+    List<Integer> sortItemIndexList = new ArrayList<>(sortItemsCount);
+    List<TSDataType> sortItemDataTypeList = new ArrayList<>(sortItemsCount);
+    genSortInformation(
+        node.getOutputSymbols(),
+        node.getOrderingScheme(),
+        sortItemIndexList,
+        sortItemDataTypeList,
+        context.getTypeProvider());
+
+    return new TableMergeSortOperator(
+        operatorContext,
+        children,
+        dataTypes,
         getComparatorForTable(
             node.getOrderingScheme().getOrderingList(), sortItemIndexList, sortItemDataTypeList));
   }
 
+  /** Copy the chain of single child nodes from the node, with the scan at the bottom replaced. */
+  private PlanNode replaceScanBelow(PlanNode node, DeviceTableScanNode subScanNode, int index) {
+    if (node instanceof DeviceTableScanNode) {
+      return subScanNode;
+    }
+    PlanNode copy =
+        node.replaceChildren(
+            Collections.singletonList(
+                replaceScanBelow(
+                    ((SingleChildProcessNode) node).getChild(), subScanNode, index)));
+    copy.setPlanNodeId(new PlanNodeId(String.format("%s-%s", node.getPlanNodeId(), index)));
+    return copy;
+  }
+
   @Override
   public Operator visitTopK(TopKNode node, LocalExecutionPlanContext context) {
     OperatorContext operatorContext =
@@ -1989,6 +2290,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
   public Operator visitJoin(JoinNode node, LocalExecutionPlanContext context) {
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
 
+    // must be registered before the children are generated
+    registerJoinDynamicFilter(node, context);
+
     Operator leftChild = node.getLeftChild().accept(this, context);
     Operator rightChild = node.getRightChild().accept(this, context);
 
@@ -2244,6 +2548,67 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     }
   }
 
+  /**
+   * For inner join whose left join key is a tag or attribute column of the scan below it, the keys
+   * of the right child are collected before they are sorted, and the devices of the left scan
+   * whose key can't match any of them are skipped. Only the scan and the sort in this fragment
+   * instance can be connected.
+   */
+  private void registerJoinDynamicFilter(JoinNode node, LocalExecutionPlanContext context) {
+    if (node.getJoinType() != JoinNode.JoinType.INNER
+        || node.getAsofCriteria().isPresent()
+        || !(node.getRightChild() instanceof SortNode)) {
+      return;
+    }
+    PlanNode buildSource = ((SortNode) node.getRightChild()).getChild();
+    for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+      TSDataType keyType =
+          getTSDataType(context.getTypeProvider().getTableModelType(clause.getRight()));
+      if (keyType != TSDataType.STRING && keyType != TSDataType.TEXT) {
+        continue;
+      }
+
+      // find the scan producing the left join key, through the nodes which only filter rows
+      Symbol probeSymbol = clause.getLeft();
+      PlanNode probeSource = node.getLeftChild();
+      while (probeSource instanceof SortNode
+          || probeSource instanceof FilterNode
+          || probeSource instanceof ProjectNode) {
+        if (probeSource instanceof ProjectNode) {
+          Expression expression = ((ProjectNode) probeSource).getAssignments().get(probeSymbol);
+          if (!(expression instanceof SymbolReference)) {
+            break;
+          }
+          probeSymbol = Symbol.from(expression);
+        }
+        probeSource = ((SingleChildProcessNode) probeSource).getChild();
+      }
+      if (!(probeSource.getClass() == DeviceTableScanNode.class
+          || probeSource instanceof TreeAlignedDeviceViewScanNode)) {
+        continue;
+      }
+
+      DeviceTableScanNode probeScan = (DeviceTableScanNode) probeSource;
+      ColumnSchema columnSchema = probeScan.getAssignments().get(probeSymbol);
+      int probeColumnIndex = probeScan.getOutputSymbols().indexOf(probeSymbol);
+      int buildChannel = buildSource.getOutputSymbols().indexOf(clause.getRight());
+      if (columnSchema == null
+          || (columnSchema.getColumnCategory() != TAG
+              && columnSchema.getColumnCategory() != ATTRIBUTE)
+          || probeColumnIndex < 0
+          || buildChannel < 0
+          || probeScan.getPushDownLimit() > 0
+          || probeScan.getPushDownOffset() > 0) {
+        continue;
+      }
+      context.addJoinDynamicFilter(
+          probeScan.getPlanNodeId(),
+          node.getRightChild().getPlanNodeId(),
+          new JoinDynamicFilter(probeColumnIndex, buildChannel));
+      return;
+    }
+  }
+
   @Override
   public Operator visitSemiJoin(SemiJoinNode node, LocalExecutionPlanContext context) {
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
@@ -2509,10 +2874,39 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       TypeProvider typeProvider,
       boolean scanAscending,
       String timeColumnName) {
+    return buildAggregator(
+        childLayout,
+        symbol,
+        aggregation,
+        step,
+        typeProvider,
+        scanAscending,
+        timeColumnName,
+        null);
+  }
+
+  // projection will only be set for AggTableScan, the literal parameters in it are passed to the
+  // accumulator instead of being read as input channels.
+  private TableAggregator buildAggregator(
+      Map<Symbol, Integer> childLayout,
+      Symbol symbol,
+      AggregationNode.Aggregation aggregation,
+      AggregationNode.Step step,
+      TypeProvider typeProvider,
+      boolean scanAscending,
+      String timeColumnName,
+      Assignments projection) {
     List<Integer> argumentChannels = new ArrayList<>();
-    for (Expression argument : aggregation.getArguments()) {
-      Symbol argumentSymbol = Symbol.from(argument);
-      argumentChannels.add(childLayout.get(argumentSymbol));
+    List<Expression> inputExpressions = new ArrayList<>(aggregation.getArguments().size());
+    for (int i = 0; i < aggregation.getArguments().size(); i++) {
+      Symbol argumentSymbol = Symbol.from(aggregation.getArguments().get(i));
+      Expression projected = projection == null ? null : projection.get(argumentSymbol);
+      if (AggregationTableScanNode.isLiteralParameter(aggregation, i, projected)) {
+        inputExpressions.add(projected);
+      } else {
+        argumentChannels.add(childLayout.get(argumentSymbol));
+        inputExpressions.add(aggregation.getArguments().get(i));
+      }
     }
 
     String functionName = aggregation.getResolvedFunction().getSignature().getName();
@@ -2525,7 +2919,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
             functionName,
             getAggregationTypeByFuncName(functionName),
             originalArgumentTypes,
-            aggregation.getArguments(),
+            inputExpressions,
             Collections.emptyMap(),
             scanAscending,
             timeColumnName,
@@ -2776,11 +3170,20 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
                 node.getAggregations().values().stream()
                     .mapToLong(aggregation -> aggregation.getArguments().size())
                     .sum());
+    Set<Symbol> literalParameters = new HashSet<>();
+    for (AggregationNode.Aggregation aggregation : node.getAggregations().values()) {
+      for (int i = 0; i < aggregation.getArguments().size(); i++) {
+        if (node.isLiteralParameter(aggregation, i)) {
+          literalParameters.add(Symbol.from(aggregation.getArguments().get(i)));
+        }
+      }
+    }
     int aggDistinctArgumentCount =
         (int)
             node.getAggregations().values().stream()
                 .flatMap(aggregation -> aggregation.getArguments().stream())
                 .map(Symbol::from)
+                .filter(symbol -> !literalParameters.contains(symbol))
                 .distinct()
                 .count();
     List<ColumnSchema> aggColumnSchemas = new ArrayList<>(aggDistinctArgumentCount);
@@ -2793,6 +3196,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     for (Map.Entry<Symbol, AggregationNode.Aggregation> entry : node.getAggregations().entrySet()) {
       for (Expression argument : entry.getValue().getArguments()) {
         Symbol symbol = Symbol.from(argument);
+        if (literalParameters.contains(symbol)) {
+          continue;
+        }
         ColumnSchema schema =
             requireNonNull(node.getAssignments().get(symbol), symbol + " is null");
         if (!aggColumnLayout.containsKey(symbol)) {
@@ -2860,7 +3266,8 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
               node.getStep(),
               context.getTypeProvider(),
               scanAscending,
-              timeColumnName));
+              timeColumnName,
+              node.getProjection()));
     }
 
     ITableTimeRangeIterator timeRangeIterator = null;
@@ -2967,7 +3374,19 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
   @Override
   public Operator visitAggregationTableScan(
       AggregationTableScanNode node, LocalExecutionPlanContext context) {
+    // only the partial results of different device ranges can be merged by the final aggregation
+    if (node.getStep() == AggregationNode.Step.PARTIAL) {
+      int pipelineNum = getDeviceRangePipelineNum(node, context);
+      if (pipelineNum > 1) {
+        return constructDeviceRangePipelines(
+            node, context, pipelineNum, this::constructAggregationTableScanOperator);
+      }
+    }
+    return constructAggregationTableScanOperator(node, context);
+  }
 
+  private Operator constructAggregationTableScanOperator(
+      AggregationTableScanNode node, LocalExecutionPlanContext context) {
     AbstractAggTableScanOperator.AbstractAggTableScanOperatorParameter parameter =
         constructAbstractAggTableScanOperatorParameter(node, context);
 
@@ -3414,7 +3833,24 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         new Matcher(program),
         evaluationsBuilder.build(),
         measureComputationsBuilder.build(),
-        labelNames);
+        labelNames,
+        getPartitionSpillFolderPath(operatorContext, context));
+  }
+
+  /** Large partitions of window and pattern recognition operators are spilled like sort. */
+  private String getPartitionSpillFolderPath(
+      OperatorContext operatorContext, LocalExecutionPlanContext context) {
+    if (IoTDBDescriptor.getInstance().getConfig().getWindowPartitionBufferSize() <= 0) {
+      return null;
+    }
+    context.getDriverContext().setHaveTmpFile(true);
+    context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+    return IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
+        + File.separator
+        + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
+        + File.separator
+        + operatorContext.getDriverContext().getPipelineId()
+        + File.separator;
   }
 
   private boolean[] checkStatisticAndScanOrder(
@@ -3465,13 +3901,27 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
             canUseStatistic = false;
           }
           break;
+        case APPROX_COUNT_DISTINCT:
+        case APPROX_PERCENTILE:
+          // can only be calculated from the sketches of FIELD columns in TsFiles
+          if (!IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSketch()
+              || node.getAssignments().get(argument).getColumnCategory() != FIELD
+              || (aggregation.getArguments().size() > 1
+                  && !node.isLiteralParameter(aggregation, 1))) {
+            canUseStatistic = false;
+          }
+          break;
         default:
           canUseStatistic = false;
       }
     }
 
     boolean isAscending = node.getScanOrder().isAscending();
-    boolean groupByDateBin = node.getProjection() != null && !node.getProjection().isEmpty();
+    // projection may also contain literal parameters of aggregations
+    boolean groupByDateBin =
+        node.getProjection() != null
+            && node.getProjection().getMap().values().stream()
+                .anyMatch(FunctionCall.class::isInstance);
     // only in non-groupByDateBin situation can change the scan order
     if (!groupByDateBin) {
       if (ascendingCount >= descendingCount) {
@@ -3649,9 +4099,12 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       WindowFunction windowFunction;
       FunctionKind functionKind = resolvedFunction.getFunctionKind();
       if (functionKind == FunctionKind.AGGREGATE) {
-        WindowAggregator tableWindowAggregator =
-            buildWindowAggregator(symbol, function, typeProvider, argumentChannels);
-        windowFunction = new AggregationWindowFunction(tableWindowAggregator);
+        windowFunction = buildSlidingExtremaWindowFunction(function, argumentChannels);
+        if (windowFunction == null) {
+          WindowAggregator tableWindowAggregator =
+              buildWindowAggregator(symbol, function, typeProvider, argumentChannels);
+          windowFunction = new AggregationWindowFunction(tableWindowAggregator);
+        }
       } else if (functionKind == FunctionKind.WINDOW) {
         String functionName = function.getResolvedFunction().getSignature().getName();
         windowFunction =
@@ -3687,7 +4140,74 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         windowFunctions,
         frameInfoList,
         partitionChannels,
-        sortChannels);
+        sortChannels,
+        getPartitionSpillFolderPath(operatorContext, context));
+  }
+
+  @Override
+  public Operator visitTopKRanking(TopKRankingNode node, LocalExecutionPlanContext context) {
+    TypeProvider typeProvider = context.getTypeProvider();
+    Operator child = node.getChild().accept(this, context);
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                TopKRankingOperator.class.getSimpleName());
+
+    List<Symbol> childOutputSymbols = node.getChild().getOutputSymbols();
+    Map<Symbol, Integer> childLayout = makeLayoutFromOutputSymbols(childOutputSymbols);
+
+    List<Symbol> partitionBySymbols = node.getSpecification().getPartitionBy();
+    List<Integer> partitionChannels = getChannelsForSymbols(partitionBySymbols, childLayout);
+    List<Type> partitionTypes =
+        partitionBySymbols.stream()
+            .map(typeProvider::getTableModelType)
+            .collect(Collectors.toList());
+
+    OrderingScheme orderingScheme = node.getSpecification().getOrderingScheme().get();
+    int sortItemsCount = orderingScheme.getOrderBy().size();
+    List<Integer> sortItemIndexList = new ArrayList<>(sortItemsCount);
+    List<TSDataType> sortItemDataTypeList = new ArrayList<>(sortItemsCount);
+    genSortInformation(
+        childOutputSymbols, orderingScheme, sortItemIndexList, sortItemDataTypeList, typeProvider);
+
+    return new TopKRankingOperator(
+        operatorContext,
+        child,
+        getOutputColumnTypes(node.getChild(), typeProvider),
+        partitionTypes,
+        partitionChannels,
+        getComparatorForTable(
+            orderingScheme.getOrderingList(), sortItemIndexList, sortItemDataTypeList),
+        node.getRankingType(),
+        node.getMaxRankingPerPartition(),
+        !node.isPartial());
+  }
+
+  /**
+   * MIN and MAX can't remove input from the accumulator, so they are evaluated by the monotonic
+   * deque instead of re-aggregating the whole frame for each row.
+   *
+   * @return null if the function is not MIN or MAX of a supported type
+   */
+  private WindowFunction buildSlidingExtremaWindowFunction(
+      WindowNode.Function function, List<Integer> argumentChannels) {
+    String functionName = function.getResolvedFunction().getSignature().getName();
+    boolean isMax = TableBuiltinAggregationFunction.MAX.getFunctionName().equals(functionName);
+    if (!isMax && !TableBuiltinAggregationFunction.MIN.getFunctionName().equals(functionName)) {
+      return null;
+    }
+    List<Type> argumentTypes = function.getResolvedFunction().getSignature().getArgumentTypes();
+    if (argumentChannels.size() != 1 || argumentTypes.size() != 1) {
+      return null;
+    }
+    TSDataType dataType = getTSDataType(argumentTypes.get(0));
+    if (!SlidingExtremaWindowFunction.isSupported(dataType)) {
+      return null;
+    }
+    return new SlidingExtremaWindowFunction(argumentChannels.get(0), dataType, isMax);
   }
 
   private WindowAggregator buildWindowAggregator(
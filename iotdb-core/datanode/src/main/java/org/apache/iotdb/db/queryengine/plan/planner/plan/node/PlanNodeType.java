@@ -129,6 +129,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.PreviousFill
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SemiJoinNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionProcessorNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeAlignedDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeNonAlignedDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ValueFillNode;
@@ -304,6 +305,7 @@ public enum PlanNodeType {
   TABLE_GROUP_NODE((short) 1030),
   TABLE_PATTERN_RECOGNITION_NODE((short) 1031),
   TABLE_WINDOW_FUNCTION((short) 1032),
+  TABLE_TOPK_RANKING_NODE((short) 1033),
 
   RELATIONAL_INSERT_TABLET((short) 2000),
   RELATIONAL_INSERT_ROW((short) 2001),
@@ -685,6 +687,8 @@ public enum PlanNodeType {
         return PatternRecognitionNode.deserialize(buffer);
       case 1032:
         return WindowNode.deserialize(buffer);
+      case 1033:
+        return TopKRankingNode.deserialize(buffer);
       case 2000:
         return RelationalInsertTabletNode.deserialize(buffer);
       case 2001:
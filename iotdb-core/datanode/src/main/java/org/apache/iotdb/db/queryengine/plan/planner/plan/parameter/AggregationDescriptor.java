@@ -193,6 +193,9 @@ public class AggregationDescriptor {
         case MIN_BY:
           outputAggregationNames.add(addPartialSuffix(SqlConstant.MIN_BY));
           break;
+        case APPROX_PERCENTILE:
+          outputAggregationNames.add(addPartialSuffix(SqlConstant.APPROX_PERCENTILE));
+          break;
         case UDAF:
           outputAggregationNames.add(addPartialSuffix(aggregationFuncName));
           break;
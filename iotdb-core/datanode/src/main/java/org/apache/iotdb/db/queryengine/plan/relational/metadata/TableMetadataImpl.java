@@ -669,6 +669,25 @@ public class TableMetadataImpl implements Metadata {
                   "Aggregation functions [%s] should only have three arguments", functionName));
         }
         break;
+      case SqlConstant.APPROX_PERCENTILE:
+        if (argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregation functions [%s] should only have two arguments", functionName));
+        }
+        if (!isSupportedMathNumericType(argumentTypes.get(0))) {
+          throw new SemanticException(
+              String.format(
+                  "First argument of Aggregation functions [%s] should be numeric type",
+                  functionName));
+        }
+        if (!DOUBLE.equals(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Second argument of Aggregation functions [%s] should be double type",
+                  functionName));
+        }
+        break;
       case SqlConstant.COUNT:
         break;
       default:
@@ -701,6 +720,7 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return DOUBLE;
       case SqlConstant.APPROX_MOST_FREQUENT:
         return STRING;
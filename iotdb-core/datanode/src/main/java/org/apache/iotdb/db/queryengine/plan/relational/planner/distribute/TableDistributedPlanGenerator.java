@@ -28,6 +28,8 @@ import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.schema.table.TsTable;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -75,6 +77,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.StreamSortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionProcessorNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeAlignedDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeDeviceViewScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeNonAlignedDeviceViewScanNode;
@@ -1027,6 +1030,17 @@ public class TableDistributedPlanGenerator
     return true;
   }
 
+  private static boolean canScanByDeviceRangePipelines(AggregationTableScanNode node) {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    // the tree device view scan is not split into pipelines
+    return !(node instanceof AggregationTreeDeviceViewScanNode)
+        && config.getMinDeviceNumOfTableScanPipeline() > 0
+        && config.getDegreeOfParallelism() > 1
+        && node.getPushDownOffset() <= 0
+        && (node.getPushDownLimit() <= 0 || node.isPushLimitToEachDevice())
+        && node.getDeviceEntries().size() >= 2 * config.getMinDeviceNumOfTableScanPipeline();
+  }
+
   @Override
   public List<PlanNode> visitAggregationTableScan(
       AggregationTableScanNode node, PlanContext context) {
@@ -1073,7 +1087,9 @@ public class TableDistributedPlanGenerator
     // Step is SINGLE and device data in more than one region, we need to final aggregate the result
     // from different region here, so split
     // this node into two-stage
-    needSplit = needSplit && node.getStep() == SINGLE;
+    // Also split it if the devices are enough to be scanned by several pipelines, whose partial
+    // results are merged by the final aggregation
+    needSplit = (needSplit || canScanByDeviceRangePipelines(node)) && node.getStep() == SINGLE;
     AggregationNode finalAggregation = null;
     if (needSplit) {
       Pair<AggregationNode, AggregationTableScanNode> splitResult =
@@ -1687,6 +1703,38 @@ public class TableDistributedPlanGenerator
     }
   }
 
+  @Override
+  public List<PlanNode> visitTopKRanking(TopKRankingNode node, PlanContext context) {
+    context.clearExpectedOrderingScheme();
+    if (node.getChildren().isEmpty()) {
+      return Collections.singletonList(node);
+    }
+
+    List<PlanNode> childrenNodes = node.getChild().accept(this, context);
+    if (childrenNodes.size() == 1) {
+      node.setChild(childrenNodes.get(0));
+      return Collections.singletonList(node);
+    }
+
+    // The top k rows of each partition must be in the union of top k rows of each child, so keep
+    // a partial TopKRankingNode above each child to reduce the data to be exchanged.
+    CollectNode collectNode =
+        new CollectNode(queryId.genPlanNodeId(), node.getChild().getOutputSymbols());
+    for (PlanNode child : childrenNodes) {
+      collectNode.addChild(
+          new TopKRankingNode(
+              queryId.genPlanNodeId(),
+              child,
+              node.getSpecification(),
+              node.getRankingType(),
+              node.getRankingSymbol(),
+              node.getMaxRankingPerPartition(),
+              true));
+    }
+    node.setChild(collectNode);
+    return Collections.singletonList(node);
+  }
+
   public static class PlanContext {
     final Map<PlanNodeId, NodeDistribution> nodeDistributionMap;
     boolean hasExchangeNode = false;
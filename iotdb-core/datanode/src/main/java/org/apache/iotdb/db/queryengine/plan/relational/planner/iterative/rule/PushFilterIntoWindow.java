@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule;
+
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.Rule;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.GroupNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode.RankingType;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.WindowNode;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
+import org.apache.iotdb.db.queryengine.plan.relational.utils.matching.Capture;
+import org.apache.iotdb.db.queryengine.plan.relational.utils.matching.Captures;
+import org.apache.iotdb.db.queryengine.plan.relational.utils.matching.Pattern;
+
+import com.google.common.collect.Iterables;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.combineConjuncts;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.extractConjuncts;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.Util.toTopKRankingType;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.Patterns.filter;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.Patterns.source;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.Patterns.window;
+import static org.apache.iotdb.db.queryengine.plan.relational.utils.matching.Capture.newCapture;
+
+/**
+ * <b>Optimization phase:</b> Logical plan planning.
+ *
+ * <p>Replace the row_number() or rank() WindowNode with TopKRankingNode when the FilterNode above
+ * it gives an upper bound of the ranking, e.g. <code>rn <= 5</code>. TopKRankingNode keeps a
+ * bounded heap for each partition, so the GroupNode which sorts the whole input for the
+ * WindowNode is removed as well.
+ */
+public class PushFilterIntoWindow implements Rule<FilterNode> {
+  private static final Capture<WindowNode> CHILD = newCapture();
+
+  private static final Pattern<FilterNode> PATTERN =
+      filter()
+          .with(
+              source()
+                  .matching(
+                      window()
+                          .matching(window -> toTopKRankingType(window).isPresent())
+                          .capturedAs(CHILD)));
+
+  @Override
+  public Pattern<FilterNode> getPattern() {
+    return PATTERN;
+  }
+
+  @Override
+  public Result apply(FilterNode node, Captures captures, Context context) {
+    WindowNode windowNode = captures.get(CHILD);
+    RankingType rankingType = toTopKRankingType(windowNode).get();
+    Symbol rankingSymbol = Iterables.getOnlyElement(windowNode.getWindowFunctions().keySet());
+
+    long upperBound = Long.MAX_VALUE;
+    List<Expression> remainingConjuncts = new ArrayList<>();
+    for (Expression conjunct : extractConjuncts(node.getPredicate())) {
+      Optional<ComparisonExpression> comparison = normalizeComparison(conjunct, rankingSymbol);
+      if (!comparison.isPresent()) {
+        remainingConjuncts.add(conjunct);
+        continue;
+      }
+      long value = ((LongLiteral) comparison.get().getRight()).getParsedValue();
+      switch (comparison.get().getOperator()) {
+        case LESS_THAN:
+          upperBound = Math.min(upperBound, value - 1);
+          break;
+        case LESS_THAN_OR_EQUAL:
+          upperBound = Math.min(upperBound, value);
+          break;
+        case EQUAL:
+          upperBound = Math.min(upperBound, value);
+          // rn = 1 is the same as rn <= 1, the others still need the FilterNode
+          if (value != 1) {
+            remainingConjuncts.add(conjunct);
+          }
+          break;
+        default:
+          remainingConjuncts.add(conjunct);
+      }
+    }
+
+    // an upper bound lower than 1 filters out all the rows, leave it to the FilterNode
+    if (upperBound < 1 || upperBound > Integer.MAX_VALUE) {
+      return Result.empty();
+    }
+
+    TopKRankingNode topKRankingNode =
+        new TopKRankingNode(
+            windowNode.getPlanNodeId(),
+            removeGroupNode(windowNode, context),
+            windowNode.getSpecification(),
+            rankingType,
+            rankingSymbol,
+            (int) upperBound,
+            false);
+    if (remainingConjuncts.isEmpty()) {
+      return Result.ofPlanNode(topKRankingNode);
+    }
+    return Result.ofPlanNode(
+        new FilterNode(
+            node.getPlanNodeId(), topKRankingNode, combineConjuncts(remainingConjuncts)));
+  }
+
+  /**
+   * TopKRankingNode groups the rows by hash, the GroupNode planned only for the WindowNode is
+   * unnecessary.
+   */
+  private static PlanNode removeGroupNode(WindowNode windowNode, Context context) {
+    PlanNode child = context.getLookup().resolve(windowNode.getChild());
+    if (child instanceof GroupNode
+        && ((GroupNode) child).getPartitionKeyCount()
+            == windowNode.getSpecification().getPartitionBy().size()) {
+      return ((GroupNode) child).getChild();
+    }
+    return windowNode.getChild();
+  }
+
+  /** Returns the comparison in the form of <code>rankingSymbol op literal</code> if possible. */
+  private static Optional<ComparisonExpression> normalizeComparison(
+      Expression expression, Symbol rankingSymbol) {
+    if (!(expression instanceof ComparisonExpression)) {
+      return Optional.empty();
+    }
+    ComparisonExpression comparison = (ComparisonExpression) expression;
+    if (isRankingSymbol(comparison.getLeft(), rankingSymbol)
+        && comparison.getRight() instanceof LongLiteral) {
+      return Optional.of(comparison);
+    }
+    if (isRankingSymbol(comparison.getRight(), rankingSymbol)
+        && comparison.getLeft() instanceof LongLiteral) {
+      return Optional.of(
+          new ComparisonExpression(
+              comparison.getOperator().flip(), comparison.getRight(), comparison.getLeft()));
+    }
+    return Optional.empty();
+  }
+
+  private static boolean isRankingSymbol(Expression expression, Symbol rankingSymbol) {
+    return expression instanceof SymbolReference
+        && rankingSymbol.getName().equals(((SymbolReference) expression).getName());
+  }
+}
@@ -30,7 +30,9 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectN
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.ResolvedFunction;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DoubleLiteral;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 
@@ -55,6 +57,8 @@ import java.util.Set;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator.DATE_BIN_PREFIX;
+import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_COUNT_DISTINCT;
+import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_PERCENTILE;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.COUNT;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.TABLE_TIME_COLUMN_NAME;
 
@@ -212,6 +216,37 @@ public class AggregationTableScanNode extends DeviceTableScanNode {
     return projection;
   }
 
+  /**
+   * Literal parameters of approx_percentile and approx_count_distinct are not read from the scan,
+   * they are passed to the accumulators as constants, so that the sketches of TsFiles can be used.
+   *
+   * @param argumentIndex index of the argument in the Aggregation
+   * @param expression the projected expression of the argument
+   */
+  public static boolean isLiteralParameter(
+      AggregationNode.Aggregation aggregation, int argumentIndex, Expression expression) {
+    if (argumentIndex == 0) {
+      return false;
+    }
+    switch (aggregation.getResolvedFunction().getSignature().getName()) {
+      case APPROX_PERCENTILE:
+        return expression instanceof DoubleLiteral;
+      case APPROX_COUNT_DISTINCT:
+        return expression instanceof DoubleLiteral || expression instanceof LongLiteral;
+      default:
+        return false;
+    }
+  }
+
+  /** Returns true if the argument is a literal parameter projected in this node. */
+  public boolean isLiteralParameter(AggregationNode.Aggregation aggregation, int argumentIndex) {
+    return projection != null
+        && isLiteralParameter(
+            aggregation,
+            argumentIndex,
+            projection.get(Symbol.from(aggregation.getArguments().get(argumentIndex))));
+  }
+
   public List<Symbol> getGroupingKeys() {
     return groupingSets.getGroupingKeys();
   }
@@ -228,6 +228,10 @@ public final class Patterns {
     return typeOf(WindowNode.class);
   }
 
+  public static Pattern<TopKRankingNode> topKRanking() {
+    return typeOf(TopKRankingNode.class);
+  }
+
   /*
 
   public static Pattern<RowNumberNode> rowNumber()
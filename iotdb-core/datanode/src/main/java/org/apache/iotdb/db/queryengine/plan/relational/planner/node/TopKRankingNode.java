@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.node;
+
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.process.SingleChildProcessNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.DataOrganizationSpecification;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps at most maxRankingPerPartition ranks of each partition, which is the result of
+ * row_number() or rank() filtered by an upper bound of the ranking, e.g. <code>
+ * SELECT * FROM (SELECT *, row_number() OVER (PARTITION BY tag1 ORDER BY time DESC) AS rn FROM
+ * table1) WHERE rn <= 5</code>.
+ */
+public class TopKRankingNode extends SingleChildProcessNode {
+
+  public enum RankingType {
+    ROW_NUMBER,
+    RANK
+  }
+
+  private final DataOrganizationSpecification specification;
+  private final RankingType rankingType;
+  private final Symbol rankingSymbol;
+  private final int maxRankingPerPartition;
+  // partial TopKRankingNode is pushed down to each child in distributed planning, it only filters
+  // the rows and doesn't output the ranking column
+  private final boolean partial;
+
+  public TopKRankingNode(
+      PlanNodeId id,
+      PlanNode child,
+      DataOrganizationSpecification specification,
+      RankingType rankingType,
+      Symbol rankingSymbol,
+      int maxRankingPerPartition,
+      boolean partial) {
+    super(id, child);
+    requireNonNull(specification, "specification is null");
+    checkArgument(
+        specification.getOrderingScheme().isPresent(), "specification orderingScheme is absent");
+    checkArgument(maxRankingPerPartition > 0, "maxRankingPerPartition must be > 0");
+    this.specification = specification;
+    this.rankingType = requireNonNull(rankingType, "rankingType is null");
+    this.rankingSymbol = requireNonNull(rankingSymbol, "rankingSymbol is null");
+    this.maxRankingPerPartition = maxRankingPerPartition;
+    this.partial = partial;
+  }
+
+  public TopKRankingNode(
+      PlanNodeId id,
+      DataOrganizationSpecification specification,
+      RankingType rankingType,
+      Symbol rankingSymbol,
+      int maxRankingPerPartition,
+      boolean partial) {
+    this(id, null, specification, rankingType, rankingSymbol, maxRankingPerPartition, partial);
+  }
+
+  @Override
+  public PlanNode clone() {
+    return new TopKRankingNode(
+        id, child, specification, rankingType, rankingSymbol, maxRankingPerPartition, partial);
+  }
+
+  @Override
+  public List<String> getOutputColumnNames() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public List<Symbol> getOutputSymbols() {
+    if (partial) {
+      return child.getOutputSymbols();
+    }
+    return ImmutableList.<Symbol>builder()
+        .addAll(child.getOutputSymbols())
+        .add(rankingSymbol)
+        .build();
+  }
+
+  @Override
+  public PlanNode replaceChildren(List<PlanNode> newChildren) {
+    return new TopKRankingNode(
+        id,
+        Iterables.getOnlyElement(newChildren),
+        specification,
+        rankingType,
+        rankingSymbol,
+        maxRankingPerPartition,
+        partial);
+  }
+
+  @Override
+  public <R, C> R accept(PlanVisitor<R, C> visitor, C context) {
+    return visitor.visitTopKRanking(this, context);
+  }
+
+  @Override
+  protected void serializeAttributes(ByteBuffer byteBuffer) {
+    PlanNodeType.TABLE_TOPK_RANKING_NODE.serialize(byteBuffer);
+    specification.serialize(byteBuffer);
+    ReadWriteIOUtils.write((byte) rankingType.ordinal(), byteBuffer);
+    Symbol.serialize(rankingSymbol, byteBuffer);
+    ReadWriteIOUtils.write(maxRankingPerPartition, byteBuffer);
+    ReadWriteIOUtils.write(partial, byteBuffer);
+  }
+
+  @Override
+  protected void serializeAttributes(DataOutputStream stream) throws IOException {
+    PlanNodeType.TABLE_TOPK_RANKING_NODE.serialize(stream);
+    specification.serialize(stream);
+    ReadWriteIOUtils.write((byte) rankingType.ordinal(), stream);
+    Symbol.serialize(rankingSymbol, stream);
+    ReadWriteIOUtils.write(maxRankingPerPartition, stream);
+    ReadWriteIOUtils.write(partial, stream);
+  }
+
+  public static TopKRankingNode deserialize(ByteBuffer buffer) {
+    DataOrganizationSpecification specification = DataOrganizationSpecification.deserialize(buffer);
+    RankingType rankingType = RankingType.values()[ReadWriteIOUtils.readByte(buffer)];
+    Symbol rankingSymbol = Symbol.deserialize(buffer);
+    int maxRankingPerPartition = ReadWriteIOUtils.readInt(buffer);
+    boolean partial = ReadWriteIOUtils.readBool(buffer);
+
+    PlanNodeId planNodeId = PlanNodeId.deserialize(buffer);
+    return new TopKRankingNode(
+        planNodeId, specification, rankingType, rankingSymbol, maxRankingPerPartition, partial);
+  }
+
+  public DataOrganizationSpecification getSpecification() {
+    return specification;
+  }
+
+  public RankingType getRankingType() {
+    return rankingType;
+  }
+
+  public Symbol getRankingSymbol() {
+    return rankingSymbol;
+  }
+
+  public int getMaxRankingPerPartition() {
+    return maxRankingPerPartition;
+  }
+
+  public boolean isPartial() {
+    return partial;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    TopKRankingNode that = (TopKRankingNode) o;
+    return maxRankingPerPartition == that.maxRankingPerPartition
+        && partial == that.partial
+        && rankingType == that.rankingType
+        && Objects.equals(specification, that.specification)
+        && Objects.equals(rankingSymbol, that.rankingSymbol);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        super.hashCode(),
+        specification,
+        rankingType,
+        rankingSymbol,
+        maxRankingPerPartition,
+        partial);
+  }
+
+  @Override
+  public String toString() {
+    return "TopKRankingNode-" + this.getPlanNodeId();
+  }
+}
@@ -63,6 +63,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.Pr
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PruneTableScanColumns;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PruneTopKColumns;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PruneWindowColumns;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PushFilterIntoWindow;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PushLimitThroughOffset;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.PushLimitThroughProject;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.iterative.rule.RemoveDuplicateConditions;
@@ -307,6 +308,10 @@ public class LogicalOptimizeFactory {
         columnPruningOptimizer,
         inlineProjectionLimitFiltersOptimizer,
         new IterativeOptimizer(plannerContext, ruleStats, limitPushdownRules),
+        // must be run before PushLimitOffsetIntoTableScan, which pushes the ranking limit of
+        // TopKRankingNode into DeviceTableScanNode
+        new IterativeOptimizer(
+            plannerContext, ruleStats, ImmutableSet.of(new PushFilterIntoWindow())),
         new PushLimitOffsetIntoTableScan(),
         new TransformAggregationToStreamable(),
         new PushAggregationIntoTableScan(),
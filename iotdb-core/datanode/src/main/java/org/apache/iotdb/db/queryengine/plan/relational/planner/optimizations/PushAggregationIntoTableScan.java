@@ -152,13 +152,17 @@ public class PushAggregationIntoTableScan implements PlanOptimizer {
 
         // all the functions can be pre-agg in AggTableScanNode
 
-        // if expr appears in arguments of Aggregation, we don't push down
-        if (hasProject
-            && aggregation.getArguments().stream()
-                .anyMatch(
-                    argument ->
-                        !(assignments.get(Symbol.from(argument)) instanceof SymbolReference))) {
-          return PushDownLevel.NOOP;
+        // if expr appears in arguments of Aggregation, we don't push down, except the literal
+        // parameters which are passed to the accumulator as constants
+        if (hasProject) {
+          List<Expression> arguments = aggregation.getArguments();
+          for (int i = 0; i < arguments.size(); i++) {
+            Expression expression = assignments.get(Symbol.from(arguments.get(i)));
+            if (!(expression instanceof SymbolReference)
+                && !AggregationTableScanNode.isLiteralParameter(aggregation, i, expression)) {
+              return PushDownLevel.NOOP;
+            }
+          }
         }
       }
 
@@ -41,7 +41,9 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.StreamSortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableFunctionProcessorNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 
 import java.util.HashSet;
 import java.util.Map;
@@ -254,6 +256,55 @@ public class PushLimitOffsetIntoTableScan implements PlanOptimizer {
       return node;
     }
 
+    /**
+     * If each partition of TopKRankingNode is one device and the rows are ranked by time, only the
+     * first maxRankingPerPartition rows of each device are needed for row_number().
+     */
+    @Override
+    public PlanNode visitTopKRanking(TopKRankingNode node, Context context) {
+      Context subContext = new Context();
+      node.setChild(node.getChild().accept(this, subContext));
+      context.enablePushDown = false;
+
+      DeviceTableScanNode deviceTableScanNode = subContext.deviceTableScanNode;
+      if (!subContext.enablePushDown
+          || subContext.existSortNode
+          || subContext.existLimitNode
+          || deviceTableScanNode == null
+          || node.getRankingType() != TopKRankingNode.RankingType.ROW_NUMBER) {
+        return node;
+      }
+
+      OrderingScheme orderingScheme = node.getSpecification().getOrderingScheme().get();
+      Symbol firstOrderBy = orderingScheme.getOrderBy().get(0);
+      if (!deviceTableScanNode.isTimeColumn(firstOrderBy)) {
+        return node;
+      }
+
+      Map<Symbol, ColumnSchema> tableColumnSchema =
+          analysis.getTableColumnSchema(deviceTableScanNode.getQualifiedObjectName());
+      Set<Symbol> partitionSymbols = new HashSet<>(node.getSpecification().getPartitionBy());
+      for (Symbol partitionBy : partitionSymbols) {
+        if (!tableColumnSchema.containsKey(partitionBy)
+            || tableColumnSchema.get(partitionBy).getColumnCategory()
+                == TsTableColumnCategory.FIELD) {
+          return node;
+        }
+      }
+      for (Map.Entry<Symbol, ColumnSchema> entry : tableColumnSchema.entrySet()) {
+        if (entry.getValue().getColumnCategory() == TsTableColumnCategory.TAG
+            && !partitionSymbols.contains(entry.getKey())) {
+          return node;
+        }
+      }
+
+      deviceTableScanNode.setPushDownLimit(node.getMaxRankingPerPartition());
+      deviceTableScanNode.setPushLimitToEachDevice(true);
+      deviceTableScanNode.setScanOrder(
+          orderingScheme.getOrdering(firstOrderBy).isAscending() ? Ordering.ASC : Ordering.DESC);
+      return node;
+    }
+
     @Override
     public PlanNode visitTopK(TopKNode node, Context context) {
       throw new IllegalStateException(
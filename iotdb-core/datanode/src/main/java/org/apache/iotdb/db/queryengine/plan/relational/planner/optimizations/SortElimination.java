@@ -29,6 +29,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.GapFillNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.PatternRecognitionNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.StreamSortNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ValueFillNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.WindowNode;
 
@@ -135,6 +136,17 @@ public class SortElimination implements PlanOptimizer {
       return newNode;
     }
 
+    @Override
+    public PlanNode visitTopKRanking(TopKRankingNode node, Context context) {
+      PlanNode newNode = node.clone();
+      for (PlanNode child : node.getChildren()) {
+        newNode.addChild(child.accept(this, context));
+      }
+      // TopKRankingNode outputs rows group by group, the order of child is not kept
+      context.setCannotEliminateSort(true);
+      return newNode;
+    }
+
     @Override
     public PlanNode visitPatternRecognition(PatternRecognitionNode node, Context context) {
       PlanNode newNode = node.clone();
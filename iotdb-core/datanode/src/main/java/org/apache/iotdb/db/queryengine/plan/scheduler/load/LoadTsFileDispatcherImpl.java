@@ -45,6 +45,7 @@ import org.apache.iotdb.db.queryengine.plan.scheduler.FragInstanceDispatchResult
 import org.apache.iotdb.db.queryengine.plan.scheduler.IFragInstanceDispatcher;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.load.metrics.LoadTsFileCostMetricsSet;
 import org.apache.iotdb.mpp.rpc.thrift.TLoadCommandReq;
 import org.apache.iotdb.mpp.rpc.thrift.TLoadResp;
 import org.apache.iotdb.mpp.rpc.thrift.TTsFilePieceReq;
@@ -79,7 +80,7 @@ public class LoadTsFileDispatcherImpl implements IFragInstanceDispatcher {
   private static final AtomicInteger CONNECTION_TIMEOUT_MS =
       new AtomicInteger(IoTDBDescriptor.getInstance().getConfig().getConnectionTimeoutInMS());
 
-  private String uuid;
+  private final String uuid;
   private final String localhostIpAddr;
   private final int localhostInternalPort;
   private final IClientManager<TEndPoint, SyncDataNodeInternalServiceClient>
@@ -90,6 +91,7 @@ public class LoadTsFileDispatcherImpl implements IFragInstanceDispatcher {
   public LoadTsFileDispatcherImpl(
       IClientManager<TEndPoint, SyncDataNodeInternalServiceClient> internalServiceClientManager,
       boolean isGeneratedByPipe) {
+    this.uuid = null;
     this.internalServiceClientManager = internalServiceClientManager;
     this.localhostIpAddr = IoTDBDescriptor.getInstance().getConfig().getInternalAddress();
     this.localhostInternalPort = IoTDBDescriptor.getInstance().getConfig().getInternalPort();
@@ -98,8 +100,21 @@ public class LoadTsFileDispatcherImpl implements IFragInstanceDispatcher {
     this.isGeneratedByPipe = isGeneratedByPipe;
   }
 
-  public void setUuid(String uuid) {
+  private LoadTsFileDispatcherImpl(LoadTsFileDispatcherImpl dispatcher, String uuid) {
     this.uuid = uuid;
+    this.internalServiceClientManager = dispatcher.internalServiceClientManager;
+    this.localhostIpAddr = dispatcher.localhostIpAddr;
+    this.localhostInternalPort = dispatcher.localhostInternalPort;
+    this.executor = dispatcher.executor;
+    this.isGeneratedByPipe = dispatcher.isGeneratedByPipe;
+  }
+
+  /**
+   * Returns a dispatcher of the load identified by uuid, sharing the clients and the threads of
+   * this dispatcher, so that the TsFiles of one scheduler can be dispatched in parallel.
+   */
+  public LoadTsFileDispatcherImpl withUuid(String uuid) {
+    return new LoadTsFileDispatcherImpl(this, uuid);
   }
 
   @Override
@@ -107,21 +122,30 @@ public class LoadTsFileDispatcherImpl implements IFragInstanceDispatcher {
       SubPlan root, List<FragmentInstance> instances) {
     return executor.submit(
         () -> {
-          for (FragmentInstance instance : instances) {
-            try (SetThreadName threadName =
-                new SetThreadName(
-                    "load-dispatcher" + "-" + instance.getId().getFullId() + "-" + uuid)) {
-              dispatchOneInstance(instance);
-            } catch (FragmentInstanceDispatchException e) {
-              return new FragInstanceDispatchResult(e.getFailureStatus());
-            } catch (Exception t) {
-              LOGGER.warn("cannot dispatch FI for load operation", t);
-              return new FragInstanceDispatchResult(
-                  RpcUtils.getStatus(
-                      TSStatusCode.INTERNAL_SERVER_ERROR, "Unexpected errors: " + t.getMessage()));
+          final long startTime = System.nanoTime();
+          try {
+            for (FragmentInstance instance : instances) {
+              try (SetThreadName threadName =
+                  new SetThreadName(
+                      "load-dispatcher" + "-" + instance.getId().getFullId() + "-" + uuid)) {
+                dispatchOneInstance(instance);
+              } catch (FragmentInstanceDispatchException e) {
+                return new FragInstanceDispatchResult(e.getFailureStatus());
+              } catch (Exception t) {
+                LOGGER.warn("cannot dispatch FI for load operation", t);
+                return new FragInstanceDispatchResult(
+                    RpcUtils.getStatus(
+                        TSStatusCode.INTERNAL_SERVER_ERROR,
+                        "Unexpected errors: " + t.getMessage()));
+              }
             }
+            return new FragInstanceDispatchResult(true);
+          } finally {
+            LoadTsFileCostMetricsSet.getInstance()
+                .recordPhaseTimeCost(
+                    LoadTsFileCostMetricsSet.FIRST_PHASE_DISPATCH_PIECE,
+                    System.nanoTime() - startTime);
           }
-          return new FragInstanceDispatchResult(true);
         });
   }
 
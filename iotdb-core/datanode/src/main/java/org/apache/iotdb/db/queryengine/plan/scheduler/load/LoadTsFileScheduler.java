@@ -26,6 +26,8 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeInternalServiceClient;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.consensus.DataRegionId;
@@ -44,6 +46,7 @@ import org.apache.iotdb.db.exception.load.LoadReadOnlyException;
 import org.apache.iotdb.db.exception.load.RegionReplicaSetChangedException;
 import org.apache.iotdb.db.exception.mpp.FragmentInstanceDispatchException;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.execution.QueryStateMachine;
@@ -76,6 +79,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.mpp.rpc.thrift.TLoadCommandReq;
 import org.apache.iotdb.rpc.TSStatusCode;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.airlift.units.Duration;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.StringArrayDeviceID;
@@ -94,6 +98,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -104,9 +109,11 @@ import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -132,6 +139,9 @@ public class LoadTsFileScheduler implements IScheduler {
 
   private static final Set<String> LOADING_FILE_SET = new HashSet<>();
 
+  private static final ExecutorService LOAD_TSFILE_EXECUTOR =
+      IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.LOAD_TSFILE_SCHEDULER.getName());
+
   private final MPPQueryContext queryContext;
   private final QueryStateMachine stateMachine;
   private final LoadTsFileDispatcherImpl dispatcher;
@@ -139,7 +149,6 @@ public class LoadTsFileScheduler implements IScheduler {
   private final List<LoadSingleTsFileNode> tsFileNodeList;
   private final List<Integer> failedTsFileNodeIndexes;
   private final PlanFragmentId fragmentId;
-  private final Set<TRegionReplicaSet> allReplicaSets;
   private final boolean isGeneratedByPipe;
   private final Map<TTimePartitionSlot, ProgressIndex> timePartitionSlotToProgressIndex;
   private final LoadTsFileDataCacheMemoryBlock block;
@@ -158,9 +167,8 @@ public class LoadTsFileScheduler implements IScheduler {
     this.fragmentId = distributedQueryPlan.getRootSubPlan().getPlanFragment().getId();
     this.dispatcher = new LoadTsFileDispatcherImpl(internalServiceClientManager, isGeneratedByPipe);
     this.partitionFetcher = new DataPartitionBatchFetcher(partitionFetcher);
-    this.allReplicaSets = new HashSet<>();
     this.isGeneratedByPipe = isGeneratedByPipe;
-    this.timePartitionSlotToProgressIndex = new HashMap<>();
+    this.timePartitionSlotToProgressIndex = new ConcurrentHashMap<>();
     this.block = LoadTsFileMemoryManager.getInstance().allocateDataCacheMemoryBlock();
 
     for (FragmentInstance fragmentInstance : distributedQueryPlan.getInstances()) {
@@ -168,115 +176,66 @@ public class LoadTsFileScheduler implements IScheduler {
     }
   }
 
+  /**
+   * Loads the TsFiles with at most {@link IoTDBConfig#getLoadTsFileSchedulerParallelism()} of them
+   * split and dispatched at the same time. Each TsFile is loaded in its own two phases with its own
+   * uuid, and the TsFiles failed to be loaded are converted to tablets after all TsFiles are done.
+   */
   @Override
   public void start() {
     try {
       stateMachine.transitionToRunning();
-      int tsFileNodeListSize = tsFileNodeList.size();
-      boolean isLoadSuccess = true;
-
-      for (int i = 0; i < tsFileNodeListSize; ++i) {
-        final LoadSingleTsFileNode node = tsFileNodeList.get(i);
-        final String filePath = node.getTsFileResource().getTsFilePath();
-
-        if (node.isTableModel()) {
-          partitionFetcher.setDatabase(node.getDatabase());
-        } else {
-          partitionFetcher.setDatabase(null);
-        }
-
-        boolean isLoadSingleTsFileSuccess = true;
-        boolean shouldRemoveFileFromLoadingSet = false;
-        try {
-          synchronized (LOADING_FILE_SET) {
-            if (LOADING_FILE_SET.contains(filePath)) {
-              throw new LoadFileException(
-                  String.format("TsFile %s is loading by another scheduler.", filePath));
-            }
-            LOADING_FILE_SET.add(filePath);
-          }
-          shouldRemoveFileFromLoadingSet = true;
-
-          final long startTimeMs = System.currentTimeMillis();
-
-          if (node.isTsFileEmpty()) {
-            LOGGER.info("Load skip TsFile {}, because it has no data.", filePath);
-          } else if (!node.needDecodeTsFile(
-              slotList ->
-                  partitionFetcher.queryDataPartition(
-                      slotList, queryContext.getSession().getUserName()))) {
-            // do not decode, load locally
-            final long startTime = System.nanoTime();
-            try {
-              isLoadSingleTsFileSuccess = loadLocally(node);
-            } finally {
-              LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
-                  LoadTsFileCostMetricsSet.LOAD_LOCALLY, System.nanoTime() - startTime);
-            }
-          } else {
-            // need decode, load locally or remotely, use two phases method
-            String uuid = UUID.randomUUID().toString();
-            dispatcher.setUuid(uuid);
-            allReplicaSets.clear();
-
-            long startTime = System.nanoTime();
-            final boolean isFirstPhaseSuccess;
-            try {
-              isFirstPhaseSuccess = firstPhase(node);
-            } finally {
-              LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
-                  LoadTsFileCostMetricsSet.FIRST_PHASE, System.nanoTime() - startTime);
-            }
-
-            startTime = System.nanoTime();
-            final boolean isSecondPhaseSuccess;
-            try {
-              isSecondPhaseSuccess =
-                  secondPhase(isFirstPhaseSuccess, uuid, node.getTsFileResource());
-            } finally {
-              LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
-                  LoadTsFileCostMetricsSet.SECOND_PHASE, System.nanoTime() - startTime);
+      final int tsFileNodeListSize = tsFileNodeList.size();
+      final boolean[] isLoadSingleTsFileSuccess = new boolean[tsFileNodeListSize];
+      final AtomicInteger nextTsFileNodeIndex = new AtomicInteger(0);
+      final AtomicInteger finishedTsFileNodeCount = new AtomicInteger(0);
+
+      final Runnable loadTsFiles =
+          () -> {
+            for (int i = nextTsFileNodeIndex.getAndIncrement();
+                i < tsFileNodeListSize;
+                i = nextTsFileNodeIndex.getAndIncrement()) {
+              final LoadSingleTsFileNode node = tsFileNodeList.get(i);
+              isLoadSingleTsFileSuccess[i] = loadSingleTsFile(node);
+              if (isLoadSingleTsFileSuccess[i]) {
+                LOGGER.info(
+                    "Load TsFile {} Successfully, load process [{}/{}]",
+                    node.getTsFileResource().getTsFilePath(),
+                    finishedTsFileNodeCount.incrementAndGet(),
+                    tsFileNodeListSize);
+              } else {
+                LOGGER.warn(
+                    "Can not Load TsFile {}, load process [{}/{}]",
+                    node.getTsFileResource().getTsFilePath(),
+                    finishedTsFileNodeCount.incrementAndGet(),
+                    tsFileNodeListSize);
+              }
             }
+          };
+
+      // the current thread loads TsFiles as well, so that a single TsFile takes no extra thread
+      final int parallelism =
+          Math.min(CONFIG.getLoadTsFileSchedulerParallelism(), tsFileNodeListSize);
+      final List<Future<?>> loadTsFilesFutures = new ArrayList<>();
+      for (int i = 1; i < parallelism; ++i) {
+        loadTsFilesFutures.add(LOAD_TSFILE_EXECUTOR.submit(loadTsFiles));
+      }
+      loadTsFiles.run();
+      for (final Future<?> loadTsFilesFuture : loadTsFilesFutures) {
+        try {
+          // do not leave any TsFile loading behind, otherwise it may be converted at the same time
+          Uninterruptibles.getUninterruptibly(loadTsFilesFuture);
+        } catch (final ExecutionException e) {
+          // the TsFiles not finished by the failed thread are left as failed
+          LOGGER.warn("LoadTsFileScheduler loads TsFiles error", e);
+        }
+      }
 
-            if (!isFirstPhaseSuccess || !isSecondPhaseSuccess) {
-              isLoadSingleTsFileSuccess = false;
-            }
-          }
-
-          if (RegionMigrateService.getInstance().getLastNotifyMigratingTime() > startTimeMs
-              || RegionMigrateService.getInstance().mayHaveMigratingRegions()) {
-            LOGGER.warn(
-                "LoadTsFileScheduler: Region migration was detected during loading TsFile {}, will convert to insertion to avoid data loss",
-                filePath);
-            isLoadSingleTsFileSuccess = false;
-          }
-
-          if (isLoadSingleTsFileSuccess) {
-            node.clean();
-            LOGGER.info(
-                "Load TsFile {} Successfully, load process [{}/{}]",
-                filePath,
-                i + 1,
-                tsFileNodeListSize);
-          } else {
-            isLoadSuccess = false;
-            failedTsFileNodeIndexes.add(i);
-            LOGGER.warn(
-                "Can not Load TsFile {}, load process [{}/{}]",
-                filePath,
-                i + 1,
-                tsFileNodeListSize);
-          }
-        } catch (Exception e) {
+      boolean isLoadSuccess = true;
+      for (int i = 0; i < tsFileNodeListSize; ++i) {
+        if (!isLoadSingleTsFileSuccess[i]) {
           isLoadSuccess = false;
           failedTsFileNodeIndexes.add(i);
-          LOGGER.warn("LoadTsFileScheduler loads TsFile {} error", filePath, e);
-        } finally {
-          if (shouldRemoveFileFromLoadingSet) {
-            synchronized (LOADING_FILE_SET) {
-              LOADING_FILE_SET.remove(filePath);
-            }
-          }
         }
       }
 
@@ -311,8 +270,109 @@ public class LoadTsFileScheduler implements IScheduler {
     }
   }
 
-  private boolean firstPhase(LoadSingleTsFileNode node) {
-    final TsFileDataManager tsFileDataManager = new TsFileDataManager(this, node, block);
+  /**
+   * Loads one TsFile. It may be called by several threads at the same time for different TsFiles,
+   * so all the state of the load of the TsFile is kept locally.
+   *
+   * @return false if the TsFile should be converted to tablets and inserted
+   */
+  boolean loadSingleTsFile(final LoadSingleTsFileNode node) {
+    final String filePath = node.getTsFileResource().getTsFilePath();
+    final String database = node.isTableModel() ? node.getDatabase() : null;
+
+    boolean isLoadSingleTsFileSuccess = true;
+    boolean shouldRemoveFileFromLoadingSet = false;
+    try {
+      synchronized (LOADING_FILE_SET) {
+        if (LOADING_FILE_SET.contains(filePath)) {
+          throw new LoadFileException(
+              String.format("TsFile %s is loading by another scheduler.", filePath));
+        }
+        LOADING_FILE_SET.add(filePath);
+      }
+      shouldRemoveFileFromLoadingSet = true;
+
+      final long startTimeMs = System.currentTimeMillis();
+
+      if (node.isTsFileEmpty()) {
+        LOGGER.info("Load skip TsFile {}, because it has no data.", filePath);
+      } else if (!node.needDecodeTsFile(
+          slotList ->
+              partitionFetcher.queryDataPartition(
+                  slotList, database, queryContext.getSession().getUserName()))) {
+        // do not decode, load locally
+        final long startTime = System.nanoTime();
+        try {
+          isLoadSingleTsFileSuccess = loadLocally(node);
+        } finally {
+          LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
+              LoadTsFileCostMetricsSet.LOAD_LOCALLY, System.nanoTime() - startTime);
+        }
+      } else {
+        // need decode, load locally or remotely, use two phases method
+        final String uuid = UUID.randomUUID().toString();
+        final LoadTsFileDispatcherImpl tsFileDispatcher = dispatcher.withUuid(uuid);
+        final Set<TRegionReplicaSet> replicaSets = new HashSet<>();
+
+        long startTime = System.nanoTime();
+        final boolean isFirstPhaseSuccess;
+        try {
+          isFirstPhaseSuccess = firstPhase(node, tsFileDispatcher, replicaSets);
+        } finally {
+          LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
+              LoadTsFileCostMetricsSet.FIRST_PHASE, System.nanoTime() - startTime);
+        }
+
+        startTime = System.nanoTime();
+        final boolean isSecondPhaseSuccess;
+        try {
+          isSecondPhaseSuccess =
+              secondPhase(
+                  isFirstPhaseSuccess,
+                  tsFileDispatcher,
+                  uuid,
+                  replicaSets,
+                  node.getTsFileResource());
+        } finally {
+          LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
+              LoadTsFileCostMetricsSet.SECOND_PHASE, System.nanoTime() - startTime);
+        }
+
+        if (!isFirstPhaseSuccess || !isSecondPhaseSuccess) {
+          isLoadSingleTsFileSuccess = false;
+        }
+      }
+
+      if (RegionMigrateService.getInstance().getLastNotifyMigratingTime() > startTimeMs
+          || RegionMigrateService.getInstance().mayHaveMigratingRegions()) {
+        LOGGER.warn(
+            "LoadTsFileScheduler: Region migration was detected during loading TsFile {}, will convert to insertion to avoid data loss",
+            filePath);
+        isLoadSingleTsFileSuccess = false;
+      }
+
+      if (isLoadSingleTsFileSuccess) {
+        node.clean();
+      }
+      return isLoadSingleTsFileSuccess;
+    } catch (Exception e) {
+      LOGGER.warn("LoadTsFileScheduler loads TsFile {} error", filePath, e);
+      return false;
+    } finally {
+      if (shouldRemoveFileFromLoadingSet) {
+        synchronized (LOADING_FILE_SET) {
+          LOADING_FILE_SET.remove(filePath);
+        }
+      }
+    }
+  }
+
+  boolean firstPhase(
+      LoadSingleTsFileNode node,
+      LoadTsFileDispatcherImpl tsFileDispatcher,
+      Set<TRegionReplicaSet> replicaSets) {
+    final TsFileDataManager tsFileDataManager =
+        new TsFileDataManager(this, node, block, tsFileDispatcher, replicaSets);
     try {
       new TsFileSplitter(
               node.getTsFileResource().getTsFile(), tsFileDataManager::addOrSendTsFileData)
@@ -337,21 +397,34 @@ public class LoadTsFileScheduler implements IScheduler {
     return true;
   }
 
-  private boolean dispatchOnePieceNode(
-      LoadTsFilePieceNode pieceNode, TRegionReplicaSet replicaSet) {
-    allReplicaSets.add(replicaSet);
+  private Future<FragInstanceDispatchResult> submitOnePieceNode(
+      LoadTsFileDispatcherImpl tsFileDispatcher,
+      LoadTsFilePieceNode pieceNode,
+      TRegionReplicaSet replicaSet) {
     FragmentInstance instance =
         new FragmentInstance(
             new PlanFragment(fragmentId, pieceNode),
-            fragmentId.genFragmentInstanceId(),
+            genFragmentInstanceId(),
             null,
             queryContext.getQueryType(),
             queryContext.getTimeOut() - (System.currentTimeMillis() - queryContext.getStartTime()),
             queryContext.getSession());
     instance.setExecutorAndHost(new StorageExecutor(replicaSet));
-    Future<FragInstanceDispatchResult> dispatchResultFuture =
-        dispatcher.dispatch(null, Collections.singletonList(instance));
+    LOAD_TSFILE_COST_METRICS_SET.recordDispatchedPieceSize(pieceNode.getDataSize());
+    return tsFileDispatcher.dispatch(null, Collections.singletonList(instance));
+  }
+
+  private FragmentInstanceId genFragmentInstanceId() {
+    // the TsFiles of the scheduler are dispatched in parallel
+    synchronized (fragmentId) {
+      return fragmentId.genFragmentInstanceId();
+    }
+  }
 
+  private boolean waitForOnePieceNode(
+      Future<FragInstanceDispatchResult> dispatchResultFuture,
+      LoadTsFilePieceNode pieceNode,
+      TRegionReplicaSet replicaSet) {
     try {
       FragInstanceDispatchResult result =
           dispatchResultFuture.get(
@@ -394,7 +467,11 @@ public class LoadTsFileScheduler implements IScheduler {
   }
 
   private boolean secondPhase(
-      boolean isFirstPhaseSuccess, String uuid, TsFileResource tsFileResource) {
+      boolean isFirstPhaseSuccess,
+      LoadTsFileDispatcherImpl tsFileDispatcher,
+      String uuid,
+      Set<TRegionReplicaSet> replicaSets,
+      TsFileResource tsFileResource) {
     LOGGER.info("Start dispatching Load command for uuid {}", uuid);
     final File tsFile = tsFileResource.getTsFile();
     final TLoadCommandReq loadCommandReq =
@@ -424,7 +501,7 @@ public class LoadTsFileScheduler implements IScheduler {
                         }
                       })));
       Future<FragInstanceDispatchResult> dispatchResultFuture =
-          dispatcher.dispatchCommand(loadCommandReq, allReplicaSets);
+          tsFileDispatcher.dispatchCommand(loadCommandReq, replicaSets);
 
       FragInstanceDispatchResult result = dispatchResultFuture.get();
       if (!result.isSuccessful()) {
@@ -433,7 +510,7 @@ public class LoadTsFileScheduler implements IScheduler {
                 + "Result status code {}. Result status message {}.",
             loadCommandReq,
             tsFile,
-            allReplicaSets,
+            replicaSets,
             TSStatusCode.representOf(result.getFailureStatus().getCode()).name(),
             result.getFailureStatus().getMessage());
         TSStatus status = result.getFailureStatus();
@@ -495,7 +572,7 @@ public class LoadTsFileScheduler implements IScheduler {
       FragmentInstance instance =
           new FragmentInstance(
               new PlanFragment(fragmentId, node),
-              fragmentId.genFragmentInstanceId(),
+              genFragmentInstanceId(),
               null,
               queryContext.getQueryType(),
               queryContext.getTimeOut()
@@ -564,7 +641,7 @@ public class LoadTsFileScheduler implements IScheduler {
     return true;
   }
 
-  private void convertFailedTsFilesToTabletsAndRetry() {
+  void convertFailedTsFilesToTabletsAndRetry() {
     final LoadTsFileDataTypeConverter loadTsFileDataTypeConverter =
         new LoadTsFileDataTypeConverter(isGeneratedByPipe);
 
@@ -653,24 +730,45 @@ public class LoadTsFileScheduler implements IScheduler {
     ROLLBACK
   }
 
+  /**
+   * Routes the split TsFile data to regions and ships them as piece nodes. Shipping is pipelined
+   * with splitting: once the cached data exceeds the memory limit, the biggest pieces are
+   * dispatched asynchronously to their regions in parallel, and the splitter only stalls while the
+   * cached and in-flight data together still exceed the limit. At most one piece is in flight per
+   * region, so that the receiver gets the pieces of a region in the order they are split.
+   */
   private static class TsFileDataManager {
     private final LoadTsFileScheduler scheduler;
     private final LoadSingleTsFileNode singleTsFileNode;
+    private final String database;
+    private final LoadTsFileDispatcherImpl dispatcher;
+    private final Set<TRegionReplicaSet> replicaSets;
 
+    // the size of the data cached in pieces, including the pieces in flight
     private long dataSize;
+    private long inFlightDataSize;
     private final Map<TConsensusGroupId, Pair<TRegionReplicaSet, LoadTsFilePieceNode>>
         regionId2ReplicaSetAndNode;
+    // ordered by dispatch time, so that the oldest in-flight piece is waited for first
+    private final Map<TConsensusGroupId, InFlightPieceNode> regionId2InFlightPieceNode;
     private final List<ChunkData> nonDirectionalChunkData;
     private final LoadTsFileDataCacheMemoryBlock block;
 
     public TsFileDataManager(
         LoadTsFileScheduler scheduler,
         LoadSingleTsFileNode singleTsFileNode,
-        LoadTsFileDataCacheMemoryBlock block) {
+        LoadTsFileDataCacheMemoryBlock block,
+        LoadTsFileDispatcherImpl dispatcher,
+        Set<TRegionReplicaSet> replicaSets) {
       this.scheduler = scheduler;
       this.singleTsFileNode = singleTsFileNode;
+      this.database = singleTsFileNode.isTableModel() ? singleTsFileNode.getDatabase() : null;
+      this.dispatcher = dispatcher;
+      this.replicaSets = replicaSets;
       this.dataSize = 0;
+      this.inFlightDataSize = 0;
       this.regionId2ReplicaSetAndNode = new HashMap<>();
+      this.regionId2InFlightPieceNode = new LinkedHashMap<>();
       this.nonDirectionalChunkData = new ArrayList<>();
       this.block = block;
     }
@@ -697,54 +795,117 @@ public class LoadTsFileScheduler implements IScheduler {
       block.addMemoryUsage(chunkData.getDataSize());
       scheduler.computeTimePartitionSlotToProgressIndexIfAbsent(chunkData.getTimePartitionSlot());
 
-      if (!isMemoryEnough()) {
+      while (!isMemoryEnough()) {
         routeChunkData();
-
-        // start to dispatch from the biggest TsFilePieceNode
-        List<TConsensusGroupId> sortedRegionIds =
-            regionId2ReplicaSetAndNode.keySet().stream()
-                .sorted(
-                    Comparator.comparingLong(
-                            o -> regionId2ReplicaSetAndNode.get(o).getRight().getDataSize())
-                        .reversed())
-                .collect(Collectors.toList());
-
-        for (TConsensusGroupId sortedRegionId : sortedRegionIds) {
-          final TRegionReplicaSet replicaSet =
-              regionId2ReplicaSetAndNode.get(sortedRegionId).getLeft();
-          final LoadTsFilePieceNode pieceNode =
-              regionId2ReplicaSetAndNode.get(sortedRegionId).getRight();
-          if (pieceNode.getDataSize() == 0) { // total data size has been reduced to 0
-            break;
-          }
-          final boolean isDispatchSuccess = scheduler.dispatchOnePieceNode(pieceNode, replicaSet);
-
-          regionId2ReplicaSetAndNode.replace(
-              sortedRegionId,
-              new Pair<>(
-                  replicaSet,
-                  new LoadTsFilePieceNode(
-                      singleTsFileNode.getPlanNodeId(),
-                      singleTsFileNode
-                          .getTsFileResource()
-                          .getTsFile()))); // can not just remove, because of deletion
-          dataSize -= pieceNode.getDataSize();
-          block.reduceMemoryUsage(pieceNode.getDataSize());
-
-          if (!isDispatchSuccess) {
+        if (!dispatchBiggestPieceNodes()) {
+          return false;
+        }
+        if (regionId2InFlightPieceNode.isEmpty()) {
+          // nothing to dispatch or to wait for
+          break;
+        }
+        final long startTime = System.nanoTime();
+        try {
+          if (!waitForInFlightPieceNode(
+              regionId2InFlightPieceNode.keySet().iterator().next())) {
             // Currently there is no retry, so return directly
             return false;
           }
+        } finally {
+          LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
+              LoadTsFileCostMetricsSet.FIRST_PHASE_WAIT_DISPATCH, System.nanoTime() - startTime);
+        }
+      }
 
-          if (isMemoryEnough()) {
-            break;
-          }
+      return true;
+    }
+
+    /**
+     * Dispatch pieces asynchronously from the biggest one, until at most half of the memory limit
+     * is taken by pieces not dispatched yet, or all pieces if the shared memory block is short.
+     */
+    private boolean dispatchBiggestPieceNodes() {
+      final List<TConsensusGroupId> sortedRegionIds =
+          regionId2ReplicaSetAndNode.keySet().stream()
+              .sorted(
+                  Comparator.comparingLong(
+                          o -> regionId2ReplicaSetAndNode.get(o).getRight().getDataSize())
+                      .reversed())
+              .collect(Collectors.toList());
+
+      for (TConsensusGroupId sortedRegionId : sortedRegionIds) {
+        if (dataSize - inFlightDataSize <= SINGLE_SCHEDULER_MAX_MEMORY_SIZE / 2
+            && block.hasEnoughMemory()) {
+          break;
+        }
+        final LoadTsFilePieceNode pieceNode =
+            regionId2ReplicaSetAndNode.get(sortedRegionId).getRight();
+        if (pieceNode.getDataSize() == 0) { // total data size has been reduced to 0
+          break;
+        }
+        if (!dispatchPieceNode(sortedRegionId)) {
+          return false;
         }
       }
+      return true;
+    }
+
+    private boolean dispatchPieceNode(TConsensusGroupId regionId) {
+      // keep the order of the pieces of the same region
+      if (!waitForInFlightPieceNode(regionId)) {
+        return false;
+      }
 
+      final TRegionReplicaSet replicaSet = regionId2ReplicaSetAndNode.get(regionId).getLeft();
+      final LoadTsFilePieceNode pieceNode = regionId2ReplicaSetAndNode.get(regionId).getRight();
+      replicaSets.add(replicaSet);
+      regionId2InFlightPieceNode.put(
+          regionId,
+          new InFlightPieceNode(
+              replicaSet,
+              pieceNode,
+              scheduler.submitOnePieceNode(dispatcher, pieceNode, replicaSet)));
+      inFlightDataSize += pieceNode.getDataSize();
+
+      regionId2ReplicaSetAndNode.replace(
+          regionId,
+          new Pair<>(
+              replicaSet,
+              new LoadTsFilePieceNode(
+                  singleTsFileNode.getPlanNodeId(),
+                  singleTsFileNode
+                      .getTsFileResource()
+                      .getTsFile()))); // can not just remove, because of deletion
       return true;
     }
 
+    /**
+     * @return false if the in-flight piece of the region, if any, failed to be dispatched
+     */
+    private boolean waitForInFlightPieceNode(TConsensusGroupId regionId) {
+      final InFlightPieceNode inFlightPieceNode = regionId2InFlightPieceNode.remove(regionId);
+      if (inFlightPieceNode == null) {
+        return true;
+      }
+      final long pieceDataSize = inFlightPieceNode.pieceNode.getDataSize();
+      try {
+        return scheduler.waitForOnePieceNode(
+            inFlightPieceNode.future, inFlightPieceNode.pieceNode, inFlightPieceNode.replicaSet);
+      } finally {
+        inFlightDataSize -= pieceDataSize;
+        dataSize -= pieceDataSize;
+        block.reduceMemoryUsage(pieceDataSize);
+      }
+    }
+
+    private boolean waitForAllInFlightPieceNodes() {
+      boolean isAllSuccess = true;
+      for (TConsensusGroupId regionId : new ArrayList<>(regionId2InFlightPieceNode.keySet())) {
+        isAllSuccess = waitForInFlightPieceNode(regionId) && isAllSuccess;
+      }
+      return isAllSuccess;
+    }
+
     private void routeChunkData() throws LoadFileException {
       if (nonDirectionalChunkData.isEmpty()) {
         return;
@@ -755,6 +916,7 @@ public class LoadTsFileScheduler implements IScheduler {
               nonDirectionalChunkData.stream()
                   .map(data -> new Pair<>(data.getDevice(), data.getTimePartitionSlot()))
                   .collect(Collectors.toList()),
+              database,
               scheduler.queryContext.getSession().getUserName());
       for (int i = 0; i < replicaSets.size(); i++) {
         final TRegionReplicaSet replicaSet = replicaSets.get(i);
@@ -796,42 +958,62 @@ public class LoadTsFileScheduler implements IScheduler {
     private boolean sendAllTsFileData() throws LoadFileException {
       routeChunkData();
 
+      // the last pieces of all regions are shipped in parallel
       boolean isAllSuccess = true;
-      for (Map.Entry<TConsensusGroupId, Pair<TRegionReplicaSet, LoadTsFilePieceNode>> entry :
-          regionId2ReplicaSetAndNode.entrySet()) {
-        block.reduceMemoryUsage(entry.getValue().getRight().getDataSize());
-        if (isAllSuccess
-            && !scheduler.dispatchOnePieceNode(
-                entry.getValue().getRight(), entry.getValue().getLeft())) {
+      for (TConsensusGroupId regionId : new ArrayList<>(regionId2ReplicaSetAndNode.keySet())) {
+        if (!dispatchPieceNode(regionId)) {
           LOGGER.warn(
-              "Dispatch piece node {} of TsFile {} error.",
-              entry.getValue(),
+              "Dispatch piece node of region {} of TsFile {} error.",
+              regionId,
               singleTsFileNode.getTsFileResource().getTsFile());
           isAllSuccess = false;
+          break;
         }
       }
-      return isAllSuccess;
+      return waitForAllInFlightPieceNodes() && isAllSuccess;
     }
 
     private void clear() {
+      // do not leave any piece in flight behind, otherwise it may reach the region after the
+      // second phase has been dispatched
+      waitForAllInFlightPieceNodes();
+      for (Pair<TRegionReplicaSet, LoadTsFilePieceNode> replicaSetAndNode :
+          regionId2ReplicaSetAndNode.values()) {
+        block.reduceMemoryUsage(replicaSetAndNode.getRight().getDataSize());
+      }
+      dataSize = 0;
       regionId2ReplicaSetAndNode.clear();
     }
+
+    private static class InFlightPieceNode {
+      private final TRegionReplicaSet replicaSet;
+      private final LoadTsFilePieceNode pieceNode;
+      private final Future<FragInstanceDispatchResult> future;
+
+      private InFlightPieceNode(
+          TRegionReplicaSet replicaSet,
+          LoadTsFilePieceNode pieceNode,
+          Future<FragInstanceDispatchResult> future) {
+        this.replicaSet = replicaSet;
+        this.pieceNode = pieceNode;
+        this.future = future;
+      }
+    }
   }
 
   private static class DataPartitionBatchFetcher {
     private final IPartitionFetcher fetcher;
-    private String database;
 
     public DataPartitionBatchFetcher(IPartitionFetcher fetcher) {
       this.fetcher = fetcher;
     }
 
-    public void setDatabase(String database) {
-      this.database = database;
-    }
-
+    /**
+     * @param database the database to load into if the TsFile is loaded into table-model, otherwise
+     *     null
+     */
     public List<TRegionReplicaSet> queryDataPartition(
-        List<Pair<IDeviceID, TTimePartitionSlot>> slotList, String userName) {
+        List<Pair<IDeviceID, TTimePartitionSlot>> slotList, String database, String userName) {
       List<TRegionReplicaSet> replicaSets = new ArrayList<>();
       int size = slotList.size();
 
@@ -839,7 +1021,7 @@ public class LoadTsFileScheduler implements IScheduler {
         List<Pair<IDeviceID, TTimePartitionSlot>> subSlotList =
             slotList.subList(i, Math.min(size, i + TRANSMIT_LIMIT));
         DataPartition dataPartition =
-            fetcher.getOrCreateDataPartition(toQueryParam(subSlotList), userName);
+            fetcher.getOrCreateDataPartition(toQueryParam(subSlotList, database), userName);
         replicaSets.addAll(
             subSlotList.stream()
                 .map(
@@ -856,7 +1038,7 @@ public class LoadTsFileScheduler implements IScheduler {
     }
 
     private List<DataPartitionQueryParam> toQueryParam(
-        List<Pair<IDeviceID, TTimePartitionSlot>> slots) {
+        List<Pair<IDeviceID, TTimePartitionSlot>> slots, String database) {
       return slots.stream()
           .collect(
               Collectors.groupingBy(
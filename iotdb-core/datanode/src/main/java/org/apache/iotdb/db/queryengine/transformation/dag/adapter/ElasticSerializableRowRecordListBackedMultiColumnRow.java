@@ -21,65 +21,78 @@ package org.apache.iotdb.db.queryengine.transformation.dag.adapter;
 
 import org.apache.iotdb.commons.udf.utils.UDFBinaryTransformer;
 import org.apache.iotdb.commons.udf.utils.UDFDataTypeTransformer;
+import org.apache.iotdb.db.queryengine.transformation.datastructure.row.ElasticSerializableRowList;
 import org.apache.iotdb.udf.api.access.Row;
 import org.apache.iotdb.udf.api.type.Binary;
 import org.apache.iotdb.udf.api.type.Type;
 
+import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
 
+import java.io.IOException;
+
 public class ElasticSerializableRowRecordListBackedMultiColumnRow implements Row {
 
+  private final ElasticSerializableRowList rowRecordList;
   private final TSDataType[] dataTypes;
   private final int size;
 
-  private Object[] rowRecord;
-
-  public ElasticSerializableRowRecordListBackedMultiColumnRow(TSDataType[] dataTypes) {
-    this.dataTypes = dataTypes;
+  // The columns holding the rows of [columnsBeginIndex, columnsEndIndex) in rowRecordList, the
+  // last one is the time column. They are cached so that the rows in the same columns are read
+  // without searching the columns again. null if current row is one of the prefix null rows.
+  private Column[] columns;
+  private int columnsBeginIndex;
+  private int columnsEndIndex;
+  // position of current row in the columns
+  private int offset;
+
+  public ElasticSerializableRowRecordListBackedMultiColumnRow(
+      ElasticSerializableRowList rowRecordList) {
+    this.rowRecordList = rowRecordList;
+    this.dataTypes = rowRecordList.getDataTypes();
     size = dataTypes.length;
   }
 
   @Override
   public long getTime() {
-    return (long) rowRecord[size];
+    return columns[size].getLong(offset);
   }
 
   @Override
   public int getInt(int columnIndex) {
-    return (int) rowRecord[columnIndex];
+    return columns[columnIndex].getInt(offset);
   }
 
   @Override
   public long getLong(int columnIndex) {
-    return (long) rowRecord[columnIndex];
+    return columns[columnIndex].getLong(offset);
   }
 
   @Override
   public float getFloat(int columnIndex) {
-    return (float) rowRecord[columnIndex];
+    return columns[columnIndex].getFloat(offset);
   }
 
   @Override
   public double getDouble(int columnIndex) {
-    return (double) rowRecord[columnIndex];
+    return columns[columnIndex].getDouble(offset);
   }
 
   @Override
   public boolean getBoolean(int columnIndex) {
-    return (boolean) rowRecord[columnIndex];
+    return columns[columnIndex].getBoolean(offset);
   }
 
   @Override
   public Binary getBinary(int columnIndex) {
     return UDFBinaryTransformer.transformToUDFBinary(
-        (org.apache.tsfile.utils.Binary) rowRecord[columnIndex]);
+        isNull(columnIndex) ? null : columns[columnIndex].getBinary(offset));
   }
 
   @Override
   public String getString(int columnIndex) {
-    return ((org.apache.tsfile.utils.Binary) rowRecord[columnIndex])
-        .getStringValue(TSFileConfig.STRING_CHARSET);
+    return columns[columnIndex].getBinary(offset).getStringValue(TSFileConfig.STRING_CHARSET);
   }
 
   @Override
@@ -89,7 +102,7 @@ public class ElasticSerializableRowRecordListBackedMultiColumnRow implements Row
 
   @Override
   public boolean isNull(int columnIndex) {
-    return rowRecord[columnIndex] == null;
+    return columns == null || columns[columnIndex].isNull(offset);
   }
 
   @Override
@@ -97,8 +110,19 @@ public class ElasticSerializableRowRecordListBackedMultiColumnRow implements Row
     return size;
   }
 
-  public Row setRowRecord(Object[] rowRecord) {
-    this.rowRecord = rowRecord;
+  public Row seek(int rowIndex) throws IOException {
+    if (columns != null && columnsBeginIndex <= rowIndex && rowIndex < columnsEndIndex) {
+      offset = rowIndex - columnsBeginIndex;
+      return this;
+    }
+
+    columns = rowRecordList.getColumnsOfRow(rowIndex);
+    if (columns == null) {
+      return this;
+    }
+    offset = rowRecordList.getRowOffsetInColumns(rowIndex);
+    columnsBeginIndex = rowIndex - offset;
+    columnsEndIndex = columnsBeginIndex + columns[size].getPositionCount();
     return this;
   }
 }
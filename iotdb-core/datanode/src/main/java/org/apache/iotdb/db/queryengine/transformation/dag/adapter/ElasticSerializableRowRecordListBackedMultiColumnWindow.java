@@ -54,7 +54,7 @@ public class ElasticSerializableRowRecordListBackedMultiColumnWindow implements
     endIndex = 0;
     size = 0;
 
-    row = new ElasticSerializableRowRecordListBackedMultiColumnRow(dataTypes);
+    row = new ElasticSerializableRowRecordListBackedMultiColumnRow(rowRecordList);
   }
 
   @Override
@@ -67,7 +67,7 @@ public class ElasticSerializableRowRecordListBackedMultiColumnWindow implements
     if (this.size == 0) {
       throw new IndexOutOfBoundsException("Size is 0");
     }
-    return row.setRowRecord(rowRecordList.getRowRecord(beginIndex + rowIndex));
+    return row.seek(beginIndex + rowIndex);
   }
 
   @Override
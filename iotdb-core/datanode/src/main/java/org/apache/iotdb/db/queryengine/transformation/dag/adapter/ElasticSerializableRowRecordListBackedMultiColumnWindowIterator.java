@@ -28,7 +28,6 @@ import java.io.IOException;
 public class ElasticSerializableRowRecordListBackedMultiColumnWindowIterator
     implements RowIterator {
 
-  private final ElasticSerializableRowList rowRecordList;
   private final int beginIndex;
   private final int size;
 
@@ -37,11 +36,10 @@ public class ElasticSerializableRowRecordListBackedMultiColumnWindowIterator
 
   public ElasticSerializableRowRecordListBackedMultiColumnWindowIterator(
       ElasticSerializableRowList rowRecordList, int beginIndex, int endIndex) {
-    this.rowRecordList = rowRecordList;
     this.beginIndex = beginIndex;
     size = endIndex - beginIndex;
 
-    row = new ElasticSerializableRowRecordListBackedMultiColumnRow(rowRecordList.getDataTypes());
+    row = new ElasticSerializableRowRecordListBackedMultiColumnRow(rowRecordList);
     rowIndex = -1;
   }
 
@@ -52,7 +50,7 @@ public class ElasticSerializableRowRecordListBackedMultiColumnWindowIterator
 
   @Override
   public Row next() throws IOException {
-    return row.setRowRecord(rowRecordList.getRowRecord(++rowIndex + beginIndex));
+    return row.seek(++rowIndex + beginIndex);
   }
 
   @Override
@@ -26,6 +26,9 @@ import org.apache.iotdb.udf.api.access.Row;
 import org.apache.iotdb.udf.api.type.Binary;
 import org.apache.iotdb.udf.api.type.Type;
 
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+
 import java.io.IOException;
 
 public class ElasticSerializableTVListBackedSingleColumnRow implements Row {
@@ -33,6 +36,13 @@ public class ElasticSerializableTVListBackedSingleColumnRow implements Row {
   private final ElasticSerializableTVList tvList;
   private int currentRowIndex;
 
+  // The columns holding the rows of [columnsBeginIndex, columnsEndIndex) in tvList. They are
+  // cached so that the rows in the same columns are read without searching the columns again.
+  private Column timeColumn;
+  private Column valueColumn;
+  private int columnsBeginIndex;
+  private int columnsEndIndex;
+
   public ElasticSerializableTVListBackedSingleColumnRow(
       ElasticSerializableTVList tvList, int currentRowIndex) {
     this.tvList = tvList;
@@ -41,42 +51,45 @@ public class ElasticSerializableTVListBackedSingleColumnRow implements Row {
 
   @Override
   public long getTime() throws IOException {
-    return tvList.getTime(currentRowIndex);
+    return timeColumn().getLong(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public int getInt(int columnIndex) throws IOException {
-    return tvList.getInt(currentRowIndex);
+    return valueColumn().getInt(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public long getLong(int columnIndex) throws IOException {
-    return tvList.getLong(currentRowIndex);
+    return valueColumn().getLong(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public float getFloat(int columnIndex) throws IOException {
-    return tvList.getFloat(currentRowIndex);
+    return valueColumn().getFloat(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public double getDouble(int columnIndex) throws IOException {
-    return tvList.getDouble(currentRowIndex);
+    return valueColumn().getDouble(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public boolean getBoolean(int columnIndex) throws IOException {
-    return tvList.getBoolean(currentRowIndex);
+    return valueColumn().getBoolean(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
   public Binary getBinary(int columnIndex) throws IOException {
-    return UDFBinaryTransformer.transformToUDFBinary(tvList.getBinary(currentRowIndex));
+    return UDFBinaryTransformer.transformToUDFBinary(
+        valueColumn().getBinary(currentRowIndex - columnsBeginIndex));
   }
 
   @Override
   public String getString(int columnIndex) throws IOException {
-    return tvList.getString(currentRowIndex);
+    return valueColumn()
+        .getBinary(currentRowIndex - columnsBeginIndex)
+        .getStringValue(TSFileConfig.STRING_CHARSET);
   }
 
   @Override
@@ -86,7 +99,7 @@ public class ElasticSerializableTVListBackedSingleColumnRow implements Row {
 
   @Override
   public boolean isNull(int columnIndex) throws IOException {
-    return tvList.isNull(currentRowIndex);
+    return valueColumn().isNull(currentRowIndex - columnsBeginIndex);
   }
 
   @Override
@@ -98,4 +111,26 @@ public class ElasticSerializableTVListBackedSingleColumnRow implements Row {
     this.currentRowIndex = currentRowIndex;
     return this;
   }
+
+  private Column timeColumn() throws IOException {
+    locateColumns();
+    return timeColumn;
+  }
+
+  private Column valueColumn() throws IOException {
+    locateColumns();
+    return valueColumn;
+  }
+
+  private void locateColumns() throws IOException {
+    if (columnsBeginIndex <= currentRowIndex && currentRowIndex < columnsEndIndex) {
+      return;
+    }
+    int externalIndex = currentRowIndex / tvList.getInternalTVListCapacity();
+    int internalIndex = tvList.getColumnIndex(currentRowIndex);
+    timeColumn = tvList.getTimeColumn(externalIndex, internalIndex);
+    valueColumn = tvList.getValueColumn(externalIndex, internalIndex);
+    columnsBeginIndex = currentRowIndex - tvList.getTVOffsetInColumns(currentRowIndex);
+    columnsEndIndex = columnsBeginIndex + timeColumn.getPositionCount();
+  }
 }
@@ -177,6 +177,23 @@ public class ElasticSerializableRowList {
     return cache.get(externalIndex).getColumns(internalIndex);
   }
 
+  /**
+   * @return the columns holding the row, the last one is the time column. null if the row is one
+   *     of the prefix null rows.
+   */
+  public Column[] getColumnsOfRow(int index) throws IOException {
+    return cache
+        .get(index / internalRowListCapacity)
+        .getColumnsOfRow(index % internalRowListCapacity);
+  }
+
+  /** The position of the row in the columns holding it. */
+  public int getRowOffsetInColumns(int index) throws IOException {
+    return cache
+        .get(index / internalRowListCapacity)
+        .getRowOffsetInColumns(index % internalRowListCapacity);
+  }
+
   public void put(Column[] columns) throws IOException, QueryProcessException {
     // Check if we need to add new internal list
     checkExpansion();
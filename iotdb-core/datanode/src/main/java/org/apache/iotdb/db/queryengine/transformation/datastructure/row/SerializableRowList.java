@@ -246,6 +246,14 @@ public class SerializableRowList implements SerializableList {
     prefixNullCount += count;
   }
 
+  public Column[] getColumnsOfRow(int index) {
+    // Fall into prefix null values
+    if (index < prefixNullCount) {
+      return null;
+    }
+    return blocks.get(getColumnIndexSkipPrefixNulls(index - prefixNullCount));
+  }
+
   public Column[] getColumns(int index) {
     // Skip all null columns at first
     if (prefixNullCount != 0) {
@@ -170,6 +170,18 @@ public class ElasticSerializableTVList {
     return cache.get(externalIndex).getValueColumn(internalIndex);
   }
 
+  /** The index of the columns holding the data point in the internal list. */
+  public int getColumnIndex(int index) throws IOException {
+    return cache.get(index / internalTVListCapacity).getColumnIndex(index % internalTVListCapacity);
+  }
+
+  /** The position of the data point in the columns holding it. */
+  public int getTVOffsetInColumns(int index) throws IOException {
+    return cache
+        .get(index / internalTVListCapacity)
+        .getTVOffsetInColumns(index % internalTVListCapacity);
+  }
+
   public void putColumn(Column timeColumn, Column valueColumn) throws IOException {
     checkExpansion();
 
@@ -684,6 +684,64 @@ public class CompactionMetrics implements IMetricSet {
 
   // endregion
 
+  // region compaction task query benefit
+  private Histogram seqInnerSpaceCompactionTaskQueryBenefit =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram unseqInnerSpaceCompactionTaskQueryBenefit =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram crossSpaceCompactionTaskQueryBenefit =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
+  public void updateCompactionTaskQueryBenefit(CompactionTaskType taskType, double score) {
+    long value = Math.round(score);
+    switch (taskType) {
+      case INNER_SEQ:
+        seqInnerSpaceCompactionTaskQueryBenefit.update(value);
+        break;
+      case INNER_UNSEQ:
+        unseqInnerSpaceCompactionTaskQueryBenefit.update(value);
+        break;
+      case CROSS:
+        crossSpaceCompactionTaskQueryBenefit.update(value);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void bindCompactionTaskQueryBenefit(AbstractMetricService metricService) {
+    seqInnerSpaceCompactionTaskQueryBenefit =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_QUERY_BENEFIT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "seq");
+    unseqInnerSpaceCompactionTaskQueryBenefit =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_QUERY_BENEFIT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "unseq");
+    crossSpaceCompactionTaskQueryBenefit =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_QUERY_BENEFIT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "cross");
+  }
+
+  private void unbindCompactionTaskQueryBenefit(AbstractMetricService metricService) {
+    for (String taskType : Arrays.asList("seq", "unseq", "cross")) {
+      metricService.remove(
+          MetricType.HISTOGRAM,
+          Metric.COMPACTION_TASK_QUERY_BENEFIT.toString(),
+          Tag.NAME.toString(),
+          taskType);
+    }
+  }
+
+  // endregion
+
   // region compaction task selection
   private Gauge seqInnerSpaceCompactionTaskSelectedNum = DoNothingMetricManager.DO_NOTHING_GAUGE;
   private Gauge unseqInnerSpaceCompactionTaskSelectedNum = DoNothingMetricManager.DO_NOTHING_GAUGE;
@@ -969,6 +1027,7 @@ public class CompactionMetrics implements IMetricSet {
     bindReadInfo(metricService);
     bindPerformanceInfo(metricService);
     bindCompactionTaskMemory(metricService);
+    bindCompactionTaskQueryBenefit(metricService);
     bindCompactionTaskSelection(metricService);
   }
 
@@ -979,6 +1038,7 @@ public class CompactionMetrics implements IMetricSet {
     unbindReadInfo(metricService);
     unbindPerformanceInfo(metricService);
     unbindCompactionTaskMemory(metricService);
+    unbindCompactionTaskQueryBenefit(metricService);
     unbindCompactionTaskSelection(metricService);
   }
 
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.service.metrics;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Arrays;
+
+/** The throughput and queueing time of each IO class scheduled by the IO scheduler. */
+public class IOSchedulerMetrics implements IMetricSet {
+  private static final IOSchedulerMetrics INSTANCE = new IOSchedulerMetrics();
+
+  private final Counter[] throughputCounters = new Counter[IOClass.values().length];
+  private final Timer[] queueTimers = new Timer[IOClass.values().length];
+
+  private IOSchedulerMetrics() {
+    Arrays.fill(throughputCounters, DoNothingMetricManager.DO_NOTHING_COUNTER);
+    Arrays.fill(queueTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
+  }
+
+  public void recordThroughput(IOClass ioClass, long bytes) {
+    throughputCounters[ioClass.ordinal()].inc(bytes);
+  }
+
+  public void recordQueueTime(IOClass ioClass, long costTimeInNanos) {
+    queueTimers[ioClass.ordinal()].updateNanos(costTimeInNanos);
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    for (IOClass ioClass : IOClass.values()) {
+      throughputCounters[ioClass.ordinal()] =
+          metricService.getOrCreateCounter(
+              Metric.IO_SCHEDULER_THROUGHPUT.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              ioClass.getName());
+      queueTimers[ioClass.ordinal()] =
+          metricService.getOrCreateTimer(
+              Metric.IO_SCHEDULER_QUEUE_TIME.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              ioClass.getName());
+    }
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (IOClass ioClass : IOClass.values()) {
+      throughputCounters[ioClass.ordinal()] = DoNothingMetricManager.DO_NOTHING_COUNTER;
+      queueTimers[ioClass.ordinal()] = DoNothingMetricManager.DO_NOTHING_TIMER;
+      metricService.remove(
+          MetricType.COUNTER,
+          Metric.IO_SCHEDULER_THROUGHPUT.toString(),
+          Tag.NAME.toString(),
+          ioClass.getName());
+      metricService.remove(
+          MetricType.TIMER,
+          Metric.IO_SCHEDULER_QUEUE_TIME.toString(),
+          Tag.NAME.toString(),
+          ioClass.getName());
+    }
+  }
+
+  public static IOSchedulerMetrics getInstance() {
+    return INSTANCE;
+  }
+}
@@ -23,11 +23,13 @@ import org.apache.iotdb.commons.consensus.DataRegionId;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.CheckpointType;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
@@ -188,6 +190,9 @@ public class WritingMetrics implements IMetricSet {
   public static final String WAL_ENTRY_NUM_FOR_ONE_TSFILE = "wal_entry_num_for_one_tsfile";
   public static final String WAL_QUEUE_CURRENT_MEM_COST = "wal_queue_current_mem_cost";
   public static final String WAL_QUEUE_MAX_MEM_COST = "wal_queue_max_mem_cost";
+  public static final String WAL_SIZE_TO_REPLAY = "wal_size_to_replay";
+  public static final String REPLAYED_WAL_SIZE = "replayed_wal_size";
+  public static final String REDONE_WAL_ENTRIES_NUM = "redone_wal_entries_num";
 
   private Histogram usedRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram entriesCountHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
@@ -281,6 +286,28 @@ public class WritingMetrics implements IMetricSet {
         (s) -> s.getWalBufferQueueMemoryBlock().getUsedMemoryInBytes(),
         Tag.NAME.toString(),
         WAL_QUEUE_CURRENT_MEM_COST);
+    WALRecoverManager walRecoverManager = WALRecoverManager.getInstance();
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getWALSizeToReplay,
+        Tag.NAME.toString(),
+        WAL_SIZE_TO_REPLAY);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getReplayedWALSize,
+        Tag.NAME.toString(),
+        REPLAYED_WAL_SIZE);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getRedoneEntriesNum,
+        Tag.NAME.toString(),
+        REDONE_WAL_ENTRIES_NUM);
   }
 
   private void unbindWALMetrics(AbstractMetricService metricService) {
@@ -313,6 +340,14 @@ public class WritingMetrics implements IMetricSet {
         Metric.WAL_QUEUE_MEM_COST.toString(),
         Tag.NAME.toString(),
         WAL_QUEUE_MAX_MEM_COST);
+    Arrays.asList(WAL_SIZE_TO_REPLAY, REPLAYED_WAL_SIZE, REDONE_WAL_ENTRIES_NUM)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.WAL_RECOVER.toString(),
+                    Tag.NAME.toString(),
+                    name));
   }
 
   // endregion
@@ -447,6 +482,9 @@ public class WritingMetrics implements IMetricSet {
   public static final String MANUAL_FLUSH_MEMTABLE_COUNT = "manual_flush_memtable_count";
   public static final String MEM_CONTROL_FLUSH_MEMTABLE_COUNT = "mem_control_flush_memtable_count";
 
+  public static final String WAL_FREE_EXPOSURE_DURATION = "duration";
+  public static final String WAL_FREE_EXPOSURE_SIZE = "size";
+
   private Gauge flushThreholdGauge = DoNothingMetricManager.DO_NOTHING_GAUGE;
   private Gauge rejectThreholdGauge = DoNothingMetricManager.DO_NOTHING_GAUGE;
 
@@ -459,10 +497,17 @@ public class WritingMetrics implements IMetricSet {
 
   private Histogram avgPointHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
+  public static final String REGION_WRITE_LOCK = "region_write_lock";
+  public static final String TSFILE_PROCESSOR_LOCK = "tsfile_processor_lock";
+
+  private Timer regionWriteLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer tsFileProcessorLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+
   public void bindDataRegionMetrics() {
     List<DataRegion> allDataRegions = StorageEngine.getInstance().getAllDataRegions();
     List<DataRegionId> allDataRegionIds = StorageEngine.getInstance().getAllDataRegionIds();
     allDataRegions.forEach(this::createDataRegionMemoryCostMetrics);
+    allDataRegions.forEach(this::createWALFreeExposureMetrics);
     allDataRegionIds.forEach(this::createFlushingMemTableStatusMetrics);
     allDataRegionIds.forEach(this::createActiveMemtableCounterMetrics);
     createActiveTimePartitionCounterMetrics();
@@ -489,6 +534,21 @@ public class WritingMetrics implements IMetricSet {
     memtableLiveTimer =
         MetricService.getInstance()
             .getOrCreateTimer(Metric.MEMTABLE_LIVE_DURATION.toString(), MetricLevel.IMPORTANT);
+
+    regionWriteLockHoldTimer =
+        MetricService.getInstance()
+            .getOrCreateTimer(
+                Metric.DATA_REGION_LOCK_HOLD_TIME.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.TYPE.toString(),
+                REGION_WRITE_LOCK);
+    tsFileProcessorLockHoldTimer =
+        MetricService.getInstance()
+            .getOrCreateTimer(
+                Metric.DATA_REGION_LOCK_HOLD_TIME.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.TYPE.toString(),
+                TSFILE_PROCESSOR_LOCK);
   }
 
   public void unbindDataRegionMetrics() {
@@ -496,6 +556,7 @@ public class WritingMetrics implements IMetricSet {
     allDataRegionIds.forEach(
         dataRegionId -> {
           removeDataRegionMemoryCostMetrics(dataRegionId);
+          removeWALFreeExposureMetrics(dataRegionId);
           removeFlushingMemTableStatusMetrics(dataRegionId);
           removeActiveMemtableCounterMetrics(dataRegionId);
         });
@@ -517,6 +578,17 @@ public class WritingMetrics implements IMetricSet {
             Tag.TYPE.toString(),
             REJECT_THRESHOLD);
     MetricService.getInstance().remove(MetricType.TIMER, Metric.MEMTABLE_LIVE_DURATION.toString());
+    regionWriteLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    tsFileProcessorLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    Arrays.asList(REGION_WRITE_LOCK, TSFILE_PROCESSOR_LOCK)
+        .forEach(
+            type ->
+                MetricService.getInstance()
+                    .remove(
+                        MetricType.TIMER,
+                        Metric.DATA_REGION_LOCK_HOLD_TIME.toString(),
+                        Tag.TYPE.toString(),
+                        type));
   }
 
   public void createDataRegionMemoryCostMetrics(DataRegion dataRegion) {
@@ -540,6 +612,53 @@ public class WritingMetrics implements IMetricSet {
             dataRegionId.toString());
   }
 
+  /**
+   * The unflushed data of the data regions of wal_free_databases is lost if all replicas crash, so
+   * its duration and size are exposed.
+   */
+  public void createWALFreeExposureMetrics(DataRegion dataRegion) {
+    if (!IoTDBDescriptor.getInstance()
+        .getConfig()
+        .isWalFreeDatabase(dataRegion.getDatabaseName())) {
+      return;
+    }
+    DataRegionId dataRegionId = new DataRegionId(Integer.parseInt(dataRegion.getDataRegionId()));
+    MetricService.getInstance()
+        .createAutoGauge(
+            Metric.WAL_FREE_EXPOSURE.toString(),
+            MetricLevel.IMPORTANT,
+            dataRegion,
+            DataRegion::getUnflushedDataDuration,
+            Tag.TYPE.toString(),
+            WAL_FREE_EXPOSURE_DURATION,
+            Tag.REGION.toString(),
+            dataRegionId.toString());
+    MetricService.getInstance()
+        .createAutoGauge(
+            Metric.WAL_FREE_EXPOSURE.toString(),
+            MetricLevel.IMPORTANT,
+            dataRegion,
+            DataRegion::getMemCost,
+            Tag.TYPE.toString(),
+            WAL_FREE_EXPOSURE_SIZE,
+            Tag.REGION.toString(),
+            dataRegionId.toString());
+  }
+
+  public void removeWALFreeExposureMetrics(DataRegionId dataRegionId) {
+    Arrays.asList(WAL_FREE_EXPOSURE_DURATION, WAL_FREE_EXPOSURE_SIZE)
+        .forEach(
+            type ->
+                MetricService.getInstance()
+                    .remove(
+                        MetricType.AUTO_GAUGE,
+                        Metric.WAL_FREE_EXPOSURE.toString(),
+                        Tag.TYPE.toString(),
+                        type,
+                        Tag.REGION.toString(),
+                        dataRegionId.toString()));
+  }
+
   public void createWALNodeInfoMetrics(String walNodeId) {
     Arrays.asList(
             EFFECTIVE_RATIO_INFO,
@@ -947,6 +1066,14 @@ public class WritingMetrics implements IMetricSet {
     memtableLiveTimer.updateMillis(durationMillis);
   }
 
+  public void recordRegionWriteLockHoldTime(long costTimeInNanos) {
+    regionWriteLockHoldTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordTsFileProcessorLockHoldTime(long costTimeInNanos) {
+    tsFileProcessorLockHoldTimer.updateNanos(costTimeInNanos);
+  }
+
   public void recordTimedFlushMemTableCount(int number) {
     timedFlushMemtableCounter.inc(number);
   }
@@ -471,6 +471,7 @@ public class StorageEngine implements IService {
             databaseName);
     WRITING_METRICS.createFlushingMemTableStatusMetrics(dataRegionId);
     WRITING_METRICS.createDataRegionMemoryCostMetrics(dataRegion);
+    WRITING_METRICS.createWALFreeExposureMetrics(dataRegion);
     WRITING_METRICS.createActiveMemtableCounterMetrics(dataRegionId);
     dataRegion.setCustomFlushListeners(customFlushListeners);
     dataRegion.setCustomCloseFileListeners(customCloseFileListeners);
@@ -816,6 +817,7 @@ public class StorageEngine implements IService {
             break;
         }
         WRITING_METRICS.removeDataRegionMemoryCostMetrics(regionId);
+        WRITING_METRICS.removeWALFreeExposureMetrics(regionId);
         WRITING_METRICS.removeFlushingMemTableStatusMetrics(regionId);
         WRITING_METRICS.removeActiveMemtableCounterMetrics(regionId);
         FileMetrics.getInstance().deleteRegion(region.getDatabaseName(), region.getDataRegionId());
@@ -897,6 +899,7 @@ public class StorageEngine implements IService {
     }
     WRITING_METRICS.createFlushingMemTableStatusMetrics(regionId);
     WRITING_METRICS.createDataRegionMemoryCostMetrics(newRegion);
+    WRITING_METRICS.createWALFreeExposureMetrics(newRegion);
     WRITING_METRICS.createActiveMemtableCounterMetrics(regionId);
     dataRegionMap.put(regionId, newRegion);
   }
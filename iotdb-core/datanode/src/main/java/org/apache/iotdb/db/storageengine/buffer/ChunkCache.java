@@ -31,6 +31,8 @@ import org.apache.iotdb.db.queryengine.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -309,6 +311,10 @@ public class ChunkCache {
         TsFileSequenceReader reader =
             FileReaderManager.getInstance().get(key.getFilePath(), key.closed, ioSizeRecorder);
         Chunk chunk = reader.readMemChunk(key.offsetOfChunkHeader, ioSizeRecorder);
+        IOScheduler.getInstance()
+            .getDiskIOScheduler(key.getFilePath())
+            .recordLatency(
+                IOClass.QUERY, chunk.getHeader().getDataSize(), System.nanoTime() - startTime);
         // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
         chunk.getHeader().setMeasurementID(null);
         return chunk;
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.memory.IMemoryBlock;
+import org.apache.iotdb.commons.memory.MemoryBlockType;
+import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.metric.ModificationCacheMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the parsed modifications of TsFiles, so that the queries reading the same
+ * TsFile do not parse its mod files again. Since mod files are append-only until they are
+ * rewritten, a cached entry is refreshed by parsing only the entries appended after it was built,
+ * and is rebuilt when the mod file was rewritten or replaced. The cached trees are never modified
+ * after being built, so they can be shared by concurrent queries.
+ */
+@SuppressWarnings("squid:S6548")
+public class ModificationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ModificationCache.class);
+  private static final DataNodeMemoryConfig MEMORY_CONFIG =
+      IoTDBDescriptor.getInstance().getMemoryConfig();
+  private static final IMemoryBlock CACHE_MEMORY_BLOCK;
+  private static final boolean CACHE_ENABLE =
+      MEMORY_CONFIG.isMetaDataCacheEnable() && MEMORY_CONFIG.isModificationCacheEnable();
+
+  // estimated memory footprint of a parsed ModEntry besides its serialized content
+  private static final long MOD_ENTRY_OVERHEAD_IN_BYTES = 128;
+
+  private final Cache<TsFileID, CachedModifications> lruCache;
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong appendCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+
+  static {
+    CACHE_MEMORY_BLOCK =
+        MEMORY_CONFIG
+            .getModificationCacheMemoryManager()
+            .exactAllocate("ModificationCache", MemoryBlockType.STATIC);
+    CACHE_MEMORY_BLOCK.allocate(CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes());
+  }
+
+  private ModificationCache() {
+    if (isEnabled()) {
+      LOGGER.info("ModificationCache size = {}", CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes());
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes())
+            .weigher(
+                (Weigher<TsFileID, CachedModifications>)
+                    (key, modifications) ->
+                        (int) Math.min(modifications.retainedSizeInBytes, Integer.MAX_VALUE))
+            .build();
+
+    // add metrics
+    MetricService.getInstance().addMetricSet(new ModificationCacheMetrics(this));
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  private static boolean isEnabled() {
+    return CACHE_ENABLE && CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes() > 0;
+  }
+
+  /**
+   * Get all modifications of the TsFile, including the ones in its exclusive mod file and the ones
+   * in the shared mod file since its offset. The returned tree must not be modified.
+   */
+  public PatternTreeMap<ModEntry, ModsSerializer> get(TsFileResource resource) {
+    if (!isEnabled()) {
+      return buildPatternTree(resource.getAllModEntries());
+    }
+
+    ModFileSnapshot exclusive = new ModFileSnapshot(resource.getExclusiveModFile(), 0);
+    ModFileSnapshot shared =
+        new ModFileSnapshot(resource.getSharedModFile(), resource.getSharedModFileOffset());
+
+    TsFileID tsFileID = resource.getTsFileID();
+    CachedModifications cached = lruCache.getIfPresent(tsFileID);
+    CachedModifications loaded;
+    try {
+      if (cached != null
+          && exclusive.canContinueFrom(cached.exclusive)
+          && shared.canContinueFrom(cached.shared)) {
+        if (exclusive.isReadTo(cached.exclusive) && shared.isReadTo(cached.shared)) {
+          hitCount.incrementAndGet();
+          return cached.modifications;
+        }
+        // only read the entries appended since the cached ones were read
+        List<ModEntry> entries = new ArrayList<>(cached.entries);
+        exclusive.read(cached.exclusive.endOffset, entries);
+        shared.read(cached.shared.endOffset, entries);
+        loaded = new CachedModifications(exclusive, shared, entries);
+        appendCount.incrementAndGet();
+      } else {
+        List<ModEntry> entries = new ArrayList<>();
+        exclusive.read(exclusive.startOffset, entries);
+        shared.read(shared.startOffset, entries);
+        loaded = new CachedModifications(exclusive, shared, entries);
+        missCount.incrementAndGet();
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read the mod files of {}, fall back to the iterator", resource, e);
+      lruCache.invalidate(tsFileID);
+      return buildPatternTree(resource.getAllModEntries());
+    }
+    lruCache.put(tsFileID, loaded);
+    return loaded.modifications;
+  }
+
+  /** Called when the mod files of the TsFile are removed. */
+  public void invalidate(TsFileID tsFileID) {
+    if (isEnabled()) {
+      lruCache.invalidate(tsFileID);
+    }
+  }
+
+  public double getHitRate() {
+    long hit = hitCount.get() + appendCount.get();
+    long total = hit + missCount.get();
+    return total == 0 ? 0 : (double) hit / total * 100;
+  }
+
+  @TestOnly
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @TestOnly
+  public long getAppendCount() {
+    return appendCount.get();
+  }
+
+  @TestOnly
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @TestOnly
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+    hitCount.set(0);
+    appendCount.set(0);
+    missCount.set(0);
+  }
+
+  private static PatternTreeMap<ModEntry, ModsSerializer> buildPatternTree(
+      Iterable<ModEntry> entries) {
+    PatternTreeMap<ModEntry, ModsSerializer> modifications =
+        PatternTreeMapFactory.getModsPatternTreeMap();
+    for (ModEntry modification : entries) {
+      modifications.append(modification.keyOfPatternTree(), modification);
+    }
+    return modifications;
+  }
+
+  /** The state of a mod file when it was read. */
+  private static class ModFileSnapshot {
+
+    private final ModificationFile modFile;
+    private final long startOffset;
+    // captured before reading, so a rewrite during the read makes the next lookup reload
+    private final long rewriteVersion;
+    private final long length;
+    private long endOffset;
+
+    private ModFileSnapshot(ModificationFile modFile, long startOffset) {
+      this.modFile = modFile;
+      this.startOffset = startOffset;
+      this.rewriteVersion = modFile == null ? 0 : modFile.getRewriteVersion();
+      // the entries before the start offset do not belong to the TsFile
+      this.length =
+          Math.max(modFile == null || !modFile.exists() ? 0 : modFile.getFileLength(), startOffset);
+      this.endOffset = startOffset;
+    }
+
+    private boolean canContinueFrom(ModFileSnapshot cached) {
+      return modFile == cached.modFile
+          && startOffset == cached.startOffset
+          && rewriteVersion == cached.rewriteVersion
+          && length >= cached.endOffset;
+    }
+
+    private boolean isReadTo(ModFileSnapshot cached) {
+      return length == cached.endOffset;
+    }
+
+    private void read(long offset, List<ModEntry> entries) throws IOException {
+      endOffset = offset;
+      if (modFile != null && length > offset) {
+        endOffset = modFile.readModEntries(offset, entries::add);
+      }
+    }
+  }
+
+  private static class CachedModifications {
+
+    private final ModFileSnapshot exclusive;
+    private final ModFileSnapshot shared;
+    private final List<ModEntry> entries;
+    private final PatternTreeMap<ModEntry, ModsSerializer> modifications;
+    private final long retainedSizeInBytes;
+
+    private CachedModifications(
+        ModFileSnapshot exclusive, ModFileSnapshot shared, List<ModEntry> entries) {
+      this.exclusive = exclusive;
+      this.shared = shared;
+      this.entries = Collections.unmodifiableList(entries);
+      this.modifications = buildPatternTree(entries);
+      long size = 0;
+      for (ModEntry entry : entries) {
+        size += MOD_ENTRY_OVERHEAD_IN_BYTES + entry.serializedSize();
+      }
+      // the entries are referenced by both the list and the tree
+      this.retainedSizeInBytes = size + entries.size() * MOD_ENTRY_OVERHEAD_IN_BYTES;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+
+    private static final ModificationCache INSTANCE = new ModificationCache();
+
+    private ModificationCacheHolder() {}
+  }
+}
@@ -98,6 +98,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.ReadAmplificationRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushStatus;
@@ -125,6 +126,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDevice
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
 import org.apache.iotdb.db.storageengine.dataregion.utils.fileTimeIndexCache.FileTimeIndexCacheReader;
 import org.apache.iotdb.db.storageengine.dataregion.utils.validate.TsFileValidator;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
@@ -140,6 +142,8 @@ import org.apache.iotdb.db.storageengine.load.disk.ILoadDiskSelector;
 import org.apache.iotdb.db.storageengine.load.disk.InheritSystemMultiDisksStrategySelector;
 import org.apache.iotdb.db.storageengine.load.disk.MinIOSelector;
 import org.apache.iotdb.db.storageengine.load.limiter.LoadTsFileRateLimiter;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.storageengine.rescon.memory.TimePartitionInfo;
@@ -192,6 +196,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -249,9 +254,17 @@ public class DataRegion implements IDataRegionForQuery {
    * A read write lock for guaranteeing concurrent safety when accessing all fields in this class
    * (i.e., schema, (un)sequenceFileList, work(un)SequenceTsFileProcessor,
    * closing(Un)SequenceTsFileProcessor, latestTimeForEachDevice, and
-   * partitionLatestFlushedTimeForEachDevice)
+   * partitionLatestFlushedTimeForEachDevice). Inserts only hold the read lock and are serialized
+   * by the insert lock of each {@link TsFileProcessor}, while structural changes (e.g., closing,
+   * flushing and deleting) hold the write lock.
    */
-  private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  private final ReentrantReadWriteLock insertLock = new ReentrantReadWriteLock();
+
+  /** The time when the write lock of the insert lock is acquired, only accessed by its holder. */
+  private long insertWriteLockAcquiredTime;
+
+  /** Guarantee that only one working TsFileProcessor is created for a time partition. */
+  private final Object tsFileProcessorCreationLock = new Object();
 
   /** Condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
@@ -268,10 +281,12 @@ public class DataRegion implements IDataRegionForQuery {
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** sequence {@link TsFileProcessor}s which are closing. */
   private final Set<TsFileProcessor> closingSequenceTsFileProcessor = ConcurrentHashMap.newKeySet();
@@ -751,13 +766,22 @@ public class DataRegion implements IDataRegionForQuery {
       long timePartitionId, List<TsFileResource> resources) {
     Map<IDeviceID, Long> endTimeMap = new HashMap<>();
     for (TsFileResource resource : resources) {
-      for (IDeviceID deviceId : resource.getDevices()) {
-        // checked above
-        //noinspection OptionalGetWithoutIsPresent
-        long endTime = resource.getEndTime(deviceId).get();
-        endTimeMap.put(deviceId, endTime);
-      }
+      collectDeviceEndTime(resource, endTimeMap);
+    }
+    upgradeAndUpdateDeviceLastFlushTime(timePartitionId, endTimeMap);
+  }
+
+  private void collectDeviceEndTime(TsFileResource resource, Map<IDeviceID, Long> endTimeMap) {
+    for (IDeviceID deviceId : resource.getDevices()) {
+      // checked above
+      //noinspection OptionalGetWithoutIsPresent
+      long endTime = resource.getEndTime(deviceId).get();
+      endTimeMap.put(deviceId, endTime);
     }
+  }
+
+  private void upgradeAndUpdateDeviceLastFlushTime(
+      long timePartitionId, Map<IDeviceID, Long> endTimeMap) {
     if (config.isEnableSeparateData()) {
       lastFlushTimeMap.upgradeAndUpdateMultiDeviceFlushedTime(timePartitionId, endTimeMap);
     }
@@ -1027,10 +1051,23 @@ public class DataRegion implements IDataRegionForQuery {
       }
     }
     return () -> {
+      boolean lazyLoad =
+          config.isEnableLazyLoadTsFileResource()
+              && config.getTimeIndexLevel() != TimeIndexLevel.FILE_TIME_INDEX;
+      Map<IDeviceID, Long> endTimeMap = new HashMap<>();
       for (TsFileResource tsFileResource : resourceList) {
+        // only read the FileTimeIndex from the .resource file, the DeviceTimeIndex will be loaded
+        // when the TsFile is queried
         try (SealedTsFileRecoverPerformer recoverPerformer =
-            new SealedTsFileRecoverPerformer(tsFileResource)) {
+            new SealedTsFileRecoverPerformer(tsFileResource, lazyLoad ? endTimeMap : null)) {
           recoverPerformer.recover();
+          if (lazyLoad
+              && TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType())
+                  != TimeIndexLevel.FILE_TIME_INDEX) {
+            // the .resource file is reconstructed from the TsFile or has an old time index
+            collectDeviceEndTime(tsFileResource, endTimeMap);
+            tsFileResource.degradeTimeIndexForLazyLoad();
+          }
           tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
         } catch (Throwable e) {
           logger.error(
@@ -1042,7 +1079,11 @@ public class DataRegion implements IDataRegionForQuery {
       }
       // After recover, replace partition last flush time with device last flush time
       if (config.isEnableSeparateData()) {
-        upgradeAndUpdateDeviceLastFlushTime(partitionId, resourceList);
+        if (lazyLoad) {
+          upgradeAndUpdateDeviceLastFlushTime(partitionId, endTimeMap);
+        } else {
+          upgradeAndUpdateDeviceLastFlushTime(partitionId, resourceList);
+        }
       }
 
       return null;
@@ -1108,8 +1149,9 @@ public class DataRegion implements IDataRegionForQuery {
     }
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRow");
+    insertReadLock();
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    TsFileProcessor tsFileProcessor = null;
     try {
       if (deleted) {
         return;
@@ -1124,13 +1166,8 @@ public class DataRegion implements IDataRegionForQuery {
                   > lastFlushTimeMap.getFlushedTime(timePartitionId, insertRowNode.getDeviceID());
 
       // insert to sequence or unSequence file
-      TsFileProcessor tsFileProcessor =
-          insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId);
+      tsFileProcessor = insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId);
 
-      // check memtable size and may asyncTryToFlush the work memtable
-      if (tsFileProcessor != null && tsFileProcessor.shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
-      }
       if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
           && (!insertRowNode.isGeneratedByRemoteConsensusLeader())) {
         // disable updating last cache on follower
@@ -1140,7 +1177,11 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertReadUnlock();
+    }
+    // check memtable size and may asyncTryToFlush the work memtable
+    if (tsFileProcessor != null) {
+      submitFlushTasksWhenShouldFlush(Collections.singletonList(tsFileProcessor));
     }
   }
 
@@ -1225,7 +1266,8 @@ public class DataRegion implements IDataRegionForQuery {
       InsertTabletNode insertTabletNode,
       Map<Long, List<int[]>[]> splitMap,
       TSStatus[] results,
-      long[] infoForMetrics) {
+      long[] infoForMetrics,
+      Set<TsFileProcessor> tsFileProcessorsToFlush) {
     boolean noFailure = true;
     for (Entry<Long, List<int[]>[]> entry : splitMap.entrySet()) {
       long timePartitionId = entry.getKey();
@@ -1240,7 +1282,8 @@ public class DataRegion implements IDataRegionForQuery {
                     results,
                     timePartitionId,
                     noFailure,
-                    infoForMetrics)
+                    infoForMetrics,
+                    tsFileProcessorsToFlush)
                 && noFailure;
       }
       List<int[]> unSequenceRangeList = rangeLists[0];
@@ -1253,7 +1296,8 @@ public class DataRegion implements IDataRegionForQuery {
                     results,
                     timePartitionId,
                     noFailure,
-                    infoForMetrics)
+                    infoForMetrics,
+                    tsFileProcessorsToFlush)
                 && noFailure;
       }
     }
@@ -1270,8 +1314,9 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablet");
+    insertReadLock();
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    Set<TsFileProcessor> tsFileProcessorsToFlush = new HashSet<>();
     try {
       if (deleted) {
         logger.info(
@@ -1286,19 +1331,24 @@ public class DataRegion implements IDataRegionForQuery {
       // infoForMetrics[2]: ScheduleWalTimeCost
       // infoForMetrics[3]: ScheduleMemTableTimeCost
       // infoForMetrics[4]: InsertedPointsNumber
-      boolean noFailure = executeInsertTablet(insertTabletNode, results, infoForMetrics);
+      boolean noFailure =
+          executeInsertTablet(insertTabletNode, results, infoForMetrics, tsFileProcessorsToFlush);
       updateTsFileProcessorMetric(insertTabletNode, infoForMetrics);
 
       if (!noFailure) {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      insertReadUnlock();
+      submitFlushTasksWhenShouldFlush(tsFileProcessorsToFlush);
     }
   }
 
   private boolean executeInsertTablet(
-      InsertTabletNode insertTabletNode, TSStatus[] results, long[] infoForMetrics)
+      InsertTabletNode insertTabletNode,
+      TSStatus[] results,
+      long[] infoForMetrics,
+      Set<TsFileProcessor> tsFileProcessorsToFlush)
       throws OutOfTTLException {
     boolean noFailure;
     int loc = insertTabletNode.checkTTL(results, getTTL(insertTabletNode));
@@ -1312,7 +1362,9 @@ public class DataRegion implements IDataRegionForQuery {
       split(insertTabletNode, start, end, splitInfo);
       start = end;
     }
-    noFailure = doInsert(insertTabletNode, splitInfo, results, infoForMetrics) && noFailure;
+    noFailure =
+        doInsert(insertTabletNode, splitInfo, results, infoForMetrics, tsFileProcessorsToFlush)
+            && noFailure;
 
     if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
         && !insertTabletNode.isGeneratedByRemoteConsensusLeader()) {
@@ -1348,6 +1400,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @param rangeList start and end index list of rows to be inserted in insertTabletPlan
    * @param results result array
    * @param timePartitionId time partition id
+   * @param tsFileProcessorsToFlush the processors to be checked whether to flush after inserting
    * @return false if any failure occurs when inserting the tablet, true otherwise
    */
   private boolean insertTabletToTsFileProcessor(
@@ -1357,7 +1410,8 @@ public class DataRegion implements IDataRegionForQuery {
       TSStatus[] results,
       long timePartitionId,
       boolean noFailure,
-      long[] infoForMetrics) {
+      long[] infoForMetrics,
+      Set<TsFileProcessor> tsFileProcessorsToFlush) {
     if (insertTabletNode.allMeasurementFailed()) {
       if (logger.isDebugEnabled()) {
         logger.debug(
@@ -1383,10 +1437,11 @@ public class DataRegion implements IDataRegionForQuery {
       return false;
     }
 
-    // register TableSchema (and maybe more) for table insertion
-    registerToTsFile(insertTabletNode, tsFileProcessor);
-
+    long lockedTime = lockTsFileProcessorForInsert(tsFileProcessor);
     try {
+      // register TableSchema (and maybe more) for table insertion
+      registerToTsFile(insertTabletNode, tsFileProcessor);
+
       tsFileProcessor.insertTablet(insertTabletNode, rangeList, results, noFailure, infoForMetrics);
     } catch (WriteProcessRejectException e) {
       logger.warn("insert to TsFileProcessor rejected, {}", e.getMessage());
@@ -1394,12 +1449,12 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (WriteProcessException e) {
       logger.error("insert to TsFileProcessor error ", e);
       return false;
+    } finally {
+      unlockTsFileProcessorForInsert(tsFileProcessor, lockedTime);
     }
 
     // check memtable size and may async try to flush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    tsFileProcessorsToFlush.add(tsFileProcessor);
     return true;
   }
 
@@ -1463,10 +1518,15 @@ public class DataRegion implements IDataRegionForQuery {
     // infoForMetrics[2]: ScheduleWalTimeCost
     // infoForMetrics[3]: ScheduleMemTableTimeCost
     // infoForMetrics[4]: InsertedPointsNumber
-    tsFileProcessor.insert(insertRowNode, infoForMetrics);
+    long lockedTime = lockTsFileProcessorForInsert(tsFileProcessor);
+    try {
+      tsFileProcessor.insert(insertRowNode, infoForMetrics);
+      // register TableSchema (and maybe more) for table insertion
+      registerToTsFile(insertRowNode, tsFileProcessor);
+    } finally {
+      unlockTsFileProcessorForInsert(tsFileProcessor, lockedTime);
+    }
     updateTsFileProcessorMetric(insertRowNode, infoForMetrics);
-    // register TableSchema (and maybe more) for table insertion
-    registerToTsFile(insertRowNode, tsFileProcessor);
     return tsFileProcessor;
   }
 
@@ -1478,7 +1538,8 @@ public class DataRegion implements IDataRegionForQuery {
       InsertRowsNode insertRowsNode,
       boolean[] areSequence,
       long[] timePartitionIds,
-      long[] infoForMetrics) {
+      long[] infoForMetrics,
+      Set<TsFileProcessor> tsFileProcessorsToFlush) {
     Map<TsFileProcessor, InsertRowsNode> tsFileProcessorMap = new HashMap<>();
     for (int i = 0; i < areSequence.length; i++) {
       InsertRowNode insertRowNode = insertRowsNode.getInsertRowNodeList().get(i);
@@ -1518,22 +1579,25 @@ public class DataRegion implements IDataRegionForQuery {
     for (Map.Entry<TsFileProcessor, InsertRowsNode> entry : tsFileProcessorMap.entrySet()) {
       TsFileProcessor tsFileProcessor = entry.getKey();
       InsertRowsNode subInsertRowsNode = entry.getValue();
+      long lockedTime = lockTsFileProcessorForInsert(tsFileProcessor);
       try {
-        tsFileProcessor.insertRows(subInsertRowsNode, infoForMetrics);
-      } catch (WriteProcessException e) {
-        insertRowsNode
-            .getResults()
-            .put(
-                subInsertRowsNode.getInsertRowNodeIndexList().get(0),
-                RpcUtils.getStatus(e.getErrorCode(), e.getMessage()));
+        try {
+          tsFileProcessor.insertRows(subInsertRowsNode, infoForMetrics);
+        } catch (WriteProcessException e) {
+          insertRowsNode
+              .getResults()
+              .put(
+                  subInsertRowsNode.getInsertRowNodeIndexList().get(0),
+                  RpcUtils.getStatus(e.getErrorCode(), e.getMessage()));
+        }
+        // register TableSchema (and maybe more) for table insertion
+        registerToTsFile(subInsertRowsNode, tsFileProcessor);
+      } finally {
+        unlockTsFileProcessorForInsert(tsFileProcessor, lockedTime);
       }
       executedInsertRowNodeList.addAll(subInsertRowsNode.getInsertRowNodeList());
-      // register TableSchema (and maybe more) for table insertion
-      registerToTsFile(subInsertRowsNode, tsFileProcessor);
       // check memtable size and may asyncTryToFlush the work memtable
-      if (entry.getKey().shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
-      }
+      tsFileProcessorsToFlush.add(tsFileProcessor);
     }
     return executedInsertRowNodeList;
   }
@@ -1649,22 +1713,33 @@ public class DataRegion implements IDataRegionForQuery {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId,
+      ConcurrentSkipListMap<Long, TsFileProcessor> tsFileProcessorTreeMap,
+      boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
-    if (null == res) {
-      // build new processor, memory control module will control the number of memtables
-      TimePartitionManager.getInstance()
-          .updateAfterOpeningTsFileProcessor(
-              new DataRegionId(Integer.parseInt(dataRegionId)), timeRangeId);
-      res = newTsFileProcessor(sequence, timeRangeId);
-      if (workSequenceTsFileProcessors.get(timeRangeId) == null
-          && workUnsequenceTsFileProcessors.get(timeRangeId) == null) {
-        WritingMetrics.getInstance().recordActiveTimePartitionCount(1);
+    if (null != res) {
+      return res;
+    }
+    // concurrent inserts of a new time partition may try to create the processor at the same time
+    synchronized (tsFileProcessorCreationLock) {
+      res = tsFileProcessorTreeMap.get(timeRangeId);
+      if (null == res) {
+        // build new processor, memory control module will control the number of memtables
+        TimePartitionManager.getInstance()
+            .updateAfterOpeningTsFileProcessor(
+                new DataRegionId(Integer.parseInt(dataRegionId)), timeRangeId);
+        res = newTsFileProcessor(sequence, timeRangeId);
+        if (workSequenceTsFileProcessors.get(timeRangeId) == null
+            && workUnsequenceTsFileProcessors.get(timeRangeId) == null) {
+          WritingMetrics.getInstance().recordActiveTimePartitionCount(1);
+        }
+        // add the resource before publishing the processor, so that the inserted data can be
+        // found by queries
+        tsFileManager.add(res.getTsFileResource(), sequence);
+        tsFileProcessorTreeMap.put(timeRangeId, res);
       }
-      tsFileProcessorTreeMap.put(timeRangeId, res);
-      tsFileManager.add(res.getTsFileResource(), sequence);
     }
 
     return res;
@@ -1772,6 +1847,7 @@ public class DataRegion implements IDataRegionForQuery {
         systemDir);
     FileTimeIndexCacheRecorder.getInstance()
         .removeFileTimeIndexCache(Integer.parseInt(dataRegionId));
+    ReadAmplificationRecorder.getInstance().removeDataRegion(databaseName, dataRegionId);
     writeLock("deleteFolder");
     try {
       File dataRegionSystemFolder =
@@ -2083,6 +2159,8 @@ public class DataRegion implements IDataRegionForQuery {
 
       QUERY_RESOURCE_METRIC_SET.recordQueryResourceNum(SEQUENCE_TSFILE, seqResources.size());
       QUERY_RESOURCE_METRIC_SET.recordQueryResourceNum(UNSEQUENCE_TSFILE, unseqResources.size());
+      ReadAmplificationRecorder.getInstance()
+          .recordQuery(databaseName, dataRegionId, seqResources, unseqResources);
 
       return new QueryDataSource(seqResources, unseqResources, databaseName);
     } catch (MetadataException e) {
@@ -2233,15 +2311,63 @@ public class DataRegion implements IDataRegionForQuery {
   /** lock the write lock of the insert lock */
   public void writeLock(String holder) {
     insertLock.writeLock().lock();
+    if (insertLock.getWriteHoldCount() == 1) {
+      insertWriteLockAcquiredTime = System.nanoTime();
+    }
     insertWriteLockHolder = holder;
   }
 
   /** unlock the write lock of the insert lock */
   public void writeUnlock() {
     insertWriteLockHolder = "";
+    if (insertLock.getWriteHoldCount() == 1) {
+      WritingMetrics.getInstance()
+          .recordRegionWriteLockHoldTime(System.nanoTime() - insertWriteLockAcquiredTime);
+    }
     insertLock.writeLock().unlock();
   }
 
+  /**
+   * lock the read lock of the insert lock for inserting, the inserts into the same {@link
+   * TsFileProcessor} are further serialized by {@link #lockTsFileProcessorForInsert}
+   */
+  private void insertReadLock() {
+    insertLock.readLock().lock();
+  }
+
+  /** unlock the read lock of the insert lock for inserting */
+  private void insertReadUnlock() {
+    insertLock.readLock().unlock();
+  }
+
+  /**
+   * Must be called with the read lock of the insert lock held.
+   *
+   * @return the time when the lock is acquired
+   */
+  private long lockTsFileProcessorForInsert(TsFileProcessor tsFileProcessor) {
+    tsFileProcessor.getInsertLock().writeLock().lock();
+    return System.nanoTime();
+  }
+
+  private void unlockTsFileProcessorForInsert(TsFileProcessor tsFileProcessor, long lockedTime) {
+    tsFileProcessor.getInsertLock().writeLock().unlock();
+    WritingMetrics.getInstance().recordTsFileProcessorLockHoldTime(System.nanoTime() - lockedTime);
+  }
+
+  /**
+   * Switching the working memtable is a structural change that requires the write lock of the
+   * insert lock, so the inserts check whether to flush after releasing the read lock.
+   */
+  private void submitFlushTasksWhenShouldFlush(Collection<TsFileProcessor> tsFileProcessors) {
+    for (TsFileProcessor tsFileProcessor : tsFileProcessors) {
+      IMemTable workMemTable = tsFileProcessor.getWorkMemTable();
+      if (workMemTable != null && workMemTable.shouldFlush()) {
+        submitAFlushTaskWhenShouldFlush(tsFileProcessor);
+      }
+    }
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -2265,14 +2391,19 @@ public class DataRegion implements IDataRegionForQuery {
     }
 
     List<TsFileResource> tsfileResourcesForQuery = new ArrayList<>();
+    long queryTime = System.currentTimeMillis();
 
     for (TsFileResource tsFileResource : tsFileResources) {
       if (!tsFileResource.isSatisfied(singleDeviceId, globalTimeFilter, isSeq, context.isDebug())) {
         continue;
       }
+      // the TsFile which only keeps the FileTimeIndex since restarting loads its DeviceTimeIndex in
+      // background, so that the following queries may filter it out
+      tsFileResourceManager.loadDeviceTimeIndexInBackground(tsFileResource);
       closeQueryLock.readLock().lock();
       try {
         if (tsFileResource.isClosed()) {
+          tsFileResource.updateLastQueryTime(queryTime);
           tsfileResourcesForQuery.add(tsFileResource);
         } else {
           tsFileResource
@@ -2903,6 +3034,8 @@ public class DataRegion implements IDataRegionForQuery {
       if (context.hasSubmitTask()) {
         CompactionMetrics.getInstance().updateCompactionTaskSelectionNum(context);
       }
+      ReadAmplificationRecorder.getInstance()
+          .removeOutdatedPartitions(databaseName, dataRegionId, getTimePartitionsWithFiles());
       logger.info(
           "[TTL] {}-{} Totally select {} all-outdated files and {} partial-outdated files.",
           databaseName,
@@ -2919,6 +3052,17 @@ public class DataRegion implements IDataRegionForQuery {
     return trySubmitCount;
   }
 
+  private Set<Long> getTimePartitionsWithFiles() {
+    Set<Long> timePartitions = new HashSet<>();
+    for (TsFileResource resource : tsFileManager.getTsFileList(true)) {
+      timePartitions.add(resource.getTimePartition());
+    }
+    for (TsFileResource resource : tsFileManager.getTsFileList(false)) {
+      timePartitions.add(resource.getTimePartition());
+    }
+    return timePartitions;
+  }
+
   protected int[] executeInsertionCompaction(
       List<Long> timePartitions, CompactionScheduleContext context) throws InterruptedException {
     int[] trySubmitCountOfTimePartitions = new int[timePartitions.size()];
@@ -3291,6 +3435,9 @@ public class DataRegion implements IDataRegionForQuery {
         targetFile.getAbsolutePath());
 
     LoadTsFileRateLimiter.getInstance().acquire(tsFileResource.getTsFile().length());
+    IOScheduler.getInstance()
+        .getDiskIOScheduler(targetFile)
+        .acquire(IOClass.LOAD, tsFileResource.getTsFile().length());
 
     // move file from sync dir to data dir
     if (!targetFile.getParentFile().exists()) {
@@ -3574,8 +3721,9 @@ public class DataRegion implements IDataRegionForQuery {
       throws WriteProcessException, BatchProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRowsOfOneDevice");
+    insertReadLock();
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    Set<TsFileProcessor> tsFileProcessorsToFlush = new HashSet<>();
     try {
       if (deleted) {
         return;
@@ -3653,6 +3801,7 @@ public class DataRegion implements IDataRegionForQuery {
       for (Map.Entry<TsFileProcessor, InsertRowsNode> entry : tsFileProcessorMap.entrySet()) {
         TsFileProcessor tsFileProcessor = entry.getKey();
         InsertRowsNode subInsertRowsNode = entry.getValue();
+        long lockedTime = lockTsFileProcessorForInsert(tsFileProcessor);
         try {
           tsFileProcessor.insertRows(subInsertRowsNode, infoForMetrics);
         } catch (WriteProcessException e) {
@@ -3661,13 +3810,13 @@ public class DataRegion implements IDataRegionForQuery {
               .put(
                   subInsertRowsNode.getInsertRowNodeIndexList().get(0),
                   RpcUtils.getStatus(e.getErrorCode(), e.getMessage()));
+        } finally {
+          unlockTsFileProcessorForInsert(tsFileProcessor, lockedTime);
         }
         executedInsertRowNodeList.addAll(subInsertRowsNode.getInsertRowNodeList());
 
         // check memtable size and may asyncTryToFlush the work memtable
-        if (tsFileProcessor.shouldFlush()) {
-          fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
-        }
+        tsFileProcessorsToFlush.add(tsFileProcessor);
       }
 
       updateTsFileProcessorMetric(insertRowsOfOneDeviceNode, infoForMetrics);
@@ -3680,7 +3829,8 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertReadUnlock();
+      submitFlushTasksWhenShouldFlush(tsFileProcessorsToFlush);
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException("Partial failed inserting rows of one device");
@@ -3691,8 +3841,9 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessRejectException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRows");
+    insertReadLock();
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    Set<TsFileProcessor> tsFileProcessorsToFlush = new HashSet<>();
     try {
       if (deleted) {
         return;
@@ -3744,7 +3895,12 @@ public class DataRegion implements IDataRegionForQuery {
       // infoForMetrics[3]: ScheduleMemTableTimeCost
       // infoForMetrics[4]: InsertedPointsNumber
       List<InsertRowNode> executedInsertRowNodeList =
-          insertToTsFileProcessors(insertRowsNode, areSequence, timePartitionIds, infoForMetrics);
+          insertToTsFileProcessors(
+              insertRowsNode,
+              areSequence,
+              timePartitionIds,
+              infoForMetrics,
+              tsFileProcessorsToFlush);
       updateTsFileProcessorMetric(insertRowsNode, infoForMetrics);
 
       if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
@@ -3760,7 +3916,8 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException("Partial failed inserting rows");
       }
     } finally {
-      writeUnlock();
+      insertReadUnlock();
+      submitFlushTasksWhenShouldFlush(tsFileProcessorsToFlush);
     }
   }
 
@@ -3774,8 +3931,9 @@ public class DataRegion implements IDataRegionForQuery {
 
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablets");
+    insertReadLock();
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    Set<TsFileProcessor> tsFileProcessorsToFlush = new HashSet<>();
     try {
       if (deleted) {
         logger.info(
@@ -3795,7 +3953,9 @@ public class DataRegion implements IDataRegionForQuery {
         Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
         boolean noFailure = false;
         try {
-          noFailure = executeInsertTablet(insertTabletNode, results, infoForMetrics);
+          noFailure =
+              executeInsertTablet(
+                  insertTabletNode, results, infoForMetrics, tsFileProcessorsToFlush);
         } catch (WriteProcessException e) {
           insertMultiTabletsNode
               .getResults()
@@ -3820,7 +3980,8 @@ public class DataRegion implements IDataRegionForQuery {
       updateTsFileProcessorMetric(insertMultiTabletsNode, infoForMetrics);
 
     } finally {
-      writeUnlock();
+      insertReadUnlock();
+      submitFlushTasksWhenShouldFlush(tsFileProcessorsToFlush);
     }
 
     if (!insertMultiTabletsNode.getResults().isEmpty()) {
@@ -4070,6 +4231,23 @@ public class DataRegion implements IDataRegionForQuery {
     return dataRegionInfo.getMemCost();
   }
 
+  /**
+   * Return the time in ms since the oldest working memtable was created, i.e. how long the
+   * unflushed data of a wal_free_databases region is only protected by the other replicas.
+   */
+  public long getUnflushedDataDuration() {
+    long oldestCreatedTime = Long.MAX_VALUE;
+    for (TsFileProcessor tsFileProcessor : workSequenceTsFileProcessors.values()) {
+      oldestCreatedTime = Math.min(oldestCreatedTime, tsFileProcessor.getWorkMemTableCreatedTime());
+    }
+    for (TsFileProcessor tsFileProcessor : workUnsequenceTsFileProcessors.values()) {
+      oldestCreatedTime = Math.min(oldestCreatedTime, tsFileProcessor.getWorkMemTableCreatedTime());
+    }
+    return oldestCreatedTime == Long.MAX_VALUE
+        ? 0
+        : Math.max(System.currentTimeMillis() - oldestCreatedTime, 0);
+  }
+
   private void renameAndHandleError(String originFileName, String newFileName) {
     try {
       File originFile = new File(originFileName);
@@ -147,15 +147,16 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
   @Override
   public boolean checkAndCreateFlushedTimePartition(
       long timePartitionId, boolean usingDeviceFlushTime) {
-    if (!partitionLatestFlushedTime.containsKey(timePartitionId)) {
-      partitionLatestFlushedTime.put(
-          timePartitionId,
-          usingDeviceFlushTime
-              ? new DeviceLastFlushTime()
-              : new PartitionLastFlushTime(Long.MIN_VALUE));
-      return false;
+    if (partitionLatestFlushedTime.containsKey(timePartitionId)) {
+      return true;
     }
-    return true;
+    // inserts of a data region may create the same time partition concurrently
+    return partitionLatestFlushedTime.putIfAbsent(
+            timePartitionId,
+            usingDeviceFlushTime
+                ? new DeviceLastFlushTime()
+                : new PartitionLastFlushTime(Long.MIN_VALUE))
+        != null;
   }
 
   // For insert
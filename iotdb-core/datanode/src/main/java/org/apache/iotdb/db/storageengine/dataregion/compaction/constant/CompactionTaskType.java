@@ -25,5 +25,6 @@ public enum CompactionTaskType {
   CROSS,
   INSERTION,
   SETTLE,
-  REPAIR
+  REPAIR,
+  TIER_MIGRATION
 }
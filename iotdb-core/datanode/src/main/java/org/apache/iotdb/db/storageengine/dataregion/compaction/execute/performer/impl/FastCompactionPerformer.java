@@ -50,6 +50,7 @@ import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
@@ -96,6 +97,9 @@ public class FastCompactionPerformer
 
   private final boolean isCrossCompaction;
 
+  // if it is set, all the chunks of the target files are compressed by it
+  private CompressionType targetCompressionType;
+
   public FastCompactionPerformer(
       List<TsFileResource> seqFiles,
       List<TsFileResource> unseqFiles,
@@ -212,12 +216,22 @@ public class FastCompactionPerformer
     // overlapped tsfiles contain all the value measurements.
     for (Map.Entry<String, Pair<MeasurementSchema, Map<TsFileResource, Pair<Long, Long>>>> entry :
         deviceIterator.getTimeseriesSchemaAndMetadataOffsetOfCurrentDevice().entrySet()) {
-      measurementSchemas.add(entry.getValue().left);
+      MeasurementSchema schema = entry.getValue().left;
+      if (targetCompressionType != null) {
+        schema =
+            new MeasurementSchema(
+                schema.getMeasurementName(),
+                schema.getType(),
+                schema.getEncodingType(),
+                targetCompressionType);
+      }
+      measurementSchemas.add(schema);
       timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
     }
 
     FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
-    new FastCompactionPerformerSubTask(
+    FastCompactionPerformerSubTask subTask =
+        new FastCompactionPerformerSubTask(
             fastCrossCompactionWriter,
             timeseriesMetadataOffsetMap,
             readerCacheMap,
@@ -226,8 +240,9 @@ public class FastCompactionPerformer
             measurementSchemas,
             deviceId,
             taskSummary,
-            ignoreAllNullRows)
-        .call();
+            ignoreAllNullRows);
+    subTask.setTargetCompressionType(targetCompressionType);
+    subTask.call();
     subTaskSummary.increase(taskSummary);
   }
 
@@ -263,19 +278,19 @@ public class FastCompactionPerformer
     List<FastCompactionTaskSummary> taskSummaryList = new ArrayList<>();
     for (int i = 0; i < subTaskNums; i++) {
       FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
-      futures.add(
-          CompactionTaskManager.getInstance()
-              .submitSubTask(
-                  new FastCompactionPerformerSubTask(
-                      fastCrossCompactionWriter,
-                      timeseriesMetadataOffsetMap,
-                      readerCacheMap,
-                      modificationCache,
-                      sortedSourceFiles,
-                      measurementsForEachSubTask[i],
-                      deviceID,
-                      taskSummary,
-                      i)));
+      FastCompactionPerformerSubTask subTask =
+          new FastCompactionPerformerSubTask(
+              fastCrossCompactionWriter,
+              timeseriesMetadataOffsetMap,
+              readerCacheMap,
+              modificationCache,
+              sortedSourceFiles,
+              measurementsForEachSubTask[i],
+              deviceID,
+              taskSummary,
+              i);
+      subTask.setTargetCompressionType(targetCompressionType);
+      futures.add(CompactionTaskManager.getInstance().submitSubTask(subTask));
       taskSummaryList.add(taskSummary);
     }
 
@@ -317,6 +332,10 @@ public class FastCompactionPerformer
     this.targetFiles = targetFiles;
   }
 
+  public void setTargetCompressionType(CompressionType targetCompressionType) {
+    this.targetCompressionType = targetCompressionType;
+  }
+
   @Override
   public void setSummary(CompactionTaskSummary summary) {
     if (!(summary instanceof FastCompactionTaskSummary)) {
@@ -139,6 +139,7 @@ public class CompactionRecoverManager {
         case INNER_SEQ:
         case INNER_UNSEQ:
         case REPAIR:
+        case TIER_MIGRATION:
           new CompactionRecoverTask(
                   logicalStorageGroupName, dataRegionId, tsFileManager, compactionLog, true)
               .doCompaction();
@@ -83,6 +83,8 @@ public abstract class AbstractCompactionTask {
   private boolean memoryAcquired = false;
   private boolean fileHandleAcquired = false;
   protected long compactionConfigVersion = Long.MAX_VALUE;
+  // the expected file reads saved for the queries per MB rewritten, fixed once the task is queued
+  protected double queryBenefitScore = 0;
 
   protected AbstractCompactionTask(
       String storageGroupName,
@@ -99,6 +101,14 @@ public abstract class AbstractCompactionTask {
 
   public abstract List<TsFileResource> getAllSourceTsFiles();
 
+  public double getQueryBenefitScore() {
+    return queryBenefitScore;
+  }
+
+  public void setQueryBenefitScore(double queryBenefitScore) {
+    this.queryBenefitScore = queryBenefitScore;
+  }
+
   public long getCompactionConfigVersion() {
     // This parameter should not take effect by default unless it is overridden by a subclass
     return Long.MAX_VALUE;
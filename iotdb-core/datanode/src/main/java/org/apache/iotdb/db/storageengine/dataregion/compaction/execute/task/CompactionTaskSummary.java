@@ -37,6 +37,7 @@ public class CompactionTaskSummary {
   protected long rewritePointNum = 0;
   protected long temporalFileSize = 0;
   protected int temporalFileNum = 0;
+  protected long peakMemoryCost = 0;
 
   public void start() {
     this.status = Status.STARTED;
@@ -189,13 +190,22 @@ public class CompactionTaskSummary {
     return temporalFileNum;
   }
 
+  public void updatePeakMemoryCost(long memoryCost) {
+    this.peakMemoryCost = Math.max(this.peakMemoryCost, memoryCost);
+  }
+
+  public long getPeakMemoryCost() {
+    return peakMemoryCost;
+  }
+
   @Override
   public String toString() {
     String startTimeInStr = new SimpleDateFormat().format(new Date(startTime));
     return String.format(
         "Task start time: %s, total process chunk num: %d, "
             + "directly flush chunk num: %d, merge chunk num: %d, deserialize chunk num: %d,"
-            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d",
+            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d,"
+            + " peak memory cost of reading and writing chunks: %.2f MB",
         startTimeInStr,
         processChunkNum,
         directlyFlushChunkNum,
@@ -203,6 +213,7 @@ public class CompactionTaskSummary {
         deserializeChunkCount,
         directlyFlushPageCount,
         processPointNum,
-        rewritePointNum);
+        rewritePointNum,
+        peakMemoryCost / 1024.0 / 1024.0);
   }
 }
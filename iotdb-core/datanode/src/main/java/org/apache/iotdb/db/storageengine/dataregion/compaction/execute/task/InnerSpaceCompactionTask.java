@@ -219,7 +219,8 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     if (!tsFileManager.isAllowCompaction()) {
       return true;
     }
-    if ((this.getCompactionTaskType() != CompactionTaskType.REPAIR)
+    if (this.getCompactionTaskType() != CompactionTaskType.REPAIR
+        && this.getCompactionTaskType() != CompactionTaskType.TIER_MIGRATION
         && ((filesView.sequence
                 && !IoTDBDescriptor.getInstance().getConfig().isEnableSeqSpaceCompaction())
             || (!filesView.sequence
@@ -456,6 +457,12 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
     CompactionUtils.combineModsInInnerCompaction(
         filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer);
+    if (filesView.sequence
+        && IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSketch()
+        && filesView.targetFilesInPerformer.size() == 1) {
+      CompactionUtils.mergeSketchesInInnerCompaction(
+          filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer.get(0));
+    }
   }
 
   public void recover() {
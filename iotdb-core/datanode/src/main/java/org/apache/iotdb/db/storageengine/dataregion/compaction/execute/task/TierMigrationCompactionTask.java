@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Migrate a sealed TsFile to the next tier by rewriting it into a folder of that tier. Since the
+ * migration is carried out as an inner space compaction of one file, it shares the rate limiters,
+ * the validation and the crash recovery of compaction, and the migrated file replaces the source
+ * file in the {@link TsFileManager} at the same position. If the tier migration compressor is set,
+ * the chunks compressed by other compressors are rewritten with it.
+ */
+public class TierMigrationCompactionTask extends InnerSpaceCompactionTask {
+
+  private final TsFileResource sourceFile;
+  private final int targetTierLevel;
+
+  public TierMigrationCompactionTask(
+      long timePartition, TsFileManager tsFileManager, TsFileResource sourceFile, long serialId) {
+    super(
+        timePartition,
+        tsFileManager,
+        Collections.singletonList(sourceFile),
+        sourceFile.isSeq(),
+        createPerformer(IoTDBDescriptor.getInstance().getConfig().getTierMigrationCompressor()),
+        serialId);
+    this.sourceFile = sourceFile;
+    this.targetTierLevel = sourceFile.getTierLevel() + 1;
+  }
+
+  private static FastCompactionPerformer createPerformer(CompressionType compressionType) {
+    FastCompactionPerformer performer = new FastCompactionPerformer(false);
+    performer.setTargetCompressionType(compressionType);
+    return performer;
+  }
+
+  @Override
+  protected void prepare() throws IOException, DiskSpaceInsufficientException {
+    calculateSourceFilesAndTargetFiles();
+    CompactionUtils.prepareCompactionModFiles(
+        filesView.targetFilesInPerformer, filesView.sourceFilesInLog);
+    isHoldingWriteLock = new boolean[this.filesView.sourceFilesInLog.size()];
+    Arrays.fill(isHoldingWriteLock, false);
+    logFile =
+        new File(
+            filesView.targetFilesInLog.get(0).getTsFilePath()
+                + CompactionLogger.INNER_COMPACTION_LOG_NAME_SUFFIX);
+  }
+
+  @Override
+  protected void calculateSourceFilesAndTargetFiles()
+      throws IOException, DiskSpaceInsufficientException {
+    filesView.sourceFilesInLog = filesView.sourceFilesInCompactionPerformer;
+    filesView.renamedTargetFiles = Collections.emptyList();
+    filesView.targetFilesInLog =
+        Collections.singletonList(
+            new TsFileResource(generateTargetFile(), TsFileResourceStatus.COMPACTING));
+    filesView.targetFilesInPerformer = filesView.targetFilesInLog;
+  }
+
+  private File generateTargetFile() throws IOException, DiskSpaceInsufficientException {
+    TsFileNameGenerator.TsFileName sourceFileName =
+        TsFileNameGenerator.getTsFileName(sourceFile.getTsFile().getName());
+    // the cross compaction count is increased so that the source file and the target file can be
+    // told apart during recovery, it does not affect the selection of the following compactions
+    return new File(
+        TsFileNameGenerator.generateNewTsFilePathWithMkdir(
+            sourceFile.isSeq(),
+            sourceFile.getDatabaseName(),
+            sourceFile.getDataRegionId(),
+            sourceFile.getTimePartition(),
+            sourceFileName.getTime(),
+            sourceFileName.getVersion(),
+            sourceFileName.getInnerCompactionCnt(),
+            sourceFileName.getCrossCompactionCnt() + 1,
+            targetTierLevel,
+            IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX));
+  }
+
+  @Override
+  protected boolean doCompaction() {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableTierMigration()) {
+      return true;
+    }
+    LOGGER.info(
+        "{}-{} [Compaction] TierMigrationCompaction task starts, file: {}, target tier: {}",
+        storageGroupName,
+        dataRegionId,
+        sourceFile,
+        targetTierLevel);
+    return super.doCompaction();
+  }
+
+  @Override
+  public boolean isDiskSpaceCheckPassed() {
+    long[] tierDiskUsableSpace = TierManager.getInstance().getTierDiskUsableSpace();
+    return targetTierLevel < tierDiskUsableSpace.length
+        && tierDiskUsableSpace[targetTierLevel] > filesView.selectedFileSize;
+  }
+
+  @Override
+  public boolean equalsOtherTask(AbstractCompactionTask otherTask) {
+    return otherTask instanceof TierMigrationCompactionTask && super.equalsOtherTask(otherTask);
+  }
+
+  @Override
+  public CompactionTaskType getCompactionTaskType() {
+    return CompactionTaskType.TIER_MIGRATION;
+  }
+}
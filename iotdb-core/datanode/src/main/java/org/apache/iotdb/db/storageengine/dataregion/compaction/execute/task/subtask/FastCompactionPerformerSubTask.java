@@ -33,6 +33,7 @@ import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
@@ -75,6 +76,8 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
 
   private List<IMeasurementSchema> measurementSchemas;
 
+  private CompressionType targetCompressionType;
+
   /** Used for nonAligned timeseries. */
   @SuppressWarnings("squid:S107")
   public FastCompactionPerformerSubTask(
@@ -126,6 +129,10 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
     this.ignoreAllNullRows = ignoreAllNullRows;
   }
 
+  public void setTargetCompressionType(CompressionType targetCompressionType) {
+    this.targetCompressionType = targetCompressionType;
+  }
+
   @Override
   public Void call()
       throws IOException, PageException, WriteProcessException, IllegalPathException {
@@ -139,6 +146,7 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
               deviceId,
               subTaskId,
               summary);
+      seriesCompactionExecutor.setTargetCompressionType(targetCompressionType);
       for (String measurement : measurements) {
         seriesCompactionExecutor.setNewMeasurement(timeseriesMetadataOffsetMap.get(measurement));
         seriesCompactionExecutor.execute();
@@ -175,6 +183,7 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
                 summary,
                 ignoreAllNullRows);
       }
+      seriesCompactionExecutor.setTargetCompressionType(targetCompressionType);
       seriesCompactionExecutor.execute();
     }
     return null;
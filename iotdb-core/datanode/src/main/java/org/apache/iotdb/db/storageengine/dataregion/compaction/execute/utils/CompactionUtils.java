@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
@@ -38,7 +39,10 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFil
 import org.apache.iotdb.db.storageengine.dataregion.modification.TableDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.SystemMetric;
 
@@ -93,6 +97,7 @@ public class CompactionUtils {
       case INNER_UNSEQ:
       case INNER_SEQ:
       case REPAIR:
+      case TIER_MIGRATION:
         return IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX;
       case CROSS:
         return IoTDBConstant.CROSS_COMPACTION_TMP_FILE_SUFFIX;
@@ -209,6 +214,40 @@ public class CompactionUtils {
     }
   }
 
+  /**
+   * Merge the sketches of the source files of an inner sequence compaction as the sketches of its
+   * only target file. The target file has no sketch if any source file has none, since the sketches
+   * are only an optimization of approximate aggregations.
+   */
+  public static void mergeSketchesInInnerCompaction(
+      List<TsFileResource> sourceFiles, TsFileResource targetFile) {
+    if (!targetFile.getTsFile().exists()) {
+      return;
+    }
+    long maxSketchSize =
+        IoTDBDescriptor.getInstance().getConfig().getSeriesSketchMaxSizePerFileInByte();
+    TsFileSketch targetSketch = new TsFileSketch();
+    try {
+      for (TsFileResource sourceFile : sourceFiles) {
+        if (!TsFileSketch.getSketchFile(sourceFile.getTsFile()).exists()) {
+          return;
+        }
+        targetSketch.merge(TsFileSketch.deserialize(sourceFile.getTsFile()));
+        if (targetSketch.getEstimatedSize() > maxSketchSize) {
+          return;
+        }
+      }
+      targetSketch.serialize(targetFile.getTsFile());
+    } catch (IOException e) {
+      logger.warn("Failed to merge the sketches of {}", targetFile.getTsFile(), e);
+      try {
+        targetFile.removeSketchFile();
+      } catch (IOException e1) {
+        logger.warn("Failed to remove the sketch file of {}", targetFile.getTsFile(), e1);
+      }
+    }
+  }
+
   /**
    * Collect all the compaction modification files of source files, and combines them as the
    * modification file of target file.
@@ -423,10 +462,13 @@ public class CompactionUtils {
 
   public static ArrayDeviceTimeIndex buildDeviceTimeIndex(TsFileResource resource)
       throws IOException {
-    long resourceFileSize =
-        new File(resource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).length();
+    File resourceFile = new File(resource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX);
+    long resourceFileSize = resourceFile.length();
     CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
     CompactionMetrics.getInstance().recordDeserializeResourceInfo(resourceFileSize);
+    IOScheduler.getInstance()
+        .getDiskIOScheduler(resourceFile)
+        .acquire(IOClass.COMPACTION, resourceFileSize);
     while (resourceFileSize > 0) {
       int readSize = (int) Math.min(resourceFileSize, Integer.MAX_VALUE);
       CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readSize);
@@ -20,7 +20,6 @@
 package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
-import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.BatchCompactionCannotAlignedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
@@ -65,7 +64,7 @@ public class BatchedReadChunkAlignedSeriesCompactionExecutor
       LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
   private final BatchCompactionPlan batchCompactionPlan = new BatchCompactionPlan();
   private final int batchSize =
-      IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
+      AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch();
   private final AlignedSeriesBatchCompactionUtils.BatchColumnSelection batchColumnSelection;
   private final LinkedList<Pair<TsFileSequenceReader, List<AbstractAlignedChunkMetadata>>>
       originReaderAndChunkMetadataList;
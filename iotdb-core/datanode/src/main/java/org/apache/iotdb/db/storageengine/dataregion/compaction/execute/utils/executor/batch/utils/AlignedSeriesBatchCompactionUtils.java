@@ -19,8 +19,12 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -42,6 +46,27 @@ public class AlignedSeriesBatchCompactionUtils {
 
   private AlignedSeriesBatchCompactionUtils() {}
 
+  /**
+   * @return the max number of value columns compacted in one batch. When the value chunks are read
+   *     page by page, a column costs about one compressed and one uncompressed source page and one
+   *     unsealed target page, so the batch is also bounded by the memory budget of one compaction
+   *     task, which splits a too wide device into column groups.
+   */
+  public static int getMaxAlignedSeriesNumInOneBatch() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int batchSize = config.getCompactionMaxAlignedSeriesNumInOneBatch();
+    batchSize = batchSize <= 0 ? Integer.MAX_VALUE : batchSize;
+    if (!config.isEnablePageStreamingInAlignedCompaction()) {
+      return batchSize;
+    }
+    long memoryBudgetPerTask =
+        SystemInfo.getInstance().getMemorySizeForCompaction() / config.getCompactionThreadCount();
+    long memoryCostPerColumn = 3L * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
+    long maxColumnNum =
+        Math.max(1, (memoryBudgetPerTask - config.getTargetChunkSize()) / memoryCostPerColumn);
+    return (int) Math.min(batchSize, maxColumnNum);
+  }
+
   public static void markAlignedChunkHasDeletion(
       LinkedList<Pair<TsFileSequenceReader, List<AbstractAlignedChunkMetadata>>>
           readerAndChunkMetadataList) {
@@ -205,13 +205,16 @@ public class FastNonAlignedSeriesCompactionExecutor extends SeriesCompactionExec
               header.getMeasurementID(),
               header.getDataType(),
               header.getEncodingType(),
-              header.getCompressionType());
+              targetCompressionType == null
+                  ? header.getCompressionType()
+                  : targetCompressionType);
       compactionWriter.startMeasurement(
           schema.getMeasurementName(), new ChunkWriterImpl(schema, true), subTaskId);
       hasStartMeasurement = true;
-      seriesCompressionType = header.getCompressionType();
+      seriesCompressionType = schema.getCompressor();
       seriesTSEncoding = header.getEncodingType();
-      chunkMetadataElement.needForceDecodingPage = false;
+      chunkMetadataElement.needForceDecodingPage =
+          header.getCompressionType() != seriesCompressionType;
     } else {
       ChunkHeader header = chunkMetadataElement.chunk.getHeader();
       chunkMetadataElement.needForceDecodingPage =
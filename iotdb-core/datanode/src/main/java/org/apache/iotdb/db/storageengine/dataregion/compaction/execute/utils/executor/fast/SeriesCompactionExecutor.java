@@ -40,6 +40,7 @@ import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.read.common.TimeRange;
@@ -101,6 +102,10 @@ public abstract class SeriesCompactionExecutor {
 
   protected boolean isAligned;
 
+  // if it is set, the chunks compressed by other compressors are rewritten instead of being flushed
+  // to the target file directly
+  protected CompressionType targetCompressionType;
+
   protected SeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
@@ -134,6 +139,10 @@ public abstract class SeriesCompactionExecutor {
             });
   }
 
+  public void setTargetCompressionType(CompressionType targetCompressionType) {
+    this.targetCompressionType = targetCompressionType;
+  }
+
   public abstract void execute()
       throws PageException, IllegalPathException, IOException, WriteProcessException;
 
@@ -185,7 +194,9 @@ public abstract class SeriesCompactionExecutor {
    */
   private void compactWithNonOverlapChunk(ChunkMetadataElement chunkMetadataElement)
       throws IOException, PageException, WriteProcessException, IllegalPathException {
-    boolean success = flushChunkToCompactionWriter(chunkMetadataElement);
+    boolean success =
+        (targetCompressionType == null || !chunkMetadataElement.needForceDecodingPage)
+            && flushChunkToCompactionWriter(chunkMetadataElement);
     if (success) {
       // flush chunk successfully, then remove this chunk
       updateSummary(chunkMetadataElement, ChunkStatus.DIRECTORY_FLUSH);
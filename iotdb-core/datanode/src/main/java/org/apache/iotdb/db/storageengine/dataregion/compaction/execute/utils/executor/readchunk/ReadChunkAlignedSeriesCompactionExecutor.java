@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.exe
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.ChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.InstantChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.InstantPageLoader;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.LazyChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.PageLoader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileReader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
@@ -79,6 +80,11 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
   protected ReadChunkAlignedSeriesCompactionFlushController flushController;
   protected final CompactionTaskSummary summary;
   protected final boolean ignoreAllNullRows;
+  // read the value chunks page by page instead of loading the whole chunks
+  protected final boolean enablePageStreaming =
+      IoTDBDescriptor.getInstance().getConfig().isEnablePageStreamingInAlignedCompaction();
+  // the size of the source chunks loaded into memory for the current aligned chunk
+  private long loadedChunkSize = 0;
 
   private long lastWriteTimestamp;
   private boolean lastWriteTimestampSet = false;
@@ -221,6 +227,7 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
   private void compactWithAlignedChunk(
       TsFileSequenceReader reader, AbstractAlignedChunkMetadata alignedChunkMetadata)
       throws IOException, PageException {
+    loadedChunkSize = 0;
     ChunkLoader timeChunk =
         getChunkLoader(reader, (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
     List<ChunkLoader> valueChunks = new ArrayList<>(schemaList.size());
@@ -236,6 +243,7 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
       valueChunks.add(getChunkLoader(reader, (ChunkMetadata) chunkMetadata));
     }
     summary.increaseProcessPointNum(pointNum);
+    recordMemoryCost(0);
     if (flushController.canFlushCurrentChunkWriter()) {
       flushCurrentChunkWriter();
     }
@@ -251,10 +259,25 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
     if (chunkMetadata == null || chunkMetadata.getStatistics().getCount() == 0) {
       return new InstantChunkLoader();
     }
+    if (enablePageStreaming
+        && reader instanceof CompactionTsFileReader
+        && !AlignedSeriesBatchCompactionUtils.isTimeChunk(chunkMetadata)) {
+      return new LazyChunkLoader((CompactionTsFileReader) reader, chunkMetadata);
+    }
     Chunk chunk = reader.readMemChunk(chunkMetadata);
+    loadedChunkSize += chunk.getHeader().getDataSize();
     return new InstantChunkLoader(reader.getFileName(), chunkMetadata, chunk);
   }
 
+  /**
+   * Record the memory cost of the loaded source chunks, the pages being deserialized and the chunk
+   * writer to the peak memory cost of the task.
+   */
+  protected void recordMemoryCost(long pageMemoryCost) {
+    summary.updatePeakMemoryCost(
+        loadedChunkSize + pageMemoryCost + chunkWriter.estimateMaxSeriesMemSize());
+  }
+
   protected void flushCurrentChunkWriter() throws IOException {
     chunkWriter.sealCurrentPage();
     writer.writeChunk(chunkWriter);
@@ -369,6 +392,7 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
       throws IOException {
     PageHeader timePageHeader = timePage.getHeader();
     ByteBuffer uncompressedTimePageData = timePage.getUnCompressedData();
+    long pageMemoryCost = uncompressedTimePageData.capacity();
     Decoder timeDecoder = Decoder.getDecoderByType(timePage.getEncoding(), TSDataType.INT64);
     TimePageReader timePageReader =
         new TimePageReader(timePageHeader, uncompressedTimePageData, timeDecoder);
@@ -381,10 +405,12 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
       PageLoader valuePage = valuePages.get(i);
       ValuePageReader valuePageReader = null;
       if (!valuePage.isEmpty()) {
+        ByteBuffer uncompressedValuePageData = valuePage.getUnCompressedData();
+        pageMemoryCost += uncompressedValuePageData.capacity();
         valuePageReader =
             new ValuePageReader(
                 valuePage.getHeader(),
-                valuePage.getUnCompressedData(),
+                uncompressedValuePageData,
                 valuePage.getDataType(),
                 Decoder.getDecoderByType(valuePage.getEncoding(), valuePage.getDataType()));
         valuePageReader.setDeleteIntervalList(valuePage.getDeleteIntervalList());
@@ -394,6 +420,7 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
       valuePageReaders.add(valuePageReader);
     }
     summary.increaseDeserializedPageNum(nonEmptyPageNum);
+    recordMemoryCost(pageMemoryCost);
 
     long processedPointNum = 0;
     IPointReader lazyPointReader = getPointReader(timePageReader, valuePageReaders);
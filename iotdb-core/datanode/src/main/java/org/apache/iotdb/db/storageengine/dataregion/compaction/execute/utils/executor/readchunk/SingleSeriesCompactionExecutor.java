@@ -132,6 +132,10 @@ public class SingleSeriesCompactionExecutor {
         if (this.chunkWriter == null) {
           constructChunkWriterFromReadChunk(currentChunk);
         }
+        summary.updatePeakMemoryCost(
+            getChunkSize(currentChunk)
+                + (cachedChunk == null ? 0 : getChunkSize(cachedChunk))
+                + chunkWriter.estimateMaxSeriesMemSize());
 
         // if this chunk is modified, deserialize it into points
         if (chunkMetadata.getDeleteIntervalList() != null) {
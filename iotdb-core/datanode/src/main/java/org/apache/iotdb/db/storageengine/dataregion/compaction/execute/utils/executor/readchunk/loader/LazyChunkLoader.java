@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileReader;
+
+import org.apache.tsfile.encrypt.EncryptParameter;
+import org.apache.tsfile.file.MetaMarker;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.read.common.Chunk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Different from {@link InstantChunkLoader}, this loader only reads the chunk header and the page
+ * headers of the chunk. The data of each page is read when the page is compacted, so the memory
+ * cost of one chunk is at most one page.
+ */
+public class LazyChunkLoader extends ChunkLoader {
+
+  private CompactionTsFileReader reader;
+  private ChunkHeader chunkHeader;
+  private Chunk chunk;
+
+  public LazyChunkLoader(CompactionTsFileReader reader, ChunkMetadata chunkMetadata) {
+    super(reader.getFileName(), chunkMetadata);
+    this.reader = reader;
+  }
+
+  @Override
+  public Chunk getChunk() throws IOException {
+    if (chunk == null && chunkMetadata != null) {
+      chunk = reader.readMemChunk(chunkMetadata);
+    }
+    return chunk;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return chunkMetadata == null
+        || chunkMetadata.getNumOfPoints() == 0
+        || this.modifiedStatus == ModifiedStatus.ALL_DELETED;
+  }
+
+  @Override
+  public ChunkHeader getHeader() throws IOException {
+    if (chunkMetadata == null) {
+      return null;
+    }
+    if (chunkHeader == null) {
+      chunkHeader = reader.readChunkHeader(chunkMetadata.getOffsetOfChunkHeader());
+    }
+    return chunkHeader;
+  }
+
+  @Override
+  public List<PageLoader> getPages() throws IOException {
+    ChunkHeader header = getHeader();
+    if (header == null) {
+      return Collections.emptyList();
+    }
+    boolean hasStatistic =
+        ((byte) (header.getChunkType() & 0x3F)) != MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER;
+    EncryptParameter encryptParam = reader.getEncryptParam();
+    long position = chunkMetadata.getOffsetOfChunkHeader() + header.getSerializedSize();
+    long endPosition = position + header.getDataSize();
+    List<PageLoader> pageList = new ArrayList<>();
+    while (position < endPosition) {
+      reader.position(position);
+      PageHeader pageHeader = reader.readPageHeader(header.getDataType(), hasStatistic);
+      if (!hasStatistic) {
+        // the page of the chunk with only one page shares the statistics of the chunk
+        pageHeader =
+            new PageHeader(
+                pageHeader.getUncompressedSize(),
+                pageHeader.getCompressedSize(),
+                chunkMetadata.getStatistics());
+      }
+      long pageDataOffset = reader.position();
+      ModifiedStatus pageModifiedStatus = calculatePageModifiedStatus(pageHeader);
+      pageHeader.setModified(pageModifiedStatus != ModifiedStatus.NONE_DELETED);
+      pageList.add(
+          new LazyPageLoader(
+              reader,
+              pageDataOffset,
+              file,
+              pageHeader,
+              header.getCompressionType(),
+              header.getDataType(),
+              header.getEncodingType(),
+              chunkMetadata,
+              pageModifiedStatus,
+              encryptParam));
+      position = pageDataOffset + pageHeader.getCompressedSize();
+    }
+    return pageList;
+  }
+
+  @Override
+  public void clear() {
+    this.chunk = null;
+    this.chunkHeader = null;
+    this.chunkMetadata = null;
+  }
+}
@@ -110,7 +110,7 @@ public abstract class PageLoader {
   }
 
   public abstract void flushToTimeChunkWriter(AlignedChunkWriterImpl alignedChunkWriter)
-      throws PageException;
+      throws IOException, PageException;
 
   public abstract void flushToValueChunkWriter(
       AlignedChunkWriterImpl alignedChunkWriter, int valueColumnIndex)
@@ -106,6 +106,7 @@ public class CompactionLogger implements AutoCloseable {
       case INNER_SEQ:
       case INNER_UNSEQ:
       case REPAIR:
+      case TIER_MIGRATION:
         logNameSuffix = INNER_COMPACTION_LOG_NAME_SUFFIX;
         break;
       case CROSS:
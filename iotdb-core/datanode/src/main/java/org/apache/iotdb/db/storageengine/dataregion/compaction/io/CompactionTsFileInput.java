@@ -23,6 +23,9 @@ import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.rescon.disk.DiskIOScheduler;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 
 import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.read.reader.TsFileInput;
@@ -42,9 +45,12 @@ public class CompactionTsFileInput implements TsFileInput {
   /** A flag that indicates if an aligned series is being read. */
   private volatile boolean readingAlignedSeries = false;
 
+  private final DiskIOScheduler diskIOScheduler;
+
   public CompactionTsFileInput(CompactionType compactionType, TsFileInput tsFileInput) {
     this.compactionType = compactionType;
     this.tsFileInput = tsFileInput;
+    this.diskIOScheduler = IOScheduler.getInstance().getDiskIOScheduler(tsFileInput.getFilePath());
   }
 
   public void setMetadataOffset(long metadataOffset) {
@@ -137,6 +143,7 @@ public class CompactionTsFileInput implements TsFileInput {
   private void acquireReadDataSizeWithCompactionReadRateLimiter(int readDataSize) {
     CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
     CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readDataSize);
+    diskIOScheduler.acquire(IOClass.COMPACTION, readDataSize);
   }
 
   private void updateMetrics(long position, long totalSize) {
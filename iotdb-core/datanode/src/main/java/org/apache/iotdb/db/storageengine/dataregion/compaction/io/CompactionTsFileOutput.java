@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
+import org.apache.iotdb.db.storageengine.rescon.disk.DiskIOScheduler;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+
 import com.google.common.util.concurrent.RateLimiter;
 import org.apache.tsfile.write.writer.TsFileOutput;
 
@@ -27,20 +30,27 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 public class CompactionTsFileOutput extends OutputStream implements TsFileOutput {
+  // the single bytes written are charged to the IO scheduler in blocks of this size
+  private static final int SCHEDULE_BLOCK_SIZE = 64 * 1024;
 
   private TsFileOutput output;
   private RateLimiter rateLimiter;
+  private final DiskIOScheduler diskIOScheduler;
   private final int maxSizePerWrite;
+  private int unscheduledBytes = 0;
 
-  public CompactionTsFileOutput(TsFileOutput output, RateLimiter rateLimiter) {
+  public CompactionTsFileOutput(
+      TsFileOutput output, RateLimiter rateLimiter, DiskIOScheduler diskIOScheduler) {
     this.output = output;
     this.rateLimiter = rateLimiter;
+    this.diskIOScheduler = diskIOScheduler;
     this.maxSizePerWrite = (int) Math.min((long) rateLimiter.getRate(), Integer.MAX_VALUE);
   }
 
   @Override
   public void write(int b) throws IOException {
     rateLimiter.acquire(1);
+    scheduleSingleByte();
     output.wrapAsStream().write(b);
   }
 
@@ -52,6 +62,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
   @Override
   public void write(byte b) throws IOException {
     rateLimiter.acquire(1);
+    scheduleSingleByte();
     output.write(b);
   }
 
@@ -60,6 +71,17 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
     write(b.array());
   }
 
+  private void scheduleSingleByte() {
+    if (++unscheduledBytes >= SCHEDULE_BLOCK_SIZE) {
+      scheduleUnscheduledBytes();
+    }
+  }
+
+  private void scheduleUnscheduledBytes() {
+    diskIOScheduler.acquire(IOClass.COMPACTION, unscheduledBytes);
+    unscheduledBytes = 0;
+  }
+
   @Override
   public long getPosition() throws IOException {
     return output.getPosition();
@@ -67,6 +89,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
 
   @Override
   public void close() throws IOException {
+    scheduleUnscheduledBytes();
     output.close();
   }
 
@@ -77,6 +100,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
 
   @Override
   public void flush() throws IOException {
+    scheduleUnscheduledBytes();
     output.flush();
   }
 
@@ -87,6 +111,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
 
   @Override
   public void force() throws IOException {
+    scheduleUnscheduledBytes();
     output.force();
   }
 
@@ -95,6 +120,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
     while (length > 0) {
       int writeSize = Math.min(length, maxSizePerWrite);
       rateLimiter.acquire(writeSize);
+      diskIOScheduler.acquire(IOClass.COMPACTION, writeSize);
       output.wrapAsStream().write(buf, start, writeSize);
       start += writeSize;
       length -= writeSize;
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 
 import org.apache.tsfile.enums.ColumnCategory;
 import org.apache.tsfile.enums.TSDataType;
@@ -58,7 +59,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     this.type = type;
     super.out =
         new CompactionTsFileOutput(
-            super.out, CompactionTaskManager.getInstance().getMergeWriteRateLimiter());
+            super.out,
+            CompactionTaskManager.getInstance().getMergeWriteRateLimiter(),
+            IOScheduler.getInstance().getDiskIOScheduler(file));
   }
 
   public void markStartingWritingAligned() {
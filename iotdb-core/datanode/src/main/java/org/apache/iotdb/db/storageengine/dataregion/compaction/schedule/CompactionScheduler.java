@@ -33,9 +33,11 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.ICompact
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.ICrossSpaceSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.RewriteCrossSpaceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SettleSelectorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.TierMigrationSelectorImpl;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossCompactionTaskResource;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCrossCompactionTaskResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 
 import org.slf4j.Logger;
@@ -114,6 +116,7 @@ public class CompactionScheduler {
       }
       tryToSubmitCrossSpaceCompactionTask(tsFileManager, timePartition, context);
       tryToSubmitSettleCompactionTask(tsFileManager, timePartition, context, false);
+      tryToSubmitTierMigrationTask(tsFileManager, timePartition, context);
     } catch (InterruptedException e) {
       throw e;
     } catch (Throwable e) {
@@ -357,4 +360,25 @@ public class CompactionScheduler {
     context.incrementSubmitTaskNum(CompactionTaskType.SETTLE, trySubmitCount);
     return trySubmitCount;
   }
+
+  public static int tryToSubmitTierMigrationTask(
+      TsFileManager tsFileManager, long timePartition, CompactionScheduleContext context)
+      throws InterruptedException {
+    if (!config.isEnableTierMigration() || TierManager.getInstance().getTiersNum() <= 1) {
+      return 0;
+    }
+    TierMigrationSelectorImpl selector =
+        new TierMigrationSelectorImpl(timePartition, tsFileManager);
+    List<AbstractCompactionTask> taskList = new ArrayList<>();
+    taskList.addAll(
+        selector.selectTierMigrationTask(tsFileManager.getTsFileListSnapshot(timePartition, true)));
+    taskList.addAll(
+        selector.selectTierMigrationTask(
+            tsFileManager.getTsFileListSnapshot(timePartition, false)));
+    // the name of this variable is trySubmitCount, because the task submitted to the queue could be
+    // evicted due to the low priority of the task
+    int trySubmitCount = addTaskToWaitingQueue(taskList);
+    context.incrementSubmitTaskNum(CompactionTaskType.TIER_MIGRATION, trySubmitCount);
+    return trySubmitCount;
+  }
 }
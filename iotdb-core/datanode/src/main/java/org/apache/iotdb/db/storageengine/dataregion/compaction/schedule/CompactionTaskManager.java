@@ -28,6 +28,7 @@ import org.apache.iotdb.commons.service.ServiceType;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
@@ -269,6 +270,13 @@ public class CompactionTaskManager implements IService {
         && !isTaskRunning(compactionTask)
         && compactionTask.setSourceFilesToCompactionCandidate()
         && compactionTask.getCompactionConfigVersion() >= getCurrentCompactionConfigVersion()) {
+      // the score must not change while the task is in the priority queue
+      double queryBenefitScore =
+          ReadAmplificationRecorder.getInstance().calculateQueryBenefitScore(compactionTask);
+      compactionTask.setQueryBenefitScore(queryBenefitScore);
+      CompactionMetrics.getInstance()
+          .updateCompactionTaskQueryBenefit(
+              compactionTask.getCompactionTaskType(), queryBenefitScore);
       candidateCompactionTaskQueue.put(compactionTask);
       return true;
     }
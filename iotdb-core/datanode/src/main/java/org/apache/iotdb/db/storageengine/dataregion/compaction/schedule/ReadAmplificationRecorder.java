@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CrossSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records the read amplification of each time partition, i.e. how many sequence and
+ * unsequence files are read by the queries on the partition. The recorded reads decay over time,
+ * so the partitions queried recently are hot. It scores the compaction tasks by the expected
+ * number of files no longer read by the queries per MB rewritten, so that the compaction of hot
+ * partitions is executed first.
+ */
+public class ReadAmplificationRecorder {
+
+  // the recorded reads are halved every 10 minutes
+  private static final long HALF_LIFE_IN_MS = TimeUnit.MINUTES.toMillis(10);
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+  // the statistics decayed below it are removed, i.e. one query not repeated for about 66 minutes
+  private static final double MIN_DECAYED_QUERY_NUM = 0.01;
+
+  // database-dataRegionId -> time partition -> read statistics
+  private final Map<String, Map<Long, PartitionReadStatistics>> regionReadStatistics =
+      new ConcurrentHashMap<>();
+
+  private ReadAmplificationRecorder() {}
+
+  /** Record the sequence and unsequence files read by one query on the data region. */
+  public void recordQuery(
+      String databaseName,
+      String dataRegionId,
+      List<TsFileResource> seqResources,
+      List<TsFileResource> unseqResources) {
+    if (seqResources.isEmpty() && unseqResources.isEmpty()) {
+      return;
+    }
+    // time partition -> [seq file num, unseq file num]
+    Map<Long, int[]> fileNumOfPartitions = new HashMap<>();
+    for (TsFileResource resource : seqResources) {
+      fileNumOfPartitions.computeIfAbsent(resource.getTimePartition(), k -> new int[2])[0]++;
+    }
+    for (TsFileResource resource : unseqResources) {
+      fileNumOfPartitions.computeIfAbsent(resource.getTimePartition(), k -> new int[2])[1]++;
+    }
+    long currentTime = System.currentTimeMillis();
+    Map<Long, PartitionReadStatistics> partitionReadStatistics =
+        regionReadStatistics.computeIfAbsent(
+            getRegionKey(databaseName, dataRegionId), k -> new ConcurrentHashMap<>());
+    for (Map.Entry<Long, int[]> entry : fileNumOfPartitions.entrySet()) {
+      partitionReadStatistics
+          .computeIfAbsent(entry.getKey(), k -> new PartitionReadStatistics(currentTime))
+          .record(entry.getValue()[0], entry.getValue()[1], currentTime);
+    }
+  }
+
+  /**
+   * @return the average number of files in the space read by one query on the time partition
+   */
+  public double getReadAmplification(
+      String databaseName, String dataRegionId, long timePartition, boolean sequence) {
+    PartitionReadStatistics statistics =
+        getPartitionReadStatistics(databaseName, dataRegionId, timePartition);
+    if (statistics == null) {
+      return 0;
+    }
+    double[] snapshot = statistics.snapshot(System.currentTimeMillis());
+    return snapshot[0] == 0 ? 0 : (sequence ? snapshot[1] : snapshot[2]) / snapshot[0];
+  }
+
+  /**
+   * The score is the decayed number of the file reads saved for the queries on the time partition
+   * per MB rewritten by the task. Compacting n files of one space into one saves at most n - 1 file
+   * reads for each query, and a cross space compaction saves at most the number of its unsequence
+   * files. The score is 0 if the time partition is not queried recently.
+   */
+  public double calculateQueryBenefitScore(AbstractCompactionTask task) {
+    PartitionReadStatistics statistics =
+        getPartitionReadStatistics(
+            task.getStorageGroupName(), task.getDataRegionId(), task.getTimePartition());
+    if (statistics == null) {
+      return 0;
+    }
+    double[] snapshot = statistics.snapshot(System.currentTimeMillis());
+    double queryNum = snapshot[0];
+    double savedFileReadsPerQuery;
+    if (task instanceof InnerSpaceCompactionTask) {
+      InnerSpaceCompactionTask innerSpaceTask = (InnerSpaceCompactionTask) task;
+      double readAmplification =
+          queryNum == 0 ? 0 : (innerSpaceTask.isSequence() ? snapshot[1] : snapshot[2]) / queryNum;
+      savedFileReadsPerQuery =
+          Math.min(innerSpaceTask.getSelectedTsFileResourceList().size() - 1, readAmplification);
+    } else if (task instanceof CrossSpaceCompactionTask) {
+      double readAmplification = queryNum == 0 ? 0 : snapshot[2] / queryNum;
+      savedFileReadsPerQuery =
+          Math.min(
+              ((CrossSpaceCompactionTask) task).getSelectedUnsequenceFiles().size(),
+              readAmplification);
+    } else {
+      return 0;
+    }
+    if (savedFileReadsPerQuery <= 0) {
+      return 0;
+    }
+    return queryNum
+        * savedFileReadsPerQuery
+        / Math.max(task.getSelectedFileSize() / BYTES_PER_MB, 1);
+  }
+
+  /**
+   * Called by the ttl check of the data region. Remove the statistics of the time partitions that
+   * no longer have any file, i.e. dropped or outdated by ttl, and of the time partitions not
+   * queried for a long time.
+   *
+   * @param timePartitions the time partitions that still have files in the data region
+   */
+  public void removeOutdatedPartitions(
+      String databaseName, String dataRegionId, Set<Long> timePartitions) {
+    Map<Long, PartitionReadStatistics> partitionReadStatistics =
+        regionReadStatistics.get(getRegionKey(databaseName, dataRegionId));
+    if (partitionReadStatistics == null) {
+      return;
+    }
+    long currentTime = System.currentTimeMillis();
+    partitionReadStatistics
+        .entrySet()
+        .removeIf(
+            entry ->
+                !timePartitions.contains(entry.getKey())
+                    || entry.getValue().snapshot(currentTime)[0] < MIN_DECAYED_QUERY_NUM);
+  }
+
+  /** Called when the data region is deleted. */
+  public void removeDataRegion(String databaseName, String dataRegionId) {
+    regionReadStatistics.remove(getRegionKey(databaseName, dataRegionId));
+  }
+
+  @TestOnly
+  public void clear() {
+    regionReadStatistics.clear();
+  }
+
+  private PartitionReadStatistics getPartitionReadStatistics(
+      String databaseName, String dataRegionId, long timePartition) {
+    Map<Long, PartitionReadStatistics> partitionReadStatistics =
+        regionReadStatistics.get(getRegionKey(databaseName, dataRegionId));
+    return partitionReadStatistics == null ? null : partitionReadStatistics.get(timePartition);
+  }
+
+  private static String getRegionKey(String databaseName, String dataRegionId) {
+    return databaseName + "-" + dataRegionId;
+  }
+
+  private static class PartitionReadStatistics {
+
+    private double queryNum = 0;
+    private double seqFileNum = 0;
+    private double unseqFileNum = 0;
+    private long lastDecayTime;
+
+    private PartitionReadStatistics(long currentTime) {
+      this.lastDecayTime = currentTime;
+    }
+
+    private synchronized void record(int seqFileNum, int unseqFileNum, long currentTime) {
+      decay(currentTime);
+      this.queryNum++;
+      this.seqFileNum += seqFileNum;
+      this.unseqFileNum += unseqFileNum;
+    }
+
+    /**
+     * @return [query num, seq file num, unseq file num]
+     */
+    private synchronized double[] snapshot(long currentTime) {
+      decay(currentTime);
+      return new double[] {queryNum, seqFileNum, unseqFileNum};
+    }
+
+    private void decay(long currentTime) {
+      if (currentTime <= lastDecayTime) {
+        return;
+      }
+      double factor = Math.pow(0.5, (double) (currentTime - lastDecayTime) / HALF_LIFE_IN_MS);
+      queryNum *= factor;
+      seqFileNum *= factor;
+      unseqFileNum *= factor;
+      lastDecayTime = currentTime;
+    }
+  }
+
+  public static ReadAmplificationRecorder getInstance() {
+    return ReadAmplificationRecorderHolder.INSTANCE;
+  }
+
+  private static class ReadAmplificationRecorderHolder {
+
+    private static final ReadAmplificationRecorder INSTANCE = new ReadAmplificationRecorder();
+
+    private ReadAmplificationRecorderHolder() {}
+  }
+}
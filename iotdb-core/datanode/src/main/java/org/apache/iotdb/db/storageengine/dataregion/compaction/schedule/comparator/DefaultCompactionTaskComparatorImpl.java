@@ -27,6 +27,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Inne
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InsertionCrossSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.RepairUnsortedFileCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.TierMigrationCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
@@ -61,6 +62,14 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
     } else if (o2 instanceof SettleCompactionTask) {
       return 1;
     }
+    // tier migration only reduces the cost of storage, so it has the lowest priority
+    if (o1 instanceof TierMigrationCompactionTask && o2 instanceof TierMigrationCompactionTask) {
+      return o1.getSerialId() < o2.getSerialId() ? -1 : 1;
+    } else if (o1 instanceof TierMigrationCompactionTask) {
+      return 1;
+    } else if (o2 instanceof TierMigrationCompactionTask) {
+      return -1;
+    }
 
     if ((((o1 instanceof InnerSpaceCompactionTask) && (o2 instanceof CrossSpaceCompactionTask))
         || ((o2 instanceof InnerSpaceCompactionTask)
@@ -90,6 +99,11 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
 
   public int compareInnerSpaceCompactionTask(
       InnerSpaceCompactionTask o1, InnerSpaceCompactionTask o2) {
+    int cmp = compareQueryBenefitScore(o1, o2);
+    if (cmp != 0) {
+      return cmp;
+    }
+
     // If the average file size of the two compaction tasks differs by more than 10%,
     // we prefer to execute task with smaller avg file size
     double avgFileSize1 = o1.getAvgFileSize();
@@ -141,6 +155,11 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
 
   public int compareCrossSpaceCompactionTask(
       CrossSpaceCompactionTask o1, CrossSpaceCompactionTask o2) {
+    int cmp = compareQueryBenefitScore(o1, o2);
+    if (cmp != 0) {
+      return cmp;
+    }
+
     // if the time partition of o1 and o2 are different
     // we prefer to execute task with greater time partition
     // because we want to compact files with new data
@@ -165,6 +184,18 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
     return o2.getSelectedUnsequenceFiles().size() - o1.getSelectedUnsequenceFiles().size();
   }
 
+  private int compareQueryBenefitScore(AbstractCompactionTask o1, AbstractCompactionTask o2) {
+    // If the query benefit scores of the two compaction tasks differ by more than 10%,
+    // we prefer to execute task saving more file reads of the queries per byte rewritten,
+    // so that the time partitions queried frequently are compacted first
+    double score1 = o1.getQueryBenefitScore();
+    double score2 = o2.getQueryBenefitScore();
+    if (10 * Math.abs(score1 - score2) > Math.max(score1, score2)) {
+      return Double.compare(score2, score1);
+    }
+    return 0;
+  }
+
   public int compareSettleCompactionTask(SettleCompactionTask o1, SettleCompactionTask o2) {
     // we prefer the task with more all_deleted files
     if (o1.getFullyDirtyFiles().size() != o2.getFullyDirtyFiles().size()) {
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator;
 
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils.AlignedSeriesBatchCompactionUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
@@ -58,10 +59,8 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
     }
     long averageChunkSize = taskInfo.getTotalFileSize() / taskInfo.getTotalChunkNum();
 
-    int batchSize = config.getCompactionMaxAlignedSeriesNumInOneBatch();
-    int maxConcurrentSeriesNum =
-        Math.min(
-            batchSize <= 0 ? Integer.MAX_VALUE : batchSize, taskInfo.getMaxConcurrentSeriesNum());
+    int batchSize = AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch();
+    int maxConcurrentSeriesNum = Math.min(batchSize, taskInfo.getMaxConcurrentSeriesNum());
 
     long maxConcurrentSeriesSizeOfTotalFiles =
         averageChunkSize
@@ -75,6 +74,14 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
 
     long chunkSizeFromSourceFile =
         (averageChunkSize + tsFileConfig.getPageSizeInByte()) * maxConcurrentSeriesNum;
+    if (config.isEnablePageStreamingInAlignedCompaction()) {
+      // only the time chunk is loaded, each value chunk read page by page costs a compressed and
+      // an uncompressed page at most
+      chunkSizeFromSourceFile =
+          averageChunkSize
+              + tsFileConfig.getPageSizeInByte()
+              + 2L * tsFileConfig.getPageSizeInByte() * maxConcurrentSeriesNum;
+    }
 
     return targetChunkWriterSize + chunkSizeFromSourceFile + taskInfo.getModificationFileSize();
   }
@@ -93,8 +100,19 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
     long maxChunkSize = config.getTargetChunkSize();
     long maxPageSize = tsFileConfig.getPageSizeInByte();
     // source files (chunk + uncompressed page)
+    long sourceFileMemCost = maxConcurrentSeriesNum * (maxChunkSize + maxPageSize);
+    if (config.isEnablePageStreamingInAlignedCompaction()) {
+      // the too wide devices are split into column groups, only the time chunk is loaded and the
+      // value chunks are read page by page (compressed page + uncompressed page)
+      maxConcurrentSeriesNum =
+          Math.min(
+              maxConcurrentSeriesNum,
+              AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch());
+      sourceFileMemCost = maxChunkSize + maxPageSize + 2L * maxConcurrentSeriesNum * maxPageSize;
+    }
     // target file (chunk + unsealed page writer)
-    return 2 * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
+    return sourceFileMemCost
+        + maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
         + fixedMemoryBudget
         + metadataInfo.metadataMemCost;
   }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.TierMigrationCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import org.apache.tsfile.utils.FSUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Select the sealed TsFiles to be migrated to the next tier. A TsFile is selected when all its data
+ * has exceeded the tier_ttl_in_ms of its tier and it has not been queried for
+ * tier_migration_min_idle_time_in_ms, so that the files still read frequently stay in the faster
+ * tiers. At most one task is selected in each call to bound the IO spent on migration.
+ */
+public class TierMigrationSelectorImpl {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final long timePartition;
+  private final TsFileManager tsFileManager;
+
+  public TierMigrationSelectorImpl(long timePartition, TsFileManager tsFileManager) {
+    this.timePartition = timePartition;
+    this.tsFileManager = tsFileManager;
+  }
+
+  public List<TierMigrationCompactionTask> selectTierMigrationTask(
+      List<TsFileResource> resources) {
+    long[] tierTTLInMs = CommonDescriptor.getInstance().getConfig().getTierTTLInMs();
+    long currentTime = CommonDateTimeUtils.currentTime();
+    long lastQueryTimeThreshold =
+        System.currentTimeMillis() - config.getTierMigrationMinIdleTimeInMs();
+    for (TsFileResource resource : resources) {
+      int tierLevel = resource.getTierLevel();
+      if (!canMigrateToTier(tierLevel + 1, tierTTLInMs.length)
+          || tierLevel >= tierTTLInMs.length
+          || tierTTLInMs[tierLevel] == Long.MAX_VALUE
+          || resource.getStatus() != TsFileResourceStatus.NORMAL
+          || !resource.getTsFileRepairStatus().isNormalCompactionCandidate()
+          || resource.getLastQueryTime() > lastQueryTimeThreshold
+          || !isExpired(resource.getFileEndTime(), tierTTLInMs[tierLevel], currentTime)) {
+        continue;
+      }
+      return Collections.singletonList(
+          new TierMigrationCompactionTask(
+              timePartition, tsFileManager, resource, tsFileManager.getNextCompactionTaskId()));
+    }
+    return Collections.emptyList();
+  }
+
+  private static boolean canMigrateToTier(int targetTierLevel, int tiersNum) {
+    if (targetTierLevel >= Math.min(TierManager.getInstance().getTiersNum(), tiersNum)) {
+      return false;
+    }
+    // the compaction writer can only write to local disks
+    return Arrays.stream(config.getTierDataDirs()[targetTierLevel]).allMatch(FSUtils::isLocal);
+  }
+
+  private static boolean isExpired(long endTime, long ttlInMs, long currentTime) {
+    long ttl =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            ttlInMs, CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    if (currentTime <= endTime) {
+      return false;
+    }
+    long outdatedTimeDiff = currentTime - endTime;
+    if (endTime < 0 && outdatedTimeDiff < currentTime) {
+      // overflow, like 100 - Long.MIN
+      outdatedTimeDiff = Long.MAX_VALUE;
+    }
+    return outdatedTimeDiff > ttl;
+  }
+}
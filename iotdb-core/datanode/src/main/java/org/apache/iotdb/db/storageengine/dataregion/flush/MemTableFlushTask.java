@@ -31,6 +31,9 @@ import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedWritableMemC
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOClass;
+import org.apache.iotdb.db.storageengine.rescon.disk.IOScheduler;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.BatchEncodeInfo;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -91,6 +94,11 @@ public class MemTableFlushTask {
   private final BatchEncodeInfo encodeInfo;
   private long[] times;
 
+  // null if the sketches of the TsFile are not built
+  private final TsFileSketch sketch;
+  // the device of the series being encoded, only accessed by the encoding task
+  private IDeviceID encodingDeviceID;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -101,7 +109,21 @@ public class MemTableFlushTask {
       RestorableTsFileIOWriter writer,
       String storageGroup,
       String dataRegionId) {
+    this(memTable, writer, storageGroup, dataRegionId, null);
+  }
+
+  /**
+   * @param sketch the sketches of the TsFile which the flushed points are added to, null if they
+   *     are not built
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      String dataRegionId,
+      TsFileSketch sketch) {
     this.memTable = memTable;
+    this.sketch = sketch;
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.dataRegionId = dataRegionId;
@@ -250,6 +272,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                encodingDeviceID = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -272,6 +297,10 @@ public class MemTableFlushTask {
                 times = new long[MAX_NUMBER_OF_POINTS_IN_PAGE];
               }
               writableMemChunk.encode(ioTaskQueue, encodeInfo, times);
+              if (sketch != null) {
+                writableMemChunk.updateSketch(
+                    encodingDeviceID, sketch, MAX_NUMBER_OF_POINTS_IN_PAGE);
+              }
               long subTaskTime = System.currentTimeMillis() - starTime;
               WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
               memSerializeTime += subTaskTime;
@@ -368,6 +397,10 @@ public class MemTableFlushTask {
             ioTime);
         WRITING_METRICS.recordFlushTsFileSize(storageGroup, writer.getFile().length());
         WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_IO, ioTime);
+        IOScheduler.getInstance()
+            .getDiskIOScheduler(writer.getFile())
+            .recordLatency(
+                IOClass.FLUSH, writer.getFile().length(), TimeUnit.MILLISECONDS.toNanos(ioTime));
       };
 
   static class TaskEnd {
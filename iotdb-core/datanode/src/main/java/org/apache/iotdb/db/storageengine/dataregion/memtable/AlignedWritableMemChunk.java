@@ -22,16 +22,20 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALWriteUtils;
 import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
 import org.apache.iotdb.db.utils.datastructure.BatchEncodeInfo;
+import org.apache.iotdb.db.utils.datastructure.BinaryDictionary;
 import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
 import org.apache.iotdb.db.utils.datastructure.MemPointIteratorFactory;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.Pair;
@@ -80,6 +84,7 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
       dataTypes.add(schemaList.get(i).getType());
     }
     this.list = AlignedTVList.newAlignedList(dataTypes);
+    this.list.initDictionaries();
     this.sortedList = new ArrayList<>();
     this.ignoreAllNullRows = !isTableModel;
   }
@@ -193,7 +198,9 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     }
     sortedList.add(list);
     this.sortedRowCount += list.rowCount();
+    List<BinaryDictionary> dictionaries = list.getDictionaries();
     this.list = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
+    this.list.setDictionaries(dictionaries);
     this.dataTypes = list.getTsDataTypes();
   }
 
@@ -338,6 +345,12 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     this.list = (AlignedTVList) list;
   }
 
+  @Override
+  public BinaryDictionary getDictionary(String measurement) {
+    Integer index = measurementIndexMap.get(measurement);
+    return index == null ? null : list.getDictionary(index);
+  }
+
   @Override
   public long count() {
     if (!ignoreAllNullRows && measurementIndexMap.isEmpty()) {
@@ -695,6 +708,28 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     }
   }
 
+  @Override
+  public synchronized void updateSketch(
+      IDeviceID deviceID, TsFileSketch sketch, int maxNumberOfPointsInPage) {
+    List<AlignedTVList> alignedTvLists = new ArrayList<>(sortedList);
+    alignedTvLists.add(list);
+    List<Integer> columnIndexList = buildColumnIndexList(schemaList);
+    MemPointIterator timeValuePairIterator =
+        MemPointIteratorFactory.create(
+            dataTypes, columnIndexList, alignedTvLists, ignoreAllNullRows, maxNumberOfPointsInPage);
+    while (timeValuePairIterator.hasNextBatch()) {
+      TsBlock tsBlock = timeValuePairIterator.nextBatch();
+      for (int i = 0; i < schemaList.size(); i++) {
+        IMeasurementSchema measurementSchema = schemaList.get(i);
+        sketch.update(
+            deviceID,
+            measurementSchema.getMeasurementName(),
+            measurementSchema.getType(),
+            tsBlock.getColumn(i));
+      }
+    }
+  }
+
   @Override
   public void release() {
     maybeReleaseTvList(list);
@@ -19,11 +19,14 @@
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntryValue;
 import org.apache.iotdb.db.utils.datastructure.BatchEncodeInfo;
+import org.apache.iotdb.db.utils.datastructure.BinaryDictionary;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.write.chunk.IChunkWriter;
@@ -114,6 +117,12 @@ public interface IWritableMemChunk extends WALEntryValue {
 
   void encode(BlockingQueue<Object> ioTaskQueue, BatchEncodeInfo encodeInfo, long[] times);
 
+  /**
+   * Add the points to be flushed to the sketches of the TsFile, it should be called after {@link
+   * #sortTvListForFlush()}.
+   */
+  void updateSketch(IDeviceID deviceID, TsFileSketch sketch, int maxNumberOfPointsInPage);
+
   void release();
 
   long getFirstPoint();
@@ -126,5 +135,11 @@ public interface IWritableMemChunk extends WALEntryValue {
 
   TVList getWorkingTVList();
 
+  /**
+   * @return the dictionary of the binary measurement, null if the measurement is not binary or the
+   *     dictionary is disabled
+   */
+  BinaryDictionary getDictionary(String measurement);
+
   void setWorkingTVList(TVList list);
 }
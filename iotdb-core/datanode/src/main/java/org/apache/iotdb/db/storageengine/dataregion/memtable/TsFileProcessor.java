@@ -64,6 +64,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskAlign
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.UnclosedFileScanHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.utils.SharedTimeDataBuffer;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
@@ -97,6 +98,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -161,6 +163,12 @@ public class TsFileProcessor {
   /** A lock to mutual exclude read and read */
   private final ReadWriteLock flushQueryLock = new ReentrantReadWriteLock();
 
+  /**
+   * Inserts into this processor hold the write lock and queries of its memtables hold the read
+   * lock, so that inserts into different processors of a data region can run concurrently.
+   */
+  private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+
   /**
    * It is set by the StorageGroupProcessor and checked by flush threads. (If shouldClose == true
    * and its flushingMemTables are all flushed, then the flush thread will close this file.)
@@ -181,9 +189,21 @@ public class TsFileProcessor {
   /** Wal node. */
   private final IWALNode walNode;
 
+  /**
+   * Whether the data region belongs to the wal_free_databases. The insert nodes of such region
+   * have no wal entries, so pipe captures its data from the sealed TsFiles instead.
+   */
+  private final boolean walFree;
+
   /** Whether it's a sequence file or not. */
   private final boolean sequence;
 
+  /**
+   * Sketches of the series flushed into the sequence TsFile, null if they are not built or have
+   * been dropped because of a flush failure or their size.
+   */
+  private TsFileSketch sketch;
+
   /** Total memtable size for mem control. */
   private long totalMemTableSize;
 
@@ -222,10 +242,11 @@ public class TsFileProcessor {
     this.tsFileResource = new TsFileResource(tsfile, this);
     this.dataRegionInfo = dataRegionInfo;
     this.writer = new RestorableTsFileIOWriter(tsfile);
+    // a reopened TsFile has no sketch, since the points flushed before restarting are unknown
+    this.sketch = sequence && config.isEnableSeriesSketch() ? new TsFileSketch() : null;
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
-    this.walNode =
-        WALManager.getInstance()
-            .applyForWALNode(WALManager.getApplicantUniqueId(dataRegionName, sequence));
+    this.walNode = WALManager.getInstance().applyForWALNode(dataRegionName, sequence);
+    this.walFree = WALManager.isWALFreeDataRegion(dataRegionName);
     flushListeners.add(FlushListener.DefaultMemTableFLushListener.INSTANCE);
     flushListeners.add(this.walNode);
     closeFileListeners.add(closeUnsealedTsFileProcessor);
@@ -247,9 +268,8 @@ public class TsFileProcessor {
     this.writer = writer;
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
-    this.walNode =
-        WALManager.getInstance()
-            .applyForWALNode(WALManager.getApplicantUniqueId(dataRegionName, sequence));
+    this.walNode = WALManager.getInstance().applyForWALNode(dataRegionName, sequence);
+    this.walFree = WALManager.isWALFreeDataRegion(dataRegionName);
     flushListeners.add(FlushListener.DefaultMemTableFLushListener.INSTANCE);
     flushListeners.add(this.walNode);
     closeFileListeners.add(closeUnsealedTsFileProcessor);
@@ -328,13 +348,15 @@ public class TsFileProcessor {
     if (!insertRowNode.isGeneratedByPipe()) {
       workMemTable.markAsNotGeneratedByPipe();
     }
-    PipeInsertionDataNodeListener.getInstance()
-        .listenToInsertNode(
-            dataRegionInfo.getDataRegion().getDataRegionId(),
-            dataRegionInfo.getDataRegion().getDatabaseName(),
-            walFlushListener.getWalEntryHandler(),
-            insertRowNode,
-            tsFileResource);
+    if (!walFree) {
+      PipeInsertionDataNodeListener.getInstance()
+          .listenToInsertNode(
+              dataRegionInfo.getDataRegion().getDataRegionId(),
+              dataRegionInfo.getDataRegion().getDatabaseName(),
+              walFlushListener.getWalEntryHandler(),
+              insertRowNode,
+              tsFileResource);
+    }
 
     int pointInserted;
     if (insertRowNode.isAligned()) {
@@ -425,13 +447,15 @@ public class TsFileProcessor {
     if (!insertRowsNode.isGeneratedByPipe()) {
       workMemTable.markAsNotGeneratedByPipe();
     }
-    PipeInsertionDataNodeListener.getInstance()
-        .listenToInsertNode(
-            dataRegionInfo.getDataRegion().getDataRegionId(),
-            dataRegionInfo.getDataRegion().getDatabaseName(),
-            walFlushListener.getWalEntryHandler(),
-            insertRowsNode,
-            tsFileResource);
+    if (!walFree) {
+      PipeInsertionDataNodeListener.getInstance()
+          .listenToInsertNode(
+              dataRegionInfo.getDataRegion().getDataRegionId(),
+              dataRegionInfo.getDataRegion().getDatabaseName(),
+              walFlushListener.getWalEntryHandler(),
+              insertRowsNode,
+              tsFileResource);
+    }
 
     int pointInserted = 0;
     for (InsertRowNode insertRowNode : insertRowsNode.getInsertRowNodeList()) {
@@ -598,13 +622,15 @@ public class TsFileProcessor {
     if (!insertTabletNode.isGeneratedByPipe()) {
       workMemTable.markAsNotGeneratedByPipe();
     }
-    PipeInsertionDataNodeListener.getInstance()
-        .listenToInsertNode(
-            dataRegionInfo.getDataRegion().getDataRegionId(),
-            dataRegionInfo.getDataRegion().getDatabaseName(),
-            walFlushListener.getWalEntryHandler(),
-            insertTabletNode,
-            tsFileResource);
+    if (!walFree) {
+      PipeInsertionDataNodeListener.getInstance()
+          .listenToInsertNode(
+              dataRegionInfo.getDataRegion().getDataRegionId(),
+              dataRegionInfo.getDataRegion().getDatabaseName(),
+              walFlushListener.getWalEntryHandler(),
+              insertTabletNode,
+              tsFileResource);
+    }
 
     int pointInserted = 0;
     for (int[] rangePair : rangeList) {
@@ -687,7 +713,7 @@ public class TsFileProcessor {
       }
       // TEXT data mem size
       if (dataTypes[i].isBinary() && values[i] != null) {
-        textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
+        textDataIncrement += getTextDataIncrement(memChunk, measurements[i], (Binary) values[i]);
       }
     }
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
@@ -740,7 +766,7 @@ public class TsFileProcessor {
         }
         // TEXT data mem size
         if (dataTypes[i].isBinary() && values[i] != null) {
-          textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
+          textDataIncrement += getTextDataIncrement(memChunk, measurements[i], (Binary) values[i]);
         }
       }
     }
@@ -803,7 +829,7 @@ public class TsFileProcessor {
     for (int i = 0; i < dataTypes.length; i++) {
       // TEXT data mem size
       if (dataTypes[i] != null && dataTypes[i].isBinary() && values[i] != null) {
-        textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
+        textDataIncrement += getTextDataIncrement(memChunk, measurements[i], (Binary) values[i]);
       }
     }
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
@@ -907,7 +933,7 @@ public class TsFileProcessor {
         }
         // TEXT data mem size
         if (dataTypes[i].isBinary() && values[i] != null) {
-          textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
+          textDataIncrement += getTextDataIncrement(memChunk, measurements[i], (Binary) values[i]);
         }
       }
     }
@@ -1011,7 +1037,13 @@ public class TsFileProcessor {
     // TEXT data size
     if (dataType.isBinary()) {
       Binary[] binColumn = (Binary[]) column;
-      memIncrements[1] += MemUtils.getBinaryColumnSize(binColumn, start, end, null);
+      memIncrements[1] +=
+          MemUtils.getBinaryColumnSize(
+              binColumn,
+              start,
+              end,
+              null,
+              memChunk == null ? null : memChunk.getDictionary(measurement));
     }
   }
 
@@ -1121,11 +1153,24 @@ public class TsFileProcessor {
 
       if (dataType.isBinary()) {
         Binary[] binColumn = (Binary[]) columns[i];
-        memIncrements[1] += MemUtils.getBinaryColumnSize(binColumn, start, end, results);
+        memIncrements[1] +=
+            MemUtils.getBinaryColumnSize(
+                binColumn,
+                start,
+                end,
+                results,
+                memChunk == null ? null : memChunk.getDictionary(measurement));
       }
     }
   }
 
+  /** The values interned by the dictionary of the column cost no extra memory. */
+  private static long getTextDataIncrement(
+      IWritableMemChunk memChunk, String measurement, Binary value) {
+    return MemUtils.getBinarySize(
+        value, memChunk == null ? null : memChunk.getDictionary(measurement));
+  }
+
   private void updateMemoryInfo(
       long memTableIncrement, long chunkMetadataIncrement, long textDataIncrement)
       throws WriteProcessRejectException {
@@ -1538,10 +1583,22 @@ public class TsFileProcessor {
                   memTableToFlush,
                   writer,
                   dataRegionName,
-                  dataRegionInfo.getDataRegion().getDataRegionId());
+                  dataRegionInfo.getDataRegion().getDataRegionId(),
+                  sketch);
           flushTask.syncFlushMemTable();
           memTableFlushPointCount = memTableToFlush.getTotalPointsNum();
+          if (sketch != null
+              && sketch.getEstimatedSize() > config.getSeriesSketchMaxSizePerFileInByte()) {
+            logger.info(
+                "{}: sketches of {} exceed {} bytes, stop building them",
+                dataRegionName,
+                tsFileResource.getTsFile().getName(),
+                config.getSeriesSketchMaxSizePerFileInByte());
+            sketch = null;
+          }
         } catch (Throwable e) {
+          // the sketches may contain the points truncated from the TsFile
+          sketch = null;
           if (writer == null) {
             logger.info(
                 "{}: {} is closed during flush, abandon flush task",
@@ -1740,6 +1797,15 @@ public class TsFileProcessor {
     }
     writer.endFile();
     tsFileResource.serialize();
+    if (sketch != null) {
+      try {
+        sketch.serialize(tsFileResource.getTsFile());
+      } catch (IOException e) {
+        logger.warn("Failed to write the sketches of {}", tsFileResource.getTsFile(), e);
+        Files.deleteIfExists(TsFileSketch.getSketchFile(tsFileResource.getTsFile()).toPath());
+      }
+      sketch = null;
+    }
     FileTimeIndexCacheRecorder.getInstance().logFileTimeIndex(tsFileResource);
     if (logger.isDebugEnabled()) {
       logger.debug("Ended file {}", tsFileResource);
@@ -1970,6 +2036,8 @@ public class TsFileProcessor {
       Map<IDeviceID, Map<String, List<IChunkHandle>>> deviceToMemChunkHandleMap = new HashMap<>();
       Map<IDeviceID, Map<String, List<IChunkMetadata>>> deviceToChunkMetadataListMap =
           new HashMap<>();
+      // the working memtable must not be modified by concurrent inserts when being queried
+      insertLock.readLock().lock();
       flushQueryLock.readLock().lock();
       try {
         for (IFullPath seriesPath : pathList) {
@@ -2030,6 +2098,7 @@ public class TsFileProcessor {
 
         flushQueryLock.readLock().unlock();
         logFlushQueryReadUnlocked();
+        insertLock.readLock().unlock();
       }
       if (!deviceToMemChunkHandleMap.isEmpty() || !deviceToChunkMetadataListMap.isEmpty()) {
         fileScanHandlesForQuery.add(
@@ -2055,6 +2124,8 @@ public class TsFileProcessor {
       Map<IDeviceID, Map<String, List<IChunkHandle>>> deviceToMemChunkHandleMap = new HashMap<>();
       Map<IDeviceID, Map<String, List<IChunkMetadata>>> deviceToChunkMetadataListMap =
           new HashMap<>();
+      // the working memtable must not be modified by concurrent inserts when being queried
+      insertLock.readLock().lock();
       flushQueryLock.readLock().lock();
       try {
         for (Map.Entry<IDeviceID, DeviceContext> entry : devicePathsToContext.entrySet()) {
@@ -2112,6 +2183,7 @@ public class TsFileProcessor {
 
         flushQueryLock.readLock().unlock();
         logFlushQueryReadUnlocked();
+        insertLock.readLock().unlock();
       }
 
       if (!deviceToMemChunkHandleMap.isEmpty() || !deviceToChunkMetadataListMap.isEmpty()) {
@@ -2143,6 +2215,8 @@ public class TsFileProcessor {
       Map<IFullPath, List<IChunkMetadata>> pathToChunkMetadataListMap = new HashMap<>();
       Map<IFullPath, List<ReadOnlyMemChunk>> pathToReadOnlyMemChunkMap = new HashMap<>();
 
+      // the working memtable must not be modified by concurrent inserts when being queried
+      insertLock.readLock().lock();
       flushQueryLock.readLock().lock();
       try {
         for (IFullPath seriesPath : seriesPaths) {
@@ -2191,6 +2265,7 @@ public class TsFileProcessor {
 
         flushQueryLock.readLock().unlock();
         logFlushQueryReadUnlocked();
+        insertLock.readLock().unlock();
       }
 
       if (!pathToReadOnlyMemChunkMap.isEmpty() || !pathToChunkMetadataListMap.isEmpty()) {
@@ -2313,6 +2388,10 @@ public class TsFileProcessor {
     return flushQueryLock;
   }
 
+  public ReadWriteLock getInsertLock() {
+    return insertLock;
+  }
+
   private void logFlushQueryWriteLocked() {
     if (logger.isDebugEnabled()) {
       logger.debug(FLUSH_QUERY_WRITE_LOCKED, dataRegionName, tsFileResource.getTsFile().getName());
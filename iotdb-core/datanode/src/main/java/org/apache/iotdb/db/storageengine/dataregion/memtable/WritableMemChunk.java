@@ -22,14 +22,18 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.utils.ModificationUtils;
 import org.apache.iotdb.db.utils.datastructure.BatchEncodeInfo;
+import org.apache.iotdb.db.utils.datastructure.BinaryDictionary;
+import org.apache.iotdb.db.utils.datastructure.BinaryTVList;
 import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
 import org.apache.iotdb.db.utils.datastructure.MemPointIteratorFactory;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.utils.Binary;
@@ -68,6 +72,9 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
   public WritableMemChunk(IMeasurementSchema schema) {
     this.schema = schema;
     this.list = TVList.newList(schema.getType());
+    if (list instanceof BinaryTVList) {
+      ((BinaryTVList) list).setDictionary(BinaryDictionary.newDictionary());
+    }
     this.sortedList = new ArrayList<>();
   }
 
@@ -79,7 +86,11 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     }
     sortedList.add(list);
     this.sortedRowCount += list.rowCount();
+    BinaryDictionary dictionary = getDictionary(schema.getMeasurementName());
     this.list = TVList.newList(schema.getType());
+    if (dictionary != null) {
+      ((BinaryTVList) list).setDictionary(dictionary);
+    }
   }
 
   @Override
@@ -261,6 +272,11 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     this.list = list;
   }
 
+  @Override
+  public BinaryDictionary getDictionary(String measurement) {
+    return list instanceof BinaryTVList ? ((BinaryTVList) list).getDictionary() : null;
+  }
+
   @Override
   public long count() {
     long count = list.count();
@@ -502,6 +518,22 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     }
   }
 
+  @Override
+  public synchronized void updateSketch(
+      IDeviceID deviceID, TsFileSketch sketch, int maxNumberOfPointsInPage) {
+    List<TVList> tvLists = new ArrayList<>(sortedList);
+    tvLists.add(list);
+    MemPointIterator timeValuePairIterator =
+        MemPointIteratorFactory.create(schema.getType(), tvLists, maxNumberOfPointsInPage);
+    while (timeValuePairIterator.hasNextBatch()) {
+      sketch.update(
+          deviceID,
+          schema.getMeasurementName(),
+          schema.getType(),
+          timeValuePairIterator.nextBatch().getColumn(0));
+    }
+  }
+
   @Override
   public void release() {
     maybeReleaseTvList(list);
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Modification
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import com.google.common.io.CountingInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +51,7 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.nio.file.StandardOpenOption.APPEND;
@@ -74,6 +76,8 @@ public class ModificationFile implements AutoCloseable {
   private boolean fileExists = false;
   private final boolean updateMetrics;
   private boolean removed = false;
+  // increased each time the content of the file is not only appended, e.g., truncated or settled
+  private volatile long rewriteVersion = 0;
 
   private Set<ModificationFile> cascadeFiles = null;
 
@@ -183,6 +187,53 @@ public class ModificationFile implements AutoCloseable {
     return allMods;
   }
 
+  /**
+   * Read the complete entries from the offset to the end of the file. An entry being appended
+   * concurrently is not read.
+   *
+   * @return the offset right after the last entry read, from which the entries appended later can
+   *     be read
+   */
+  public long readModEntries(long offset, Consumer<ModEntry> consumer) throws IOException {
+    if (!fileExists) {
+      return offset;
+    }
+    try (CountingInputStream inputStream =
+        new CountingInputStream(
+            new BufferedInputStream(Files.newInputStream(file.toPath()), 64 * 1024))) {
+      long remaining = offset;
+      while (remaining > 0) {
+        long skipped = inputStream.skip(remaining);
+        if (skipped <= 0) {
+          LOGGER.warn(
+              "Fail to read Mod file {}, expecting offset {}, actually skipped {}",
+              file,
+              offset,
+              offset - remaining);
+          return offset;
+        }
+        remaining -= skipped;
+      }
+
+      long endOffset = offset;
+      while (inputStream.available() > 0) {
+        ModEntry entry;
+        try {
+          entry = ModEntry.createFrom(inputStream);
+        } catch (EOFException e) {
+          break;
+        }
+        consumer.accept(entry);
+        endOffset = inputStream.getCount();
+      }
+      return endOffset;
+    }
+  }
+
+  public long getRewriteVersion() {
+    return rewriteVersion;
+  }
+
   @Override
   public void close() throws IOException {
     lock.writeLock().lock();
@@ -345,6 +396,7 @@ public class ModificationFile implements AutoCloseable {
       }
       fileExists = false;
       removed = true;
+      rewriteVersion++;
     } finally {
       lock.writeLock().unlock();
     }
@@ -377,6 +429,7 @@ public class ModificationFile implements AutoCloseable {
       if (channel != null) {
         channel.truncate(size);
       }
+      rewriteVersion++;
     } finally {
       lock.writeLock().unlock();
     }
@@ -412,6 +465,7 @@ public class ModificationFile implements AutoCloseable {
         fileExists = true;
         // rename new mods file to origin name
         Files.move(new File(newModsFileName).toPath(), file.toPath());
+        rewriteVersion++;
         LOGGER.info("{} settle successful", file);
 
         if (getFileLength() > COMPACT_THRESHOLD) {
@@ -28,12 +28,15 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.common.BatchData;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
+import org.apache.tsfile.read.reader.IPageReader;
 import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
 import org.apache.tsfile.read.reader.chunk.TableChunkReader;
+import org.apache.tsfile.read.reader.page.AbstractAlignedPageReader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -115,7 +118,7 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
       SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
           INIT_CHUNK_READER_ALIGNED_DISK, System.nanoTime() - t2);
 
-      return chunkReader;
+      return new LateMaterializedChunkReader(chunkReader, globalTimeFilter, ignoreAllNullRows);
     } finally {
       long time = System.nanoTime() - t1;
       context.getQueryStatistics().getConstructAlignedChunkReadersDiskCount().getAndAdd(1);
@@ -126,4 +129,50 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
   public TsFileID getTsFileID() {
     return resource.getTsFileID();
   }
+
+  /**
+   * Wraps the aligned page readers of the chunk, so that the value columns not referred to by the
+   * push-down filter are only decoded for the rows satisfying it.
+   */
+  private static class LateMaterializedChunkReader implements IChunkReader {
+
+    private final IChunkReader chunkReader;
+    private final Filter globalTimeFilter;
+    private final boolean ignoreAllNullRows;
+
+    private LateMaterializedChunkReader(
+        IChunkReader chunkReader, Filter globalTimeFilter, boolean ignoreAllNullRows) {
+      this.chunkReader = chunkReader;
+      this.globalTimeFilter = globalTimeFilter;
+      this.ignoreAllNullRows = ignoreAllNullRows;
+    }
+
+    @Override
+    public boolean hasNextSatisfiedPage() throws IOException {
+      return chunkReader.hasNextSatisfiedPage();
+    }
+
+    @Override
+    public BatchData nextPageData() throws IOException {
+      return chunkReader.nextPageData();
+    }
+
+    @Override
+    public void close() throws IOException {
+      chunkReader.close();
+    }
+
+    @Override
+    public List<IPageReader> loadPageReaderList() throws IOException {
+      List<IPageReader> pageReaderList = new ArrayList<>();
+      for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+        pageReaderList.add(
+            pageReader instanceof AbstractAlignedPageReader
+                ? new LateMaterializedAlignedPageReader(
+                    (AbstractAlignedPageReader) pageReader, globalTimeFilter, ignoreAllNullRows)
+                : pageReader);
+      }
+      return pageReaderList;
+    }
+  }
 }
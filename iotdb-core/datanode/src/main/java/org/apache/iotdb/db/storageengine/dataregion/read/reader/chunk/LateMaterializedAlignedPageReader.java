@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumn;
+import org.apache.tsfile.read.filter.basic.BinaryLogicalFilter;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.basic.TimeFilter;
+import org.apache.tsfile.read.filter.basic.ValueFilter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
+import org.apache.tsfile.read.filter.operator.Not;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.page.AbstractAlignedPageReader;
+import org.apache.tsfile.read.reader.page.TimePageReader;
+import org.apache.tsfile.read.reader.page.ValuePageReader;
+import org.apache.tsfile.read.reader.series.PaginationController;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.tsfile.read.reader.series.PaginationController.UNLIMITED_PAGINATION_CONTROLLER;
+
+/**
+ * {@link LateMaterializedAlignedPageReader} reads an aligned page on disk by decoding the value
+ * columns that the push-down filter refers to first. The other value columns are only decoded up
+ * to the last selected row and only copied for the selected rows, and they are not decompressed at
+ * all if no row of the page is selected. It falls back to the wrapped page reader if the filter
+ * refers to all the value columns, or to a filter it can not see through.
+ */
+public class LateMaterializedAlignedPageReader implements IPageReader {
+
+  private static final int MASK = 0x80;
+
+  // the placeholder of the columns not referred to by the push-down filter
+  private static final Column NULL_COLUMN =
+      new BooleanColumn(1, Optional.of(new boolean[] {true}), new boolean[1]);
+
+  private final AbstractAlignedPageReader pageReader;
+  private final Filter globalTimeFilter;
+
+  // for table model, it will be false
+  // for tree model, it will be true
+  private final boolean ignoreAllNullRows;
+
+  private Filter pushDownFilter;
+  private PaginationController paginationController = UNLIMITED_PAGINATION_CONTROLLER;
+
+  private TsBlockBuilder builder;
+  private TsBlockBuilder predicateBuilder;
+
+  public LateMaterializedAlignedPageReader(
+      AbstractAlignedPageReader pageReader, Filter globalTimeFilter, boolean ignoreAllNullRows) {
+    this.pageReader = pageReader;
+    this.globalTimeFilter = globalTimeFilter;
+    this.ignoreAllNullRows = ignoreAllNullRows;
+  }
+
+  @Override
+  public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+    return pageReader.getAllSatisfiedPageData(ascending);
+  }
+
+  @Override
+  public TsBlock getAllSatisfiedData() throws IOException {
+    final List<ValuePageReader> valuePageReaders = pageReader.getValuePageReaderList();
+    final boolean[] isPredicateColumn = getPredicateColumns(valuePageReaders.size());
+    if (isPredicateColumn == null) {
+      return pageReader.getAllSatisfiedData();
+    }
+
+    final TimePageReader timePageReader = pageReader.getTimePageReader();
+    final long[] timeBatch = timePageReader.getNextTimeBatch();
+    final int rowCount = timeBatch.length;
+    final boolean[][] isDeleted = new boolean[valuePageReaders.size()][];
+
+    // rows satisfying the global time filter and not deleted
+    final boolean[] selection = new boolean[rowCount];
+    final boolean timeFilterAllSatisfy =
+        globalTimeFilter == null || globalTimeFilter.allSatisfy(this);
+    for (int row = 0; row < rowCount; row++) {
+      selection[row] =
+          (timeFilterAllSatisfy || globalTimeFilter.satisfy(timeBatch[row], null))
+              && !timePageReader.isDeleted(timeBatch[row]);
+    }
+
+    // decode the predicate columns of all the rows and evaluate the push-down filter on them
+    final boolean[] allRows = new boolean[rowCount];
+    Arrays.fill(allRows, true);
+    final Column[] predicateColumns = new Column[valuePageReaders.size()];
+    predicateBuilder.reset();
+    for (int column = 0; column < valuePageReaders.size(); column++) {
+      if (isPredicateColumn[column]) {
+        final ColumnBuilder columnBuilder = predicateBuilder.getColumnBuilder(column);
+        writeValueColumn(
+            valuePageReaders, column, rowCount, columnBuilder, allRows, timeBatch, isDeleted);
+        predicateColumns[column] = columnBuilder.build();
+      } else {
+        predicateColumns[column] = new RunLengthEncodedColumn(NULL_COLUMN, rowCount);
+      }
+    }
+    final boolean[] satisfyInfo =
+        pushDownFilter.satisfyTsBlock(
+            new TsBlock(rowCount, new TimeColumn(rowCount, timeBatch), predicateColumns));
+    for (int row = 0; row < rowCount; row++) {
+      selection[row] = selection[row] && satisfyInfo[row];
+    }
+
+    if (ignoreAllNullRows) {
+      discardAllNullRows(
+          valuePageReaders, isPredicateColumn, predicateColumns, selection, timeBatch, isDeleted);
+    }
+
+    // build time column, the rows skipped by the offset are unselected
+    builder.reset();
+    int readEndIndex = rowCount;
+    for (int row = 0; row < readEndIndex; row++) {
+      if (!selection[row]) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        selection[row] = false;
+      } else if (paginationController.hasCurLimit()) {
+        builder.getTimeColumnBuilder().writeLong(timeBatch[row]);
+        builder.declarePosition();
+        paginationController.consumeLimit();
+      } else {
+        readEndIndex = row;
+      }
+    }
+    if (builder.getPositionCount() == 0) {
+      // no row is selected, the other value columns are not decoded
+      return builder.build();
+    }
+
+    // build value columns, only the selected rows are copied
+    for (int column = 0; column < valuePageReaders.size(); column++) {
+      final ColumnBuilder columnBuilder = builder.getColumnBuilder(column);
+      if (!isPredicateColumn[column]) {
+        writeValueColumn(
+            valuePageReaders, column, readEndIndex, columnBuilder, selection, timeBatch, isDeleted);
+        continue;
+      }
+      final Column predicateColumn = predicateColumns[column];
+      for (int row = 0; row < readEndIndex; row++) {
+        if (!selection[row]) {
+          continue;
+        }
+        if (predicateColumn.isNull(row)) {
+          columnBuilder.appendNull();
+        } else {
+          columnBuilder.write(predicateColumn, row);
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the value columns referred to by the push-down filter, or null if the page should be
+   *     read as a whole
+   */
+  private boolean[] getPredicateColumns(int valueColumnCount) {
+    if (pushDownFilter == null || pushDownFilter.allSatisfy(this)) {
+      return null;
+    }
+    final boolean[] isPredicateColumn = new boolean[valueColumnCount];
+    if (!collectPredicateColumns(pushDownFilter, isPredicateColumn)) {
+      return null;
+    }
+    for (boolean isPredicate : isPredicateColumn) {
+      if (!isPredicate) {
+        return isPredicateColumn;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return false if the filter is not known to refer to only the value columns it is made of
+   */
+  private static boolean collectPredicateColumns(Filter filter, boolean[] isPredicateColumn) {
+    if (filter instanceof TimeFilter) {
+      return true;
+    }
+    if (filter instanceof ValueFilter) {
+      final int measurementIndex = ((ValueFilter) filter).getMeasurementIndex();
+      if (measurementIndex < 0 || measurementIndex >= isPredicateColumn.length) {
+        return false;
+      }
+      isPredicateColumn[measurementIndex] = true;
+      return true;
+    }
+    if (filter instanceof BinaryLogicalFilter) {
+      return collectPredicateColumns(((BinaryLogicalFilter) filter).getLeft(), isPredicateColumn)
+          && collectPredicateColumns(((BinaryLogicalFilter) filter).getRight(), isPredicateColumn);
+    }
+    if (filter instanceof Not) {
+      return collectPredicateColumns(((Not) filter).getFilter(), isPredicateColumn);
+    }
+    return false;
+  }
+
+  /**
+   * A row satisfying the filter may only be all null if all its predicate columns are null, e.g.
+   * for an "is null" filter. Only for such rows the null bitmaps of the other columns are read.
+   */
+  private static void discardAllNullRows(
+      List<ValuePageReader> valuePageReaders,
+      boolean[] isPredicateColumn,
+      Column[] predicateColumns,
+      boolean[] selection,
+      long[] timeBatch,
+      boolean[][] isDeleted)
+      throws IOException {
+    final byte[][] bitmaps = new byte[valuePageReaders.size()][];
+    for (int row = 0; row < selection.length; row++) {
+      if (!selection[row] || hasPredicateValue(isPredicateColumn, predicateColumns, row)) {
+        continue;
+      }
+      boolean hasValue = false;
+      for (int column = 0; column < valuePageReaders.size() && !hasValue; column++) {
+        final ValuePageReader valuePageReader = valuePageReaders.get(column);
+        if (isPredicateColumn[column] || valuePageReader == null) {
+          continue;
+        }
+        if (bitmaps[column] == null) {
+          bitmaps[column] = valuePageReader.getBitmap();
+        }
+        hasValue =
+            bitmaps[column] != null
+                && ((bitmaps[column][row / 8] & 0xFF) & (MASK >>> (row % 8))) != 0
+                && !getIsDeleted(valuePageReaders, column, timeBatch, isDeleted)[row];
+      }
+      selection[row] = hasValue;
+    }
+  }
+
+  private static boolean hasPredicateValue(
+      boolean[] isPredicateColumn, Column[] predicateColumns, int row) {
+    for (int column = 0; column < predicateColumns.length; column++) {
+      if (isPredicateColumn[column] && !predicateColumns[column].isNull(row)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void writeValueColumn(
+      List<ValuePageReader> valuePageReaders,
+      int column,
+      int readEndIndex,
+      ColumnBuilder columnBuilder,
+      boolean[] keepCurrentRow,
+      long[] timeBatch,
+      boolean[][] isDeleted) {
+    final ValuePageReader valuePageReader = valuePageReaders.get(column);
+    if (valuePageReader == null) {
+      for (int row = 0; row < readEndIndex; row++) {
+        if (keepCurrentRow[row]) {
+          columnBuilder.appendNull();
+        }
+      }
+      return;
+    }
+    valuePageReader.writeColumnBuilderWithNextBatch(
+        readEndIndex,
+        columnBuilder,
+        keepCurrentRow,
+        getIsDeleted(valuePageReaders, column, timeBatch, isDeleted));
+  }
+
+  private static boolean[] getIsDeleted(
+      List<ValuePageReader> valuePageReaders,
+      int column,
+      long[] timeBatch,
+      boolean[][] isDeleted) {
+    // the deletions of a column are checked in time order, so they are all checked at once
+    if (isDeleted[column] == null) {
+      final ValuePageReader valuePageReader = valuePageReaders.get(column);
+      isDeleted[column] = new boolean[timeBatch.length];
+      for (int row = 0; row < timeBatch.length; row++) {
+        isDeleted[column][row] = valuePageReader.isDeleted(timeBatch[row]);
+      }
+    }
+    return isDeleted[column];
+  }
+
+  @Override
+  public Statistics<? extends Serializable> getStatistics() {
+    return pageReader.getStatistics();
+  }
+
+  @Override
+  public Statistics<? extends Serializable> getTimeStatistics() {
+    return pageReader.getTimeStatistics();
+  }
+
+  @Override
+  public Optional<Statistics<? extends Serializable>> getMeasurementStatistics(
+      int measurementIndex) {
+    return pageReader.getMeasurementStatistics(measurementIndex);
+  }
+
+  @Override
+  public boolean hasNullValue(int measurementIndex) {
+    return pageReader.hasNullValue(measurementIndex);
+  }
+
+  @Override
+  public void addRecordFilter(Filter filter) {
+    pageReader.addRecordFilter(filter);
+    this.pushDownFilter = FilterFactory.and(pushDownFilter, filter);
+  }
+
+  @Override
+  public void setLimitOffset(PaginationController paginationController) {
+    pageReader.setLimitOffset(paginationController);
+    this.paginationController = paginationController;
+  }
+
+  @Override
+  public boolean isModified() {
+    return pageReader.isModified();
+  }
+
+  @Override
+  public void initTsBlockBuilder(List<TSDataType> dataTypes) {
+    pageReader.initTsBlockBuilder(dataTypes);
+    builder = new TsBlockBuilder(dataTypes);
+    predicateBuilder = new TsBlockBuilder(dataTypes);
+  }
+}
@@ -107,13 +107,16 @@ public class MemAlignedPageReader implements IPageReader {
 
     builder.reset();
 
+    // the value columns of a memtable page are already materialized, so the filter is evaluated
+    // on the whole page, only the copy of the value columns is limited to the selected rows
     boolean[] satisfyInfo = buildSatisfyInfoArray();
 
-    // build time column
-    int readEndIndex = buildTimeColumn(satisfyInfo);
+    // build time column, and collect the selected rows which passed the filter and pagination
+    int[] selectedRows = new int[tsBlock.getPositionCount()];
+    int selectedRowCount = buildTimeColumn(satisfyInfo, selectedRows);
 
-    // build value column
-    buildValueColumns(satisfyInfo, readEndIndex);
+    // build value column, only the selected rows are copied
+    buildValueColumns(selectedRows, selectedRowCount);
 
     return builder.build();
   }
@@ -127,7 +130,8 @@ public class MemAlignedPageReader implements IPageReader {
     return recordFilter.satisfyTsBlock(tsBlock);
   }
 
-  private int buildTimeColumn(boolean[] satisfyInfo) {
+  private int buildTimeColumn(boolean[] satisfyInfo, int[] selectedRows) {
+    int selectedRowCount = 0;
     int readEndIndex = tsBlock.getPositionCount();
     for (int row = 0; row < readEndIndex; row++) {
 
@@ -139,11 +143,12 @@ public class MemAlignedPageReader implements IPageReader {
         builder.getTimeColumnBuilder().writeLong(tsBlock.getTimeByIndex(row));
         builder.declarePosition();
         paginationController.consumeLimit();
+        selectedRows[selectedRowCount++] = row;
       } else {
         readEndIndex = row;
       }
     }
-    return readEndIndex;
+    return selectedRowCount;
   }
 
   private boolean needSkipCurrentRow(boolean[] satisfyInfo, int rowIndex) {
@@ -158,17 +163,26 @@ public class MemAlignedPageReader implements IPageReader {
     return false;
   }
 
-  private void buildValueColumns(boolean[] satisfyInfo, int readEndIndex) {
+  private void buildValueColumns(int[] selectedRows, int selectedRowCount) {
+    if (selectedRowCount == 0) {
+      // no row is selected, no need to visit the value columns
+      return;
+    }
     for (int column = 0; column < tsBlock.getValueColumnCount(); column++) {
       Column valueColumn = tsBlock.getColumn(column);
       ColumnBuilder valueBuilder = builder.getColumnBuilder(column);
-      for (int row = 0; row < readEndIndex; row++) {
-        if (satisfyInfo[row]) {
-          if (!valueColumn.isNull(row)) {
-            valueBuilder.write(valueColumn, row);
-          } else {
-            valueBuilder.appendNull();
-          }
+      if (!valueColumn.mayHaveNull()) {
+        for (int i = 0; i < selectedRowCount; i++) {
+          valueBuilder.write(valueColumn, selectedRows[i]);
+        }
+        continue;
+      }
+      for (int i = 0; i < selectedRowCount; i++) {
+        int row = selectedRows[i];
+        if (!valueColumn.isNull(row)) {
+          valueBuilder.write(valueColumn, row);
+        } else {
+          valueBuilder.appendNull();
         }
       }
     }
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.load.PartitionViolationException;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.assigner.PipeTsFileEpochProgressIndexKeeper;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCompactionCandidateStatus;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
@@ -44,6 +45,8 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Deletion;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Modification;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketchCache;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
@@ -66,6 +69,8 @@ import org.apache.tsfile.write.writer.TsFileIOWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -169,8 +174,15 @@ public class TsFileResource implements PersistentResource {
 
   private long deviceTimeIndexRamSize;
 
+  // whether the DeviceTimeIndex is dropped when restarting and can be loaded again when queried
+  private volatile boolean deviceTimeIndexLazilyLoaded = false;
+
   private AtomicInteger tierLevel;
 
+  // the last time (in ms) this sealed file was selected by a query, used to keep the frequently
+  // read files in the faster tiers
+  private volatile long lastQueryTime = 0;
+
   private volatile long tsFileSize = -1L;
 
   private TsFileProcessor processor;
@@ -316,10 +328,30 @@ public class TsFileResource implements PersistentResource {
 
   /** deserialize from disk */
   public void deserialize() throws IOException {
+    deserialize(null);
+  }
+
+  /**
+   * deserialize from disk, but only keep the FileTimeIndex of the ArrayDeviceTimeIndex, which is
+   * loaded from the .resource file again when the TsFile is queried
+   *
+   * @param deviceEndTimeMap collect the end time of each device in the TsFile
+   */
+  public void deserializeWithFileTimeIndex(Map<IDeviceID, Long> deviceEndTimeMap)
+      throws IOException {
+    deserialize(deviceEndTimeMap);
+  }
+
+  private void deserialize(@Nullable Map<IDeviceID, Long> deviceEndTimeMap) throws IOException {
     try (InputStream inputStream = fsFactory.getBufferedInputStream(file + RESOURCE_SUFFIX)) {
       // The first byte is VERSION_NUMBER, second byte is timeIndexType.
       ReadWriteIOUtils.readByte(inputStream);
-      timeIndex = ITimeIndex.createTimeIndex(inputStream);
+      Map<IDeviceID, Long> endTimeMap = null;
+      if (deviceEndTimeMap == null) {
+        timeIndex = ITimeIndex.createTimeIndex(inputStream);
+      } else {
+        endTimeMap = deserializeFileTimeIndex(inputStream);
+      }
       maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
       minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
 
@@ -351,9 +383,38 @@ public class TsFileResource implements PersistentResource {
             break;
         }
       }
+
+      if (endTimeMap != null) {
+        // the DeviceTimeIndex is dropped only if the whole .resource file is valid, otherwise the
+        // .resource file is reconstructed from the TsFile with the DeviceTimeIndex
+        deviceTimeIndexLazilyLoaded = true;
+        deviceEndTimeMap.putAll(endTimeMap);
+      }
     }
   }
 
+  /**
+   * @return the end time of each device, or null if the time index is not an ArrayDeviceTimeIndex
+   *     and is fully deserialized
+   */
+  @Nullable
+  private Map<IDeviceID, Long> deserializeFileTimeIndex(InputStream inputStream)
+      throws IOException {
+    byte timeIndexType = ReadWriteIOUtils.readByte(inputStream);
+    if (timeIndexType != ITimeIndex.ARRAY_DEVICE_TIME_INDEX_TYPE) {
+      // e.g., the PlainDeviceTimeIndex of old versions, which is not loaded lazily
+      timeIndex = TimeIndexLevel.valueOf(timeIndexType).getTimeIndex().deserialize(inputStream);
+      return null;
+    }
+    Map<IDeviceID, Long> endTimeMap = new HashMap<>();
+    Pair<FileTimeIndex, Long> fileTimeIndexAndRamSize =
+        ArrayDeviceTimeIndex.deserializeFileTimeIndex(inputStream, endTimeMap);
+    timeIndex = fileTimeIndexAndRamSize.left;
+    // the estimated memory to load the DeviceTimeIndex again
+    deviceTimeIndexRamSize = fileTimeIndexAndRamSize.right;
+    return endTimeMap;
+  }
+
   public static int getFileTimeIndexSerializedSize() {
     // 6 * 8 Byte means 6 long numbers of
     // tsFileID.timePartitionId,
@@ -407,6 +468,11 @@ public class TsFileResource implements PersistentResource {
     Files.createLink(
         new File(target.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
         new File(this.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    File sketchFile = TsFileSketch.getSketchFile(file);
+    if (sketchFile.exists()) {
+      Files.createLink(
+          TsFileSketch.getSketchFile(target.getTsFile()).toPath(), sketchFile.toPath());
+    }
     linkModFile(target);
   }
 
@@ -496,6 +562,11 @@ public class TsFileResource implements PersistentResource {
     return prepareModFileForWrite();
   }
 
+  /** The modifications of this file in the shared mod file start from this offset. */
+  public long getSharedModFileOffset() {
+    return sharedModFileOffset;
+  }
+
   public ModificationFile getSharedModFile() {
     if (!useSharedModFile) {
       return null;
@@ -593,6 +664,16 @@ public class TsFileResource implements PersistentResource {
     return tierLevel.get();
   }
 
+  public void updateLastQueryTime(long queryTime) {
+    if (queryTime > lastQueryTime) {
+      lastQueryTime = queryTime;
+    }
+  }
+
+  public long getLastQueryTime() {
+    return lastQueryTime;
+  }
+
   public long getTsFileSize() {
     if (isClosed()) {
       if (tsFileSize == -1) {
@@ -814,6 +895,7 @@ public class TsFileResource implements PersistentResource {
   }
 
   public void removeModFile() throws IOException {
+    ModificationCache.getInstance().invalidate(getTsFileID());
 
     if (getExclusiveModFile().exists()) {
       getExclusiveModFile().remove();
@@ -830,8 +912,8 @@ public class TsFileResource implements PersistentResource {
   }
 
   /**
-   * Remove the data file, its resource file, its chunk metadata temp file, and its modification
-   * file physically.
+   * Remove the data file, its resource file, its sketch file, its chunk metadata temp file, and its
+   * modification file physically.
    */
   public boolean remove() {
     forceMarkDeleted();
@@ -846,6 +928,12 @@ public class TsFileResource implements PersistentResource {
     if (!removeResourceFile()) {
       return false;
     }
+    try {
+      removeSketchFile();
+    } catch (IOException e) {
+      LOGGER.error("Sketch file of {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     try {
       removeModFile();
     } catch (IOException e) {
@@ -866,11 +954,23 @@ public class TsFileResource implements PersistentResource {
     return true;
   }
 
+  public void removeSketchFile() throws IOException {
+    File sketchFile = TsFileSketch.getSketchFile(file);
+    fsFactory.deleteIfExists(sketchFile);
+    fsFactory.deleteIfExists(fsFactory.getFile(sketchFile.getPath() + TEMP_SUFFIX));
+    TsFileSketchCache.getInstance().invalidate(file);
+  }
+
   public void moveTo(File targetDir) throws IOException {
     fsFactory.moveFile(file, fsFactory.getFile(targetDir, file.getName()));
     fsFactory.moveFile(
         fsFactory.getFile(file.getPath() + RESOURCE_SUFFIX),
         fsFactory.getFile(targetDir, file.getName() + RESOURCE_SUFFIX));
+    File sketchFile = TsFileSketch.getSketchFile(file);
+    if (sketchFile.exists()) {
+      fsFactory.moveFile(sketchFile, fsFactory.getFile(targetDir, sketchFile.getName()));
+      TsFileSketchCache.getInstance().invalidate(file);
+    }
 
     if (exclusiveModFileExists()) {
       fsFactory.moveFile(
@@ -1355,6 +1455,46 @@ public class TsFileResource implements PersistentResource {
     return deviceTimeIndexRamSize - timeIndex.calculateRamSize();
   }
 
+  /**
+   * degrade the DeviceTimeIndex when restarting, it can be loaded from the .resource file once the
+   * TsFile is queried
+   */
+  public void degradeTimeIndexForLazyLoad() {
+    // record the size of DeviceTimeIndex before it is dropped
+    deviceTimeIndexRamSize = timeIndex.calculateRamSize();
+    degradeTimeIndex();
+    deviceTimeIndexLazilyLoaded = true;
+  }
+
+  public boolean isDeviceTimeIndexLazilyLoaded() {
+    return deviceTimeIndexLazilyLoaded;
+  }
+
+  /** the memory increase if the FileTimeIndex is replaced by the DeviceTimeIndex dropped before */
+  public long estimateUpgradeTimeIndexRamIncrease() {
+    return deviceTimeIndexRamSize - timeIndex.calculateRamSize();
+  }
+
+  /** the memory increase if the FileTimeIndex is replaced by the given DeviceTimeIndex */
+  public long getUpgradeTimeIndexRamIncrease(ArrayDeviceTimeIndex deviceTimeIndex) {
+    return deviceTimeIndex.calculateRamSize() - timeIndex.calculateRamSize();
+  }
+
+  /** give up loading the DeviceTimeIndex, the TsFile keeps the FileTimeIndex from now on */
+  public void cancelLazyLoadTimeIndex() {
+    deviceTimeIndexLazilyLoaded = false;
+  }
+
+  /** the FileTimeIndex is replaced by the DeviceTimeIndex loaded from the .resource file */
+  public long upgradeTimeIndex(ArrayDeviceTimeIndex deviceTimeIndex) {
+    long fileTimeIndexRamSize = timeIndex.calculateRamSize();
+    timeIndex = deviceTimeIndex;
+    deviceTimeIndexRamSize = deviceTimeIndex.calculateRamSize();
+    // the DeviceTimeIndex degraded under memory pressure later is never loaded again
+    deviceTimeIndexLazilyLoaded = false;
+    return deviceTimeIndexRamSize - fileTimeIndexRamSize;
+  }
+
   public void deleteRemovedDeviceAndUpdateEndTime(Map<IDeviceID, Long> lastTimeForEachDevice) {
     ITimeIndex newTimeIndex = CONFIG.getTimeIndexLevel().getTimeIndex();
     for (Map.Entry<IDeviceID, Long> entry : lastTimeForEachDevice.entrySet()) {
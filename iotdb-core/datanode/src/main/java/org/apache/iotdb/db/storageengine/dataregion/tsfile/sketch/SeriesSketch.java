@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The quantile and distinct count sketches of the points of one series in a TsFile. The t-digest
+ * is only kept for numeric series, the HyperLogLog uses the default precision of
+ * approx_count_distinct and hashes values in the same way, so that they can be merged into the
+ * states of approx_percentile and approx_count_distinct directly.
+ */
+public class SeriesSketch {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(SeriesSketch.class);
+
+  private final TSDataType dataType;
+  // null if the data type is not numeric
+  private final TDigest digest;
+  private final HyperLogLog hyperLogLog;
+  // number of the non-null values added, it is compared with the count in the statistics of the
+  // series before the sketch is used, so that a sketch not matching the data is never used
+  private long count;
+
+  public SeriesSketch(TSDataType dataType) {
+    this(
+        dataType,
+        supportsQuantile(dataType) ? new TDigest() : null,
+        new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR),
+        0);
+  }
+
+  private SeriesSketch(TSDataType dataType, TDigest digest, HyperLogLog hyperLogLog, long count) {
+    this.dataType = dataType;
+    this.digest = digest;
+    this.hyperLogLog = hyperLogLog;
+    this.count = count;
+  }
+
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+      case FLOAT:
+      case DOUBLE:
+      case TEXT:
+      case STRING:
+      case BLOB:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public static boolean supportsQuantile(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Adds the non-null values of the column, whose type should be the type of the sketch. */
+  public void update(Column column) {
+    for (int i = 0, size = column.getPositionCount(); i < size; i++) {
+      if (column.isNull(i)) {
+        continue;
+      }
+      count++;
+      switch (dataType) {
+        case BOOLEAN:
+          hyperLogLog.add(column.getBoolean(i));
+          break;
+        case INT32:
+        case DATE:
+          int intValue = column.getInt(i);
+          hyperLogLog.add(intValue);
+          if (digest != null) {
+            digest.add(intValue);
+          }
+          break;
+        case INT64:
+        case TIMESTAMP:
+          long longValue = column.getLong(i);
+          hyperLogLog.add(longValue);
+          if (digest != null) {
+            digest.add(longValue);
+          }
+          break;
+        case FLOAT:
+          float floatValue = column.getFloat(i);
+          hyperLogLog.add(floatValue);
+          digest.add(floatValue);
+          break;
+        case DOUBLE:
+          double doubleValue = column.getDouble(i);
+          hyperLogLog.add(doubleValue);
+          digest.add(doubleValue);
+          break;
+        case TEXT:
+        case STRING:
+        case BLOB:
+          hyperLogLog.add(column.getBinary(i));
+          break;
+        default:
+          return;
+      }
+    }
+  }
+
+  /** Merges another sketch of the same series into this one, the other one is not changed. */
+  public void merge(SeriesSketch other) {
+    if (digest != null && other.digest != null) {
+      digest.merge(other.digest);
+    }
+    hyperLogLog.merge(other.hyperLogLog);
+    count += other.count;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /** Returns null if the data type is not numeric. */
+  public TDigest getDigest() {
+    return digest;
+  }
+
+  public HyperLogLog getHyperLogLog() {
+    return hyperLogLog;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + (digest == null ? 0 : digest.getEstimatedSize())
+        + hyperLogLog.getEstimatedSize();
+  }
+
+  public byte[] serialize() {
+    byte[] digestBytes = digest == null ? new byte[0] : digest.serialize();
+    byte[] hyperLogLogBytes = hyperLogLog.serializeCompact();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            1 + Long.BYTES + Integer.BYTES + digestBytes.length + hyperLogLogBytes.length);
+    ReadWriteIOUtils.write(dataType, buffer);
+    ReadWriteIOUtils.write(count, buffer);
+    ReadWriteIOUtils.write(digestBytes.length, buffer);
+    buffer.put(digestBytes);
+    buffer.put(hyperLogLogBytes);
+    return buffer.array();
+  }
+
+  public static SeriesSketch deserialize(ByteBuffer buffer) {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    long count = ReadWriteIOUtils.readLong(buffer);
+    int digestLength = ReadWriteIOUtils.readInt(buffer);
+    TDigest digest = null;
+    if (digestLength > 0) {
+      byte[] digestBytes = new byte[digestLength];
+      buffer.get(digestBytes);
+      digest = new TDigest(digestBytes);
+    }
+    return new SeriesSketch(dataType, digest, HyperLogLog.deserializeCompact(buffer), count);
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IDeviceID.Deserializer;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sketches of all series in a sequence TsFile, which are built when the TsFile is flushed or
+ * compacted and stored in a {@link #SKETCH_SUFFIX} file beside it.
+ *
+ * <p>The sketch file is like: | series sketch | ... | series sketch | index | index offset |. The
+ * index records the offset and length of the sketch of each series, so that a query only reads the
+ * sketches of the series it needs. See {@link TsFileSketchCache}.
+ */
+public class TsFileSketch {
+
+  public static final String SKETCH_SUFFIX = ".sketch";
+
+  private static final FSFactory FS_FACTORY = FSFactoryProducer.getFSFactory();
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TsFileSketch.class);
+
+  // a null sketch means the series has been written in different data types, so it can not be
+  // sketched
+  private final Map<IDeviceID, Map<String, SeriesSketch>> sketches = new LinkedHashMap<>();
+  private long sketchesSize;
+
+  public static File getSketchFile(File tsFile) {
+    return FS_FACTORY.getFile(tsFile.getPath() + SKETCH_SUFFIX);
+  }
+
+  /** Adds the non-null values of the column to the sketch of the series. */
+  public void update(IDeviceID deviceID, String measurement, TSDataType dataType, Column column) {
+    if (!SeriesSketch.isSupported(dataType)) {
+      return;
+    }
+    Map<String, SeriesSketch> deviceSketches =
+        sketches.computeIfAbsent(deviceID, k -> new HashMap<>());
+    SeriesSketch sketch = deviceSketches.get(measurement);
+    if (sketch == null) {
+      if (deviceSketches.containsKey(measurement)) {
+        return;
+      }
+      sketch = new SeriesSketch(dataType);
+      deviceSketches.put(measurement, sketch);
+      sketchesSize += sketch.getEstimatedSize();
+    } else if (sketch.getDataType() != dataType) {
+      invalidate(deviceSketches, measurement, sketch);
+      return;
+    }
+    sketch.update(column);
+  }
+
+  /** Merges the sketches of another TsFile, the points of both TsFiles should not overlap. */
+  public void merge(TsFileSketch other) {
+    for (Map.Entry<IDeviceID, Map<String, SeriesSketch>> deviceEntry : other.sketches.entrySet()) {
+      Map<String, SeriesSketch> deviceSketches =
+          sketches.computeIfAbsent(deviceEntry.getKey(), k -> new HashMap<>());
+      for (Map.Entry<String, SeriesSketch> entry : deviceEntry.getValue().entrySet()) {
+        String measurement = entry.getKey();
+        SeriesSketch otherSketch = entry.getValue();
+        SeriesSketch sketch = deviceSketches.get(measurement);
+        if (sketch == null) {
+          if (deviceSketches.containsKey(measurement)) {
+            continue;
+          }
+          deviceSketches.put(measurement, otherSketch);
+          if (otherSketch != null) {
+            sketchesSize += otherSketch.getEstimatedSize();
+          }
+        } else if (otherSketch == null || sketch.getDataType() != otherSketch.getDataType()) {
+          invalidate(deviceSketches, measurement, sketch);
+        } else {
+          sketch.merge(otherSketch);
+        }
+      }
+    }
+  }
+
+  private void invalidate(
+      Map<String, SeriesSketch> deviceSketches, String measurement, SeriesSketch sketch) {
+    deviceSketches.put(measurement, null);
+    sketchesSize -= sketch.getEstimatedSize();
+  }
+
+  /** Returns null if the series is not sketched. */
+  public SeriesSketch get(IDeviceID deviceID, String measurement) {
+    Map<String, SeriesSketch> deviceSketches = sketches.get(deviceID);
+    return deviceSketches == null ? null : deviceSketches.get(measurement);
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + sketchesSize;
+  }
+
+  /** Writes the sketch file of the TsFile, the series which can not be sketched are skipped. */
+  public void serialize(File tsFile) throws IOException {
+    File sketchFile = getSketchFile(tsFile);
+    File tempFile = FS_FACTORY.getFile(sketchFile.getPath() + ".temp");
+    Map<IDeviceID, List<SeriesLocation>> index = new LinkedHashMap<>();
+    try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
+        BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream)) {
+      long offset = 0;
+      for (Map.Entry<IDeviceID, Map<String, SeriesSketch>> deviceEntry : sketches.entrySet()) {
+        List<SeriesLocation> locations = new ArrayList<>();
+        for (Map.Entry<String, SeriesSketch> entry : deviceEntry.getValue().entrySet()) {
+          if (entry.getValue() == null) {
+            continue;
+          }
+          byte[] bytes = entry.getValue().serialize();
+          outputStream.write(bytes);
+          locations.add(new SeriesLocation(entry.getKey(), offset, bytes.length));
+          offset += bytes.length;
+        }
+        if (!locations.isEmpty()) {
+          index.put(deviceEntry.getKey(), locations);
+        }
+      }
+      ReadWriteIOUtils.write(index.size(), outputStream);
+      for (Map.Entry<IDeviceID, List<SeriesLocation>> deviceEntry : index.entrySet()) {
+        deviceEntry.getKey().serialize(outputStream);
+        ReadWriteIOUtils.write(deviceEntry.getValue().size(), outputStream);
+        for (SeriesLocation location : deviceEntry.getValue()) {
+          ReadWriteIOUtils.write(location.measurement, outputStream);
+          ReadWriteIOUtils.write(location.offset, outputStream);
+          ReadWriteIOUtils.write(location.length, outputStream);
+        }
+      }
+      ReadWriteIOUtils.write(offset, outputStream);
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+    }
+    FS_FACTORY.deleteIfExists(sketchFile);
+    FS_FACTORY.moveFile(tempFile, sketchFile);
+  }
+
+  /** Reads all sketches in the sketch file of the TsFile. */
+  public static TsFileSketch deserialize(File tsFile) throws IOException {
+    TsFileSketch tsFileSketch = new TsFileSketch();
+    try (FileChannel channel =
+        FileChannel.open(getSketchFile(tsFile).toPath(), StandardOpenOption.READ)) {
+      for (Map.Entry<IDeviceID, Map<String, long[]>> deviceEntry :
+          readIndex(channel).entrySet()) {
+        Map<String, SeriesSketch> deviceSketches = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : deviceEntry.getValue().entrySet()) {
+          SeriesSketch sketch = readSeriesSketch(channel, entry.getValue());
+          deviceSketches.put(entry.getKey(), sketch);
+          tsFileSketch.sketchesSize += sketch.getEstimatedSize();
+        }
+        tsFileSketch.sketches.put(deviceEntry.getKey(), deviceSketches);
+      }
+    }
+    return tsFileSketch;
+  }
+
+  /**
+   * Reads the index of a sketch file.
+   *
+   * @return device -> measurement -> {offset, length} of the series sketch
+   */
+  static Map<IDeviceID, Map<String, long[]>> readIndex(FileChannel channel) throws IOException {
+    long fileSize = channel.size();
+    ByteBuffer indexOffsetBuffer = readFully(channel, fileSize - Long.BYTES, Long.BYTES);
+    long indexOffset = ReadWriteIOUtils.readLong(indexOffsetBuffer);
+    ByteBuffer buffer =
+        readFully(channel, indexOffset, (int) (fileSize - Long.BYTES - indexOffset));
+    int deviceCount = ReadWriteIOUtils.readInt(buffer);
+    Map<IDeviceID, Map<String, long[]>> index = new HashMap<>(deviceCount);
+    for (int i = 0; i < deviceCount; i++) {
+      IDeviceID deviceID = Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(buffer);
+      int seriesCount = ReadWriteIOUtils.readInt(buffer);
+      Map<String, long[]> locations = new HashMap<>(seriesCount);
+      for (int j = 0; j < seriesCount; j++) {
+        String measurement = ReadWriteIOUtils.readString(buffer);
+        long offset = ReadWriteIOUtils.readLong(buffer);
+        int length = ReadWriteIOUtils.readInt(buffer);
+        locations.put(measurement, new long[] {offset, length});
+      }
+      index.put(deviceID, locations);
+    }
+    return index;
+  }
+
+  static SeriesSketch readSeriesSketch(FileChannel channel, long[] location) throws IOException {
+    return SeriesSketch.deserialize(readFully(channel, location[0], (int) location[1]));
+  }
+
+  private static ByteBuffer readFully(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of sketch file at " + position);
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static class SeriesLocation {
+    private final String measurement;
+    private final long offset;
+    private final int length;
+
+    private SeriesLocation(String measurement, long offset, int length) {
+      this.measurement = measurement;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
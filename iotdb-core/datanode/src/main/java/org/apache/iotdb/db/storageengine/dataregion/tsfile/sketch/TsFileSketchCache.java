@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * This class caches the indexes of the sketch files of TsFiles, so that a query reads only the
+ * sketches of the series it aggregates. A TsFile without a sketch file is cached with an empty
+ * index, since the sketch file is always written before the TsFile becomes visible to queries.
+ */
+public class TsFileSketchCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileSketchCache.class);
+
+  // estimated memory footprint of a series in the index besides its measurement name
+  private static final int SERIES_OVERHEAD_IN_BYTES = 128;
+  private static final Map<IDeviceID, Map<String, long[]>> EMPTY_INDEX = Collections.emptyMap();
+
+  // tsfile path -> index of its sketch file
+  private final Cache<String, Map<IDeviceID, Map<String, long[]>>> lruCache;
+
+  private TsFileSketchCache() {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(
+                IoTDBDescriptor.getInstance().getConfig().getSeriesSketchCacheSizeInByte())
+            .weigher(
+                (Weigher<String, Map<IDeviceID, Map<String, long[]>>>)
+                    (path, index) -> (int) Math.min(estimateSize(path, index), Integer.MAX_VALUE))
+            .build();
+  }
+
+  public static TsFileSketchCache getInstance() {
+    return TsFileSketchCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Get the sketch of the series in the sealed TsFile.
+   *
+   * @return null if the series is not sketched or the sketch file can not be read
+   */
+  public SeriesSketch get(TsFileResource resource, IDeviceID deviceID, String measurement) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSketch()
+        || !resource.isClosed()) {
+      return null;
+    }
+    File tsFile = resource.getTsFile();
+    Map<IDeviceID, Map<String, long[]>> index =
+        lruCache.get(tsFile.getPath(), path -> loadIndex(tsFile));
+    Map<String, long[]> locations = index.get(deviceID);
+    long[] location = locations == null ? null : locations.get(measurement);
+    if (location == null) {
+      return null;
+    }
+    try (FileChannel channel =
+        FileChannel.open(TsFileSketch.getSketchFile(tsFile).toPath(), StandardOpenOption.READ)) {
+      return TsFileSketch.readSeriesSketch(channel, location);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read the sketch of {}.{} in {}", deviceID, measurement, tsFile, e);
+      lruCache.invalidate(tsFile.getPath());
+      return null;
+    }
+  }
+
+  /** Called when the sketch file of the TsFile is removed or moved. */
+  public void invalidate(File tsFile) {
+    lruCache.invalidate(tsFile.getPath());
+  }
+
+  @TestOnly
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  private static Map<IDeviceID, Map<String, long[]>> loadIndex(File tsFile) {
+    File sketchFile = TsFileSketch.getSketchFile(tsFile);
+    if (!sketchFile.exists()) {
+      return EMPTY_INDEX;
+    }
+    try (FileChannel channel = FileChannel.open(sketchFile.toPath(), StandardOpenOption.READ)) {
+      return TsFileSketch.readIndex(channel);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read the index of sketch file {}", sketchFile, e);
+      return EMPTY_INDEX;
+    }
+  }
+
+  private static long estimateSize(String path, Map<IDeviceID, Map<String, long[]>> index) {
+    long size = path.length() * 2L + SERIES_OVERHEAD_IN_BYTES;
+    for (Map.Entry<IDeviceID, Map<String, long[]>> deviceEntry : index.entrySet()) {
+      size += deviceEntry.getKey().ramBytesUsed();
+      for (String measurement : deviceEntry.getValue().keySet()) {
+        size += measurement.length() * 2L + SERIES_OVERHEAD_IN_BYTES;
+      }
+    }
+    return size;
+  }
+
+  private static class TsFileSketchCacheHolder {
+    private static final TsFileSketchCache INSTANCE = new TsFileSketchCache();
+
+    private TsFileSketchCacheHolder() {}
+  }
+}
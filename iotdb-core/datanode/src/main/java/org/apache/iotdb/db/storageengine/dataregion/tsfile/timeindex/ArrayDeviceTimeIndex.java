@@ -56,6 +56,8 @@ public class ArrayDeviceTimeIndex implements ITimeIndex {
 
   public static final int INIT_ARRAY_SIZE = 64;
 
+  private static final long INTEGER_SIZE = RamUsageEstimator.shallowSizeOfInstance(Integer.class);
+
   /** start times array. */
   protected long[] startTimes;
 
@@ -200,6 +202,39 @@ public class ArrayDeviceTimeIndex implements ITimeIndex {
     return devices;
   }
 
+  /**
+   * Deserialize TimeIndex into a FileTimeIndex. The devices are read to collect their end times and
+   * to reach the rest of the .resource file, but are not kept in the time index.
+   *
+   * @param endTimeMap collect the end time of each device
+   * @return the FileTimeIndex and the estimated ram size of the ArrayDeviceTimeIndex
+   */
+  public static Pair<FileTimeIndex, Long> deserializeFileTimeIndex(
+      InputStream inputStream, Map<IDeviceID, Long> endTimeMap) throws IOException {
+    int deviceNum = ReadWriteIOUtils.readInt(inputStream);
+    long[] endTimes = new long[deviceNum];
+    long minStartTime = Long.MAX_VALUE;
+    long maxEndTime = Long.MIN_VALUE;
+    for (int i = 0; i < deviceNum; i++) {
+      minStartTime = Math.min(minStartTime, ReadWriteIOUtils.readLong(inputStream));
+      endTimes[i] = ReadWriteIOUtils.readLong(inputStream);
+      maxEndTime = Math.max(maxEndTime, endTimes[i]);
+    }
+
+    long arraySize =
+        RamUsageEstimator.alignObjectSize(
+            RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) Long.BYTES * deviceNum);
+    long ramSize = INSTANCE_SIZE + 2 * arraySize;
+    for (int i = 0; i < deviceNum; i++) {
+      IDeviceID deviceID = Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(inputStream);
+      int index = ReadWriteIOUtils.readInt(inputStream);
+      endTimeMap.put(deviceID, endTimes[index]);
+      ramSize +=
+          RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY + deviceID.ramBytesUsed() + INTEGER_SIZE;
+    }
+    return new Pair<>(new FileTimeIndex(minStartTime, maxEndTime), ramSize);
+  }
+
   @Override
   public boolean endTimeEmpty() {
     for (long endTime : endTimes) {
@@ -100,6 +100,30 @@ public class WALManager implements IService {
     return walNodesManager.applyForWALNode(applicantUniqueId);
   }
 
+  /**
+   * Apply for a wal node for the TsFileProcessor of the data region, the data regions of the
+   * wal_free_databases get a fake node that skips the wal.
+   */
+  public IWALNode applyForWALNode(String dataRegionName, boolean sequence) {
+    if (isWALFreeDataRegion(dataRegionName)) {
+      return WALFakeNode.getSuccessInstance();
+    }
+    return applyForWALNode(getApplicantUniqueId(dataRegionName, sequence));
+  }
+
+  /**
+   * @param dataRegionName database name and data region id joined by {@link
+   *     IoTDBConstant#FILE_NAME_SEPARATOR}
+   */
+  public static boolean isWALFreeDataRegion(String dataRegionName) {
+    if (config.getWalFreeDatabases().isEmpty()) {
+      return false;
+    }
+    int separatorIndex = dataRegionName.lastIndexOf(FILE_NAME_SEPARATOR);
+    return separatorIndex > 0
+        && config.isWalFreeDatabase(dataRegionName.substring(0, separatorIndex));
+  }
+
   /** WAL node will be registered only when using iot series consensus protocol. */
   public void registerWALNode(
       String applicantUniqueId, String logDirectory, long startFileVersion, long startSearchIndex) {
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover;
+
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.file.UnsealedTsFileRecoverPerformer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This queue deserializes and redoes the wal entries of one memTable on the redo thread pool. At
+ * most one thread drains the queue at a time, so the entries of one memTable are redone in the
+ * order they are added, while the entries of different memTables are redone concurrently.
+ */
+class WALEntryRedoQueue {
+  private static final Logger logger = LoggerFactory.getLogger(WALEntryRedoQueue.class);
+
+  private final UnsealedTsFileRecoverPerformer recoverPerformer;
+  // null means redoing the entries in the caller thread
+  private final ExecutorService redoThreadPool;
+  // limits the size of the entries waiting to be redone, one permit stands for one byte
+  private final Semaphore bufferPermits;
+  private final int maxPermitsPerEntry;
+
+  private final Queue<ByteBuffer> entries = new ConcurrentLinkedQueue<>();
+  // true when one thread is draining the queue
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  // guarded by this
+  private long pendingEntriesNum = 0;
+  // the first error thrown out of redoing, the remaining entries are discarded once it is set
+  private volatile Throwable failure;
+
+  WALEntryRedoQueue(
+      UnsealedTsFileRecoverPerformer recoverPerformer,
+      ExecutorService redoThreadPool,
+      Semaphore bufferPermits,
+      int maxPermitsPerEntry) {
+    this.recoverPerformer = recoverPerformer;
+    this.redoThreadPool = redoThreadPool;
+    this.bufferPermits = bufferPermits;
+    this.maxPermitsPerEntry = maxPermitsPerEntry;
+  }
+
+  /** Add one serialized wal entry, blocks when too many entries are waiting to be redone. */
+  void add(ByteBuffer buffer) throws InterruptedException {
+    if (redoThreadPool == null) {
+      redo(buffer);
+      return;
+    }
+    bufferPermits.acquire(permitsOf(buffer));
+    synchronized (this) {
+      pendingEntriesNum++;
+    }
+    entries.add(buffer);
+    scheduleIfIdle();
+  }
+
+  private void scheduleIfIdle() {
+    if (draining.compareAndSet(false, true)) {
+      redoThreadPool.submit(this::drain);
+    }
+  }
+
+  private void drain() {
+    try {
+      ByteBuffer buffer;
+      while ((buffer = entries.poll()) != null) {
+        try {
+          if (failure == null) {
+            redo(buffer);
+          }
+        } finally {
+          bufferPermits.release(permitsOf(buffer));
+          entryRedone();
+        }
+      }
+    } catch (Throwable t) {
+      // redo only catches exceptions, errors would otherwise be swallowed by the thread pool
+      failure = t;
+      logger.error(
+          "Fail to redo wal entries of TsFile {}, discard the remaining entries.",
+          recoverPerformer.getTsFileAbsolutePath(),
+          t);
+    } finally {
+      draining.set(false);
+      // the entries may be added after the last poll and before resetting the flag
+      if (!entries.isEmpty()) {
+        scheduleIfIdle();
+      }
+    }
+  }
+
+  private void redo(ByteBuffer buffer) {
+    try {
+      WALEntry walEntry =
+          WALEntry.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+      recoverPerformer.redoLog(walEntry);
+    } catch (Exception e) {
+      logger.warn(
+          "Fail to redo wal entry of TsFile {}, skip it.",
+          recoverPerformer.getTsFileAbsolutePath(),
+          e);
+    }
+    WALRecoverManager.getInstance().recordRedoneEntry();
+  }
+
+  private int permitsOf(ByteBuffer buffer) {
+    // an entry larger than all permits should not block forever
+    return Math.min(buffer.capacity(), maxPermitsPerEntry);
+  }
+
+  private synchronized void entryRedone() {
+    if (--pendingEntriesNum == 0) {
+      notifyAll();
+    }
+  }
+
+  /** Wait until all added entries are redone or discarded. */
+  synchronized void waitUntilAllRedone() {
+    boolean interrupted = false;
+    while (pendingEntriesNum > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        // the recovering memTable can't be closed before all entries are redone
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Returns the error thrown out of redoing, or null if all entries are redone. */
+  Throwable getFailure() {
+    return failure;
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.MemTableInfo;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.BrokenWALFileException;
+import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALRecoverException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALMetaData;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALReader;
@@ -41,8 +42,6 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -62,6 +61,7 @@ public class WALNodeRecoverTask implements Runnable {
   private static final Logger logger = LoggerFactory.getLogger(WALNodeRecoverTask.class);
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private static final WALRecoverManager walRecoverManger = WALRecoverManager.getInstance();
+  private static final long PROGRESS_LOG_INTERVAL_IN_MS = 30_000L;
 
   // this directory store one wal node's .wal and .checkpoint files
   private final File logDirectory;
@@ -89,6 +89,11 @@ public class WALNodeRecoverTask implements Runnable {
     try {
       recoverInfoFromCheckpoints();
       recoverTsFiles();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
+        recoverPerformer.getRecoverListener().fail(e);
+      }
     } catch (Exception e) {
       for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
         recoverPerformer.getRecoverListener().fail(e);
@@ -234,7 +239,7 @@ public class WALNodeRecoverTask implements Runnable {
     }
   }
 
-  private void recoverTsFiles() {
+  private void recoverTsFiles() throws InterruptedException {
     if (memTableId2RecoverPerformer.isEmpty()) {
       return;
     }
@@ -253,58 +258,110 @@ public class WALNodeRecoverTask implements Runnable {
                 WALFileUtils.walFilenameFilter(dir, name)
                     && WALFileUtils.parseVersionId(name) >= firstValidVersionId);
     if (walFiles == null) {
-      endRecovery();
+      endRecovery(Collections.emptyMap());
       return;
     }
     // asc sort by version id
     WALFileUtils.ascSortByVersionId(walFiles);
+    long totalSize = 0;
+    for (File walFile : walFiles) {
+      totalSize += walFile.length();
+    }
+    walRecoverManger.addWALSizeToReplay(totalSize);
+    // entries are deserialized and redone by the queue of their memTable
+    Map<Long, WALEntryRedoQueue> memTableId2RedoQueue = new HashMap<>();
+    for (Map.Entry<Long, UnsealedTsFileRecoverPerformer> entry :
+        memTableId2RecoverPerformer.entrySet()) {
+      memTableId2RedoQueue.put(entry.getKey(), walRecoverManger.createRedoQueue(entry.getValue()));
+    }
+    long startTime = System.currentTimeMillis();
+    long lastLogTime = startTime;
+    long replayedSize = 0;
     // read .wal files and redo logs
-    for (int i = 0; i < walFiles.length; ++i) {
-      File walFile = walFiles[i];
-      try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
-        if (Collections.disjoint(memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
+    try {
+      for (int i = 0; i < walFiles.length; ++i) {
+        File walFile = walFiles[i];
+        replayWALFile(walFile, memTableId2RedoQueue);
+        replayedSize += walFile.length();
+        walRecoverManger.recordReplayedWALSize(walFile.length());
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastLogTime >= PROGRESS_LOG_INTERVAL_IN_MS) {
+          lastLogTime = currentTime;
+          logger.info(
+              "Replayed {}/{} wal files ({}/{} MB) in the directory {}, {} MB/s.",
+              i + 1,
+              walFiles.length,
+              replayedSize / 1024 / 1024,
+              totalSize / 1024 / 1024,
+              logDirectory,
+              String.format(
+                  "%.2f", replayedSize / 1024.0d / 1024.0d / (currentTime - startTime) * 1000));
+        }
+      }
+    } finally {
+      // the recovering memTables can only be flushed or closed after all entries are redone
+      for (WALEntryRedoQueue redoQueue : memTableId2RedoQueue.values()) {
+        redoQueue.waitUntilAllRedone();
+      }
+    }
+    endRecovery(memTableId2RedoQueue);
+  }
+
+  private void replayWALFile(File walFile, Map<Long, WALEntryRedoQueue> memTableId2RedoQueue)
+      throws InterruptedException {
+    try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
+      if (Collections.disjoint(memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
+        return;
+      }
+      while (reader.hasNext()) {
+        ByteBuffer buffer = reader.next();
+        // see WALInfoEntry#serialize, entry type
+        buffer.position(Byte.BYTES);
+        long memTableId = buffer.getLong();
+        if (!memTableId2Info.containsKey(memTableId)) {
           continue;
         }
-        while (reader.hasNext()) {
-          ByteBuffer buffer = reader.next();
-          // see WALInfoEntry#serialize, entry type
-          buffer.position(Byte.BYTES);
-          long memTableId = buffer.getLong();
-          if (!memTableId2Info.containsKey(memTableId)) {
-            continue;
-          }
-          buffer.clear();
-          WALEntry walEntry =
-              WALEntry.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
-          UnsealedTsFileRecoverPerformer recoverPerformer =
-              memTableId2RecoverPerformer.get(walEntry.getMemTableId());
-          if (recoverPerformer != null) {
-            recoverPerformer.redoLog(walEntry);
-          } else {
-            logger.debug(
-                "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
-          }
+        buffer.clear();
+        WALEntryRedoQueue redoQueue = memTableId2RedoQueue.get(memTableId);
+        if (redoQueue != null) {
+          redoQueue.add(buffer);
+        } else {
+          logger.debug("Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
         }
-      } catch (BrokenWALFileException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node: {}",
-            walFile.getAbsoluteFile(),
-            e.getMessage());
-      } catch (IOException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node.",
-            walFile.getAbsoluteFile(),
-            e);
-      } catch (Exception e) {
-        logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
       }
+    } catch (InterruptedException e) {
+      throw e;
+    } catch (BrokenWALFileException e) {
+      logger.warn(
+          "Fail to read memTable ids from the wal file {} of wal node: {}",
+          walFile.getAbsoluteFile(),
+          e.getMessage());
+    } catch (IOException e) {
+      logger.warn(
+          "Fail to read memTable ids from the wal file {} of wal node.",
+          walFile.getAbsoluteFile(),
+          e);
+    } catch (Exception e) {
+      logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
     }
-    endRecovery();
   }
 
-  private void endRecovery() {
+  private void endRecovery(Map<Long, WALEntryRedoQueue> memTableId2RedoQueue) {
     // end recovering all recover performers
-    for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
+    for (Map.Entry<Long, UnsealedTsFileRecoverPerformer> entry :
+        memTableId2RecoverPerformer.entrySet()) {
+      UnsealedTsFileRecoverPerformer recoverPerformer = entry.getValue();
+      WALEntryRedoQueue redoQueue = memTableId2RedoQueue.get(entry.getKey());
+      if (redoQueue != null && redoQueue.getFailure() != null) {
+        recoverPerformer
+            .getRecoverListener()
+            .fail(
+                new WALRecoverException(
+                    "Fail to redo wal entries of TsFile "
+                        + recoverPerformer.getTsFileAbsolutePath(),
+                    redoQueue.getFailure()));
+        continue;
+      }
       try {
         recoverPerformer.endRecovery();
         recoverPerformer.getRecoverListener().succeed();
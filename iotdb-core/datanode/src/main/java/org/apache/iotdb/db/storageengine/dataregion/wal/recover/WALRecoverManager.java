@@ -27,6 +27,8 @@ import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALRecoverException;
@@ -47,6 +49,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils.getTsFileRelativePath;
 
@@ -54,6 +58,7 @@ import static org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtil
 public class WALRecoverManager {
   private static final Logger logger = LoggerFactory.getLogger(WALRecoverManager.class);
   private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   // true when the recover procedure has started
   private volatile boolean hasStarted = false;
@@ -64,6 +69,16 @@ public class WALRecoverManager {
 
   // threads to recover wal nodes
   private ExecutorService recoverThreadPool;
+  // threads to redo wal entries into the recovering memTables, shared by all wal nodes
+  private ExecutorService redoThreadPool;
+  // limits the size of the wal entries read but not redone yet, one permit stands for one byte
+  private Semaphore redoBufferPermits;
+  private int redoBufferSize;
+
+  // progress of the recovery, for logs and metrics
+  private final AtomicLong walSizeToReplay = new AtomicLong(0);
+  private final AtomicLong replayedWALSize = new AtomicLong(0);
+  private final AtomicLong redoneEntriesNum = new AtomicLong(0);
   // stores all UnsealedTsFileRecoverPerformer submitted by data region processors
   private final Map<String, UnsealedTsFileRecoverPerformer> absolutePath2RecoverPerformer =
       new ConcurrentHashMap<>();
@@ -102,9 +117,20 @@ public class WALRecoverManager {
       logger.info(
           "Data regions have submitted all unsealed TsFiles, start recovering TsFiles in each wal node.");
       // recover each wal node's TsFiles
+      long startTime = System.currentTimeMillis();
       if (!walNodeDirs.isEmpty()) {
         recoverThreadPool =
             IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.WAL_RECOVER.getName());
+        redoThreadPool =
+            IoTDBThreadPoolFactory.newFixedThreadPool(
+                config.getWalRecoverThreadCount(), ThreadName.WAL_RECOVER_REDO.getName());
+        // each redo thread can keep one wal buffer of entries waiting
+        redoBufferSize =
+            (int)
+                Math.min(
+                    (long) config.getWalBufferSize() * config.getWalRecoverThreadCount(),
+                    Integer.MAX_VALUE);
+        redoBufferPermits = new Semaphore(redoBufferSize);
         CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
         for (File walNodeDir : walNodeDirs) {
           recoverThreadPool.submit(new WALNodeRecoverTask(walNodeDir, allNodesRecoveredLatch));
@@ -117,6 +143,13 @@ public class WALRecoverManager {
           throw new WALRecoverException("Fail to recover wal.", e);
         }
       }
+      long costTime = Math.max(System.currentTimeMillis() - startTime, 1);
+      logger.info(
+          "Replayed {} MB of wal files and redone {} wal entries in {} ms, {} MB/s.",
+          replayedWALSize.get() / 1024 / 1024,
+          redoneEntriesNum.get(),
+          costTime,
+          String.format("%.2f", replayedWALSize.get() / 1024.0d / 1024.0d / costTime * 1000));
       // deal with remaining TsFiles which don't have wal
       asyncRecoverLeftTsFiles();
     } catch (DataRegionException e) {
@@ -214,6 +247,36 @@ public class WALRecoverManager {
     return null;
   }
 
+  /** Create the redo queue of one recovering memTable. */
+  WALEntryRedoQueue createRedoQueue(UnsealedTsFileRecoverPerformer recoverPerformer) {
+    return new WALEntryRedoQueue(
+        recoverPerformer, redoThreadPool, redoBufferPermits, redoBufferSize);
+  }
+
+  void addWALSizeToReplay(long size) {
+    walSizeToReplay.addAndGet(size);
+  }
+
+  void recordReplayedWALSize(long size) {
+    replayedWALSize.addAndGet(size);
+  }
+
+  void recordRedoneEntry() {
+    redoneEntriesNum.incrementAndGet();
+  }
+
+  public long getWALSizeToReplay() {
+    return walSizeToReplay.get();
+  }
+
+  public long getReplayedWALSize() {
+    return replayedWALSize.get();
+  }
+
+  public long getRedoneEntriesNum() {
+    return redoneEntriesNum.get();
+  }
+
   public ExceptionalCountDownLatch getAllDataRegionScannedLatch() {
     return allDataRegionScannedLatch;
   }
@@ -228,12 +291,19 @@ public class WALRecoverManager {
       recoverThreadPool.shutdown();
       recoverThreadPool = null;
     }
+    if (redoThreadPool != null) {
+      redoThreadPool.shutdown();
+      redoThreadPool = null;
+    }
   }
 
   @TestOnly
   public void clear() {
     stop();
     hasStarted = false;
+    walSizeToReplay.set(0);
+    replayedWALSize.set(0);
+    redoneEntriesNum.set(0);
   }
 
   public static WALRecoverManager getInstance() {
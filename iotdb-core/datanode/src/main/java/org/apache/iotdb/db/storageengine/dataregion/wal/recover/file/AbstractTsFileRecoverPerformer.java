@@ -102,7 +102,7 @@ public abstract class AbstractTsFileRecoverPerformer implements Closeable {
 
   private void loadResourceFile() throws IOException {
     try {
-      tsFileResource.deserialize();
+      deserializeResourceFile();
     } catch (Throwable e) {
       logger.warn(
           "Cannot deserialize .resource file of {}, try to reconstruct it.",
@@ -112,6 +112,10 @@ public abstract class AbstractTsFileRecoverPerformer implements Closeable {
     }
   }
 
+  protected void deserializeResourceFile() throws IOException {
+    tsFileResource.deserialize();
+  }
+
   protected void reconstructResourceFile() throws IOException {
     try (TsFileSequenceReader reader =
         new TsFileSequenceReader(tsFileResource.getTsFile().getAbsolutePath())) {
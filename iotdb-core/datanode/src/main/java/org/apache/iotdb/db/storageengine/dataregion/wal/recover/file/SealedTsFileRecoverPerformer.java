@@ -22,12 +22,27 @@ package org.apache.iotdb.db.storageengine.dataregion.wal.recover.file;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.Map;
 
 /** This class is used to help recover all sealed TsFiles, except unsealed TsFile at zero level. */
 public class SealedTsFileRecoverPerformer extends AbstractTsFileRecoverPerformer {
+  // when not null, only the FileTimeIndex is loaded from the .resource file, and the end times of
+  // the devices are collected into it
+  @Nullable private final Map<IDeviceID, Long> deviceEndTimeMap;
+
   public SealedTsFileRecoverPerformer(TsFileResource tsFileResource) {
+    this(tsFileResource, null);
+  }
+
+  public SealedTsFileRecoverPerformer(
+      TsFileResource tsFileResource, @Nullable Map<IDeviceID, Long> deviceEndTimeMap) {
     super(tsFileResource);
+    this.deviceEndTimeMap = deviceEndTimeMap;
   }
 
   /**
@@ -53,4 +68,13 @@ public class SealedTsFileRecoverPerformer extends AbstractTsFileRecoverPerformer
       }
     }
   }
+
+  @Override
+  protected void deserializeResourceFile() throws IOException {
+    if (deviceEndTimeMap == null) {
+      super.deserializeResourceFile();
+    } else {
+      tsFileResource.deserializeWithFileTimeIndex(deviceEndTimeMap);
+    }
+  }
 }
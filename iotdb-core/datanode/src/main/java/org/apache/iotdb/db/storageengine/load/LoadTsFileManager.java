@@ -80,6 +80,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -138,7 +139,7 @@ public class LoadTsFileManager {
 
         final CleanupTask cleanupTask = cleanupTaskQueue.peek();
         if (cleanupTask.scheduledTime <= System.currentTimeMillis()) {
-          if (cleanupTask.isLoadTaskRunning) {
+          if (cleanupTask.isLoadTaskRunning()) {
             cleanupTaskQueue.poll();
             cleanupTask.resetScheduledTime();
             cleanupTaskQueue.add(cleanupTask);
@@ -206,10 +207,13 @@ public class LoadTsFileManager {
       throws IOException {
     if (!uuid2WriterManager.containsKey(uuid)) {
       synchronized (uuid2CleanupTask) {
-        final CleanupTask cleanupTask =
-            new CleanupTask(uuid, CONFIG.getLoadCleanupTaskExecutionDelayTimeSeconds() * 1000);
-        uuid2CleanupTask.put(uuid, cleanupTask);
-        cleanupTaskQueue.add(cleanupTask);
+        // pieces of the same load may arrive concurrently for different regions
+        if (!uuid2CleanupTask.containsKey(uuid)) {
+          final CleanupTask cleanupTask =
+              new CleanupTask(uuid, CONFIG.getLoadCleanupTaskExecutionDelayTimeSeconds() * 1000);
+          uuid2CleanupTask.put(uuid, cleanupTask);
+          cleanupTaskQueue.add(cleanupTask);
+        }
       }
     }
 
@@ -236,18 +240,21 @@ public class LoadTsFileManager {
             exception.get());
       }
 
-      for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
-        switch (tsFileData.getType()) {
-          case CHUNK:
-            ChunkData chunkData = (ChunkData) tsFileData;
-            writerManager.write(
-                new DataPartitionInfo(dataRegion, chunkData.getTimePartitionSlot()), chunkData);
-            break;
-          case DELETION:
-            writerManager.writeDeletion(dataRegion, (DeletionData) tsFileData);
-            break;
-          default:
-            throw new IOException("Unsupported TsFileData type: " + tsFileData.getType());
+      // pieces of different regions are written concurrently into their own writers
+      synchronized (writerManager.getWriteLock(dataRegion)) {
+        for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
+          switch (tsFileData.getType()) {
+            case CHUNK:
+              ChunkData chunkData = (ChunkData) tsFileData;
+              writerManager.write(
+                  new DataPartitionInfo(dataRegion, chunkData.getTimePartitionSlot()), chunkData);
+              break;
+            case DELETION:
+              writerManager.writeDeletion(dataRegion, (DeletionData) tsFileData);
+              break;
+            default:
+              throw new IOException("Unsupported TsFileData type: " + tsFileData.getType());
+          }
         }
       }
     } finally {
@@ -384,14 +391,19 @@ public class LoadTsFileManager {
     private Map<DataPartitionInfo, TsFileResource> dataPartition2Resource;
     private Map<DataPartitionInfo, IDeviceID> dataPartition2LastDevice;
     private Map<DataPartitionInfo, ModificationFile> dataPartition2ModificationFile;
+    // serializes the pieces written into the writers of the same data region
+    private final Map<DataRegion, Object> dataRegion2WriteLock = new ConcurrentHashMap<>();
+    // shared by all writers, it is reduced when a new writer is added for memory control
+    private volatile long chunkMetadataMaxSizeForEachWriter =
+        CONFIG.getLoadChunkMetadataMemorySizeInBytes();
     private boolean isClosed;
 
     private TsFileWriterManager(File taskDir) {
       this.taskDir = taskDir;
-      this.dataPartition2Writer = new HashMap<>();
-      this.dataPartition2Resource = new HashMap<>();
-      this.dataPartition2LastDevice = new HashMap<>();
-      this.dataPartition2ModificationFile = new HashMap<>();
+      this.dataPartition2Writer = new ConcurrentHashMap<>();
+      this.dataPartition2Resource = new ConcurrentHashMap<>();
+      this.dataPartition2LastDevice = new ConcurrentHashMap<>();
+      this.dataPartition2ModificationFile = new ConcurrentHashMap<>();
       this.isClosed = false;
 
       clearDir(taskDir);
@@ -406,6 +418,10 @@ public class LoadTsFileManager {
       }
     }
 
+    private Object getWriteLock(DataRegion dataRegion) {
+      return dataRegion2WriteLock.computeIfAbsent(dataRegion, region -> new Object());
+    }
+
     /**
      * It should be noted that all AlignedChunkData of the same partition split from a source file
      * should be guaranteed to be written to the same new file. Otherwise, for detached
@@ -425,10 +441,9 @@ public class LoadTsFileManager {
           return;
         }
 
-        final long chunkMetadataMaxSizeForEachWriter =
-            CONFIG.getLoadChunkMetadataMemorySizeInBytes() / (dataPartition2Writer.size() + 1);
+        // the metadata size limit is set below when the writer is added
         final TsFileIOWriter writer =
-            new TsFileIOWriter(newTsFile, chunkMetadataMaxSizeForEachWriter);
+            new TsFileIOWriter(newTsFile, CONFIG.getLoadChunkMetadataMemorySizeInBytes());
         final TsFileResource resource = new TsFileResource(writer.getFile());
         writer.addFlushListener(
             // Update time index by chunk groups going to be flushed to temp file
@@ -445,11 +460,15 @@ public class LoadTsFileManager {
                     }));
 
         // When a new writer is added, we need to reduce the metadata size limit of all existing
-        // writers for memory control
-        for (final TsFileIOWriter existingWriter : dataPartition2Writer.values()) {
-          existingWriter.setMaxMetadataSize(chunkMetadataMaxSizeForEachWriter);
+        // writers for memory control. The existing writers of other regions are being written
+        // under the locks of their regions, so each writer takes the new limit before it checks
+        // its metadata size, under the lock of its own region.
+        synchronized (dataPartition2Writer) {
+          dataPartition2Writer.put(partitionInfo, writer);
+          chunkMetadataMaxSizeForEachWriter =
+              CONFIG.getLoadChunkMetadataMemorySizeInBytes() / dataPartition2Writer.size();
         }
-        dataPartition2Writer.put(partitionInfo, writer);
+        writer.setMaxMetadataSize(chunkMetadataMaxSizeForEachWriter);
         dataPartition2Resource.put(partitionInfo, resource);
       }
       TsFileIOWriter writer = dataPartition2Writer.get(partitionInfo);
@@ -474,6 +493,7 @@ public class LoadTsFileManager {
       if (!Objects.equals(chunkData.getDevice(), dataPartition2LastDevice.get(partitionInfo))) {
         if (dataPartition2LastDevice.containsKey(partitionInfo)) {
           writer.endChunkGroup();
+          writer.setMaxMetadataSize(chunkMetadataMaxSizeForEachWriter);
           writer.checkMetadataSizeAndMayFlush();
         }
         writer.startChunkGroup(chunkData.getDevice());
@@ -707,7 +727,7 @@ public class LoadTsFileManager {
     private final long delayInMs;
     private long scheduledTime;
 
-    private volatile boolean isLoadTaskRunning = false;
+    private final AtomicInteger runningLoadTaskCount = new AtomicInteger(0);
     private volatile boolean isCanceled = false;
 
     private CleanupTask(String uuid, long delayInMs) {
@@ -717,15 +737,19 @@ public class LoadTsFileManager {
     }
 
     public void markLoadTaskRunning() {
-      isLoadTaskRunning = true;
+      runningLoadTaskCount.incrementAndGet();
       resetScheduledTime();
     }
 
     public void markLoadTaskNotRunning() {
-      isLoadTaskRunning = false;
+      runningLoadTaskCount.decrementAndGet();
       resetScheduledTime();
     }
 
+    public boolean isLoadTaskRunning() {
+      return runningLoadTaskCount.get() > 0;
+    }
+
     public void resetScheduledTime() {
       scheduledTime = System.currentTimeMillis() + delayInMs;
     }
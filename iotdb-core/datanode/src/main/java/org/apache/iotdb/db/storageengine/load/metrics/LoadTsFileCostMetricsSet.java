@@ -43,6 +43,8 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
   public static final String SCHEDULER_CAST_TABLETS = "scheduler_cast_tablets";
   public static final String ANALYSIS_CAST_TABLETS = "analysis_cast_tablets";
   public static final String ANALYSIS_ASYNC_MOVE = "analysis_async_move";
+  public static final String FIRST_PHASE_DISPATCH_PIECE = "first_phase_dispatch_piece";
+  public static final String FIRST_PHASE_WAIT_DISPATCH = "first_phase_wait_dispatch";
 
   private LoadTsFileCostMetricsSet() {
     // empty constructor
@@ -55,8 +57,11 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
   private Timer schedulerCastTabletsTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer analysisCastTabletsTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer analysisAsyncMoveTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer firstPhaseDispatchPieceTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer firstPhaseWaitDispatchTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
   private Counter diskIOCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter dispatchedPieceSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   public void recordPhaseTimeCost(String stage, long costTimeInNanos) {
     switch (stage) {
@@ -81,6 +86,12 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
       case ANALYSIS_ASYNC_MOVE:
         analysisAsyncMoveTimer.updateNanos(costTimeInNanos);
         break;
+      case FIRST_PHASE_DISPATCH_PIECE:
+        firstPhaseDispatchPieceTimer.updateNanos(costTimeInNanos);
+        break;
+      case FIRST_PHASE_WAIT_DISPATCH:
+        firstPhaseWaitDispatchTimer.updateNanos(costTimeInNanos);
+        break;
       default:
         throw new UnsupportedOperationException("Unsupported stage: " + stage);
     }
@@ -90,6 +101,10 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
     diskIOCounter.inc(bytes);
   }
 
+  public void recordDispatchedPieceSize(long bytes) {
+    dispatchedPieceSizeCounter.inc(bytes);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     analyzerTimer =
@@ -131,6 +146,18 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             ANALYSIS_ASYNC_MOVE);
+    firstPhaseDispatchPieceTimer =
+        metricService.getOrCreateTimer(
+            Metric.LOAD_TIME_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            FIRST_PHASE_DISPATCH_PIECE);
+    firstPhaseWaitDispatchTimer =
+        metricService.getOrCreateTimer(
+            Metric.LOAD_TIME_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            FIRST_PHASE_WAIT_DISPATCH);
 
     diskIOCounter =
         metricService.getOrCreateCounter(
@@ -138,6 +165,12 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             "DataNode " + IoTDBDescriptor.getInstance().getConfig().getDataNodeId());
+    dispatchedPieceSizeCounter =
+        metricService.getOrCreateCounter(
+            Metric.LOAD_PIECE_DISPATCH_SIZE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "DataNode " + IoTDBDescriptor.getInstance().getConfig().getDataNodeId());
   }
 
   @Override
@@ -149,7 +182,9 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
             LOAD_LOCALLY,
             SCHEDULER_CAST_TABLETS,
             ANALYSIS_CAST_TABLETS,
-            ANALYSIS_ASYNC_MOVE)
+            ANALYSIS_ASYNC_MOVE,
+            FIRST_PHASE_DISPATCH_PIECE,
+            FIRST_PHASE_WAIT_DISPATCH)
         .forEach(
             stage ->
                 metricService.remove(
@@ -163,6 +198,11 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
         Metric.LOAD_DISK_IO.toString(),
         Tag.NAME.toString(),
         String.valueOf(IoTDBDescriptor.getInstance().getConfig().getDataNodeId()));
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.LOAD_PIECE_DISPATCH_SIZE.toString(),
+        Tag.NAME.toString(),
+        "DataNode " + IoTDBDescriptor.getInstance().getConfig().getDataNodeId());
   }
 
   public static LoadTsFileCostMetricsSet getInstance() {
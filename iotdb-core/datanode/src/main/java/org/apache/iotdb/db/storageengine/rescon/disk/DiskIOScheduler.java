@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.IOSchedulerMetrics;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class schedules the IO on one data directory. The foreground IO (query and flush) is never
+ * throttled, but the latency of the query reads is measured. The background IO (load, pipe and
+ * compaction) shares one rate limiter, which is adjusted every second in an AIMD way: it is halved
+ * when the average latency of the query reads exceeds the configured threshold, and increased
+ * gradually until unlimited when the latency recovers. A byte of compaction costs more permits
+ * than a byte of load, so the compaction yields first.
+ */
+public class DiskIOScheduler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiskIOScheduler.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  static final long ADJUST_INTERVAL_IN_NS = TimeUnit.SECONDS.toNanos(1);
+  // the background IO always makes progress
+  static final double MIN_BACKGROUND_RATE = 1024 * 1024d;
+  // the background IO is not throttled if it is allowed to exceed this rate
+  static final double MAX_BACKGROUND_RATE = 1024 * 1024 * 1024d;
+  private static final double DECREASE_FACTOR = 0.5;
+  private static final double INCREASE_FACTOR = 1.25;
+  // the throttling is released if the rate is far beyond what the background IO uses
+  private static final double UNTHROTTLE_RATIO = 4;
+
+  private final String directory;
+
+  // permits per second, Double.MAX_VALUE means the background IO is not throttled
+  private volatile double backgroundRate = Double.MAX_VALUE;
+  private final RateLimiter backgroundRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  // statistics of the current adjusting interval
+  private final LongAdder queryReadNum = new LongAdder();
+  private final LongAdder queryReadCostInNs = new LongAdder();
+  private final LongAdder backgroundPermits = new LongAdder();
+  private final AtomicLong lastAdjustTime = new AtomicLong(System.nanoTime());
+
+  DiskIOScheduler(String directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Acquire the permits before doing the IO of the given size, blocks if the IO class is
+   * background and the background IO is throttled on the directory.
+   */
+  public void acquire(IOClass ioClass, long bytes) {
+    if (bytes <= 0) {
+      return;
+    }
+    IOSchedulerMetrics.getInstance().recordThroughput(ioClass, bytes);
+    if (!ioClass.isBackground()) {
+      return;
+    }
+    long permits = bytes * ioClass.getWeight();
+    backgroundPermits.add(permits);
+    adjustIfNeeded(System.nanoTime());
+    if (backgroundRate == Double.MAX_VALUE) {
+      return;
+    }
+    long startTime = System.nanoTime();
+    while (permits > 0) {
+      int acquiredPermits = (int) Math.min(permits, Integer.MAX_VALUE);
+      backgroundRateLimiter.acquire(acquiredPermits);
+      permits -= acquiredPermits;
+    }
+    IOSchedulerMetrics.getInstance().recordQueueTime(ioClass, System.nanoTime() - startTime);
+  }
+
+  /** Record the IO of the given size done in costInNs, which is not throttled. */
+  public void recordLatency(IOClass ioClass, long bytes, long costInNs) {
+    IOSchedulerMetrics.getInstance().recordThroughput(ioClass, bytes);
+    if (ioClass == IOClass.QUERY) {
+      queryReadNum.increment();
+      queryReadCostInNs.add(costInNs);
+    }
+    adjustIfNeeded(System.nanoTime());
+  }
+
+  void adjustIfNeeded(long currentTime) {
+    long lastTime = lastAdjustTime.get();
+    long interval = currentTime - lastTime;
+    if (interval < ADJUST_INTERVAL_IN_NS || !lastAdjustTime.compareAndSet(lastTime, currentTime)) {
+      return;
+    }
+    long readNum = queryReadNum.sumThenReset();
+    long readCost = queryReadCostInNs.sumThenReset();
+    double observedBackgroundRate =
+        backgroundPermits.sumThenReset() * (double) TimeUnit.SECONDS.toNanos(1) / interval;
+    if (!CONFIG.isEnableAdaptiveIOScheduling()) {
+      setBackgroundRate(Double.MAX_VALUE);
+      return;
+    }
+    long latencyThreshold =
+        TimeUnit.MILLISECONDS.toNanos(CONFIG.getIoSchedulingQueryLatencyThresholdInMs());
+    if (readNum > 0 && readCost / readNum > latencyThreshold) {
+      if (backgroundRate == Double.MAX_VALUE && observedBackgroundRate == 0) {
+        // the queries are not slowed down by the background IO
+        return;
+      }
+      setBackgroundRate(
+          Math.max(
+              Math.min(backgroundRate, observedBackgroundRate) * DECREASE_FACTOR,
+              MIN_BACKGROUND_RATE));
+    } else if (backgroundRate != Double.MAX_VALUE) {
+      double increasedRate = backgroundRate * INCREASE_FACTOR;
+      setBackgroundRate(
+          increasedRate > MAX_BACKGROUND_RATE
+                  || increasedRate > observedBackgroundRate * UNTHROTTLE_RATIO
+              ? Double.MAX_VALUE
+              : increasedRate);
+    }
+  }
+
+  private void setBackgroundRate(double rate) {
+    if (rate == backgroundRate) {
+      return;
+    }
+    backgroundRate = rate;
+    backgroundRateLimiter.setRate(rate);
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Background IO rate of directory {} is set to {} bytes/s",
+          directory,
+          rate == Double.MAX_VALUE ? "unlimited" : String.format("%.0f", rate));
+    }
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  @TestOnly
+  public double getBackgroundRate() {
+    return backgroundRate;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+/** The classes of the IO on the data directories, scheduled by {@link IOScheduler}. */
+public enum IOClass {
+  /** Reading chunks for queries, never throttled. */
+  QUERY("query", false, 0),
+  /** Writing flushed memTables, never throttled to avoid blocking the writes. */
+  FLUSH("flush", false, 0),
+  /** Writing loaded TsFiles, throttled when queries are slow. */
+  LOAD("load", true, 1),
+  /** Copying the files pinned by pipes, throttled when queries are slow. */
+  PIPE("pipe", true, 1),
+  /** Reading and writing TsFiles by compaction, throttled first when queries are slow. */
+  COMPACTION("compaction", true, 2);
+
+  private final String name;
+  private final boolean background;
+  // one byte of this class costs weight permits of the background rate limiter
+  private final int weight;
+
+  IOClass(String name, boolean background, int weight) {
+    this.name = name;
+    this.background = background;
+    this.weight = weight;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isBackground() {
+    return background;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+}
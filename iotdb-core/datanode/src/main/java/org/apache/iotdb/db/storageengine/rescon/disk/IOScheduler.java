@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tsfile.utils.FSUtils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The entry of the IO scheduling on the data directories. The IO of flush, compaction, query and
+ * load on the same data directory is scheduled by one {@link DiskIOScheduler}, the IO on the files
+ * out of the data directories shares a default one.
+ */
+public class IOScheduler {
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final String DEFAULT_DIRECTORY = "";
+  private static final int MAX_CACHED_FILE_NUM = 10_000;
+
+  // data directory -> scheduler
+  private final Map<String, DiskIOScheduler> diskIOSchedulers = new ConcurrentHashMap<>();
+  private volatile DataDirectories dataDirectories = new DataDirectories(null, new String[0]);
+  // file path -> scheduler, so that the frequent reads of a file don't resolve its data directory
+  // each time
+  private final Cache<String, DiskIOScheduler> fileToDiskIOScheduler =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_FILE_NUM).build();
+
+  private IOScheduler() {}
+
+  public DiskIOScheduler getDiskIOScheduler(File file) {
+    return file == null
+        ? getDefaultDiskIOScheduler()
+        : diskIOSchedulers.computeIfAbsent(
+            getDataDirectory(file.getAbsolutePath()), DiskIOScheduler::new);
+  }
+
+  public DiskIOScheduler getDiskIOScheduler(String filePath) {
+    if (filePath == null) {
+      return getDefaultDiskIOScheduler();
+    }
+    if (dataDirectories.tierDataDirs != CONFIG.getTierDataDirs()) {
+      // the data dirs are modified, the files may belong to other directories
+      fileToDiskIOScheduler.invalidateAll();
+    }
+    return fileToDiskIOScheduler.get(filePath, path -> getDiskIOScheduler(new File(path)));
+  }
+
+  /** The scheduler of the IO whose target directory is unknown. */
+  public DiskIOScheduler getDefaultDiskIOScheduler() {
+    return diskIOSchedulers.computeIfAbsent(DEFAULT_DIRECTORY, DiskIOScheduler::new);
+  }
+
+  private String getDataDirectory(String absolutePath) {
+    String result = DEFAULT_DIRECTORY;
+    for (String directory : getDataDirectories()) {
+      if (directory.length() > result.length() && absolutePath.startsWith(directory)) {
+        result = directory;
+      }
+    }
+    return result;
+  }
+
+  private String[] getDataDirectories() {
+    String[][] tierDataDirs = CONFIG.getTierDataDirs();
+    DataDirectories current = dataDirectories;
+    if (current.tierDataDirs != tierDataDirs) {
+      // the data dirs are modified
+      current =
+          new DataDirectories(
+              tierDataDirs,
+              Arrays.stream(tierDataDirs)
+                  .flatMap(Arrays::stream)
+                  .filter(FSUtils::isLocal)
+                  .map(dir -> new File(dir).getAbsolutePath() + File.separator)
+                  .toArray(String[]::new));
+      dataDirectories = current;
+    }
+    return current.directories;
+  }
+
+  @TestOnly
+  public void clear() {
+    fileToDiskIOScheduler.invalidateAll();
+    diskIOSchedulers.clear();
+  }
+
+  private static class DataDirectories {
+    private final String[][] tierDataDirs;
+    private final String[] directories;
+
+    private DataDirectories(String[][] tierDataDirs, String[] directories) {
+      this.tierDataDirs = tierDataDirs;
+      this.directories = directories;
+    }
+  }
+
+  public static IOScheduler getInstance() {
+    return IOSchedulerHolder.INSTANCE;
+  }
+
+  private static class IOSchedulerHolder {
+
+    private static final IOScheduler INSTANCE = new IOScheduler();
+
+    private IOSchedulerHolder() {}
+  }
+}
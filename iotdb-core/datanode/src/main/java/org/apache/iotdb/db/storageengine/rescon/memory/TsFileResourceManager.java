@@ -19,22 +19,32 @@
 
 package org.apache.iotdb.db.storageengine.rescon.memory;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.memory.IMemoryBlock;
 import org.apache.iotdb.commons.memory.MemoryBlockType;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 public class TsFileResourceManager {
   private static final Logger logger = LoggerFactory.getLogger(TsFileResourceManager.class);
 
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
   private static final DataNodeMemoryConfig MEMORY_CONFIG =
       IoTDBDescriptor.getInstance().getMemoryConfig();
 
@@ -48,6 +58,13 @@ public class TsFileResourceManager {
   // degraded time index number
   private long degradedTimeIndexNum = 0;
 
+  /** load the DeviceTimeIndex dropped when restarting, so that the queries are not blocked */
+  private final ExecutorService deviceTimeIndexLoader =
+      IoTDBThreadPoolFactory.newSingleThreadExecutor(ThreadName.DEVICE_TIME_INDEX_LOADER.getName());
+
+  /** the TsFileResources waiting for deviceTimeIndexLoader, so that each is submitted only once */
+  private final Set<TsFileResource> deviceTimeIndexToLoad = ConcurrentHashMap.newKeySet();
+
   private TsFileResourceManager() {
     memoryBlock =
         MEMORY_CONFIG
@@ -72,10 +89,96 @@ public class TsFileResourceManager {
     if (!sealedTsFileResources.contains(tsFileResource)) {
       sealedTsFileResources.add(tsFileResource);
       memoryBlock.forceAllocateWithoutLimitation(tsFileResource.calculateRamSize());
+      if (TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType())
+          == TimeIndexLevel.FILE_TIME_INDEX) {
+        // e.g., the TsFileResource lazily loaded when restarting
+        degradedTimeIndexNum++;
+      }
       chooseTsFileResourceToDegrade();
     }
   }
 
+  /**
+   * submit the sealed TsFileResource selected by a query to load the DeviceTimeIndex dropped when
+   * restarting. The query itself is only filtered by the FileTimeIndex and doesn't wait for the
+   * .resource file to be read, the queued TsFileResources are loaded one by one in background.
+   */
+  public void loadDeviceTimeIndexInBackground(TsFileResource tsFileResource) {
+    if (!canLoadDeviceTimeIndex(tsFileResource) || !deviceTimeIndexToLoad.add(tsFileResource)) {
+      return;
+    }
+    try {
+      deviceTimeIndexLoader.submit(
+          () -> {
+            try {
+              loadDeviceTimeIndex(tsFileResource);
+            } finally {
+              deviceTimeIndexToLoad.remove(tsFileResource);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      deviceTimeIndexToLoad.remove(tsFileResource);
+    }
+  }
+
+  /**
+   * load the DeviceTimeIndex of the sealed TsFileResource which dropped it when restarting, if lazy
+   * loading is enabled and the memory for timeIndex is enough to hold it. The DeviceTimeIndex
+   * degraded under memory pressure is never loaded again.
+   *
+   * @return true if the DeviceTimeIndex is loaded
+   */
+  public boolean loadDeviceTimeIndex(TsFileResource tsFileResource) {
+    if (!canLoadDeviceTimeIndex(tsFileResource)) {
+      return false;
+    }
+    ArrayDeviceTimeIndex deviceTimeIndex;
+    try {
+      deviceTimeIndex = tsFileResource.buildDeviceTimeIndex();
+    } catch (IOException e) {
+      logger.warn("Failed to load device time index of {}", tsFileResource.getTsFilePath(), e);
+      tsFileResource.cancelLazyLoadTimeIndex();
+      return false;
+    }
+    synchronized (this) {
+      // the TsFileResource may be loaded by other queries or removed
+      if (!tsFileResource.isDeviceTimeIndexLazilyLoaded()
+          || !sealedTsFileResources.contains(tsFileResource)) {
+        return false;
+      }
+      if (!isMemoryEnoughToUpgrade(
+          tsFileResource.getUpgradeTimeIndexRamIncrease(deviceTimeIndex))) {
+        // don't read the .resource file again for each query
+        tsFileResource.cancelLazyLoadTimeIndex();
+        return false;
+      }
+      sealedTsFileResources.remove(tsFileResource);
+      long memoryIncrease = tsFileResource.upgradeTimeIndex(deviceTimeIndex);
+      logger.debug("Load device time index of tsfile resource {}", tsFileResource.getTsFilePath());
+      degradedTimeIndexNum--;
+      memoryBlock.forceAllocateWithoutLimitation(memoryIncrease);
+      sealedTsFileResources.add(tsFileResource);
+    }
+    return true;
+  }
+
+  private boolean canLoadDeviceTimeIndex(TsFileResource tsFileResource) {
+    return CONFIG.isEnableLazyLoadTsFileResource()
+        && tsFileResource.isDeviceTimeIndexLazilyLoaded()
+        && tsFileResource.isClosed()
+        && isMemoryEnoughToUpgrade(tsFileResource.estimateUpgradeTimeIndexRamIncrease());
+  }
+
+  @TestOnly
+  public boolean isDeviceTimeIndexToLoad(TsFileResource tsFileResource) {
+    return deviceTimeIndexToLoad.contains(tsFileResource);
+  }
+
+  private boolean isMemoryEnoughToUpgrade(long memoryIncrease) {
+    return memoryBlock.getUsedMemoryInBytes() + memoryIncrease
+        <= memoryBlock.getTotalMemorySizeInBytes();
+  }
+
   /** delete the TsFileResource in PriorityQueue when the source file is deleted */
   public synchronized void removeTsFileResource(TsFileResource tsFileResource) {
     if (sealedTsFileResources.contains(tsFileResource)) {
@@ -153,6 +256,7 @@ public class TsFileResourceManager {
     this.sealedTsFileResources.clear();
     this.memoryBlock.setUsedMemoryInBytes(0);
     this.degradedTimeIndexNum = 0;
+    this.deviceTimeIndexToLoad.clear();
   }
 
   public static TsFileResourceManager getInstance() {
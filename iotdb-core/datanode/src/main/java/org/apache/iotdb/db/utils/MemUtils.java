@@ -23,6 +23,7 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.utils.datastructure.BinaryDictionary;
 import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
@@ -101,6 +102,37 @@ public class MemUtils {
     return RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + RamUsageEstimator.sizeOf(value.getValues());
   }
 
+  /**
+   * Get the memory cost of writing the value to a binary column of the memtable.
+   *
+   * @param dictionary the dictionary of the column, null if the column is not created yet or has no
+   *     dictionary
+   */
+  public static long getBinarySize(Binary value, BinaryDictionary dictionary) {
+    if (dictionary != null) {
+      return dictionary.getRamIncrement(value);
+    }
+    // the value may be interned by the dictionary of the new column
+    return getBinarySize(value)
+        + (BinaryDictionary.isEnabled() ? BinaryDictionary.ENTRY_RAM_SIZE : 0);
+  }
+
+  public static long getBinaryColumnSize(
+      Binary[] column, int start, int end, TSStatus[] results, BinaryDictionary dictionary) {
+    if (dictionary == null && !BinaryDictionary.isEnabled()) {
+      return getBinaryColumnSize(column, start, end, results);
+    }
+    long memSize = 0;
+    for (int i = start; i < end; i++) {
+      if (results == null
+          || results[i] == null
+          || results[i].code == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        memSize += getBinarySize(column[i], dictionary);
+      }
+    }
+    return memSize;
+  }
+
   public static long getBinaryColumnSize(Binary[] column, int start, int end, TSStatus[] results) {
     long memSize = 0;
     memSize += (long) (end - start) * RamUsageEstimator.NUM_BYTES_OBJECT_HEADER;
@@ -88,6 +88,7 @@ public class SchemaUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return TSDataType.DOUBLE;
         // Partial aggregation names
       case SqlConstant.STDDEV + "_partial":
@@ -98,6 +99,7 @@ public class SchemaUtils {
       case SqlConstant.VAR_SAMP + "_partial":
       case SqlConstant.MAX_BY + "_partial":
       case SqlConstant.MIN_BY + "_partial":
+      case SqlConstant.APPROX_PERCENTILE + "_partial":
         return TSDataType.TEXT;
       case SqlConstant.LAST_VALUE:
       case SqlConstant.FIRST_VALUE:
@@ -163,6 +165,8 @@ public class SchemaUtils {
         return SqlConstant.VAR_POP;
       case VAR_SAMP:
         return SqlConstant.VAR_SAMP;
+      case APPROX_PERCENTILE:
+        return SqlConstant.APPROX_PERCENTILE;
       default:
         return null;
     }
@@ -198,6 +202,7 @@ public class SchemaUtils {
       case VAR_SAMP:
       case MAX_BY:
       case MIN_BY:
+      case APPROX_PERCENTILE:
       case UDAF:
         return true;
       default:
@@ -236,6 +241,8 @@ public class SchemaUtils {
         return Collections.singletonList(addPartialSuffix(SqlConstant.MAX_BY));
       case MIN_BY:
         return Collections.singletonList(addPartialSuffix(SqlConstant.MIN_BY));
+      case APPROX_PERCENTILE:
+        return Collections.singletonList(addPartialSuffix(SqlConstant.APPROX_PERCENTILE));
       case AVG:
         return Arrays.asList(SqlConstant.COUNT, SqlConstant.SUM);
       case TIME_DURATION:
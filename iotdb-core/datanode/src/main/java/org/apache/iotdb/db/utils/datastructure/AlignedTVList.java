@@ -80,6 +80,10 @@ public abstract class AlignedTVList extends TVList {
   // Index relation: columnIndex(dataTypeIndex) -> arrayIndex -> elementIndex
   protected List<List<BitMap>> bitMaps;
 
+  // column index -> dictionary interning the repeated values of the column, null if the dictionary
+  // is disabled, and the element is null if the column is not binary
+  protected List<BinaryDictionary> dictionaries;
+
   // not null when constructed by queries for tree model
   BitMap allValueColDeletedMap;
   // constructed after deletion
@@ -147,6 +151,30 @@ public abstract class AlignedTVList extends TVList {
     return alignedTvList;
   }
 
+  /** Create the dictionaries of the binary columns if the dictionary is enabled. */
+  public void initDictionaries() {
+    if (!BinaryDictionary.isEnabled()) {
+      return;
+    }
+    dictionaries = new ArrayList<>(dataTypes.size());
+    for (TSDataType dataType : dataTypes) {
+      dictionaries.add(dataType.isBinary() ? new BinaryDictionary() : null);
+    }
+  }
+
+  public List<BinaryDictionary> getDictionaries() {
+    return dictionaries;
+  }
+
+  /** Share the dictionaries with the previous working list of the same chunk. */
+  public void setDictionaries(List<BinaryDictionary> dictionaries) {
+    this.dictionaries = dictionaries == null ? null : new ArrayList<>(dictionaries);
+  }
+
+  public BinaryDictionary getDictionary(int columnIndex) {
+    return dictionaries == null ? null : dictionaries.get(columnIndex);
+  }
+
   @Override
   public synchronized AlignedTVList clone() {
     AlignedTVList cloneList = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
@@ -179,6 +207,8 @@ public abstract class AlignedTVList extends TVList {
       }
     }
     cloneList.timeColDeletedMap = timeColDeletedMap == null ? null : timeColDeletedMap.clone();
+    // the clone may replace this list as the working list
+    cloneList.setDictionaries(dictionaries);
     return cloneList;
   }
 
@@ -201,12 +231,11 @@ public abstract class AlignedTVList extends TVList {
         case TEXT:
         case BLOB:
         case STRING:
+          Binary binary = columnValue != null ? (Binary) columnValue : Binary.EMPTY_VALUE;
+          BinaryDictionary dictionary = getDictionary(i);
           ((Binary[]) columnValues.get(arrayIndex))[elementIndex] =
-              columnValue != null ? (Binary) columnValue : Binary.EMPTY_VALUE;
-          memoryBinaryChunkSize[i] +=
-              columnValue != null
-                  ? getBinarySize((Binary) columnValue)
-                  : getBinarySize(Binary.EMPTY_VALUE);
+              dictionary == null ? binary : dictionary.intern(binary);
+          memoryBinaryChunkSize[i] += getBinarySize(binary);
           break;
         case FLOAT:
           ((float[]) columnValues.get(arrayIndex))[elementIndex] =
@@ -405,6 +434,9 @@ public abstract class AlignedTVList extends TVList {
     this.bitMaps.add(columnBitMaps);
     this.values.add(columnValue);
     this.dataTypes.add(dataType);
+    if (dictionaries != null) {
+      dictionaries.add(dataType.isBinary() ? new BinaryDictionary() : null);
+    }
 
     long[] tmpValueChunkRawSize = memoryBinaryChunkSize;
     memoryBinaryChunkSize = new long[dataTypes.size()];
@@ -836,9 +868,13 @@ public abstract class AlignedTVList extends TVList {
         case STRING:
           Binary[] arrayT = ((Binary[]) columnValues.get(arrayIndex));
           System.arraycopy(value[i], idx, arrayT, elementIndex, remaining);
+          BinaryDictionary dictionary = getDictionary(i);
 
           // update raw size of Text chunk
           for (int i1 = 0; i1 < remaining; i1++) {
+            if (dictionary != null) {
+              arrayT[elementIndex + i1] = dictionary.intern(arrayT[elementIndex + i1]);
+            }
             memoryBinaryChunkSize[i] +=
                 arrayT[elementIndex + i1] != null ? getBinarySize(arrayT[elementIndex + i1]) : 0;
           }
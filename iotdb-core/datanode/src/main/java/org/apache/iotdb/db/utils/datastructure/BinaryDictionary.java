@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.iotdb.db.utils.MemUtils.getBinarySize;
+
+/**
+ * The dictionary of a binary column in the memtable. The repeated values written to the column are
+ * replaced by the first written one, so that they share one object and cost memory only once. At
+ * most memtable_text_dictionary_max_size distinct values are interned, the values beyond are
+ * written as they are.
+ */
+public class BinaryDictionary {
+
+  public static final long ENTRY_RAM_SIZE = RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
+
+  private final Map<Binary, Binary> values = new ConcurrentHashMap<>();
+  private final int maxSize;
+
+  public BinaryDictionary() {
+    this(IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionaryMaxSize());
+  }
+
+  public BinaryDictionary(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return a new dictionary, or null if the dictionary of binary columns is disabled
+   */
+  public static BinaryDictionary newDictionary() {
+    return isEnabled() ? new BinaryDictionary() : null;
+  }
+
+  public static boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionaryMaxSize() > 0;
+  }
+
+  /**
+   * @return the interned value equal to the given one, or the given value itself if there is none
+   */
+  public Binary intern(Binary value) {
+    if (value == null) {
+      return null;
+    }
+    Binary interned = values.get(value);
+    if (interned != null) {
+      return interned;
+    }
+    if (values.size() < maxSize) {
+      interned = values.putIfAbsent(value, value);
+    }
+    return interned == null ? value : interned;
+  }
+
+  /**
+   * @return the memory cost of writing the value, which is 0 if an equal value is interned
+   */
+  public long getRamIncrement(Binary value) {
+    if (values.containsKey(value)) {
+      return 0;
+    }
+    return getBinarySize(value) + (values.size() < maxSize ? ENTRY_RAM_SIZE : 0);
+  }
+
+  public int size() {
+    return values.size();
+  }
+}
@@ -47,6 +47,9 @@ public abstract class BinaryTVList extends TVList {
   // index relation: arrayIndex -> elementIndex
   protected List<Binary[]> values;
 
+  // interns the repeated values, null if the dictionary is disabled
+  protected BinaryDictionary dictionary;
+
   BinaryTVList() {
     super();
     values = new ArrayList<>();
@@ -71,9 +74,19 @@ public abstract class BinaryTVList extends TVList {
     for (Binary[] valueArray : values) {
       cloneList.values.add(cloneValue(valueArray));
     }
+    // the clone may replace this list as the working list
+    cloneList.dictionary = dictionary;
     return cloneList;
   }
 
+  public BinaryDictionary getDictionary() {
+    return dictionary;
+  }
+
+  public void setDictionary(BinaryDictionary dictionary) {
+    this.dictionary = dictionary;
+  }
+
   private Binary[] cloneValue(Binary[] array) {
     Binary[] cloneArray = new Binary[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -88,7 +101,7 @@ public abstract class BinaryTVList extends TVList {
     maxTime = Math.max(maxTime, timestamp);
     minTime = Math.min(minTime, timestamp);
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
-    values.get(arrayIndex)[elementIndex] = value;
+    values.get(arrayIndex)[elementIndex] = dictionary == null ? value : dictionary.intern(value);
     if (indices != null) {
       indices.get(arrayIndex)[elementIndex] = rowCount;
     }
@@ -200,6 +213,7 @@ public abstract class BinaryTVList extends TVList {
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, inputRemaining);
         System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, inputRemaining);
+        internValues(values.get(arrayIdx), elementIdx, inputRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + inputRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, inputRemaining);
@@ -212,6 +226,7 @@ public abstract class BinaryTVList extends TVList {
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, internalRemaining);
         System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, internalRemaining);
+        internValues(values.get(arrayIdx), elementIdx, internalRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + internalRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, internalRemaining);
@@ -223,6 +238,15 @@ public abstract class BinaryTVList extends TVList {
     }
   }
 
+  private void internValues(Binary[] array, int start, int length) {
+    if (dictionary == null) {
+      return;
+    }
+    for (int i = start; i < start + length; i++) {
+      array[i] = dictionary.intern(array[i]);
+    }
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinMaxTimeAndSorted(
       long[] time, Binary[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
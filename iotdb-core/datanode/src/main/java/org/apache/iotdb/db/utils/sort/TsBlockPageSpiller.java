@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spill TsBlocks to one temporary file as pages and read any of them back by the page index. Unlike
+ * {@link DiskSpiller}, whose files are read sequentially by merge sort, the pages are read back in
+ * random order, e.g. by the frames of window functions.
+ */
+public class TsBlockPageSpiller {
+
+  private static final String FILE_SUFFIX = ".sortTemp";
+
+  private final String folderPath;
+  private final String fileName;
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private FileChannel fileChannel;
+  // offset and length of each page in the file
+  private final List<Long> pageOffsets = new ArrayList<>();
+  private final List<Integer> pageLengths = new ArrayList<>();
+  private long fileSize = 0;
+
+  public TsBlockPageSpiller(String folderPath, String filePrefix) {
+    this.folderPath = folderPath;
+    this.fileName = filePrefix + FILE_SUFFIX;
+  }
+
+  /**
+   * @return the index of the spilled page
+   */
+  public int spill(TsBlock tsBlock) throws IoTDBException {
+    try {
+      if (fileChannel == null) {
+        Files.createDirectories(Paths.get(folderPath));
+        fileChannel =
+            FileChannel.open(
+                Paths.get(fileName),
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.CREATE);
+      }
+      ByteBuffer tsBlockBuffer = serde.serialize(tsBlock);
+      int length = tsBlockBuffer.remaining();
+      long offset = fileSize;
+      while (tsBlockBuffer.hasRemaining()) {
+        fileSize += fileChannel.write(tsBlockBuffer, fileSize);
+      }
+      pageOffsets.add(offset);
+      pageLengths.add(length);
+      return pageOffsets.size() - 1;
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't spill TsBlock to file: " + fileName,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+
+  public TsBlock read(int pageIndex) throws IoTDBException {
+    long position = pageOffsets.get(pageIndex);
+    ByteBuffer tsBlockBuffer = ByteBuffer.allocate(pageLengths.get(pageIndex));
+    try {
+      while (tsBlockBuffer.hasRemaining()) {
+        int readLen = fileChannel.read(tsBlockBuffer, position);
+        if (readLen == -1) {
+          throw new IOException("Unexpected end of file at page " + pageIndex);
+        }
+        position += readLen;
+      }
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't read spilled TsBlock from file: " + fileName,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+    tsBlockBuffer.flip();
+    return serde.deserialize(tsBlockBuffer);
+  }
+
+  public int getPageNum() {
+    return pageOffsets.size();
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  /** Close and delete the file. */
+  public void close() throws IoTDBException {
+    if (fileChannel == null) {
+      return;
+    }
+    try {
+      fileChannel.close();
+      fileChannel = null;
+      Files.deleteIfExists(Paths.get(fileName));
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't close and delete spilled file: " + fileName,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.conf;
+
+import org.apache.iotdb.commons.exception.ConfigurationException;
+import org.apache.iotdb.consensus.ConsensusFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class IoTDBStartCheckTest {
+
+  private static final Set<String> WAL_FREE_DATABASES = Collections.singleton("root.wal_free");
+
+  @Test
+  public void testWALFreeDatabasesUnderRatisConsensus() throws ConfigurationException {
+    IoTDBStartCheck.checkWALFreeDatabases(ConsensusFactory.RATIS_CONSENSUS, WAL_FREE_DATABASES);
+  }
+
+  @Test
+  public void testWALFreeDatabasesUnderOtherConsensus() throws ConfigurationException {
+    // no replica protects the unflushed data
+    assertRejected(ConsensusFactory.SIMPLE_CONSENSUS);
+    // replicas are fed by the wal or the realtime insert events, both skipped by WAL-free databases
+    assertRejected(ConsensusFactory.IOT_CONSENSUS);
+    assertRejected(ConsensusFactory.IOT_CONSENSUS_V2);
+
+    // no WAL-free database is always fine
+    IoTDBStartCheck.checkWALFreeDatabases(
+        ConsensusFactory.SIMPLE_CONSENSUS, Collections.emptySet());
+  }
+
+  private void assertRejected(String dataRegionConsensusProtocolClass) {
+    Assert.assertThrows(
+        ConfigurationException.class,
+        () ->
+            IoTDBStartCheck.checkWALFreeDatabases(
+                dataRegionConsensusProtocolClass, WAL_FREE_DATABASES));
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.pipeconsensus;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.consensus.pipe.thrift.TCommitId;
+import org.apache.iotdb.consensus.pipe.thrift.TPipeConsensusTransferReq;
+import org.apache.iotdb.db.pipe.receiver.protocol.pipeconsensus.PipeConsensusReceiver.RequestMeta;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertMultiTabletsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertTabletNode;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class PipeConsensusReceiverBatchTest {
+
+  private static final int MAX_BATCH_SIZE = 16;
+
+  private final Map<RequestMeta, InsertNode> insertNodes = new IdentityHashMap<>();
+
+  private RequestMeta tabletMeta(final long replicateIndex, final InsertNode insertNode) {
+    final RequestMeta meta = new RequestMeta(new TCommitId(replicateIndex, 0, 0));
+    meta.setReq(new TPipeConsensusTransferReq());
+    insertNodes.put(meta, insertNode);
+    return meta;
+  }
+
+  private RequestMeta tabletMeta(final long replicateIndex) {
+    return tabletMeta(replicateIndex, new InsertTabletNode(new PlanNodeId("" + replicateIndex)));
+  }
+
+  // TsFile and deletion reqs are not kept in their metas, as they are never written in batch
+  private RequestMeta tsFileMeta(final long replicateIndex) {
+    return new RequestMeta(new TCommitId(replicateIndex, 0, 0));
+  }
+
+  private List<Long> collectBatch(final List<RequestMeta> buffer, final int maxBatchSize) {
+    return PipeConsensusReceiver.collectBatch(buffer, maxBatchSize, insertNodes::get).stream()
+        .map(RequestMeta::getReplicateIndex)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testCollectInOrder() {
+    final List<RequestMeta> buffer = new ArrayList<>();
+    for (long i = 1; i <= 20; i++) {
+      buffer.add(tabletMeta(i));
+    }
+    Assert.assertEquals(
+        Arrays.asList(1L, 2L, 3L, 4L), collectBatch(buffer.subList(0, 4), MAX_BATCH_SIZE));
+    // the batch is capped by the max batch size
+    Assert.assertEquals(MAX_BATCH_SIZE, collectBatch(buffer, MAX_BATCH_SIZE).size());
+    // a single req is applied alone
+    Assert.assertTrue(collectBatch(buffer.subList(0, 1), MAX_BATCH_SIZE).isEmpty());
+  }
+
+  @Test
+  public void testReplicateIndexGap() {
+    final List<RequestMeta> buffer =
+        Arrays.asList(tabletMeta(1), tabletMeta(2), tabletMeta(4), tabletMeta(5));
+    Assert.assertEquals(Arrays.asList(1L, 2L), collectBatch(buffer, MAX_BATCH_SIZE));
+
+    final RequestMeta restarted = new RequestMeta(new TCommitId(3, 1, 0));
+    restarted.setReq(new TPipeConsensusTransferReq());
+    insertNodes.put(restarted, new InsertTabletNode(new PlanNodeId("3")));
+    Assert.assertEquals(
+        Arrays.asList(1L, 2L),
+        collectBatch(Arrays.asList(tabletMeta(1), tabletMeta(2), restarted), MAX_BATCH_SIZE));
+  }
+
+  @Test
+  public void testMixedRequests() {
+    // a TsFile req ends the batch, and is applied alone when it is the first one
+    Assert.assertEquals(
+        Arrays.asList(1L, 2L),
+        collectBatch(
+            Arrays.asList(tabletMeta(1), tabletMeta(2), tsFileMeta(3), tabletMeta(4)),
+            MAX_BATCH_SIZE));
+    Assert.assertTrue(
+        collectBatch(Arrays.asList(tsFileMeta(1), tabletMeta(2), tabletMeta(3)), MAX_BATCH_SIZE)
+            .isEmpty());
+
+    // only the insert nodes of the same kind in the tree model can be merged
+    Assert.assertEquals(
+        Arrays.asList(1L, 2L),
+        collectBatch(
+            Arrays.asList(
+                tabletMeta(1),
+                tabletMeta(2),
+                tabletMeta(3, new InsertRowNode(new PlanNodeId("3"))),
+                tabletMeta(4)),
+            MAX_BATCH_SIZE));
+    Assert.assertTrue(
+        collectBatch(
+                Arrays.asList(
+                    tabletMeta(1, new RelationalInsertTabletNode(new PlanNodeId("1"))),
+                    tabletMeta(2)),
+                MAX_BATCH_SIZE)
+            .isEmpty());
+
+    // a req whose insert node can not be deserialized is applied alone to report the error
+    Assert.assertEquals(
+        Arrays.asList(1L, 2L),
+        collectBatch(
+            Arrays.asList(tabletMeta(1), tabletMeta(2), tabletMeta(3, null)), MAX_BATCH_SIZE));
+  }
+
+  @Test
+  public void testBatchSizeOne() {
+    final List<RequestMeta> buffer = Arrays.asList(tabletMeta(1), tabletMeta(2), tabletMeta(3));
+    Assert.assertTrue(collectBatch(buffer, 1).isEmpty());
+    Assert.assertTrue(collectBatch(buffer, 0).isEmpty());
+  }
+
+  @Test
+  public void testBatchSuccess() {
+    final List<RequestMeta> batch = Arrays.asList(tabletMeta(1), tabletMeta(2), tabletMeta(3));
+    final TSStatus status =
+        PipeConsensusReceiver.markWrittenInBatch(
+            batch, new InsertMultiTabletsNode(new PlanNodeId("")), RpcUtils.SUCCESS_STATUS);
+    Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getCode());
+    batch.forEach(meta -> Assert.assertTrue(meta.isWrittenInBatch()));
+    // the reqs written are completed by their own threads, never written again in another batch
+    Assert.assertTrue(collectBatch(batch.subList(1, 3), MAX_BATCH_SIZE).isEmpty());
+  }
+
+  @Test
+  public void testBatchFailure() {
+    final List<RequestMeta> buffer = new ArrayList<>();
+    for (long i = 1; i <= 4; i++) {
+      buffer.add(tabletMeta(i));
+    }
+    final InsertMultiTabletsNode mergedNode = new InsertMultiTabletsNode(new PlanNodeId(""));
+    final TSStatus error = RpcUtils.getStatus(TSStatusCode.OUT_OF_TTL, "out of ttl");
+    mergedNode.getResults().put(1, error);
+
+    // the first req has been written, it succeeds even if the batch fails
+    TSStatus status = PipeConsensusReceiver.markWrittenInBatch(buffer, mergedNode, error);
+    Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getCode());
+    Assert.assertTrue(buffer.get(0).isWrittenInBatch());
+    Assert.assertFalse(buffer.get(1).isWrittenInBatch());
+    Assert.assertTrue(buffer.get(2).isWrittenInBatch());
+    Assert.assertTrue(buffer.get(3).isWrittenInBatch());
+    // only the failed req is applied again, alone
+    Assert.assertTrue(collectBatch(buffer.subList(1, 4), MAX_BATCH_SIZE).isEmpty());
+
+    // the first req fails
+    final List<RequestMeta> batch = Arrays.asList(tabletMeta(5), tabletMeta(6));
+    mergedNode.getResults().clear();
+    mergedNode.getResults().put(0, error);
+    status = PipeConsensusReceiver.markWrittenInBatch(batch, mergedNode, error);
+    Assert.assertEquals(TSStatusCode.OUT_OF_TTL.getStatusCode(), status.getCode());
+    Assert.assertFalse(batch.get(0).isWrittenInBatch());
+    Assert.assertTrue(batch.get(1).isWrittenInBatch());
+
+    // the batch fails as a whole, so every req is applied alone
+    final List<RequestMeta> rejected = Arrays.asList(tabletMeta(7), tabletMeta(8));
+    mergedNode.getResults().clear();
+    final TSStatus reject = RpcUtils.getStatus(TSStatusCode.WRITE_PROCESS_REJECT, "reject");
+    status = PipeConsensusReceiver.markWrittenInBatch(rejected, mergedNode, reject);
+    Assert.assertEquals(TSStatusCode.WRITE_PROCESS_REJECT.getStatusCode(), status.getCode());
+    rejected.forEach(meta -> Assert.assertFalse(meta.isWrittenInBatch()));
+    Assert.assertEquals(Arrays.asList(7L, 8L), collectBatch(rejected, MAX_BATCH_SIZE));
+  }
+}
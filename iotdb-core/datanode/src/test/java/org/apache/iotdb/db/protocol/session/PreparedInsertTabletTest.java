@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.session;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PreparedInsertTabletTest {
+
+  private static final List<String> MEASUREMENTS = Arrays.asList("s1", "s2");
+  private static final List<Integer> TYPES =
+      Arrays.asList((int) TSDataType.INT64.serialize(), (int) TSDataType.DOUBLE.serialize());
+
+  private PreparedInsertTablet newPreparedInsertTablet() {
+    return new PreparedInsertTablet(1, 1, "root.sg.d1", MEASUREMENTS, TYPES, false);
+  }
+
+  private InsertTabletStatement newStatement(TSDataType... dataTypes) throws IllegalPathException {
+    InsertTabletStatement statement = new InsertTabletStatement();
+    statement.setDevicePath(new PartialPath("root.sg.d1"));
+    statement.setMeasurements(MEASUREMENTS.toArray(new String[0]));
+    statement.setDataTypes(dataTypes);
+    statement.setColumns(new Object[] {new long[] {1L}, new double[] {1.0}});
+    statement.setTimes(new long[] {1L});
+    statement.setRowCount(1);
+    statement.setMeasurementSchemas(
+        new MeasurementSchema[] {
+          new MeasurementSchema("s1", TSDataType.INT64), new MeasurementSchema("s2", dataTypes[1])
+        });
+    return statement;
+  }
+
+  @Test
+  public void testMatches() {
+    PreparedInsertTablet preparedInsertTablet = newPreparedInsertTablet();
+
+    TSInsertTabletReq req = new TSInsertTabletReq();
+    req.setPrefixPath("root.sg.d1");
+    req.setMeasurements(new ArrayList<>(MEASUREMENTS));
+    req.setTypes(new ArrayList<>(TYPES));
+    req.setIsAligned(false);
+    Assert.assertTrue(preparedInsertTablet.matches(req));
+
+    req.setIsAligned(true);
+    Assert.assertFalse(preparedInsertTablet.matches(req));
+
+    req.setIsAligned(false);
+    req.setMeasurements(Arrays.asList("s1", "s3"));
+    Assert.assertFalse(preparedInsertTablet.matches(req));
+
+    req.setMeasurements(new ArrayList<>(MEASUREMENTS));
+    req.setWriteToTable(true);
+    Assert.assertFalse(preparedInsertTablet.matches(req));
+  }
+
+  @Test
+  public void testResolveSchema() throws IllegalPathException {
+    PreparedInsertTablet preparedInsertTablet = newPreparedInsertTablet();
+
+    // the server converted the data type, the write can not be replayed without analysis
+    preparedInsertTablet.resolveSchema(newStatement(TSDataType.INT64, TSDataType.FLOAT), 0);
+    Assert.assertNull(preparedInsertTablet.getResolvedSchema());
+
+    InsertTabletStatement failedStatement = newStatement(TSDataType.INT64, TSDataType.DOUBLE);
+    failedStatement.markFailedMeasurement(1, new Exception());
+    preparedInsertTablet.resolveSchema(failedStatement, 0);
+    Assert.assertNull(preparedInsertTablet.getResolvedSchema());
+
+    preparedInsertTablet.resolveSchema(newStatement(TSDataType.INT64, TSDataType.DOUBLE), 3);
+    PreparedInsertTablet.ResolvedSchema resolvedSchema = preparedInsertTablet.getResolvedSchema();
+    Assert.assertNotNull(resolvedSchema);
+    Assert.assertEquals(3, resolvedSchema.getEpoch());
+    Assert.assertEquals(2, resolvedSchema.getMeasurementSchemas().length);
+
+    // insert nodes may modify the returned array in place
+    resolvedSchema.getMeasurementSchemas()[0] = null;
+    Assert.assertNotNull(resolvedSchema.getMeasurementSchemas()[0]);
+  }
+
+  @Test
+  public void testMergeRouting() {
+    PreparedInsertTablet preparedInsertTablet = newPreparedInsertTablet();
+    TTimePartitionSlot slot1 = new TTimePartitionSlot(0);
+    TTimePartitionSlot slot2 = new TTimePartitionSlot(604800000);
+
+    preparedInsertTablet.mergeRouting(
+        newDataPartition(slot1, 1), Collections.singletonList(slot1), 0);
+    preparedInsertTablet.mergeRouting(
+        newDataPartition(slot2, 2), Collections.singletonList(slot2), 0);
+    PreparedInsertTablet.ResolvedRouting routing = preparedInsertTablet.getResolvedRouting();
+    Assert.assertTrue(routing.containsAll(Arrays.asList(slot1, slot2)));
+    Assert.assertEquals(2, routing.getDataPartition().getAllReplicaSets().size());
+
+    // a newer epoch drops the routing resolved before
+    preparedInsertTablet.mergeRouting(
+        newDataPartition(slot2, 3), Collections.singletonList(slot2), 1);
+    routing = preparedInsertTablet.getResolvedRouting();
+    Assert.assertFalse(routing.containsAll(Collections.singletonList(slot1)));
+    Assert.assertEquals(1, routing.getEpoch());
+
+    preparedInsertTablet.invalidateRouting();
+    Assert.assertNull(preparedInsertTablet.getResolvedRouting());
+  }
+
+  private DataPartition newDataPartition(TTimePartitionSlot timePartitionSlot, int regionId) {
+    Map<TTimePartitionSlot, List<TRegionReplicaSet>> timeSlotMap = new HashMap<>();
+    timeSlotMap.put(
+        timePartitionSlot,
+        Collections.singletonList(
+            new TRegionReplicaSet(
+                new TConsensusGroupId(TConsensusGroupType.DataRegion, regionId),
+                new ArrayList<>())));
+    Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>> seriesSlotMap =
+        new HashMap<>();
+    seriesSlotMap.put(new TSeriesPartitionSlot(1), timeSlotMap);
+    Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
+        dataPartitionMap = new HashMap<>();
+    dataPartitionMap.put("root.sg", seriesSlotMap);
+    return new DataPartition(
+        dataPartitionMap,
+        IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionExecutorClass(),
+        IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionSlotNum());
+  }
+}
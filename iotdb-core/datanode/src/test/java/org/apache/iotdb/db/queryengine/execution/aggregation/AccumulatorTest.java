@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.execution.aggregation;
 
 import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -29,11 +30,14 @@ import org.apache.tsfile.file.metadata.statistics.TimeStatistics;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
 import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.tsfile.read.common.block.column.IntColumn;
 import org.apache.tsfile.read.common.block.column.IntColumnBuilder;
 import org.apache.tsfile.read.common.block.column.LongColumnBuilder;
 import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.BytesUtils;
 import org.junit.Assert;
 import org.junit.Before;
@@ -43,6 +47,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class AccumulatorTest {
 
@@ -567,6 +572,131 @@ public class AccumulatorTest {
     Assert.assertEquals(100d, finalResult.build().getDouble(0), 0.001);
   }
 
+  @Test
+  public void accumulatorWithSkippedRowsTest() {
+    // select the even rows by bitMap, or mark the odd rows as null, the results should be same as
+    // each other
+    BitMap bitMap = new BitMap(100);
+    ColumnBuilder valueColumnBuilder = new IntColumnBuilder(null, 100);
+    for (int i = 0; i < 100; i++) {
+      if (i % 2 == 0) {
+        bitMap.mark(i);
+        valueColumnBuilder.writeInt(-i);
+      } else {
+        valueColumnBuilder.appendNull();
+      }
+    }
+    Column[] selectedInput = getTimeAndValueColumn(1);
+    Column[] nullableInput = new Column[] {rawData.getTimeColumn(), valueColumnBuilder.build()};
+
+    TAggregationType[] aggregationTypes =
+        new TAggregationType[] {
+          TAggregationType.SUM,
+          TAggregationType.AVG,
+          TAggregationType.MAX_VALUE,
+          TAggregationType.MIN_VALUE
+        };
+    double[] expectedResults = new double[] {-2450d, -49d, 0d, -98d};
+    for (int i = 0; i < aggregationTypes.length; i++) {
+      for (int j = 0; j < 2; j++) {
+        Accumulator accumulator =
+            AccumulatorFactory.createBuiltinAccumulator(
+                aggregationTypes[i],
+                Collections.singletonList(TSDataType.INT32),
+                Collections.emptyList(),
+                Collections.emptyMap(),
+                true);
+        if (j == 0) {
+          accumulator.addInput(selectedInput, bitMap);
+        } else {
+          accumulator.addInput(nullableInput, null);
+        }
+        ColumnBuilder finalResult =
+            accumulator.getFinalType() == TSDataType.INT32
+                ? new IntColumnBuilder(null, 1)
+                : new DoubleColumnBuilder(null, 1);
+        accumulator.outputFinal(finalResult);
+        Column result = finalResult.build();
+        Assert.assertEquals(
+            expectedResults[i],
+            accumulator.getFinalType() == TSDataType.INT32 ? result.getInt(0) : result.getDouble(0),
+            0.001);
+      }
+    }
+  }
+
+  @Test
+  public void accumulatorWithDenseInputTest() {
+    // all rows are selected and the columns have no null, so the dense loops are taken. The same
+    // values in columns with a null array can only be accumulated row by row
+    int[] intValues = new int[100];
+    double[] doubleValues = new double[100];
+    for (int i = 0; i < 100; i++) {
+      intValues[i] = -i;
+      doubleValues[i] = i;
+    }
+    Column[][] denseInputs =
+        new Column[][] {
+          {rawData.getTimeColumn(), new IntColumn(100, Optional.empty(), intValues)},
+          {rawData.getTimeColumn(), new DoubleColumn(100, Optional.empty(), doubleValues)}
+        };
+    Column[][] perRowInputs =
+        new Column[][] {
+          {rawData.getTimeColumn(), new IntColumn(100, Optional.of(new boolean[100]), intValues)},
+          {
+            rawData.getTimeColumn(),
+            new DoubleColumn(100, Optional.of(new boolean[100]), doubleValues)
+          }
+        };
+    TSDataType[] dataTypes = new TSDataType[] {TSDataType.INT32, TSDataType.DOUBLE};
+    BitMap allSelected = new BitMap(100);
+    allSelected.markAll();
+
+    TAggregationType[] aggregationTypes =
+        new TAggregationType[] {
+          TAggregationType.SUM,
+          TAggregationType.AVG,
+          TAggregationType.MAX_VALUE,
+          TAggregationType.MIN_VALUE
+        };
+    double[][] expectedResults =
+        new double[][] {{-4950d, -49.5d, 0d, -99d}, {4950d, 49.5d, 99d, 0d}};
+    for (int t = 0; t < dataTypes.length; t++) {
+      Assert.assertFalse(denseInputs[t][1].mayHaveNull());
+      Assert.assertTrue(perRowInputs[t][1].mayHaveNull());
+      for (int i = 0; i < aggregationTypes.length; i++) {
+        double denseResult =
+            getFinalResult(aggregationTypes[i], dataTypes[t], denseInputs[t], null);
+        double denseResultWithBitMap =
+            getFinalResult(aggregationTypes[i], dataTypes[t], denseInputs[t], allSelected);
+        double perRowResult =
+            getFinalResult(aggregationTypes[i], dataTypes[t], perRowInputs[t], null);
+        Assert.assertEquals(expectedResults[t][i], perRowResult, 0.001);
+        Assert.assertEquals(perRowResult, denseResult, 0.001);
+        Assert.assertEquals(perRowResult, denseResultWithBitMap, 0.001);
+      }
+    }
+  }
+
+  private double getFinalResult(
+      TAggregationType aggregationType, TSDataType dataType, Column[] input, BitMap bitMap) {
+    Accumulator accumulator =
+        AccumulatorFactory.createBuiltinAccumulator(
+            aggregationType,
+            Collections.singletonList(dataType),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true);
+    accumulator.addInput(input, bitMap);
+    ColumnBuilder finalResult =
+        accumulator.getFinalType() == TSDataType.INT32
+            ? new IntColumnBuilder(null, 1)
+            : new DoubleColumnBuilder(null, 1);
+    accumulator.outputFinal(finalResult);
+    Column result = finalResult.build();
+    return accumulator.getFinalType() == TSDataType.INT32 ? result.getInt(0) : result.getDouble(0);
+  }
+
   @Test
   public void stddevAccumulatorTest() {
     Accumulator stddevAccumulator =
@@ -942,4 +1072,54 @@ public class AccumulatorTest {
     minByAccumulator.outputFinal(finalResult);
     Assert.assertEquals(0, finalResult.build().getInt(0));
   }
+
+  @Test
+  public void approxPercentileAccumulatorTest() {
+    Accumulator approxPercentileAccumulator =
+        AccumulatorFactory.createBuiltinAccumulator(
+            TAggregationType.APPROX_PERCENTILE,
+            Collections.singletonList(TSDataType.DOUBLE),
+            Collections.emptyList(),
+            Collections.singletonMap(AccumulatorFactory.APPROX_PERCENTILE_ATTRIBUTE, "0.5"),
+            true);
+    // check intermediate type and final type
+    Assert.assertEquals(TSDataType.TEXT, approxPercentileAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.DOUBLE, approxPercentileAccumulator.getFinalType());
+    // check returning null when no data
+    ColumnBuilder[] intermediateResult = new ColumnBuilder[1];
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputIntermediate(intermediateResult);
+    Assert.assertTrue(intermediateResult[0].build().isNull(0));
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertTrue(finalResult.build().isNull(0));
+
+    Column[] timeAndValueColumn = getTimeAndValueColumn(0);
+    approxPercentileAccumulator.addInput(timeAndValueColumn, null);
+    Assert.assertFalse(approxPercentileAccumulator.hasFinalResult());
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputIntermediate(intermediateResult);
+
+    approxPercentileAccumulator.reset();
+    approxPercentileAccumulator.addIntermediate(
+        new Column[] {
+          intermediateResult[0].build(),
+        });
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(49.5, finalResult.build().getDouble(0), 1);
+
+    // sketch of a TsFile holds the same values, so the result is the same without raw data
+    SeriesSketch sketch = new SeriesSketch(TSDataType.DOUBLE);
+    sketch.update(rawData.getColumn(0));
+    Assert.assertTrue(approxPercentileAccumulator.useSketch());
+    Assert.assertTrue(approxPercentileAccumulator.canUseSketch(sketch));
+    approxPercentileAccumulator.reset();
+    approxPercentileAccumulator.addSketch(sketch);
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(49.5, finalResult.build().getDouble(0), 1);
+    Assert.assertFalse(
+        approxPercentileAccumulator.canUseSketch(new SeriesSketch(TSDataType.BOOLEAN)));
+  }
 }
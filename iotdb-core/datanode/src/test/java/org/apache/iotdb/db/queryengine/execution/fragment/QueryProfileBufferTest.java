@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.fragment;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryProfileBufferTest {
+
+  private static FragmentInstanceProfile newProfile(String queryId) {
+    return new FragmentInstanceProfile(
+        queryId,
+        queryId + ".0.0",
+        "1",
+        "root",
+        FragmentInstanceState.FINISHED.toString(),
+        0,
+        100,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        Collections.singletonList(
+            new FragmentInstanceProfile.OperatorProfile("1", "SeriesScanOperator", 10, 5, 0)));
+  }
+
+  @Test
+  public void testEvictOldest() {
+    QueryProfileBuffer buffer = new QueryProfileBuffer(2);
+    buffer.record(newProfile("q1"));
+    buffer.record(newProfile("q2"));
+    buffer.record(newProfile("q3"));
+
+    List<FragmentInstanceProfile> profiles = buffer.getProfiles();
+    assertEquals(2, profiles.size());
+    assertEquals("q2", profiles.get(0).getQueryId());
+    assertEquals("q3", profiles.get(1).getQueryId());
+  }
+
+  @Test
+  public void testShouldRecord() {
+    long slowQueryThreshold = IoTDBDescriptor.getInstance().getConfig().getSlowQueryThreshold();
+
+    QueryProfileBuffer disabled = new QueryProfileBuffer(0);
+    assertFalse(disabled.shouldRecord(slowQueryThreshold));
+    disabled.record(newProfile("q1"));
+    assertTrue(disabled.getProfiles().isEmpty());
+
+    QueryProfileBuffer buffer = new QueryProfileBuffer(1);
+    assertFalse(buffer.shouldRecord(slowQueryThreshold - 1));
+    assertTrue(buffer.shouldRecord(slowQueryThreshold));
+  }
+}
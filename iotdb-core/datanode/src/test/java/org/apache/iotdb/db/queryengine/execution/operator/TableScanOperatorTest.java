@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.AlignedFullPath;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.AbstractTableScanOperatorParameter;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.JoinDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.AlignedDeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.DYNAMIC_FILTER_SKIPPED_DEVICE_NUMBER;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions.getDefaultSeriesScanOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TableScanOperatorTest {
+
+  private static final String TABLE_SCAN_OPERATOR_TEST = "root.TableScanOperatorTest";
+  private static final List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private static final List<TsFileResource> seqResources = new ArrayList<>();
+  private static final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  // the attribute of each device entry is the probe side join key
+  private static final List<String> DEVICE_KEYS = Arrays.asList("a", "b", "c");
+
+  @BeforeClass
+  public static void setUp() throws MetadataException, IOException, WriteProcessException {
+    AlignedSeriesTestUtil.setUp(
+        measurementSchemas, seqResources, unSeqResources, TABLE_SCAN_OPERATOR_TEST);
+  }
+
+  @AfterClass
+  public static void tearDown() throws IOException {
+    AlignedSeriesTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testSkipDevicesByDynamicFilter() throws Exception {
+    List<String> allRows = scan(null);
+    assertEquals(DEVICE_KEYS.size() * 500, allRows.size());
+
+    // the first, a middle and the last device match the build side respectively
+    for (String buildKey : DEVICE_KEYS) {
+      JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(1, 0);
+      dynamicFilter.collect(
+          new BinaryColumn(1, Optional.empty(), new Binary[] {binary(buildKey)}));
+      dynamicFilter.complete();
+
+      List<String> skippedDeviceNum = new ArrayList<>();
+      List<String> rows = scan(dynamicFilter, skippedDeviceNum);
+      // the rows that can be joined are the same as without the dynamic filter
+      assertEquals(
+          allRows.stream()
+              .filter(row -> row.startsWith(buildKey + ","))
+              .collect(Collectors.toList()),
+          rows);
+      assertEquals(Collections.singletonList("2"), skippedDeviceNum);
+    }
+
+    // no device is scanned if the build side is empty
+    JoinDynamicFilter emptyFilter = new JoinDynamicFilter(1, 0);
+    emptyFilter.complete();
+    List<String> skippedDeviceNum = new ArrayList<>();
+    assertEquals(Collections.emptyList(), scan(emptyFilter, skippedDeviceNum));
+    assertEquals(Collections.singletonList("3"), skippedDeviceNum);
+  }
+
+  @Test
+  public void testDynamicFilterNotReady() throws Exception {
+    JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(1, 0);
+    dynamicFilter.collect(new BinaryColumn(1, Optional.empty(), new Binary[] {binary("b")}));
+
+    List<String> skippedDeviceNum = new ArrayList<>();
+    // every device may match before the build side is consumed up
+    assertEquals(scan(null), scan(dynamicFilter, skippedDeviceNum));
+    assertEquals(Collections.singletonList(null), skippedDeviceNum);
+  }
+
+  private List<String> scan(JoinDynamicFilter dynamicFilter) throws Exception {
+    return scan(dynamicFilter, new ArrayList<>());
+  }
+
+  /** Returns the rows as "key,time,value" and puts the skipped device number into the list. */
+  private List<String> scan(JoinDynamicFilter dynamicFilter, List<String> skippedDeviceNum)
+      throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    TableScanOperator operator = null;
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      PlanNodeId planNodeId = new PlanNodeId("1");
+      driverContext.addOperatorContext(1, planNodeId, TableScanOperator.class.getSimpleName());
+
+      IMeasurementSchema int64Schema =
+          measurementSchemas.stream()
+              .filter(schema -> schema.getType() == TSDataType.INT64)
+              .findFirst()
+              .get();
+      List<ColumnSchema> columnSchemas =
+          Arrays.asList(
+              new ColumnSchema(
+                  "time",
+                  TypeFactory.getType(TSDataType.TIMESTAMP),
+                  false,
+                  TsTableColumnCategory.TIME),
+              new ColumnSchema(
+                  "key",
+                  TypeFactory.getType(TSDataType.STRING),
+                  false,
+                  TsTableColumnCategory.ATTRIBUTE),
+              new ColumnSchema(
+                  int64Schema.getMeasurementName(),
+                  TypeFactory.getType(TSDataType.INT64),
+                  false,
+                  TsTableColumnCategory.FIELD));
+      int[] columnsIndexArray = new int[] {0, 0, 0};
+
+      // device0 and device1 have the same data, see AlignedSeriesTestUtil
+      List<DeviceEntry> deviceEntries = new ArrayList<>();
+      for (int i = 0; i < DEVICE_KEYS.size(); i++) {
+        deviceEntries.add(
+            new AlignedDeviceEntry(
+                IDeviceID.Factory.DEFAULT_FACTORY.create(
+                    TABLE_SCAN_OPERATOR_TEST + ".device" + (i % 2)),
+                new Binary[] {binary(DEVICE_KEYS.get(i))}));
+      }
+      List<String> measurementColumnNames =
+          Collections.singletonList(int64Schema.getMeasurementName());
+      List<IMeasurementSchema> scanSchemas = Collections.singletonList(int64Schema);
+      AlignedFullPath alignedPath =
+          new AlignedFullPath(
+              deviceEntries.get(0).getDeviceID(), measurementColumnNames, scanSchemas);
+
+      operator =
+          new TableScanOperator(
+              new AbstractTableScanOperatorParameter(
+                  new HashSet<>(measurementColumnNames),
+                  driverContext.getOperatorContexts().get(0),
+                  planNodeId,
+                  columnSchemas,
+                  columnsIndexArray,
+                  deviceEntries,
+                  Ordering.ASC,
+                  getDefaultSeriesScanOptions(alignedPath),
+                  measurementColumnNames,
+                  scanSchemas,
+                  1000));
+      if (dynamicFilter != null) {
+        operator.setDynamicFilter(dynamicFilter);
+      }
+      operator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+
+      List<String> rows = new ArrayList<>();
+      while (operator.isBlocked().isDone() && operator.hasNext()) {
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          assertFalse(tsBlock.getColumn(1).isNull(i));
+          rows.add(
+              tsBlock.getColumn(1).getBinary(i)
+                  + ","
+                  + tsBlock.getColumn(0).getLong(i)
+                  + ","
+                  + tsBlock.getColumn(2).getLong(i));
+        }
+      }
+      skippedDeviceNum.add(
+          operator
+              .getOperatorContext()
+              .getSpecifiedInfo()
+              .get(DYNAMIC_FILTER_SKIPPED_DEVICE_NUMBER));
+      return rows;
+    } finally {
+      if (operator != null) {
+        operator.close();
+      }
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private static Binary binary(String value) {
+    return new Binary(value, TSFileConfig.STRING_CHARSET);
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.LogicalIndexNavigation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.PatternVariableRecognizer.PatternVariableComputation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.PhysicalValuePointer;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.BinaryComputation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.ComparisonOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.ConstantComputation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.PatternExpressionComputation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.expression.ReferenceComputation;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.matcher.IrRowPatternToProgramRewriter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.matcher.Matcher;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.TableWindowOperatorTest;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.RowsPerMatch;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SkipToPosition;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.rowpattern.IrLabel;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.SPILLED_DATA_SIZE;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.rowpattern.Patterns.concatenation;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.rowpattern.Patterns.label;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.rowpattern.Patterns.plusQuantified;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternRecognitionOperatorTest {
+  private static final ExecutorService instanceNotificationExecutor =
+      IoTDBThreadPoolFactory.newFixedThreadPool(
+          1, "patternRecognitionOperator-test-instance-notification");
+
+  // The partition of d2 crosses 4 TsBlocks
+  private final long[][] timeArray =
+      new long[][] {
+        {1, 2},
+        {3, 4},
+        {5},
+        {6, 7},
+        {8, 9},
+      };
+  private final String[][] deviceIdArray =
+      new String[][] {
+        {"d1", "d1"},
+        {"d2", "d2"},
+        {"d2"},
+        {"d2", "d2"},
+        {"d2", "d2"},
+      };
+  private final int[][] valueArray =
+      new int[][] {
+        {1, 2},
+        {5, 6},
+        {2},
+        {3, 4},
+        {1, 8},
+      };
+
+  // PARTITION BY device ORDER BY time MEASURES MATCH_NUMBER(), value ONE ROW PER MATCH
+  // PATTERN (A B+) DEFINE B AS value > PREV(value)
+  private final String[] expectedDevices = new String[] {"d1", "d2", "d2", "d2"};
+  private final long[] expectedMatchNumbers = new long[] {1, 1, 2, 3};
+  private final int[] expectedLastValues = new int[] {2, 6, 4, 8};
+
+  @AfterClass
+  public static void tearDown() {
+    instanceNotificationExecutor.shutdown();
+  }
+
+  @Test
+  public void testPartitionCrossMultiTsBlock() throws Exception {
+    try (PatternRecognitionOperator operator = genPatternRecognitionOperator(null)) {
+      checkResult(operator);
+      assertFalse(operator.getOperatorContext().getSpecifiedInfo().containsKey(SPILLED_DATA_SIZE));
+    }
+  }
+
+  @Test
+  public void testPartitionCrossMultiTsBlockWithSpill() throws Exception {
+    long originPartitionBufferSize =
+        IoTDBDescriptor.getInstance().getConfig().getWindowPartitionBufferSize();
+    // Spill all TsBlocks of the partition except the last one, so that the DEFINE and MEASURES
+    // clauses read the values from the spilled pages
+    IoTDBDescriptor.getInstance().getConfig().setWindowPartitionBufferSize(1);
+    File spillFolder = new File(TestConstant.BASE_OUTPUT_PATH + "pattern-recognition-spill");
+    try (PatternRecognitionOperator operator =
+        genPatternRecognitionOperator(spillFolder.getPath() + File.separator)) {
+      checkResult(operator);
+      assertTrue(operator.getOperatorContext().getSpecifiedInfo().containsKey(SPILLED_DATA_SIZE));
+      // Spilled files are deleted after the partitions are processed
+      File[] spilledFiles = spillFolder.listFiles();
+      assertTrue(spilledFiles == null || spilledFiles.length == 0);
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setWindowPartitionBufferSize(originPartitionBufferSize);
+      FileUtils.deleteFileOrDirectory(spillFolder, true);
+    }
+  }
+
+  private void checkResult(PatternRecognitionOperator operator) throws Exception {
+    int count = 0;
+    operator.isBlocked().get();
+    while (!operator.isFinished() && operator.hasNext()) {
+      TsBlock tsBlock = operator.next();
+      if (tsBlock != null && !tsBlock.isEmpty()) {
+        for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++, count++) {
+          assertEquals(
+              expectedDevices[count],
+              tsBlock.getColumn(0).getBinary(i).getStringValue(TSFileConfig.STRING_CHARSET));
+          assertEquals(expectedMatchNumbers[count], tsBlock.getColumn(1).getLong(i));
+          assertEquals(expectedLastValues[count], tsBlock.getColumn(2).getInt(i));
+        }
+      }
+    }
+    assertEquals(expectedDevices.length, count);
+  }
+
+  private PatternRecognitionOperator genPatternRecognitionOperator(String spillFolderPath) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    driverContext.addOperatorContext(
+        1, new PlanNodeId("1"), PatternRecognitionOperator.class.getSimpleName());
+
+    List<TSDataType> inputDataTypes =
+        Arrays.asList(TSDataType.TIMESTAMP, TSDataType.TEXT, TSDataType.INT32);
+    List<TSDataType> outputDataTypes =
+        Arrays.asList(TSDataType.TEXT, TSDataType.INT64, TSDataType.INT32);
+    List<String> labelNames = ImmutableList.of("A", "B");
+
+    // A is always true, B AS value > PREV(value)
+    PhysicalValuePointer currentValue =
+        new PhysicalValuePointer(
+            2, TypeFactory.getType(TSDataType.INT32), LogicalIndexNavigation.NO_OP);
+    PhysicalValuePointer previousValue =
+        new PhysicalValuePointer(
+            2,
+            TypeFactory.getType(TSDataType.INT32),
+            new LogicalIndexNavigation(Collections.emptySet(), true, true, 0, -1));
+    List<PatternVariableComputation> labelComputations =
+        ImmutableList.of(
+            new PatternVariableComputation(
+                Collections.emptyList(), new ConstantComputation(true), labelNames),
+            new PatternVariableComputation(
+                ImmutableList.of(currentValue, previousValue),
+                new BinaryComputation(
+                    new ReferenceComputation(0),
+                    new ReferenceComputation(1),
+                    ComparisonOperator.GREATER_THAN),
+                labelNames));
+
+    // MATCH_NUMBER() and the value of the last row of the match
+    List<PatternExpressionComputation> measureComputations =
+        ImmutableList.of(
+            new PatternExpressionComputation(
+                ImmutableList.of(
+                    new PhysicalValuePointer(
+                        PhysicalValuePointer.MATCH_NUMBER,
+                        TypeFactory.getType(TSDataType.INT64),
+                        LogicalIndexNavigation.NO_OP)),
+                new ReferenceComputation(0)),
+            new PatternExpressionComputation(
+                ImmutableList.of(currentValue), new ReferenceComputation(0)));
+
+    Matcher matcher =
+        new Matcher(
+            IrRowPatternToProgramRewriter.rewrite(
+                concatenation(label("A"), plusQuantified(label("B"), true)),
+                ImmutableMap.of(new IrLabel("A"), 0, new IrLabel("B"), 1)));
+
+    return new PatternRecognitionOperator(
+        driverContext.getOperatorContexts().get(0),
+        new TableWindowOperatorTest.ChildOperator(
+            timeArray, deviceIdArray, valueArray, driverContext),
+        inputDataTypes,
+        outputDataTypes,
+        Collections.singletonList(1),
+        Collections.singletonList(1),
+        Collections.singletonList(0),
+        RowsPerMatch.ONE,
+        SkipToPosition.PAST_LAST,
+        Optional.empty(),
+        matcher,
+        labelComputations,
+        measureComputations,
+        labelNames,
+        spillFolderPath);
+  }
+}
@@ -20,6 +20,8 @@
 package org.apache.iotdb.db.queryengine.execution.operator.process.window;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -33,6 +35,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.window.functio
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.rank.RankFunction;
 import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.frame.FrameInfo;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.utils.constant.TestConstant;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.common.conf.TSFileConfig;
@@ -43,6 +46,7 @@ import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
 import org.apache.tsfile.utils.Binary;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -51,7 +55,9 @@ import java.util.concurrent.ExecutorService;
 
 import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.SPILLED_DATA_SIZE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TableWindowOperatorTest {
@@ -150,6 +156,71 @@ public class TableWindowOperatorTest {
     }
   }
 
+  @Test
+  public void testPartitionCrossMultiTsBlockWithSpill() {
+    long[][] timeArray =
+        new long[][] {
+          {1, 2},
+          {3, 4},
+          {5},
+          {6, 7},
+        };
+    String[][] deviceIdArray =
+        new String[][] {
+          {"d1", "d1"},
+          {"d2", "d2"},
+          {"d2"},
+          {"d2", "d2"},
+        };
+    int[][] valueArray =
+        new int[][] {
+          {1, 2},
+          {3, 4},
+          {5},
+          {6, 7},
+        };
+
+    long originPartitionBufferSize =
+        IoTDBDescriptor.getInstance().getConfig().getWindowPartitionBufferSize();
+    // Spill all TsBlocks of the partition except the last one
+    IoTDBDescriptor.getInstance().getConfig().setWindowPartitionBufferSize(1);
+    File spillFolder = new File(TestConstant.BASE_OUTPUT_PATH + "window-spill");
+    int count = 0;
+    try (TableWindowOperator windowOperator =
+        genWindowOperator(
+            timeArray, deviceIdArray, valueArray, spillFolder.getPath() + File.separator)) {
+      ListenableFuture<?> listenableFuture = windowOperator.isBlocked();
+      listenableFuture.get();
+      while (!windowOperator.isFinished() && windowOperator.hasNext()) {
+        TsBlock tsBlock = windowOperator.next();
+        if (tsBlock != null && !tsBlock.isEmpty()) {
+          for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++, count++) {
+            assertEquals(column1[count], tsBlock.getColumn(0).getLong(i));
+            assertEquals(
+                column2[count],
+                tsBlock.getColumn(1).getBinary(i).getStringValue(TSFileConfig.STRING_CHARSET));
+            assertEquals(column3[count], tsBlock.getColumn(2).getInt(i));
+            assertEquals(column4[count], tsBlock.getColumn(3).getLong(i));
+          }
+        }
+      }
+      assertEquals(column1.length, count);
+      assertTrue(
+          windowOperator.getOperatorContext().getSpecifiedInfo().containsKey(SPILLED_DATA_SIZE));
+      // Spilled files are deleted after the partitions are processed
+      File[] spilledFiles = spillFolder.listFiles();
+      assertTrue(spilledFiles == null || spilledFiles.length == 0);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setWindowPartitionBufferSize(originPartitionBufferSize);
+      FileUtils.deleteFileOrDirectory(spillFolder, true);
+    }
+  }
+
   @Test
   public void testMixedPartition() {
     long[][] timeArray =
@@ -192,7 +263,7 @@ public class TableWindowOperatorTest {
     }
   }
 
-  static class ChildOperator implements Operator {
+  public static class ChildOperator implements Operator {
     private int index;
 
     private final long[][] timeArray;
@@ -200,7 +271,7 @@ public class TableWindowOperatorTest {
     private final int[][] valueArray;
     private final DriverContext driverContext;
 
-    ChildOperator(
+    public ChildOperator(
         long[][] timeArray,
         String[][] deviceIdArray,
         int[][] valueArray,
@@ -279,6 +350,11 @@ public class TableWindowOperatorTest {
 
   private TableWindowOperator genWindowOperator(
       long[][] timeArray, String[][] deviceIdArray, int[][] valueArray) {
+    return genWindowOperator(timeArray, deviceIdArray, valueArray, null);
+  }
+
+  private TableWindowOperator genWindowOperator(
+      long[][] timeArray, String[][] deviceIdArray, int[][] valueArray, String spillFolderPath) {
     QueryId queryId = new QueryId("stub_query");
     FragmentInstanceId instanceId =
         new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
@@ -315,6 +391,7 @@ public class TableWindowOperatorTest {
         Collections.singletonList(windowFunction),
         Collections.singletonList(frameInfo),
         Collections.singletonList(1),
-        Collections.singletonList(2));
+        Collections.singletonList(2),
+        spillFolderPath);
   }
 }
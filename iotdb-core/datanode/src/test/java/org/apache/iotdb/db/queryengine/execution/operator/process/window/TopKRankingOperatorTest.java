@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.window;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode.RankingType;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparatorForTable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TopKRankingOperatorTest {
+  private static final ExecutorService instanceNotificationExecutor =
+      IoTDBThreadPoolFactory.newFixedThreadPool(1, "topKOperator-test-instance-notification");
+
+  private final long[][] timeArray =
+      new long[][] {
+        {1, 2}, {3, 4}, {5, 6}, {7, 8},
+      };
+  private final String[][] deviceIdArray =
+      new String[][] {
+        {"d1", "d2"}, {"d1", "d2"}, {"d1", "d2"}, {"d1", "d2"},
+      };
+  private final int[][] valueArray =
+      new int[][] {
+        {3, 2}, {5, 8}, {5, 6}, {1, 8},
+      };
+
+  @Test
+  public void testRowNumber() {
+    checkResult(
+        RankingType.ROW_NUMBER,
+        2,
+        true,
+        new String[] {"d1", "d1", "d2", "d2"},
+        new int[] {5, 5, 8, 8},
+        new long[] {1, 2, 1, 2});
+  }
+
+  @Test
+  public void testRank() {
+    checkResult(
+        RankingType.RANK,
+        2,
+        true,
+        new String[] {"d1", "d1", "d2", "d2"},
+        new int[] {5, 5, 8, 8},
+        new long[] {1, 1, 1, 1});
+    checkResult(
+        RankingType.RANK,
+        3,
+        true,
+        new String[] {"d1", "d1", "d1", "d2", "d2", "d2"},
+        new int[] {5, 5, 3, 8, 8, 6},
+        new long[] {1, 1, 3, 1, 1, 3});
+  }
+
+  @Test
+  public void testPartialRowNumber() {
+    checkResult(
+        RankingType.ROW_NUMBER,
+        1,
+        false,
+        new String[] {"d1", "d2"},
+        new int[] {5, 8},
+        null);
+  }
+
+  private void checkResult(
+      RankingType rankingType,
+      int maxRankingPerPartition,
+      boolean generateRanking,
+      String[] expectedDeviceIds,
+      int[] expectedValues,
+      long[] expectedRankings) {
+    int count = 0;
+    try (TopKRankingOperator operator =
+        genTopKRankingOperator(rankingType, maxRankingPerPartition, generateRanking)) {
+      while (!operator.isFinished()) {
+        if (!operator.hasNext()) {
+          continue;
+        }
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null || tsBlock.isEmpty()) {
+          continue;
+        }
+        assertEquals(generateRanking ? 4 : 3, tsBlock.getValueColumnCount());
+        for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++, count++) {
+          assertEquals(
+              expectedDeviceIds[count],
+              tsBlock.getColumn(1).getBinary(i).getStringValue(TSFileConfig.STRING_CHARSET));
+          assertEquals(expectedValues[count], tsBlock.getColumn(2).getInt(i));
+          if (generateRanking) {
+            assertEquals(expectedRankings[count], tsBlock.getColumn(3).getLong(i));
+          }
+        }
+      }
+      assertEquals(expectedValues.length, count);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+  }
+
+  private TopKRankingOperator genTopKRankingOperator(
+      RankingType rankingType, int maxRankingPerPartition, boolean generateRanking) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    PlanNodeId planNode = new PlanNodeId("1");
+    driverContext.addOperatorContext(1, planNode, TopKRankingOperator.class.getSimpleName());
+
+    List<TSDataType> inputDataTypes =
+        Arrays.asList(TSDataType.TIMESTAMP, TSDataType.TEXT, TSDataType.INT32);
+    Operator childOperator =
+        new TableWindowOperatorTest.ChildOperator(
+            timeArray, deviceIdArray, valueArray, driverContext);
+    // PARTITION BY device ORDER BY value DESC
+    return new TopKRankingOperator(
+        driverContext.getOperatorContexts().get(0),
+        childOperator,
+        inputDataTypes,
+        Collections.singletonList(TypeFactory.getType(TSDataType.TEXT)),
+        Collections.singletonList(1),
+        getComparatorForTable(
+            Collections.singletonList(SortOrder.DESC_NULLS_LAST),
+            Collections.singletonList(2),
+            Collections.singletonList(TSDataType.INT32)),
+        rankingType,
+        maxRankingPerPartition,
+        generateRanking);
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.window.function.aggregate;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.TableWindowOperatorTestUtils;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.FunctionTestUtils;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.function.WindowFunction;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.PartitionExecutor;
+import org.apache.iotdb.db.queryengine.execution.operator.process.window.partition.frame.FrameInfo;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+
+public class SlidingExtremaWindowFunctionTest {
+  private final int[] inputs = {5, 3, 8, 1, 9, 2, 7, 4, 6, 0};
+
+  private final FrameInfo frameInfo =
+      new FrameInfo(
+          FrameInfo.FrameType.ROWS,
+          FrameInfo.FrameBoundType.PRECEDING,
+          1,
+          FrameInfo.FrameBoundType.FOLLOWING,
+          2);
+
+  @Test
+  public void testMovingMin() {
+    int[] expected = {3, 1, 1, 1, 1, 1, 2, 0, 0, 0};
+
+    TsBlock tsBlock = TableWindowOperatorTestUtils.createIntsTsBlockWithoutNulls(inputs, 2, 2);
+    Column column =
+        transform(tsBlock, new SlidingExtremaWindowFunction(0, TSDataType.INT32, false));
+
+    Assert.assertEquals(expected.length, column.getPositionCount());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], column.getInt(i));
+    }
+  }
+
+  @Test
+  public void testMovingMax() {
+    int[] expected = {8, 8, 9, 9, 9, 9, 9, 7, 7, 6};
+
+    TsBlock tsBlock = TableWindowOperatorTestUtils.createIntsTsBlockWithoutNulls(inputs, 2, 2);
+    Column column = transform(tsBlock, new SlidingExtremaWindowFunction(0, TSDataType.INT32, true));
+
+    Assert.assertEquals(expected.length, column.getPositionCount());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], column.getInt(i));
+    }
+  }
+
+  @Test
+  public void testMovingMinWithNulls() {
+    // -1 mimics null value
+    int[] inputsWithNulls = {-1, -1, 3, -1, -1, -1, 5, 4, -1, -1};
+    int[] expected = {-1, 3, 3, 3, -1, 5, 4, 4, 4, -1};
+
+    TsBlock tsBlock =
+        TableWindowOperatorTestUtils.createIntsTsBlockWithNulls(inputsWithNulls, 1, 1);
+    Column column =
+        transform(tsBlock, new SlidingExtremaWindowFunction(0, TSDataType.INT32, false));
+
+    Assert.assertEquals(expected.length, column.getPositionCount());
+    for (int i = 0; i < expected.length; i++) {
+      if (expected[i] < 0) {
+        Assert.assertTrue(column.isNull(i));
+      } else {
+        Assert.assertEquals(expected[i], column.getInt(i));
+      }
+    }
+  }
+
+  @Test
+  public void testConsistentWithAccumulator() {
+    int[] randomInputs = new int[1000];
+    Random random = new Random(0);
+    for (int i = 0; i < randomInputs.length; i++) {
+      randomInputs[i] = random.nextInt(100);
+    }
+
+    TsBlock tsBlock =
+        TableWindowOperatorTestUtils.createIntsTsBlockWithoutNulls(randomInputs, 7, 3);
+    Column expected =
+        transform(
+            tsBlock,
+            FunctionTestUtils.createAggregationWindowFunction(
+                TAggregationType.MAX,
+                TSDataType.INT32,
+                TSDataType.INT32,
+                true));
+    Column actual = transform(tsBlock, new SlidingExtremaWindowFunction(0, TSDataType.INT32, true));
+
+    Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      Assert.assertEquals(expected.getInt(i), actual.getInt(i));
+    }
+  }
+
+  @Test
+  public void testNaNAndSignedZero() {
+    double[] doubleInputs = {
+      Double.NaN, 1.0, -0.0, 0.0, Double.NaN, 2.0, 0.0, -0.0, -1.0, Double.NaN
+    };
+    // NaN is returned only as the first value of the frame, the first of -0.0 and 0.0 is returned
+    double[] expectedMax = {
+      Double.NaN, Double.NaN, 1.0, 2.0, 2.0, Double.NaN, 2.0, 0.0, -0.0, -1.0
+    };
+    double[] expectedMin = {
+      Double.NaN, Double.NaN, -0.0, -0.0, 0.0, Double.NaN, -1.0, -1.0, -1.0, -1.0
+    };
+
+    TsBlock tsBlock = createDoublesTsBlock(doubleInputs);
+    for (boolean isMax : new boolean[] {true, false}) {
+      Column expected =
+          transform(
+              tsBlock,
+              FunctionTestUtils.createAggregationWindowFunction(
+                  isMax ? TAggregationType.MAX : TAggregationType.MIN,
+                  TSDataType.DOUBLE,
+                  TSDataType.DOUBLE,
+                  true),
+              TSDataType.DOUBLE);
+      Column actual =
+          transform(
+              tsBlock,
+              new SlidingExtremaWindowFunction(0, TSDataType.DOUBLE, isMax),
+              TSDataType.DOUBLE);
+
+      double[] expectedValues = isMax ? expectedMax : expectedMin;
+      Assert.assertEquals(expectedValues.length, actual.getPositionCount());
+      for (int i = 0; i < expectedValues.length; i++) {
+        Assert.assertEquals(
+            Double.doubleToLongBits(expectedValues[i]),
+            Double.doubleToLongBits(actual.getDouble(i)));
+        Assert.assertEquals(
+            Double.doubleToLongBits(expected.getDouble(i)),
+            Double.doubleToLongBits(actual.getDouble(i)));
+      }
+    }
+  }
+
+  private TsBlock createDoublesTsBlock(double[] doubleInputs) {
+    TsBlockBuilder tsBlockBuilder =
+        new TsBlockBuilder(Arrays.asList(TSDataType.DOUBLE, TSDataType.INT32, TSDataType.INT32));
+    ColumnBuilder[] columnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    for (double input : doubleInputs) {
+      columnBuilders[0].writeDouble(input);
+      columnBuilders[1].writeInt(1);
+      columnBuilders[2].writeInt(2);
+      tsBlockBuilder.declarePosition();
+    }
+    return tsBlockBuilder.build(
+        new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, tsBlockBuilder.getPositionCount()));
+  }
+
+  private Column transform(TsBlock tsBlock, WindowFunction function) {
+    return transform(tsBlock, function, TSDataType.INT32);
+  }
+
+  private Column transform(TsBlock tsBlock, WindowFunction function, TSDataType dataType) {
+    PartitionExecutor partitionExecutor =
+        FunctionTestUtils.createPartitionExecutor(
+            tsBlock, Collections.singletonList(dataType), function, frameInfo);
+
+    TsBlockBuilder tsBlockBuilder =
+        new TsBlockBuilder(tsBlock.getPositionCount(), Arrays.asList(dataType, dataType));
+    while (partitionExecutor.hasNext()) {
+      partitionExecutor.processNextRow(tsBlockBuilder);
+    }
+
+    TsBlock result =
+        tsBlockBuilder.build(
+            new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, tsBlockBuilder.getPositionCount()));
+    return result.getColumn(1);
+  }
+}
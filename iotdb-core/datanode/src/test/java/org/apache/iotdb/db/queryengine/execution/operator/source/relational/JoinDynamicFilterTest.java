@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class JoinDynamicFilterTest {
+
+  @Test
+  public void testDistinctValues() {
+    JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(0, 0);
+    dynamicFilter.collect(
+        new BinaryColumn(
+            3,
+            Optional.of(new boolean[] {false, true, false}),
+            new Binary[] {binary("d1"), null, binary("d3")}));
+    dynamicFilter.collect(
+        new RunLengthEncodedColumn(
+            new BinaryColumn(1, Optional.empty(), new Binary[] {binary("d5")}), 10));
+
+    // every device may match before the build side is consumed up
+    Assert.assertFalse(dynamicFilter.isReady());
+    Assert.assertTrue(dynamicFilter.mightMatch(binary("d2")));
+
+    dynamicFilter.complete();
+    Assert.assertTrue(dynamicFilter.isReady());
+    Assert.assertTrue(dynamicFilter.mightMatch(binary("d1")));
+    Assert.assertTrue(dynamicFilter.mightMatch(binary("d3")));
+    Assert.assertTrue(dynamicFilter.mightMatch(binary("d5")));
+    Assert.assertFalse(dynamicFilter.mightMatch(binary("d2")));
+    Assert.assertFalse(dynamicFilter.mightMatch(null));
+  }
+
+  @Test
+  public void testRangeWhenTooManyValues() {
+    JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(0, 0);
+    int count = JoinDynamicFilter.MAX_DISTINCT_VALUE_COUNT + 1;
+    Binary[] values = new Binary[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = binary(String.format("d%06d", i * 2));
+    }
+    dynamicFilter.collect(new BinaryColumn(count, Optional.empty(), values));
+    dynamicFilter.complete();
+
+    // only the range of the keys is kept
+    Assert.assertTrue(dynamicFilter.mightMatch(binary("d000001")));
+    Assert.assertTrue(dynamicFilter.mightMatch(values[count - 1]));
+    Assert.assertFalse(dynamicFilter.mightMatch(binary("c")));
+    Assert.assertFalse(dynamicFilter.mightMatch(binary("e")));
+  }
+
+  @Test
+  public void testEmptyBuildSide() {
+    JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(0, 0);
+    dynamicFilter.complete();
+    Assert.assertFalse(dynamicFilter.mightMatch(binary("d1")));
+  }
+
+  private static Binary binary(String value) {
+    return new Binary(value, TSFileConfig.STRING_CHARSET);
+  }
+}
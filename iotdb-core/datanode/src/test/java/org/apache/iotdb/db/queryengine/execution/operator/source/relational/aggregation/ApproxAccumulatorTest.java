@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.TDigestBigArray;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public class ApproxAccumulatorTest {
+
+  private static final int VALUE_COUNT = 1000;
+
+  private static DoubleColumn valueColumn() {
+    double[] values = new double[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = i;
+    }
+    return new DoubleColumn(VALUE_COUNT, Optional.empty(), values);
+  }
+
+  private static SeriesSketch sketch() {
+    SeriesSketch sketch = new SeriesSketch(TSDataType.DOUBLE);
+    sketch.update(valueColumn());
+    return sketch;
+  }
+
+  private static Column percentileColumn(double percentile) {
+    return new RunLengthEncodedColumn(
+        new DoubleColumn(1, Optional.empty(), new double[] {percentile}), VALUE_COUNT);
+  }
+
+  @Test
+  public void testApproxPercentileFromSketch() {
+    TableAccumulator fromInput = new ApproxPercentileAccumulator(TSDataType.DOUBLE, 0.9);
+    fromInput.addInput(new Column[] {valueColumn()}, AggregationMask.createSelectAll(VALUE_COUNT));
+
+    TableAccumulator fromSketch = fromInput.copy();
+    Assert.assertTrue(fromSketch.useSketch());
+    Assert.assertTrue(fromSketch.canUseSketch(sketch()));
+    fromSketch.addSketch(sketch());
+
+    ColumnBuilder expected = new DoubleColumnBuilder(null, 1);
+    fromInput.evaluateFinal(expected);
+    ColumnBuilder actual = new DoubleColumnBuilder(null, 1);
+    fromSketch.evaluateFinal(actual);
+    Assert.assertEquals(900, actual.build().getDouble(0), VALUE_COUNT * 0.01);
+    Assert.assertEquals(expected.build().getDouble(0), actual.build().getDouble(0), 0);
+
+    // the intermediate result carries the constant percentile to the final aggregation
+    ColumnBuilder intermediate = new BinaryColumnBuilder(null, 1);
+    fromSketch.evaluateIntermediate(intermediate);
+    TableAccumulator finalAccumulator = new ApproxPercentileAccumulator(TSDataType.DOUBLE);
+    finalAccumulator.addIntermediate(intermediate.build());
+    actual = new DoubleColumnBuilder(null, 1);
+    finalAccumulator.evaluateFinal(actual);
+    Assert.assertEquals(900, actual.build().getDouble(0), VALUE_COUNT * 0.01);
+
+    // reset keeps the constant percentile, and the sketch is not changed by the merge
+    fromSketch.reset();
+    SeriesSketch sketch = sketch();
+    fromSketch.addSketch(sketch);
+    fromSketch.addSketch(sketch);
+    Assert.assertEquals(VALUE_COUNT, sketch.getCount());
+    actual = new DoubleColumnBuilder(null, 1);
+    fromSketch.evaluateFinal(actual);
+    Assert.assertEquals(900, actual.build().getDouble(0), VALUE_COUNT * 0.01);
+  }
+
+  @Test
+  public void testApproxPercentileCanNotUseSketch() {
+    // percentile is unknown before the first input if it is not a literal
+    Assert.assertFalse(new ApproxPercentileAccumulator(TSDataType.DOUBLE).canUseSketch(sketch()));
+    // sketches of non-numeric series have no TDigest
+    Assert.assertFalse(
+        new ApproxPercentileAccumulator(TSDataType.DOUBLE, 0.5)
+            .canUseSketch(new SeriesSketch(TSDataType.BOOLEAN)));
+  }
+
+  @Test
+  public void testApproxCountDistinctFromSketch() {
+    TableAccumulator fromSketch = new ApproxCountDistinctAccumulator(TSDataType.DOUBLE);
+    Assert.assertTrue(fromSketch.useSketch());
+    Assert.assertTrue(fromSketch.canUseSketch(sketch()));
+    fromSketch.addSketch(sketch());
+    fromSketch.addInput(new Column[] {valueColumn()}, AggregationMask.createSelectAll(VALUE_COUNT));
+
+    ColumnBuilder actual = new LongColumnBuilder(null, 1);
+    fromSketch.evaluateFinal(actual);
+    Assert.assertEquals(VALUE_COUNT, actual.build().getLong(0), VALUE_COUNT * 0.05);
+
+    // registers of HyperLogLogs with different standard errors can not be merged
+    TableAccumulator otherError = new ApproxCountDistinctAccumulator(TSDataType.DOUBLE, 0.01);
+    Assert.assertFalse(otherError.canUseSketch(sketch()));
+  }
+
+  @Test
+  public void testHyperLogLogCompactSerialization() {
+    HyperLogLog hyperLogLog = new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR);
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      hyperLogLog.add(i);
+    }
+    byte[] compact = hyperLogLog.serializeCompact();
+    Assert.assertTrue(compact.length < hyperLogLog.serialize().length);
+    HyperLogLog deserialized = HyperLogLog.deserializeCompact(ByteBuffer.wrap(compact));
+    Assert.assertTrue(hyperLogLog.equals(deserialized));
+    Assert.assertEquals(hyperLogLog.cardinality(), deserialized.cardinality());
+  }
+
+  @Test
+  public void testGroupedApproxPercentileReset() {
+    GroupedApproxPercentileAccumulator accumulator =
+        new GroupedApproxPercentileAccumulator(TSDataType.DOUBLE);
+    long emptySize = accumulator.getEstimatedSize();
+    accumulator.setGroupCount(2);
+    int[] groupIds = new int[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      groupIds[i] = i % 2;
+    }
+    accumulator.addInput(
+        groupIds,
+        new Column[] {valueColumn(), percentileColumn(0.5)},
+        AggregationMask.createSelectAll(VALUE_COUNT));
+    Assert.assertTrue(accumulator.getEstimatedSize() > emptySize);
+
+    ColumnBuilder result = new DoubleColumnBuilder(null, 1);
+    accumulator.evaluateFinal(1, result);
+    Assert.assertEquals(VALUE_COUNT / 2.0, result.build().getDouble(0), VALUE_COUNT * 0.01);
+
+    accumulator.reset();
+    Assert.assertEquals(emptySize, accumulator.getEstimatedSize());
+    result = new DoubleColumnBuilder(null, 1);
+    accumulator.evaluateFinal(1, result);
+    Assert.assertTrue(result.build().isNull(0));
+  }
+
+  @Test
+  public void testTDigestBigArray() {
+    TDigestBigArray digests = new TDigestBigArray();
+    long emptySize = digests.sizeOf();
+    digests.ensureCapacity(1024);
+    // digests are only created for groups with values
+    Assert.assertNull(digests.get(1000));
+    digests.getOrCreate(1000).add(1);
+    Assert.assertTrue(digests.sizeOf() > emptySize);
+    Assert.assertNull(digests.get(999));
+
+    digests.reset();
+    Assert.assertEquals(emptySize, digests.sizeOf());
+    Assert.assertNull(digests.get(1000));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class TDigestTest {
+
+  private static final int VALUE_COUNT = 100_000;
+
+  @Test
+  public void testQuantile() {
+    TDigest digest = new TDigest();
+    Assert.assertTrue(digest.isEmpty());
+    Assert.assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+    Random random = new Random(0);
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      digest.add(random.nextInt(VALUE_COUNT));
+    }
+    assertQuantiles(digest);
+  }
+
+  @Test
+  public void testSingleValue() {
+    TDigest digest = new TDigest();
+    digest.add(42);
+    Assert.assertEquals(42, digest.quantile(0), 0);
+    Assert.assertEquals(42, digest.quantile(0.99), 0);
+  }
+
+  @Test
+  public void testMergeAndSerialize() {
+    // values of each digest are in a different range, as data of different devices or regions
+    TDigest merged = new TDigest();
+    Random random = new Random(0);
+    for (int i = 0; i < 10; i++) {
+      TDigest digest = new TDigest();
+      for (int j = 0; j < VALUE_COUNT / 10; j++) {
+        digest.add(i * (VALUE_COUNT / 10) + random.nextInt(VALUE_COUNT / 10));
+      }
+      merged.merge(new TDigest(digest.serialize()));
+    }
+    assertQuantiles(merged);
+
+    TDigest deserialized = new TDigest(merged.serialize());
+    Assert.assertEquals(merged.quantile(0.95), deserialized.quantile(0.95), 0);
+
+    merged.reset();
+    Assert.assertTrue(merged.isEmpty());
+  }
+
+  private void assertQuantiles(TDigest digest) {
+    double[] quantiles = new double[] {0.01, 0.1, 0.5, 0.9, 0.95, 0.99, 0.999};
+    for (double quantile : quantiles) {
+      // relative error of rank should be small, especially at the tails
+      Assert.assertEquals(quantile * VALUE_COUNT, digest.quantile(quantile), VALUE_COUNT * 0.01);
+    }
+    Assert.assertTrue(digest.quantile(0) >= 0);
+    Assert.assertTrue(digest.quantile(1) < VALUE_COUNT);
+  }
+}
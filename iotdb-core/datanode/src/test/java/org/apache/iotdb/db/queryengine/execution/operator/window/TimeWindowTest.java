@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.window;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeWindowTest {
+
+  private Column buildTimeColumn(long start, long step, int count) {
+    TimeColumnBuilder builder = new TimeColumnBuilder(null, count);
+    for (int i = 0; i < count; i++) {
+      builder.writeLong(start + i * step);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testLeadingSatisfiedCount() {
+    TimeWindow timeWindow = new TimeWindow(new TimeRange(10, 19));
+
+    // ascending: 10, 12, ..., 28
+    Column ascColumn = buildTimeColumn(10, 2, 10);
+    Assert.assertEquals(5, timeWindow.getLeadingSatisfiedCount(ascColumn));
+    // descending: 19, 18, ..., 0
+    Column descColumn = buildTimeColumn(19, -1, 20);
+    Assert.assertEquals(10, timeWindow.getLeadingSatisfiedCount(descColumn));
+    // all rows satisfy the window
+    Assert.assertEquals(10, timeWindow.getLeadingSatisfiedCount(buildTimeColumn(10, 1, 10)));
+    // the first row is out of the window
+    Assert.assertEquals(0, timeWindow.getLeadingSatisfiedCount(buildTimeColumn(0, 1, 20)));
+    Assert.assertEquals(0, timeWindow.getLeadingSatisfiedCount(buildTimeColumn(0, 1, 0)));
+
+    // windows changing status while merging points have to be judged row by row
+    CountWindow countWindow = new CountWindow(new CountWindowParameter(2, 0, false, false));
+    Assert.assertEquals(-1, countWindow.getLeadingSatisfiedCount(ascColumn));
+  }
+}
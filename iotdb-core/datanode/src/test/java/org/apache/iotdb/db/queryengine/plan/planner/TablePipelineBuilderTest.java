@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.planner;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DataDriverContext;
+import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISink;
+import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.CollectOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.TableMergeSortOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.TableSortOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestMetadata;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.AlignedDeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.apache.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TablePipelineBuilderTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final long MIN_SORT_BUFFER_SIZE_OF_PIPELINE =
+      4L * TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+
+  private final TableOperatorGenerator tableOperatorGenerator =
+      new TableOperatorGenerator(new TestMetadata());
+
+  private int originMinDeviceNumOfTableScanPipeline;
+  private long originSortBufferSize;
+  private ExecutorService instanceNotificationExecutor;
+
+  @Before
+  public void setUp() {
+    originMinDeviceNumOfTableScanPipeline = config.getMinDeviceNumOfTableScanPipeline();
+    config.setMinDeviceNumOfTableScanPipeline(2);
+    originSortBufferSize = config.getSortBufferSize();
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+  }
+
+  @After
+  public void tearDown() {
+    config.setMinDeviceNumOfTableScanPipeline(originMinDeviceNumOfTableScanPipeline);
+    config.setSortBufferSize(originSortBufferSize);
+    instanceNotificationExecutor.shutdown();
+  }
+
+  /** 7 devices with dop = 3 are split into 3 device ranges [0, 2), [2, 4) and [4, 7). */
+  @Test
+  public void testSplitTableScanByDeviceRanges() throws Exception {
+    DeviceTableScanNode node = initDeviceTableScanNode(7, 0, false);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(3);
+
+    try (Operator root = tableOperatorGenerator.visitDeviceTableScan(node, context)) {
+      assertTrue(root instanceof CollectOperator);
+      // the first range is scanned in the current pipeline
+      assertEquals(2, context.getPipelineDriverFactories().size());
+      assertEquals(2, context.getExchangeSumNum());
+      assertEquals(1, context.getDegreeOfParallelism());
+      assertEquals(
+          1, ((DataDriverContext) context.getDriverContext()).getSourceOperators().size());
+      assertEquals(2, ((DataDriverContext) context.getDriverContext()).getPaths().size());
+
+      int[] expectedDeviceNum = new int[] {2, 3};
+      for (int i = 0; i < 2; i++) {
+        DataDriverContext driverContext =
+            (DataDriverContext) context.getPipelineDriverFactories().get(i).getDriverContext();
+        assertTrue(driverContext.getSourceOperators().get(0) instanceof TableScanOperator);
+        assertEquals(expectedDeviceNum[i], driverContext.getPaths().size());
+      }
+    }
+  }
+
+  @Test
+  public void testNotSplitTableScan() throws Exception {
+    // not enough devices
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+    try (Operator root =
+        tableOperatorGenerator.visitDeviceTableScan(
+            initDeviceTableScanNode(3, 0, false), context)) {
+      assertTrue(root instanceof TableScanOperator);
+      assertEquals(0, context.getPipelineDriverFactories().size());
+    }
+
+    // the limit of all devices is pushed down
+    context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+    try (Operator root =
+        tableOperatorGenerator.visitDeviceTableScan(
+            initDeviceTableScanNode(8, 10, false), context)) {
+      assertTrue(root instanceof TableScanOperator);
+    }
+
+    // the limit of each device can be pushed down to each range
+    context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+    try (Operator root =
+        tableOperatorGenerator.visitDeviceTableScan(
+            initDeviceTableScanNode(8, 10, true), context)) {
+      assertTrue(root instanceof CollectOperator);
+      assertEquals(3, context.getPipelineDriverFactories().size());
+    }
+  }
+
+  /**
+   * 8 devices with dop = 4 are split into 4 device ranges, each of them is sorted in its own
+   * pipeline and the sorted ranges are merged in the current pipeline.
+   */
+  @Test
+  public void testSplitSortByDeviceRanges() throws Exception {
+    config.setSortBufferSize(4 * MIN_SORT_BUFFER_SIZE_OF_PIPELINE);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(8, 0, false)), context)) {
+      assertTrue(root instanceof TableMergeSortOperator);
+      assertEquals(4, context.getPipelineDriverFactories().size());
+      assertEquals(4, context.getExchangeSumNum());
+      assertEquals(1, context.getDegreeOfParallelism());
+      assertPipelinesOfDeviceRanges(context, 4, 8);
+
+      // the rows of the ranges interleave, so they can only be in order after being merged
+      for (int i = 0; i < 4; i++) {
+        ISink sink = context.getPipelineDriverFactories().get(i).getDriverContext().getSink();
+        sink.send(buildSortedTsBlock(i, 4, 5));
+        sink.setNoMoreTsBlocks();
+      }
+      List<Integer> values = new ArrayList<>();
+      while (!root.isFinished()) {
+        if (root.isBlocked().isDone() && root.hasNext()) {
+          TsBlock tsBlock = root.next();
+          if (tsBlock != null) {
+            for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+              values.add(tsBlock.getColumn(1).getInt(i));
+            }
+          }
+        }
+      }
+      assertEquals(20, values.size());
+      for (int i = 0; i < values.size(); i++) {
+        assertEquals(i, (int) values.get(i));
+      }
+    }
+  }
+
+  /**
+   * The sort buffer is only enough for 1 pipeline, each of the 4 pipelines still keeps the buffer
+   * it needs to spill and merge.
+   */
+  @Test
+  public void testSortBufferOfPipelineNotLessThanMinSize() throws Exception {
+    config.setSortBufferSize(MIN_SORT_BUFFER_SIZE_OF_PIPELINE);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(8, 0, false)), context)) {
+      assertTrue(root instanceof TableMergeSortOperator);
+      assertEquals(4, context.getPipelineDriverFactories().size());
+      assertEquals(1, context.getDegreeOfParallelism());
+      assertPipelinesOfDeviceRanges(context, 4, 8);
+    }
+  }
+
+  /** The sort is split into one pipeline for each device, regardless of the min device num. */
+  @Test
+  public void testSplitSortWithFewDevices() throws Exception {
+    config.setMinDeviceNumOfTableScanPipeline(32);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(3, 0, false)), context)) {
+      assertTrue(root instanceof TableMergeSortOperator);
+      assertEquals(3, context.getPipelineDriverFactories().size());
+      assertEquals(2, context.getDegreeOfParallelism());
+      assertPipelinesOfDeviceRanges(context, 3, 3);
+    }
+  }
+
+  @Test
+  public void testNotSplitSort() throws Exception {
+    config.setSortBufferSize(4 * MIN_SORT_BUFFER_SIZE_OF_PIPELINE);
+
+    // only one device
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(1, 0, false)), context)) {
+      assertTrue(root instanceof TableSortOperator);
+      assertEquals(
+          4 * MIN_SORT_BUFFER_SIZE_OF_PIPELINE, ((TableSortOperator) root).getSortBufferSize());
+      assertEquals(0, context.getPipelineDriverFactories().size());
+    }
+
+    // no dop left
+    context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(1);
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(8, 0, false)), context)) {
+      assertTrue(root instanceof TableSortOperator);
+      assertEquals(0, context.getPipelineDriverFactories().size());
+    }
+
+    // the limit of all devices is pushed down
+    context = createLocalExecutionPlanContext();
+    context.setDegreeOfParallelism(4);
+    try (Operator root =
+        tableOperatorGenerator.visitSort(
+            initSortNode(initDeviceTableScanNode(8, 10, false)), context)) {
+      assertTrue(root instanceof TableSortOperator);
+      assertEquals(0, context.getPipelineDriverFactories().size());
+    }
+  }
+
+  /**
+   * Each pipeline sorts one device range with its share of the sort buffer but no less than the min
+   * size, and the ranges are kept in the order of the devices.
+   */
+  private void assertPipelinesOfDeviceRanges(
+      LocalExecutionPlanContext context, int pipelineNum, int deviceNum) {
+    int deviceNumOfRange = deviceNum / pipelineNum;
+    for (int i = 0; i < pipelineNum; i++) {
+      PipelineDriverFactory factory = context.getPipelineDriverFactories().get(i);
+      assertTrue(factory.getOperation() instanceof TableSortOperator);
+      TableSortOperator sortOperator = (TableSortOperator) factory.getOperation();
+      assertEquals("2-" + i, sortOperator.getOperatorContext().getPlanNodeId().getId());
+      assertEquals(
+          Math.max(config.getSortBufferSize() / pipelineNum, MIN_SORT_BUFFER_SIZE_OF_PIPELINE),
+          sortOperator.getSortBufferSize());
+
+      DataDriverContext driverContext = (DataDriverContext) factory.getDriverContext();
+      assertTrue(driverContext.getSourceOperators().get(0) instanceof TableScanOperator);
+      List<IFullPath> paths = driverContext.getPaths();
+      assertEquals(deviceNumOfRange, paths.size());
+      for (int j = 0; j < deviceNumOfRange; j++) {
+        assertEquals(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(
+                new String[] {"table1", "d" + (i * deviceNumOfRange + j)}),
+            paths.get(j).getDeviceId());
+      }
+    }
+  }
+
+  /** The values of s1 are start, start + step, ..., which are also used as the time. */
+  private TsBlock buildSortedTsBlock(int start, int step, int rowNum) {
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT64, TSDataType.INT32));
+    for (int i = 0; i < rowNum; i++) {
+      int value = start + i * step;
+      builder.getTimeColumnBuilder().writeLong(value);
+      builder.getColumnBuilder(0).writeLong(value);
+      builder.getColumnBuilder(1).writeInt(value);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private SortNode initSortNode(DeviceTableScanNode scanNode) {
+    return new SortNode(
+        new PlanNodeId("2"),
+        scanNode,
+        new OrderingScheme(
+            Collections.singletonList(new Symbol("s1")),
+            Collections.singletonMap(new Symbol("s1"), SortOrder.ASC_NULLS_LAST)),
+        false,
+        false);
+  }
+
+  private DeviceTableScanNode initDeviceTableScanNode(
+      int deviceNum, long pushDownLimit, boolean pushLimitToEachDevice) {
+    Map<Symbol, ColumnSchema> assignments = new HashMap<>();
+    assignments.put(
+        new Symbol("time"),
+        new ColumnSchema(
+            "time", TypeFactory.getType(TSDataType.INT64), false, TsTableColumnCategory.TIME));
+    assignments.put(
+        new Symbol("s1"),
+        new ColumnSchema(
+            "s1", TypeFactory.getType(TSDataType.INT32), false, TsTableColumnCategory.FIELD));
+
+    List<DeviceEntry> deviceEntries = new ArrayList<>();
+    for (int i = 0; i < deviceNum; i++) {
+      deviceEntries.add(
+          new AlignedDeviceEntry(
+              IDeviceID.Factory.DEFAULT_FACTORY.create(new String[] {"table1", "d" + i}),
+              new Binary[0]));
+    }
+    return new DeviceTableScanNode(
+        new PlanNodeId("1"),
+        new QualifiedObjectName("db", "table1"),
+        Arrays.asList(new Symbol("time"), new Symbol("s1")),
+        assignments,
+        deviceEntries,
+        Collections.emptyMap(),
+        Ordering.ASC,
+        null,
+        null,
+        pushDownLimit,
+        0,
+        pushLimitToEachDevice,
+        false);
+  }
+
+  private LocalExecutionPlanContext createLocalExecutionPlanContext() {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    fragmentInstanceContext.setDataRegion(Mockito.mock(DataRegion.class));
+
+    Map<Symbol, Type> symbolTypes = new HashMap<>();
+    symbolTypes.put(new Symbol("time"), TypeFactory.getType(TSDataType.INT64));
+    symbolTypes.put(new Symbol("s1"), TypeFactory.getType(TSDataType.INT32));
+    return new LocalExecutionPlanContext(
+        new TypeProvider(symbolTypes), fragmentInstanceContext, new DataNodeQueryContext(1));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.planner.node.process;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.queryengine.plan.planner.node.PlanNodeDeserializeHelper;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.DataOrganizationSpecification;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class TopKRankingNodeSerdeTest {
+  @Test
+  public void testSerializeAndDeserialize() throws IllegalPathException, IOException {
+    SeriesScanNode child =
+        new SeriesScanNode(
+            new PlanNodeId("TestSeriesScanNode"),
+            new MeasurementPath("root.sg.d1.s1", TSDataType.INT32),
+            Ordering.DESC,
+            null,
+            100,
+            100,
+            null);
+
+    // Partition By col1, col2 Order By col3
+    ImmutableList<Symbol> partitionBy = ImmutableList.of(new Symbol("col1"), new Symbol("col2"));
+    Symbol col3 = new Symbol("col3");
+    List<Symbol> orderBy = Collections.singletonList(col3);
+    Map<Symbol, SortOrder> orderings = Collections.singletonMap(col3, SortOrder.ASC_NULLS_LAST);
+    DataOrganizationSpecification specification =
+        new DataOrganizationSpecification(
+            partitionBy, Optional.of(new OrderingScheme(orderBy, orderings)));
+
+    for (boolean partial : new boolean[] {false, true}) {
+      TopKRankingNode topKRankingNode =
+          new TopKRankingNode(
+              new PlanNodeId("testTopKRankingNode"),
+              child,
+              specification,
+              TopKRankingNode.RankingType.RANK,
+              new Symbol("rk"),
+              3,
+              partial);
+
+      ByteBuffer buffer = ByteBuffer.allocate(8196);
+      topKRankingNode.serialize(buffer);
+      buffer.flip();
+      PlanNode deserialized = PlanNodeDeserializeHelper.deserialize(buffer);
+      assertEquals(topKRankingNode, deserialized);
+    }
+  }
+}
@@ -704,4 +704,38 @@ public class AggregationTest {
                 ImmutableList.of("count"),
                 ImmutableSet.of("time"))));
   }
+
+  @Test
+  public void approxAggregationPushDownTest() {
+    PlanTester planTester = new PlanTester();
+
+    // literal parameters are kept in the projection of AggTableScan, so that the TsFile sketches
+    // can be merged without reading the data
+    assertPlan(
+        planTester.createPlan(
+            "SELECT approx_percentile(s1, 0.5) FROM table1 where tag1='beijing' and tag2='A1'"),
+        output(
+            aggregationTableScan(
+                singleGroupingSet(),
+                ImmutableList.of(), // UnStreamable
+                Optional.empty(),
+                SINGLE,
+                "testdb.table1",
+                ImmutableList.of("approx_percentile"),
+                ImmutableSet.of("s1"))));
+
+    assertPlan(
+        planTester.createPlan(
+            "SELECT approx_count_distinct(s2, 0.01) FROM table1 "
+                + "where tag1='beijing' and tag2='A1'"),
+        output(
+            aggregationTableScan(
+                singleGroupingSet(),
+                ImmutableList.of(), // UnStreamable
+                Optional.empty(),
+                SINGLE,
+                "testdb.table1",
+                ImmutableList.of("approx_count_distinct"),
+                ImmutableSet.of("s2"))));
+  }
 }
@@ -21,6 +21,9 @@ package org.apache.iotdb.db.queryengine.plan.relational.planner;
 
 import org.apache.iotdb.db.queryengine.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKRankingNode;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -35,7 +38,10 @@ import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.project;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.sort;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.tableScan;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.topKRanking;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.window;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class WindowFunctionTest {
   @Test
@@ -255,4 +261,59 @@ public class WindowFunctionTest {
     assertPlan(planTester.getFragmentPlan(4), tableScan);
     assertPlan(planTester.getFragmentPlan(5), tableScan);
   }
+
+  @Test
+  public void testRowNumberWithUpperBoundToTopKRanking() {
+    PlanTester planTester = new PlanTester();
+
+    String sql =
+        "SELECT * FROM (SELECT time, tag1, tag2, tag3, s1, row_number() OVER "
+            + "(PARTITION BY tag1, tag2, tag3 ORDER BY time DESC) AS rn FROM table1) WHERE rn <= 2";
+
+    LogicalQueryPlan logicalQueryPlan = planTester.createPlan(sql);
+
+    // Verify full LogicalPlan
+    /*
+     *   └──OutputNode
+     *       └──TopKRankingNode
+     *         └──TableScanNode
+     */
+    assertPlan(logicalQueryPlan, output(topKRanking(tableScan("testdb.table1"))));
+
+    // each partition is one device and ranked by time, so the limit is pushed down to each device
+    DeviceTableScanNode deviceTableScanNode =
+        (DeviceTableScanNode)
+            logicalQueryPlan.getRootNode().getChildren().get(0).getChildren().get(0);
+    assertEquals(2, deviceTableScanNode.getPushDownLimit());
+    assertTrue(deviceTableScanNode.isPushLimitToEachDevice());
+    assertEquals(Ordering.DESC, deviceTableScanNode.getScanOrder());
+  }
+
+  @Test
+  public void testRankWithUpperBoundToTopKRanking() {
+    PlanTester planTester = new PlanTester();
+
+    String sql =
+        "SELECT * FROM (SELECT time, tag1, s1, rank() OVER "
+            + "(PARTITION BY tag1 ORDER BY s1) AS rk FROM table1) WHERE rk < 3";
+
+    LogicalQueryPlan logicalQueryPlan = planTester.createPlan(sql);
+
+    // Verify full LogicalPlan
+    /*
+     *   └──OutputNode
+     *       └──TopKRankingNode
+     *         └──TableScanNode
+     */
+    assertPlan(logicalQueryPlan, output(topKRanking(tableScan("testdb.table1"))));
+
+    TopKRankingNode topKRankingNode =
+        (TopKRankingNode) logicalQueryPlan.getRootNode().getChildren().get(0);
+    assertEquals(TopKRankingNode.RankingType.RANK, topKRankingNode.getRankingType());
+    assertEquals(2, topKRankingNode.getMaxRankingPerPartition());
+    // rank() may have more rows than the limit, and the partition is not a device
+    DeviceTableScanNode deviceTableScanNode =
+        (DeviceTableScanNode) topKRankingNode.getChildren().get(0);
+    assertEquals(0, deviceTableScanNode.getPushDownLimit());
+  }
 }
@@ -19,37 +19,79 @@
 
 package org.apache.iotdb.db.queryengine.plan.scheduler.load;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.execution.QueryStateMachine;
 import org.apache.iotdb.db.queryengine.plan.analyze.IPartitionFetcher;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.PlanFragment;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.SubPlan;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadSingleTsFileNode;
+import org.apache.iotdb.db.queryengine.plan.scheduler.FragInstanceDispatchResult;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.mpp.rpc.thrift.TLoadCommandReq;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class LoadTsFileSchedulerTest {
 
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
   @Mock DistributedQueryPlan distributedQueryPlan;
   @Mock SubPlan subPlan;
   @Mock PlanFragment planFragment;
 
+  private int originalParallelism;
+
   @Before
   public void before() {
     MockitoAnnotations.initMocks(this);
     when(distributedQueryPlan.getRootSubPlan()).thenReturn(subPlan);
     when(subPlan.getPlanFragment()).thenReturn(planFragment);
     when(planFragment.getId()).thenReturn(new PlanFragmentId("test", 0));
+    originalParallelism = CONFIG.getLoadTsFileSchedulerParallelism();
+  }
+
+  @After
+  public void after() {
+    CONFIG.setLoadTsFileSchedulerParallelism(originalParallelism);
   }
 
   @Test
@@ -67,4 +109,132 @@ public class LoadTsFileSchedulerTest {
     Assert.assertNull(t.getTotalCpuTime());
     Assert.assertNull(t.getFragmentInfo());
   }
+
+  @Test
+  public void testLoadTsFilesInParallel() throws Exception {
+    final int parallelism = 3;
+    CONFIG.setLoadTsFileSchedulerParallelism(parallelism);
+    final List<LoadSingleTsFileNode> nodes = mockTsFileNodes(2 * parallelism);
+    final QueryStateMachine stateMachine = mock(QueryStateMachine.class);
+    final LoadTsFileScheduler scheduler = spy(newScheduler(stateMachine));
+
+    // every round of TsFiles can only pass the barrier if they are loaded at the same time
+    final CyclicBarrier barrier = new CyclicBarrier(parallelism);
+    final Map<LoadSingleTsFileNode, String> node2ThreadName = new ConcurrentHashMap<>();
+    doAnswer(
+            invocation -> {
+              barrier.await(10, TimeUnit.SECONDS);
+              node2ThreadName.put(invocation.getArgument(0), Thread.currentThread().getName());
+              return true;
+            })
+        .when(scheduler)
+        .loadSingleTsFile(any());
+
+    scheduler.start();
+
+    Assert.assertEquals(new HashSet<>(nodes), node2ThreadName.keySet());
+    Assert.assertEquals(parallelism, new HashSet<>(node2ThreadName.values()).size());
+    verify(stateMachine).transitionToFinished();
+    verify(scheduler, never()).convertFailedTsFilesToTabletsAndRetry();
+  }
+
+  @Test
+  public void testRollbackFailedTsFileOnly() throws Exception {
+    CONFIG.setLoadTsFileSchedulerParallelism(2);
+    final List<LoadSingleTsFileNode> nodes = mockTsFileNodes(2);
+    final LoadSingleTsFileNode failedNode = nodes.get(0);
+    final LoadSingleTsFileNode loadedNode = nodes.get(1);
+    final Map<LoadSingleTsFileNode, TRegionReplicaSet> node2ReplicaSet = new HashMap<>();
+    for (int i = 0; i < nodes.size(); ++i) {
+      node2ReplicaSet.put(
+          nodes.get(i),
+          new TRegionReplicaSet(
+              new TConsensusGroupId(TConsensusGroupType.DataRegion, i), Collections.emptyList()));
+    }
+
+    final QueryStateMachine stateMachine = mock(QueryStateMachine.class);
+    final LoadTsFileScheduler scheduler = spy(newScheduler(stateMachine));
+
+    final LoadTsFileDispatcherImpl dispatcher = mock(LoadTsFileDispatcherImpl.class);
+    when(dispatcher.withUuid(anyString())).thenReturn(dispatcher);
+    final Map<Set<TRegionReplicaSet>, TLoadCommandReq> replicaSets2Command =
+        new ConcurrentHashMap<>();
+    doAnswer(
+            invocation -> {
+              final Set<TRegionReplicaSet> replicaSets = invocation.getArgument(1);
+              replicaSets2Command.put(new HashSet<>(replicaSets), invocation.getArgument(0));
+              return immediateFuture(new FragInstanceDispatchResult(true));
+            })
+        .when(dispatcher)
+        .dispatchCommand(any(), any());
+    final Field dispatcherField = LoadTsFileScheduler.class.getDeclaredField("dispatcher");
+    dispatcherField.setAccessible(true);
+    dispatcherField.set(scheduler, dispatcher);
+
+    // the first phase of the first TsFile fails after one of its pieces reached its region
+    doAnswer(
+            invocation -> {
+              final LoadSingleTsFileNode node = invocation.getArgument(0);
+              final Set<TRegionReplicaSet> replicaSets = invocation.getArgument(2);
+              replicaSets.add(node2ReplicaSet.get(node));
+              return node != failedNode;
+            })
+        .when(scheduler)
+        .firstPhase(any(), any(), any());
+    doNothing().when(scheduler).convertFailedTsFilesToTabletsAndRetry();
+
+    scheduler.start();
+
+    // each TsFile is committed or rolled back with its own uuid on its own regions only
+    Assert.assertEquals(2, replicaSets2Command.size());
+    final TLoadCommandReq rollbackCommand =
+        replicaSets2Command.get(Collections.singleton(node2ReplicaSet.get(failedNode)));
+    final TLoadCommandReq executeCommand =
+        replicaSets2Command.get(Collections.singleton(node2ReplicaSet.get(loadedNode)));
+    Assert.assertEquals(
+        LoadTsFileScheduler.LoadCommand.ROLLBACK.ordinal(), rollbackCommand.commandType);
+    Assert.assertEquals(
+        LoadTsFileScheduler.LoadCommand.EXECUTE.ordinal(), executeCommand.commandType);
+    Assert.assertNotEquals(rollbackCommand.uuid, executeCommand.uuid);
+
+    verify(loadedNode).clean();
+    verify(failedNode, never()).clean();
+    verify(scheduler, times(1)).convertFailedTsFilesToTabletsAndRetry();
+    verify(stateMachine, never()).transitionToFinished();
+  }
+
+  private LoadTsFileScheduler newScheduler(final QueryStateMachine stateMachine) {
+    return new LoadTsFileScheduler(
+        distributedQueryPlan,
+        mock(MPPQueryContext.class),
+        stateMachine,
+        mock(IClientManager.class),
+        mock(IPartitionFetcher.class),
+        false);
+  }
+
+  private List<LoadSingleTsFileNode> mockTsFileNodes(final int count) {
+    final List<LoadSingleTsFileNode> nodes = new ArrayList<>();
+    final List<FragmentInstance> instances = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      final File tsFile = new File("load-scheduler-test-" + i + ".tsfile");
+      final TsFileResource resource = mock(TsFileResource.class);
+      when(resource.getTsFile()).thenReturn(tsFile);
+      when(resource.getTsFilePath()).thenReturn(tsFile.getPath());
+
+      final LoadSingleTsFileNode node = mock(LoadSingleTsFileNode.class);
+      when(node.getTsFileResource()).thenReturn(resource);
+      when(node.isTsFileEmpty()).thenReturn(false);
+      when(node.needDecodeTsFile(any())).thenReturn(true);
+      nodes.add(node);
+
+      final PlanFragment fragment = mock(PlanFragment.class);
+      when(fragment.getPlanNodeTree()).thenReturn(node);
+      final FragmentInstance instance = mock(FragmentInstance.class);
+      when(instance.getFragment()).thenReturn(fragment);
+      instances.add(instance);
+    }
+    when(distributedQueryPlan.getInstances()).thenReturn(instances);
+    return nodes;
+  }
 }
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.transformation.datastructure;
 
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.queryengine.transformation.dag.adapter.ElasticSerializableRowRecordListBackedMultiColumnRow;
 import org.apache.iotdb.db.queryengine.transformation.datastructure.iterator.RowListForwardIterator;
 import org.apache.iotdb.db.queryengine.transformation.datastructure.row.ElasticSerializableRowList;
 
@@ -83,6 +84,31 @@ public class ElasticSerializableRowListTest extends SerializableListTest {
     testGetByIndex();
   }
 
+  @Test
+  public void testMultiColumnRow() throws IOException {
+    initESRowRecordList();
+
+    testPuts();
+
+    ElasticSerializableRowRecordListBackedMultiColumnRow row =
+        new ElasticSerializableRowRecordListBackedMultiColumnRow(rowList);
+    for (int i = 0; i < ITERATION_TIMES; ++i) {
+      row.seek(i);
+      assertEquals(i, row.getTime());
+      for (int j = 0; j < DATA_TYPES.length; ++j) {
+        assertEquals(i % 7 == 0, row.isNull(j));
+      }
+      if (i % 7 != 0) {
+        assertEquals(i, row.getInt(0));
+        assertEquals(i, row.getLong(1));
+        assertEquals(i, row.getFloat(2), 0);
+        assertEquals(i, row.getDouble(3), 0);
+        assertEquals(i % 2 == 0, row.getBoolean(4));
+        assertEquals(String.valueOf(i), row.getString(5));
+      }
+    }
+  }
+
   private void initESRowRecordList() {
     try {
       rowList =
@@ -19,8 +19,10 @@
 
 package org.apache.iotdb.db.queryengine.transformation.datastructure;
 
+import org.apache.iotdb.db.queryengine.transformation.dag.adapter.ElasticSerializableTVListBackedSingleColumnRow;
 import org.apache.iotdb.db.queryengine.transformation.datastructure.iterator.TVListForwardIterator;
 import org.apache.iotdb.db.queryengine.transformation.datastructure.tv.ElasticSerializableTVList;
+import org.apache.iotdb.udf.api.access.Row;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.enums.TSDataType;
@@ -92,6 +94,48 @@ public class ElasticSerializableTVListTest extends SerializableListTest {
     }
   }
 
+  @Test
+  public void testSingleColumnRowAcrossColumns() {
+    initESTVList(TSDataType.INT32);
+
+    int columnSize = 100;
+    try {
+      for (int begin = 0; begin < ITERATION_TIMES; begin += columnSize) {
+        int size = Math.min(columnSize, ITERATION_TIMES - begin);
+        long[] times = LongStream.range(begin, begin + size).toArray();
+        int[] values = IntStream.range(begin, begin + size).toArray();
+        boolean[] isNulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+          isNulls[i] = (begin + i) % 7 == 0;
+        }
+        tvList.putColumn(
+            new TimeColumn(size, times), new IntColumn(size, Optional.of(isNulls), values));
+      }
+
+      ElasticSerializableTVListBackedSingleColumnRow row =
+          new ElasticSerializableTVListBackedSingleColumnRow(tvList, 0);
+      // read forward and backward, the cached columns should be switched correctly
+      for (int i = 0; i < ITERATION_TIMES; ++i) {
+        assertRowEquals(row.seek(i), i);
+      }
+      for (int i = ITERATION_TIMES - 1; i >= 0; --i) {
+        assertRowEquals(row.seek(i), i);
+      }
+    } catch (IOException e) {
+      fail(e.toString());
+    }
+  }
+
+  private void assertRowEquals(Row row, int expected) throws IOException {
+    assertEquals(expected, row.getTime());
+    if (expected % 7 == 0) {
+      assertTrue(row.isNull(0));
+    } else {
+      assertFalse(row.isNull(0));
+      assertEquals(expected, row.getInt(0));
+    }
+  }
+
   private void initESTVList(TSDataType dataType) {
     tvList =
         ElasticSerializableTVList.construct(
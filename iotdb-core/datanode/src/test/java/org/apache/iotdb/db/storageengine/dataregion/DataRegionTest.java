@@ -93,6 +93,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -270,6 +273,56 @@ public class DataRegionTest {
     }
   }
 
+  @Test
+  public void testConcurrentInsertIntoDifferentTimePartitions() throws Exception {
+    int partitionNum = 4;
+    int rowNum = 100;
+    long timePartitionInterval = COMMON_CONFIG.getTimePartitionInterval();
+    ExecutorService executorService = Executors.newFixedThreadPool(partitionNum);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < partitionNum; i++) {
+        long partitionStartTime = i * timePartitionInterval;
+        futures.add(
+            executorService.submit(
+                () -> {
+                  for (int j = 1; j <= rowNum; j++) {
+                    TSRecord record = new TSRecord(deviceId, partitionStartTime + j);
+                    record.addTuple(
+                        DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(j)));
+                    dataRegion.insert(buildInsertRowNodeByTSRecord(record));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create(deviceId);
+    QueryDataSource queryDataSource =
+        dataRegion.query(
+            Collections.singletonList(
+                new NonAlignedFullPath(
+                    device, new MeasurementSchema(measurementId, TSDataType.INT32))),
+            device,
+            context,
+            null,
+            null);
+    // one sequence file for each time partition
+    Assert.assertEquals(partitionNum, queryDataSource.getSeqResources().size());
+    Assert.assertEquals(0, queryDataSource.getUnseqResources().size());
+    for (TsFileResource resource : queryDataSource.getSeqResources()) {
+      Assert.assertTrue(resource.isClosed());
+      Assert.assertEquals(
+          rowNum - 1, resource.getEndTime(device).get() - resource.getStartTime(device).get());
+    }
+  }
+
   @Test
   public void testRelationalTabletWriteAndSyncClose()
       throws QueryProcessException, WriteProcessException {
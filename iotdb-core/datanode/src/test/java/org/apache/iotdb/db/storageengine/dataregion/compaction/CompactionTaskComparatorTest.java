@@ -30,6 +30,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Cros
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.ReadAmplificationRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionConfigRestorer;
@@ -50,8 +51,10 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -73,6 +76,7 @@ public class CompactionTaskComparatorTest {
   @After
   public void tearDown() {
     new CompactionConfigRestorer().restoreCompactionConfig();
+    ReadAmplificationRecorder.getInstance().clear();
   }
 
   /** Test comparation of tasks with different avg file size */
@@ -490,6 +494,75 @@ public class CompactionTaskComparatorTest {
         candidateCompactionTaskQueue.take().getCompactionTaskType(), CompactionTaskType.INNER_SEQ);
   }
 
+  @Test
+  public void testCompareByQueryBenefitScore() throws InterruptedException {
+    ReadAmplificationRecorder recorder = ReadAmplificationRecorder.getInstance();
+    FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
+        new FixedPriorityBlockingQueue<>(
+            IoTDBDescriptor.getInstance().getConfig().getCandidateCompactionTaskQueueSize(),
+            new DefaultCompactionTaskComparatorImpl());
+    List<List<TsFileResource>> resourcesOfPartitions = new ArrayList<>();
+    for (int partition = 0; partition < 4; partition++) {
+      List<TsFileResource> resources = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        resources.add(
+            new FakedTsFileResource(
+                new File(String.format("0/%d/%d-%d-0-0.tsfile", partition, i, i)), 10));
+      }
+      resourcesOfPartitions.add(resources);
+    }
+    // only time partition 1 is queried
+    for (int i = 0; i < 10; i++) {
+      recorder.recordQuery("fakeSg", "0", resourcesOfPartitions.get(1), Collections.emptyList());
+    }
+    Assert.assertEquals(3, recorder.getReadAmplification("fakeSg", "0", 1, true), 1e-6);
+    Assert.assertEquals(0, recorder.getReadAmplification("fakeSg", "0", 1, false), 1e-6);
+
+    for (int partition = 0; partition < 4; partition++) {
+      FakedInnerSpaceCompactionTask task =
+          new FakedInnerSpaceCompactionTask(
+              "fakeSg", partition, tsFileManager, true, resourcesOfPartitions.get(partition), 0);
+      task.setQueryBenefitScore(recorder.calculateQueryBenefitScore(task));
+      if (partition == 1) {
+        Assert.assertTrue(task.getQueryBenefitScore() > 0);
+      } else {
+        Assert.assertEquals(0, task.getQueryBenefitScore(), 1e-6);
+      }
+      candidateCompactionTaskQueue.put(task);
+    }
+
+    // the queried time partition is compacted first, then the others by time partition
+    Assert.assertEquals(1, candidateCompactionTaskQueue.take().getTimePartition());
+    Assert.assertEquals(3, candidateCompactionTaskQueue.take().getTimePartition());
+    Assert.assertEquals(2, candidateCompactionTaskQueue.take().getTimePartition());
+    Assert.assertEquals(0, candidateCompactionTaskQueue.take().getTimePartition());
+  }
+
+  @Test
+  public void testRemoveOutdatedPartitionReadStatistics() {
+    ReadAmplificationRecorder recorder = ReadAmplificationRecorder.getInstance();
+    for (int partition = 0; partition < 3; partition++) {
+      recorder.recordQuery(
+          "fakeSg",
+          "0",
+          Collections.singletonList(
+              new FakedTsFileResource(
+                  new File(String.format("0/%d/0-0-0-0.tsfile", partition)), 10)),
+          Collections.emptyList());
+      Assert.assertEquals(1, recorder.getReadAmplification("fakeSg", "0", partition, true), 1e-6);
+    }
+
+    // time partition 1 is dropped or outdated by ttl
+    recorder.removeOutdatedPartitions("fakeSg", "0", new HashSet<>(Arrays.asList(0L, 2L)));
+    Assert.assertEquals(1, recorder.getReadAmplification("fakeSg", "0", 0, true), 1e-6);
+    Assert.assertEquals(0, recorder.getReadAmplification("fakeSg", "0", 1, true), 1e-6);
+    Assert.assertEquals(1, recorder.getReadAmplification("fakeSg", "0", 2, true), 1e-6);
+
+    // the statistics of other data regions are kept
+    recorder.removeOutdatedPartitions("fakeSg", "1", Collections.emptySet());
+    Assert.assertEquals(1, recorder.getReadAmplification("fakeSg", "0", 0, true), 1e-6);
+  }
+
   private static class FakedInnerSpaceCompactionTask extends InnerSpaceCompactionTask {
 
     public FakedInnerSpaceCompactionTask(
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.TierMigrationCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.TierMigrationSelectorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.TimeRange;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TierMigrationCompactionTaskTest extends AbstractCompactionTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final File COLD_DATA_DIR = new File(TestConstant.BASE_OUTPUT_PATH + "data_cold");
+
+  private String[][] originDataDirs;
+  private long[] originTierTTLInMs;
+  private boolean originEnableTierMigration;
+  private long originTierMigrationMinIdleTimeInMs;
+  private CompressionType originTierMigrationCompressor;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    originDataDirs = config.getTierDataDirs();
+    originTierTTLInMs = CommonDescriptor.getInstance().getConfig().getTierTTLInMs();
+    originEnableTierMigration = config.isEnableTierMigration();
+    originTierMigrationMinIdleTimeInMs = config.getTierMigrationMinIdleTimeInMs();
+    originTierMigrationCompressor = config.getTierMigrationCompressor();
+
+    config.setTierDataDirs(
+        new String[][] {
+          {TestConstant.BASE_OUTPUT_PATH + "data"}, {COLD_DATA_DIR.getPath()},
+        });
+    TierManager.getInstance().resetFolders();
+    CommonDescriptor.getInstance().getConfig().setTierTTLInMs(new long[] {1000, Long.MAX_VALUE});
+    config.setEnableTierMigration(true);
+    config.setTierMigrationMinIdleTimeInMs(60_000);
+    config.setTierMigrationCompressor(CompressionType.ZSTD);
+    super.setUp();
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    config.setTierDataDirs(originDataDirs);
+    TierManager.getInstance().resetFolders();
+    CommonDescriptor.getInstance().getConfig().setTierTTLInMs(originTierTTLInMs);
+    config.setEnableTierMigration(originEnableTierMigration);
+    config.setTierMigrationMinIdleTimeInMs(originTierMigrationMinIdleTimeInMs);
+    config.setTierMigrationCompressor(originTierMigrationCompressor);
+    FileUtils.deleteFileOrDirectory(COLD_DATA_DIR, true);
+  }
+
+  @Test
+  public void testMigrateAndRecompressFile() throws IOException, IllegalPathException {
+    TsFileResource resource = createFile(true);
+    tsFileManager.add(resource, true);
+    Assert.assertEquals(0, resource.getTierLevel());
+    List<IFullPath> paths = getPaths(Collections.singletonList(resource));
+    List<TSDataType> dataTypes = Collections.nCopies(paths.size(), TSDataType.INT64);
+    Map<IFullPath, List<TimeValuePair>> sourceData = readSourceFiles(paths, dataTypes);
+
+    TierMigrationCompactionTask task =
+        new TierMigrationCompactionTask(0, tsFileManager, resource, 0);
+    Assert.assertTrue(task.start());
+
+    List<TsFileResource> targetResources = tsFileManager.getTsFileList(true);
+    Assert.assertEquals(1, targetResources.size());
+    TsFileResource targetResource = targetResources.get(0);
+    Assert.assertEquals(1, targetResource.getTierLevel());
+    Assert.assertTrue(
+        targetResource
+            .getTsFile()
+            .getCanonicalPath()
+            .startsWith(COLD_DATA_DIR.getCanonicalPath() + File.separator));
+    Assert.assertFalse(resource.getTsFile().exists());
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(targetResource.getTsFilePath())) {
+      for (IDeviceID device : reader.getAllDevices()) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader.readChunkMetadataInDevice(device).values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Assert.assertEquals(
+                CompressionType.ZSTD,
+                reader.readMemChunk(chunkMetadata).getHeader().getCompressionType());
+          }
+        }
+      }
+    }
+    validateTargetDatas(sourceData, dataTypes);
+  }
+
+  @Test
+  public void testSelectIdleAndExpiredFile() throws IOException {
+    TsFileResource resource = createFile(true);
+    tsFileManager.add(resource, true);
+    TierMigrationSelectorImpl selector = new TierMigrationSelectorImpl(0, tsFileManager);
+
+    List<TsFileResource> resources = tsFileManager.getTsFileList(true);
+
+    // the file queried recently is not selected
+    resource.updateLastQueryTime(System.currentTimeMillis());
+    Assert.assertTrue(selector.selectTierMigrationTask(resources).isEmpty());
+
+    config.setTierMigrationMinIdleTimeInMs(0);
+    List<TierMigrationCompactionTask> tasks = selector.selectTierMigrationTask(resources);
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(resource, tasks.get(0).getAllSourceTsFiles().get(0));
+
+    // the file is not selected if the tier ttl is unlimited
+    CommonDescriptor.getInstance()
+        .getConfig()
+        .setTierTTLInMs(new long[] {Long.MAX_VALUE, Long.MAX_VALUE});
+    Assert.assertTrue(selector.selectTierMigrationTask(resources).isEmpty());
+  }
+
+  private TsFileResource createFile(boolean isSeq) throws IOException {
+    TsFileResource resource = createEmptyFileAndResource(isSeq);
+    try (CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+      writer.startChunkGroup("d1");
+      writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+          "s1",
+          new TimeRange[][] {new TimeRange[] {new TimeRange(10, 20), new TimeRange(30, 40)}},
+          TSEncoding.PLAIN,
+          CompressionType.LZ4);
+      writer.endChunkGroup();
+      writer.startChunkGroup("d2");
+      writer.generateSimpleAlignedSeriesToCurrentDevice(
+          Arrays.asList("s1", "s2"),
+          new TimeRange[][] {new TimeRange[] {new TimeRange(10, 20), new TimeRange(30, 40)}},
+          TSEncoding.PLAIN,
+          CompressionType.LZ4);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+    return resource;
+  }
+}
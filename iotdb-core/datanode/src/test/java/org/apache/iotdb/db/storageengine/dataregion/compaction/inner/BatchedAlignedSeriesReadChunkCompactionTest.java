@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadChunkCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils.AlignedSeriesBatchCompactionUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionCheckerUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
@@ -58,6 +59,7 @@ public class BatchedAlignedSeriesReadChunkCompactionTest extends AbstractCompact
   int originTargetPageSize;
   int originTargetPagePointNum;
   int originMaxConcurrentAlignedSeriesInCompaction;
+  boolean originEnablePageStreamingInAlignedCompaction;
 
   @Before
   public void setUp()
@@ -70,6 +72,8 @@ public class BatchedAlignedSeriesReadChunkCompactionTest extends AbstractCompact
         TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
     originMaxConcurrentAlignedSeriesInCompaction =
         IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
+    originEnablePageStreamingInAlignedCompaction =
+        IoTDBDescriptor.getInstance().getConfig().isEnablePageStreamingInAlignedCompaction();
 
     IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(1048576);
     IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(100000);
@@ -88,6 +92,9 @@ public class BatchedAlignedSeriesReadChunkCompactionTest extends AbstractCompact
     IoTDBDescriptor.getInstance()
         .getConfig()
         .setCompactionMaxAlignedSeriesNumInOneBatch(originMaxConcurrentAlignedSeriesInCompaction);
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setEnablePageStreamingInAlignedCompaction(originEnablePageStreamingInAlignedCompaction);
   }
 
   @Test
@@ -603,6 +610,108 @@ public class BatchedAlignedSeriesReadChunkCompactionTest extends AbstractCompact
                 Collections.emptyList())));
   }
 
+  @Test
+  public void testPageStreamingCompactionByWritePoint() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnablePageStreamingInAlignedCompaction(true);
+    TsFileResource seqResource1 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2"),
+            new TimeRange[] {new TimeRange(1000, 2000), new TimeRange(3000, 4000)},
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            Arrays.asList(false, false, true),
+            true);
+    seqResources.add(seqResource1);
+
+    TsFileResource seqResource2 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2"),
+            new TimeRange[] {new TimeRange(6000, 7000), new TimeRange(8000, 9000)},
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            Arrays.asList(false, false, false),
+            true);
+    seqResources.add(seqResource2);
+
+    CompactionTaskSummary summary = new CompactionTaskSummary();
+    TsFileResource targetResource = performCompaction(summary);
+    Assert.assertTrue(summary.getDeserializePageCount() > 0);
+    Assert.assertTrue(summary.getPeakMemoryCost() > 0);
+    TsFileResourceUtils.validateTsFileDataCorrectness(targetResource);
+    Assert.assertTrue(
+        CompactionCheckerUtils.compareSourceDataAndTargetData(
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(seqResources), seqResources, unseqResources),
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(Collections.singletonList(targetResource)),
+                Collections.singletonList(targetResource),
+                Collections.emptyList())));
+  }
+
+  @Test
+  public void testPageStreamingCompactionWithPartialDeletedPage() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnablePageStreamingInAlignedCompaction(true);
+    TsFileResource seqResource1 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2"),
+            new TimeRange[][] {
+              new TimeRange[] {new TimeRange(10000, 20000), new TimeRange(30000, 50000)}
+            },
+            TSEncoding.RLE,
+            CompressionType.LZ4,
+            Arrays.asList(false, false, false),
+            true);
+    seqResources.add(seqResource1);
+    seqResource1
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.testsg.d0", "s2"), 15000));
+    seqResource1.getModFileForWrite().close();
+
+    TsFileResource seqResource2 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2"),
+            new TimeRange[] {new TimeRange(60000, 170000), new TimeRange(180000, 190000)},
+            TSEncoding.RLE,
+            CompressionType.LZ4,
+            Arrays.asList(false, false, false),
+            true);
+    seqResources.add(seqResource2);
+
+    CompactionTaskSummary summary = new CompactionTaskSummary();
+    TsFileResource targetResource = performCompaction(summary);
+    Assert.assertTrue(summary.getDeserializePageCount() > 0);
+    TsFileResourceUtils.validateTsFileDataCorrectness(targetResource);
+    Assert.assertTrue(
+        CompactionCheckerUtils.compareSourceDataAndTargetData(
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(seqResources), seqResources, unseqResources),
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(Collections.singletonList(targetResource)),
+                Collections.singletonList(targetResource),
+                Collections.emptyList())));
+  }
+
+  @Test
+  public void testSplitWideDeviceByMemoryBudgetWithPageStreaming() {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionMaxAlignedSeriesNumInOneBatch(Integer.MAX_VALUE);
+    Assert.assertEquals(
+        Integer.MAX_VALUE, AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch());
+
+    IoTDBDescriptor.getInstance().getConfig().setEnablePageStreamingInAlignedCompaction(true);
+    int maxColumnNum = AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch();
+    Assert.assertTrue(maxColumnNum >= 1 && maxColumnNum < Integer.MAX_VALUE);
+
+    // the configured batch size is still respected
+    IoTDBDescriptor.getInstance().getConfig().setCompactionMaxAlignedSeriesNumInOneBatch(1);
+    Assert.assertEquals(1, AlignedSeriesBatchCompactionUtils.getMaxAlignedSeriesNumInOneBatch());
+  }
+
   @Test
   public void testFlushChunkMetadataToTempFile() throws Exception {
     List<String> devices = new ArrayList<>();
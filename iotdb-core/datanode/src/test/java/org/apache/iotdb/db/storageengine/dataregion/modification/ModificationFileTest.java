@@ -125,6 +125,42 @@ public class ModificationFileTest {
     }
   }
 
+  @Test
+  public void readIncrementallyTest() {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    ModEntry[] modifications =
+        new ModEntry[] {
+          new TreeDeletionEntry(new MeasurementPath(new String[] {"d1", "s1"}), 1),
+          new TreeDeletionEntry(new MeasurementPath(new String[] {"d1", "s2"}), 2),
+          new TableDeletionEntry(new DeletionPredicate("table1", new NOP()), new TimeRange(1, 2)),
+        };
+    try (ModificationFile mFile = new ModificationFile(tempFileName, false)) {
+      List<ModEntry> modificationList = new ArrayList<>();
+      assertEquals(0, mFile.readModEntries(0, modificationList::add));
+
+      mFile.write(modifications[0]);
+      mFile.write(modifications[1]);
+      long offset = mFile.readModEntries(0, modificationList::add);
+      assertEquals(mFile.getFileLength(), offset);
+      assertEquals(Arrays.asList(modifications[0], modifications[1]), modificationList);
+
+      // only the appended entry is read from the previous offset
+      mFile.write(modifications[2]);
+      modificationList.clear();
+      offset = mFile.readModEntries(offset, modificationList::add);
+      assertEquals(mFile.getFileLength(), offset);
+      assertEquals(Arrays.asList(modifications[2]), modificationList);
+
+      long rewriteVersion = mFile.getRewriteVersion();
+      mFile.truncate(0);
+      assertTrue(mFile.getRewriteVersion() > rewriteVersion);
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
+
   // test if file size greater than 1M.
   @Test
   public void testCompact01() {
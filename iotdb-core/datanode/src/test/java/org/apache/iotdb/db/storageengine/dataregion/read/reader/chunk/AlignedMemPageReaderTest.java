@@ -284,4 +284,30 @@ public class AlignedMemPageReaderTest {
     Assert.assertEquals(60, tsBlock2.getTimeByIndex(0));
     Assert.assertEquals(69, tsBlock2.getTimeByIndex(9));
   }
+
+  @Test
+  public void testSelectivePushDownFilter() {
+    MemAlignedPageReader alignedPageReader1 = generateAlignedPageReader();
+    alignedPageReader1.addRecordFilter(
+        ValueFilterApi.lt(DEFAULT_MEASUREMENT_INDEX, 12, TSDataType.INT32));
+    alignedPageReader1.setLimitOffset(new PaginationController(3, 8));
+    TsBlock tsBlock1 = alignedPageReader1.getAllSatisfiedData();
+    Assert.assertEquals(3, tsBlock1.getPositionCount());
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(8 + i, tsBlock1.getTimeByIndex(i));
+      Assert.assertEquals(8 + i, tsBlock1.getColumn(0).getInt(i));
+    }
+    Assert.assertTrue(tsBlock1.getColumn(1).isNull(0));
+    Assert.assertTrue(tsBlock1.getColumn(1).isNull(1));
+    Assert.assertFalse(tsBlock1.getColumn(1).isNull(2));
+    Assert.assertEquals(10, tsBlock1.getColumn(1).getInt(2));
+
+    MemAlignedPageReader alignedPageReader2 = generateAlignedPageReader();
+    alignedPageReader2.addRecordFilter(
+        ValueFilterApi.gt(DEFAULT_MEASUREMENT_INDEX, 100, TSDataType.INT32));
+    TsBlock tsBlock2 = alignedPageReader2.getAllSatisfiedData();
+    Assert.assertEquals(0, tsBlock2.getPositionCount());
+    Assert.assertEquals(0, tsBlock2.getColumn(0).getPositionCount());
+    Assert.assertEquals(0, tsBlock2.getColumn(1).getPositionCount());
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
+
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
+import org.apache.tsfile.read.filter.factory.ValueFilterApi;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.page.AlignedPageReader;
+import org.apache.tsfile.read.reader.series.PaginationController;
+import org.apache.tsfile.utils.MeasurementGroup;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LateMaterializedAlignedPageReaderTest {
+
+  private static final IDeviceID DEVICE = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+  private static final List<TSDataType> DATA_TYPES = Collections.nCopies(3, TSDataType.INT32);
+  private static final int ROW_COUNT = 100;
+
+  private File file;
+
+  @Before
+  public void setUp() throws Exception {
+    file = new File(TestConstant.BASE_OUTPUT_PATH.concat("late-materialization.tsfile"));
+    Files.createDirectories(file.getParentFile().toPath());
+    Files.deleteIfExists(file.toPath());
+
+    final List<IMeasurementSchema> schemas = new ArrayList<>();
+    for (int i = 0; i < DATA_TYPES.size(); i++) {
+      schemas.add(new MeasurementSchema("s" + i, DATA_TYPES.get(i), TSEncoding.PLAIN));
+    }
+    final Schema schema = new Schema();
+    schema.registerMeasurementGroup(new Path(DEVICE), new MeasurementGroup(true, schemas));
+
+    try (TsFileWriter writer = new TsFileWriter(file, schema)) {
+      final Tablet tablet = new Tablet(DEVICE.toString(), schemas, ROW_COUNT);
+      for (int row = 0; row < ROW_COUNT; row++) {
+        tablet.addTimestamp(row, row);
+        tablet.addValue(row, 0, row);
+        tablet.addValue(row, 1, row * 10);
+        tablet.addValue(row, 2, -row);
+      }
+      writer.writeAligned(tablet);
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testFilterOnSomeColumns() throws IOException {
+    final Filter filter = ValueFilterApi.gtEq(0, 95, TSDataType.INT32);
+    final TsBlock tsBlock = readLateMaterialized(filter, null);
+    Assert.assertEquals(5, tsBlock.getPositionCount());
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(95 + i, tsBlock.getTimeByIndex(i));
+      Assert.assertEquals(95 + i, tsBlock.getColumn(0).getInt(i));
+      Assert.assertEquals((95 + i) * 10, tsBlock.getColumn(1).getInt(i));
+      Assert.assertEquals(-(95 + i), tsBlock.getColumn(2).getInt(i));
+    }
+    assertTsBlockEquals(read(filter, null), tsBlock);
+  }
+
+  @Test
+  public void testFilterOnSomeColumnsWithLimitOffset() throws IOException {
+    final Filter filter = ValueFilterApi.lt(1, 300, TSDataType.INT32);
+    final TsBlock tsBlock = readLateMaterialized(filter, new PaginationController(2, 25));
+    Assert.assertEquals(2, tsBlock.getPositionCount());
+    Assert.assertEquals(25, tsBlock.getTimeByIndex(0));
+    Assert.assertEquals(26, tsBlock.getColumn(0).getInt(1));
+    Assert.assertEquals(-26, tsBlock.getColumn(2).getInt(1));
+    assertTsBlockEquals(read(filter, new PaginationController(2, 25)), tsBlock);
+  }
+
+  @Test
+  public void testNoRowSelected() throws IOException {
+    final TsBlock tsBlock = readLateMaterialized(ValueFilterApi.gt(2, 0, TSDataType.INT32), null);
+    Assert.assertEquals(0, tsBlock.getPositionCount());
+    Assert.assertEquals(DATA_TYPES.size(), tsBlock.getValueColumnCount());
+  }
+
+  @Test
+  public void testFilterOnAllColumns() throws IOException {
+    final Filter filter =
+        FilterFactory.and(
+            FilterFactory.and(
+                ValueFilterApi.gtEq(0, 10, TSDataType.INT32),
+                ValueFilterApi.lt(1, 200, TSDataType.INT32)),
+            ValueFilterApi.ltEq(2, -15, TSDataType.INT32));
+    final TsBlock tsBlock = readLateMaterialized(filter, null);
+    Assert.assertEquals(5, tsBlock.getPositionCount());
+    Assert.assertEquals(15, tsBlock.getTimeByIndex(0));
+    assertTsBlockEquals(read(filter, null), tsBlock);
+  }
+
+  private TsBlock readLateMaterialized(Filter filter, PaginationController paginationController)
+      throws IOException {
+    final LateMaterializedAlignedPageReader pageReader =
+        new LateMaterializedAlignedPageReader(loadPageReader(), null, true);
+    pageReader.initTsBlockBuilder(DATA_TYPES);
+    pageReader.addRecordFilter(filter);
+    if (paginationController != null) {
+      pageReader.setLimitOffset(paginationController);
+    }
+    return pageReader.getAllSatisfiedData();
+  }
+
+  private TsBlock read(Filter filter, PaginationController paginationController)
+      throws IOException {
+    final AlignedPageReader pageReader = loadPageReader();
+    pageReader.initTsBlockBuilder(DATA_TYPES);
+    pageReader.addRecordFilter(filter);
+    if (paginationController != null) {
+      pageReader.setLimitOffset(paginationController);
+    }
+    return pageReader.getAllSatisfiedData();
+  }
+
+  private AlignedPageReader loadPageReader() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+      final AbstractAlignedChunkMetadata alignedChunkMetadata =
+          reader.getAlignedChunkMetadata(DEVICE, true).get(0);
+      final Chunk timeChunk =
+          reader.readMemChunk((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+      final List<Chunk> valueChunks = new ArrayList<>();
+      for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+        valueChunks.add(reader.readMemChunk((ChunkMetadata) valueChunkMetadata));
+      }
+      return (AlignedPageReader)
+          new AlignedChunkReader(timeChunk, valueChunks).loadPageReaderList().get(0);
+    }
+  }
+
+  private static void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    Assert.assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+    for (int row = 0; row < expected.getPositionCount(); row++) {
+      Assert.assertEquals(expected.getTimeByIndex(row), actual.getTimeByIndex(row));
+      for (int column = 0; column < expected.getValueColumnCount(); column++) {
+        Assert.assertEquals(
+            expected.getColumn(column).isNull(row), actual.getColumn(column).isNull(row));
+        if (!expected.getColumn(column).isNull(row)) {
+          Assert.assertEquals(
+              expected.getColumn(column).getInt(row), actual.getColumn(column).getInt(row));
+        }
+      }
+    }
+  }
+}
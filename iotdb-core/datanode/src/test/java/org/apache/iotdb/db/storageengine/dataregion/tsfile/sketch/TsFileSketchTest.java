@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.IntColumn;
+import org.apache.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+public class TsFileSketchTest {
+
+  private static final int VALUE_COUNT = 1000;
+
+  private final File tsFile =
+      new File(
+          TsFileNameGenerator.generateNewTsFilePath(TestConstant.BASE_OUTPUT_PATH, 1, 1, 1, 1));
+  private final IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(TestConstant.BASE_OUTPUT_PATH));
+  }
+
+  private static DoubleColumn doubleColumn(int start, boolean[] isNull) {
+    double[] values = new double[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = start + i;
+    }
+    return new DoubleColumn(VALUE_COUNT, Optional.ofNullable(isNull), values);
+  }
+
+  @Test
+  public void testSerializeAndDeserialize() throws IOException {
+    TsFileSketch sketch = new TsFileSketch();
+    boolean[] isNull = new boolean[VALUE_COUNT];
+    isNull[0] = true;
+    sketch.update(device, "s1", TSDataType.DOUBLE, doubleColumn(0, isNull));
+    Binary[] texts = new Binary[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      texts[i] = new Binary(String.valueOf(i % 10), StandardCharsets.UTF_8);
+    }
+    sketch.update(
+        device, "s2", TSDataType.TEXT, new BinaryColumn(VALUE_COUNT, Optional.empty(), texts));
+    // a series written in different data types is not sketched
+    sketch.update(device, "s3", TSDataType.DOUBLE, doubleColumn(0, null));
+    sketch.update(
+        device, "s3", TSDataType.INT32, new IntColumn(1, Optional.empty(), new int[] {1}));
+    Assert.assertNull(sketch.get(device, "s3"));
+
+    tsFile.getParentFile().mkdirs();
+    sketch.serialize(tsFile);
+    Assert.assertTrue(TsFileSketch.getSketchFile(tsFile).exists());
+    TsFileSketch deserialized = TsFileSketch.deserialize(tsFile);
+    Assert.assertEquals(sketch.getEstimatedSize(), deserialized.getEstimatedSize());
+
+    SeriesSketch s1 = deserialized.get(device, "s1");
+    Assert.assertEquals(VALUE_COUNT - 1, s1.getCount());
+    Assert.assertEquals(TSDataType.DOUBLE, s1.getDataType());
+    Assert.assertEquals(
+        sketch.get(device, "s1").getDigest().quantile(0.5), s1.getDigest().quantile(0.5), 0);
+    Assert.assertEquals(VALUE_COUNT - 1, s1.getHyperLogLog().cardinality(), VALUE_COUNT * 0.05);
+
+    SeriesSketch s2 = deserialized.get(device, "s2");
+    Assert.assertEquals(VALUE_COUNT, s2.getCount());
+    Assert.assertNull(s2.getDigest());
+    Assert.assertEquals(10, s2.getHyperLogLog().cardinality(), 1);
+
+    Assert.assertNull(deserialized.get(device, "s3"));
+    Assert.assertNull(
+        deserialized.get(IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d2"), "s1"));
+  }
+
+  @Test
+  public void testMerge() {
+    // sketches of the source TsFiles of a compaction
+    TsFileSketch first = new TsFileSketch();
+    first.update(device, "s1", TSDataType.DOUBLE, doubleColumn(0, null));
+    first.update(device, "s2", TSDataType.DOUBLE, doubleColumn(0, null));
+    TsFileSketch second = new TsFileSketch();
+    second.update(device, "s1", TSDataType.DOUBLE, doubleColumn(VALUE_COUNT, null));
+    second.update(
+        device, "s2", TSDataType.INT32, new IntColumn(1, Optional.empty(), new int[] {1}));
+
+    TsFileSketch target = new TsFileSketch();
+    target.merge(first);
+    target.merge(second);
+
+    SeriesSketch s1 = target.get(device, "s1");
+    Assert.assertEquals(VALUE_COUNT * 2, s1.getCount());
+    Assert.assertEquals(VALUE_COUNT, s1.getDigest().quantile(0.5), VALUE_COUNT * 0.02);
+    Assert.assertEquals(VALUE_COUNT * 2, s1.getHyperLogLog().cardinality(), VALUE_COUNT * 0.1);
+    // data types of the series are different in the source TsFiles
+    Assert.assertNull(target.get(device, "s2"));
+  }
+}
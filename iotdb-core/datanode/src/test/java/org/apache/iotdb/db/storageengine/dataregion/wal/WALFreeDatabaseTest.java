@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.wal.node.WALFakeNode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WALFreeDatabaseTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private Set<String> prevWALFreeDatabases;
+
+  @Before
+  public void setUp() throws Exception {
+    prevWALFreeDatabases = config.getWalFreeDatabases();
+    config.setWalFreeDatabases(Collections.singleton("root.wal-free"));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    config.setWalFreeDatabases(prevWALFreeDatabases);
+    WALManager.getInstance().clear();
+  }
+
+  @Test
+  public void testIsWALFreeDataRegion() {
+    assertTrue(WALManager.isWALFreeDataRegion("root.wal-free-1"));
+    assertFalse(WALManager.isWALFreeDataRegion("root.wal-1"));
+    assertFalse(WALManager.isWALFreeDataRegion("root.wal-free.sg-1"));
+  }
+
+  @Test
+  public void testApplyForWALNodeOfWALFreeDataRegion() {
+    assertEquals(
+        WALFakeNode.getSuccessInstance(),
+        WALManager.getInstance().applyForWALNode("root.wal-free-1", true));
+    assertEquals(
+        WALFakeNode.getSuccessInstance(),
+        WALManager.getInstance().applyForWALNode("root.wal-free-1", false));
+  }
+}
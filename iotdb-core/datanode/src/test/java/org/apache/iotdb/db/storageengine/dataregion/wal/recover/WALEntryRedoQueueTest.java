@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.file.UnsealedTsFileRecoverPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALByteBufferForTest;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class WALEntryRedoQueueTest {
+  private static final int REGION_NUM = 4;
+  private static final int ENTRY_NUM = 500;
+
+  private ExecutorService redoThreadPool;
+
+  @Before
+  public void setUp() {
+    redoThreadPool = Executors.newFixedThreadPool(REGION_NUM);
+  }
+
+  @After
+  public void tearDown() {
+    redoThreadPool.shutdownNow();
+  }
+
+  @Test
+  public void testRedoRegionsConcurrentlyInOrder() throws Exception {
+    int entrySize = serialize(0, 0).capacity();
+    // a small buffer makes adding block until the redo threads catch up
+    Semaphore bufferPermits = new Semaphore(entrySize * REGION_NUM * 2);
+    // every region waits here at its first entry, so they must be redone concurrently
+    CyclicBarrier firstEntryBarrier = new CyclicBarrier(REGION_NUM);
+
+    List<List<Long>> redoneTimes = new ArrayList<>();
+    List<WALEntryRedoQueue> redoQueues = new ArrayList<>();
+    for (int region = 0; region < REGION_NUM; region++) {
+      List<Long> times = Collections.synchronizedList(new ArrayList<>());
+      UnsealedTsFileRecoverPerformer recoverPerformer =
+          Mockito.mock(UnsealedTsFileRecoverPerformer.class);
+      Mockito.doAnswer(
+              invocation -> {
+                WALEntry walEntry = invocation.getArgument(0);
+                long time = ((InsertRowNode) walEntry.getValue()).getTime();
+                if (time == 0) {
+                  firstEntryBarrier.await(30, TimeUnit.SECONDS);
+                }
+                times.add(time);
+                return null;
+              })
+          .when(recoverPerformer)
+          .redoLog(Mockito.any());
+      redoneTimes.add(times);
+      redoQueues.add(
+          new WALEntryRedoQueue(recoverPerformer, redoThreadPool, bufferPermits, entrySize));
+    }
+
+    // entries of different regions are interleaved like in one wal file
+    for (long time = 0; time < ENTRY_NUM; time++) {
+      for (int region = 0; region < REGION_NUM; region++) {
+        redoQueues.get(region).add(serialize(region, time));
+      }
+    }
+    for (WALEntryRedoQueue redoQueue : redoQueues) {
+      redoQueue.waitUntilAllRedone();
+      assertNull(redoQueue.getFailure());
+    }
+
+    for (int region = 0; region < REGION_NUM; region++) {
+      List<Long> times = redoneTimes.get(region);
+      assertEquals(ENTRY_NUM, times.size());
+      for (int i = 0; i < ENTRY_NUM; i++) {
+        assertEquals(i, (long) times.get(i));
+      }
+    }
+    assertEquals(entrySize * REGION_NUM * 2, bufferPermits.availablePermits());
+  }
+
+  @Test
+  public void testErrorWhenRedoing() throws Exception {
+    int entrySize = serialize(0, 0).capacity();
+    Semaphore bufferPermits = new Semaphore(entrySize * 4);
+    List<Long> times = Collections.synchronizedList(new ArrayList<>());
+    UnsealedTsFileRecoverPerformer recoverPerformer =
+        Mockito.mock(UnsealedTsFileRecoverPerformer.class);
+    Mockito.doAnswer(
+            invocation -> {
+              WALEntry walEntry = invocation.getArgument(0);
+              long time = ((InsertRowNode) walEntry.getValue()).getTime();
+              if (time == 1) {
+                throw new AssertionError("mock error");
+              }
+              times.add(time);
+              return null;
+            })
+        .when(recoverPerformer)
+        .redoLog(Mockito.any());
+    WALEntryRedoQueue redoQueue =
+        new WALEntryRedoQueue(recoverPerformer, redoThreadPool, bufferPermits, entrySize);
+
+    for (long time = 0; time < 10; time++) {
+      redoQueue.add(serialize(0, time));
+    }
+    // the waiting must not hang after the error
+    Future<?> waiting = redoThreadPool.submit(redoQueue::waitUntilAllRedone);
+    waiting.get(30, TimeUnit.SECONDS);
+
+    assertNotNull(redoQueue.getFailure());
+    // the entries after the failed one are discarded
+    assertEquals(Collections.singletonList(0L), times);
+    assertEquals(entrySize * 4, bufferPermits.availablePermits());
+  }
+
+  private static ByteBuffer serialize(int region, long time) throws IllegalPathException {
+    InsertRowNode insertRowNode =
+        new InsertRowNode(
+            new PlanNodeId(""),
+            new PartialPath("root.redo_sg.d" + region),
+            false,
+            new String[] {"s1"},
+            new TSDataType[] {TSDataType.INT64},
+            time,
+            new Object[] {time},
+            false);
+    insertRowNode.setMeasurementSchemas(
+        new MeasurementSchema[] {new MeasurementSchema("s1", TSDataType.INT64)});
+    WALEntry walEntry = new WALInfoEntry(region, insertRowNode, false);
+    ByteBuffer buffer = ByteBuffer.allocate(walEntry.serializedSize());
+    walEntry.serialize(new WALByteBufferForTest(buffer));
+    buffer.clear();
+    return buffer;
+  }
+}
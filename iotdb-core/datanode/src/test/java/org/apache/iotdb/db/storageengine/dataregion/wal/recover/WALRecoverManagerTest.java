@@ -308,6 +308,10 @@ public class WALRecoverManagerTest {
     } catch (NullPointerException e) {
       // ignore
     }
+    // the entries of the target memTable are redone by the redo threads
+    assertTrue(recoverManager.getReplayedWALSize() > 0);
+    assertTrue(recoverManager.getRedoneEntriesNum() >= 2);
+    assertTrue(recoverManager.getReplayedWALSize() <= recoverManager.getWALSizeToReplay());
 
     // region check file with wal
     // check file content
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+public class DiskIOSchedulerTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MB = 1024 * 1024;
+
+  private boolean originEnableAdaptiveIOScheduling;
+  private long originQueryLatencyThresholdInMs;
+
+  @Before
+  public void setUp() {
+    originEnableAdaptiveIOScheduling = config.isEnableAdaptiveIOScheduling();
+    originQueryLatencyThresholdInMs = config.getIoSchedulingQueryLatencyThresholdInMs();
+    config.setEnableAdaptiveIOScheduling(true);
+    config.setIoSchedulingQueryLatencyThresholdInMs(10);
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableAdaptiveIOScheduling(originEnableAdaptiveIOScheduling);
+    config.setIoSchedulingQueryLatencyThresholdInMs(originQueryLatencyThresholdInMs);
+    IOScheduler.getInstance().clear();
+  }
+
+  @Test
+  public void testThrottleAndReleaseBackgroundIO() {
+    DiskIOScheduler scheduler = new DiskIOScheduler("test");
+    long currentTime = System.nanoTime();
+
+    // slow queries without background IO are not caused by the background IO
+    scheduler.recordLatency(IOClass.QUERY, MB, TimeUnit.MILLISECONDS.toNanos(100));
+    currentTime += 2 * DiskIOScheduler.ADJUST_INTERVAL_IN_NS;
+    scheduler.adjustIfNeeded(currentTime);
+    Assert.assertEquals(Double.MAX_VALUE, scheduler.getBackgroundRate(), 0);
+
+    // slow queries with compaction, the background rate is halved from the observed one
+    scheduler.acquire(IOClass.COMPACTION, 10 * MB);
+    scheduler.recordLatency(IOClass.QUERY, MB, TimeUnit.MILLISECONDS.toNanos(100));
+    currentTime += 2 * DiskIOScheduler.ADJUST_INTERVAL_IN_NS;
+    scheduler.adjustIfNeeded(currentTime);
+    // 20 MB of permits in 2 seconds
+    Assert.assertEquals(5 * MB, scheduler.getBackgroundRate(), 0.01 * MB);
+
+    // the queries are still slow
+    scheduler.recordLatency(IOClass.QUERY, MB, TimeUnit.MILLISECONDS.toNanos(100));
+    currentTime += DiskIOScheduler.ADJUST_INTERVAL_IN_NS;
+    scheduler.adjustIfNeeded(currentTime);
+    Assert.assertEquals(DiskIOScheduler.MIN_BACKGROUND_RATE, scheduler.getBackgroundRate(), 0);
+
+    // the queries are fast, the background rate increases while the background IO uses it
+    scheduler.recordLatency(IOClass.QUERY, MB, TimeUnit.MILLISECONDS.toNanos(1));
+    scheduler.acquire(IOClass.LOAD, MB);
+    currentTime += DiskIOScheduler.ADJUST_INTERVAL_IN_NS;
+    scheduler.adjustIfNeeded(currentTime);
+    Assert.assertEquals(
+        1.25 * DiskIOScheduler.MIN_BACKGROUND_RATE, scheduler.getBackgroundRate(), 0);
+
+    // the background IO is idle, the throttling is released
+    currentTime += DiskIOScheduler.ADJUST_INTERVAL_IN_NS;
+    scheduler.adjustIfNeeded(currentTime);
+    Assert.assertEquals(Double.MAX_VALUE, scheduler.getBackgroundRate(), 0);
+  }
+
+  @Test
+  public void testNotThrottleWhenDisabled() {
+    config.setEnableAdaptiveIOScheduling(false);
+    DiskIOScheduler scheduler = new DiskIOScheduler("test");
+    scheduler.acquire(IOClass.COMPACTION, 10 * MB);
+    scheduler.recordLatency(IOClass.QUERY, MB, TimeUnit.MILLISECONDS.toNanos(100));
+    scheduler.adjustIfNeeded(System.nanoTime() + 2 * DiskIOScheduler.ADJUST_INTERVAL_IN_NS);
+    Assert.assertEquals(Double.MAX_VALUE, scheduler.getBackgroundRate(), 0);
+  }
+
+  @Test
+  public void testSchedulerOfDataDirectory() {
+    String dataDir = config.getTierDataDirs()[0][0];
+    String filePath = dataDir + File.separator + "sequence" + File.separator + "1.tsfile";
+    DiskIOScheduler scheduler = IOScheduler.getInstance().getDiskIOScheduler(filePath);
+    Assert.assertEquals(
+        new File(dataDir).getAbsolutePath() + File.separator, scheduler.getDirectory());
+    Assert.assertSame(
+        scheduler,
+        IOScheduler.getInstance()
+            .getDiskIOScheduler(new File(dataDir, "unsequence" + File.separator + "2.tsfile")));
+    Assert.assertSame(
+        IOScheduler.getInstance().getDefaultDiskIOScheduler(),
+        IOScheduler.getInstance().getDiskIOScheduler((String) null));
+  }
+}
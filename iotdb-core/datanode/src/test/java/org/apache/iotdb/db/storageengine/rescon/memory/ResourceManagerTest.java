@@ -56,7 +56,9 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
 import static org.junit.Assert.assertEquals;
@@ -83,12 +85,14 @@ public class ResourceManagerTest {
   private final TsFileResourceManager tsFileResourceManager = TsFileResourceManager.getInstance();
   private long prevTimeIndexMemoryThreshold;
   private TimeIndexLevel timeIndexLevel;
+  private boolean enableLazyLoadTsFileResource;
 
   @Before
   public void setUp() throws IOException, WriteProcessException, MetadataException {
     prevTimeIndexMemoryThreshold =
         MEMORY_CONFIG.getTimeIndexMemoryManager().getTotalMemorySizeInBytes();
     timeIndexLevel = CONFIG.getTimeIndexLevel();
+    enableLazyLoadTsFileResource = CONFIG.isEnableLazyLoadTsFileResource();
     prepareSeries();
   }
 
@@ -98,6 +102,7 @@ public class ResourceManagerTest {
     seqResources.clear();
     unseqResources.clear();
     CONFIG.setTimeIndexLevel(String.valueOf(timeIndexLevel));
+    CONFIG.setEnableLazyLoadTsFileResource(enableLazyLoadTsFileResource);
     tsFileResourceManager.setTimeIndexMemoryThreshold(prevTimeIndexMemoryThreshold);
     ChunkCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
@@ -468,4 +473,128 @@ public class ResourceManagerTest {
     Assert.assertTrue(tsFileResource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE);
     Assert.assertEquals(1, tsFileResourceManager.getDegradedTimeIndexNum());
   }
+
+  @Test
+  public void testLoadDeviceTimeIndex() throws IOException, WriteProcessException {
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + ".tsfile"));
+    TsFileResource tsFileResource = new TsFileResource(file);
+    tsFileResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    tsFileResource.updatePlanIndexes((long) 0);
+    prepareFile(tsFileResource, 0, ptNum, 0);
+    tsFileResource.serialize();
+    seqResources.add(tsFileResource);
+    long deviceTimeIndexRamSize = tsFileResource.calculateRamSize();
+    tsFileResourceManager.setTimeIndexMemoryThreshold(deviceTimeIndexRamSize * 2);
+    // the DeviceTimeIndex is dropped when restarting
+    tsFileResource.degradeTimeIndexForLazyLoad();
+    tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
+    Assert.assertEquals(1, tsFileResourceManager.getDegradedTimeIndexNum());
+
+    // lazy loading is disabled
+    CONFIG.setEnableLazyLoadTsFileResource(false);
+    Assert.assertFalse(tsFileResourceManager.loadDeviceTimeIndex(tsFileResource));
+
+    // the memory is not enough to hold the DeviceTimeIndex
+    CONFIG.setEnableLazyLoadTsFileResource(true);
+    tsFileResourceManager.setTimeIndexMemoryThreshold(deviceTimeIndexRamSize / 2);
+    Assert.assertFalse(tsFileResourceManager.loadDeviceTimeIndex(tsFileResource));
+    Assert.assertTrue(tsFileResource.isDeviceTimeIndexLazilyLoaded());
+
+    tsFileResourceManager.setTimeIndexMemoryThreshold(deviceTimeIndexRamSize * 2);
+    Assert.assertTrue(tsFileResourceManager.loadDeviceTimeIndex(tsFileResource));
+    assertEquals(
+        TimeIndexLevel.ARRAY_DEVICE_TIME_INDEX,
+        TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType()));
+    Assert.assertFalse(
+        tsFileResource.definitelyNotContains(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(deviceIds[0])));
+    Assert.assertTrue(
+        tsFileResource.definitelyNotContains(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(RESOURCE_MANAGER_TEST_SG + ".d")));
+    assertEquals(0, tsFileResourceManager.getDegradedTimeIndexNum());
+    assertEquals(
+        tsFileResource.calculateRamSize(), tsFileResourceManager.getTotalTimeIndexMemCost());
+    // already loaded
+    Assert.assertFalse(tsFileResourceManager.loadDeviceTimeIndex(tsFileResource));
+
+    // the time index degraded under memory pressure is never loaded again
+    tsFileResourceManager.forceDegradeTsFileResource(tsFileResource);
+    Assert.assertFalse(tsFileResourceManager.loadDeviceTimeIndex(tsFileResource));
+    assertEquals(
+        TimeIndexLevel.FILE_TIME_INDEX, TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType()));
+  }
+
+  @Test
+  public void testLoadDeviceTimeIndexInBackground()
+      throws IOException, WriteProcessException, InterruptedException {
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + ".tsfile"));
+    TsFileResource tsFileResource = new TsFileResource(file);
+    tsFileResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    tsFileResource.updatePlanIndexes(5);
+    prepareFile(tsFileResource, 0, ptNum, 0);
+    tsFileResource.serialize();
+    seqResources.add(tsFileResource);
+    long deviceTimeIndexRamSize = tsFileResource.calculateRamSize();
+
+    // only the FileTimeIndex is read when restarting
+    TsFileResource recoveredResource = new TsFileResource(file);
+    recoveredResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    Map<IDeviceID, Long> deviceEndTimeMap = new HashMap<>();
+    recoveredResource.deserializeWithFileTimeIndex(deviceEndTimeMap);
+    assertEquals(
+        TimeIndexLevel.FILE_TIME_INDEX,
+        TimeIndexLevel.valueOf(recoveredResource.getTimeIndexType()));
+    Assert.assertTrue(recoveredResource.isDeviceTimeIndexLazilyLoaded());
+    assertEquals(0, recoveredResource.getFileStartTime());
+    assertEquals(ptNum - 1, recoveredResource.getFileEndTime());
+    assertEquals(5, recoveredResource.getMaxPlanIndex());
+    assertEquals(deviceNum, deviceEndTimeMap.size());
+    for (String deviceId : deviceIds) {
+      assertEquals(
+          ptNum - 1,
+          (long) deviceEndTimeMap.get(IDeviceID.Factory.DEFAULT_FACTORY.create(deviceId)));
+    }
+    Assert.assertTrue(recoveredResource.getDeviceTimeIndexRamSize().get() > 0);
+
+    tsFileResourceManager.setTimeIndexMemoryThreshold(deviceTimeIndexRamSize * 2);
+    CONFIG.setEnableLazyLoadTsFileResource(true);
+    tsFileResourceManager.registerSealedTsFileResource(recoveredResource);
+    // the query doesn't wait for the DeviceTimeIndex
+    tsFileResourceManager.loadDeviceTimeIndexInBackground(recoveredResource);
+    long startTime = System.currentTimeMillis();
+    while (recoveredResource.isDeviceTimeIndexLazilyLoaded()
+        || tsFileResourceManager.isDeviceTimeIndexToLoad(recoveredResource)) {
+      Assert.assertTrue(System.currentTimeMillis() - startTime < 10_000);
+      Thread.sleep(10);
+    }
+    assertEquals(
+        TimeIndexLevel.ARRAY_DEVICE_TIME_INDEX,
+        TimeIndexLevel.valueOf(recoveredResource.getTimeIndexType()));
+    Assert.assertTrue(
+        recoveredResource.definitelyNotContains(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(RESOURCE_MANAGER_TEST_SG + ".d")));
+    assertEquals(0, tsFileResourceManager.getDegradedTimeIndexNum());
+    assertEquals(
+        recoveredResource.calculateRamSize(), tsFileResourceManager.getTotalTimeIndexMemCost());
+  }
 }
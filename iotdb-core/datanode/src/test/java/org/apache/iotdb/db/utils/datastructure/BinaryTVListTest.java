@@ -108,4 +108,40 @@ public class BinaryTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testPutBinariesWithDictionary() {
+    BinaryTVList tvList = BinaryTVList.newList();
+    BinaryDictionary dictionary = new BinaryDictionary(2);
+    tvList.setDictionary(dictionary);
+    String[] statuses = {"running", "stopped", "failed"};
+    Binary[] binaryList = new Binary[300];
+    long[] times = new long[300];
+    for (int i = 0; i < 300; i++) {
+      times[i] = i;
+      binaryList[i] = BytesUtils.valueOf(statuses[i % 3]);
+    }
+    tvList.putBinaries(times, binaryList, null, 0, 150);
+    for (int i = 150; i < 300; i++) {
+      tvList.putBinary(times[i], binaryList[i]);
+    }
+
+    Assert.assertEquals(2, dictionary.size());
+    for (int i = 0; i < 300; i++) {
+      Binary value = tvList.getBinary(i);
+      Assert.assertEquals(statuses[i % 3], value.toString());
+      if (i % 3 == 2) {
+        // the dictionary is full
+        Assert.assertSame(binaryList[i], value);
+      } else {
+        Assert.assertSame(tvList.getBinary(i % 3), value);
+      }
+    }
+    // the input array is not modified
+    Assert.assertNotSame(binaryList[0], binaryList[3]);
+
+    // the interned value costs no extra memory
+    Assert.assertEquals(0, dictionary.getRamIncrement(BytesUtils.valueOf("running")));
+    Assert.assertTrue(dictionary.getRamIncrement(BytesUtils.valueOf("failed")) > 0);
+  }
 }
@@ -55,6 +55,7 @@ public enum ThreadName {
   WAL_SYNC("WAL-Sync"),
   WAL_DELETE("WAL-Delete"),
   WAL_RECOVER("WAL-Recover"),
+  WAL_RECOVER_REDO("WAL-Recover-Redo"),
   TSFILE_RECOVER("TsFile-Recover"),
   // -------------------------- Flush --------------------------
   FLUSH("Flush"),
@@ -187,6 +188,7 @@ public enum ThreadName {
   ACTIVE_LOAD_TSFILE_LOADER("Active-Load-TsFile-Loader"),
   ACTIVE_LOAD_DIR_SCANNER("Active-Load-Dir-Scanner"),
   ACTIVE_LOAD_METRICS_COLLECTOR("Active-Load-Metrics-Collector"),
+  LOAD_TSFILE_SCHEDULER("Load-TsFile-Scheduler"),
   SETTLE("Settle"),
   INFLUXDB_RPC_SERVICE("InfluxdbRPC-Service"),
   INFLUXDB_RPC_PROCESSOR("InfluxdbRPC-Processor"),
@@ -196,6 +198,7 @@ public enum ThreadName {
   REGION_MIGRATE("Region-Migrate-Pool"),
   STORAGE_ENGINE_RECOVER_TRIGGER("StorageEngine-RecoverTrigger"),
   FILE_TIME_INDEX_RECORD("FileTimeIndexRecord"),
+  DEVICE_TIME_INDEX_LOADER("DeviceTimeIndexLoader"),
   BINARY_ALLOCATOR_SAMPLE_EVICTOR("BinaryAllocator-SampleEvictor"),
   BINARY_ALLOCATOR_AUTO_RELEASER("BinaryAllocator-Auto-Releaser"),
 
@@ -231,7 +234,13 @@ public enum ThreadName {
 
   private static final Set<ThreadName> walThreadNames =
       new HashSet<>(
-          Arrays.asList(WAL_SERIALIZE, WAL_SYNC, WAL_DELETE, WAL_RECOVER, TSFILE_RECOVER));
+          Arrays.asList(
+              WAL_SERIALIZE,
+              WAL_SYNC,
+              WAL_DELETE,
+              WAL_RECOVER,
+              WAL_RECOVER_REDO,
+              TSFILE_RECOVER));
 
   private static final Set<ThreadName> flushThreadNames =
       new HashSet<>(
@@ -385,6 +394,7 @@ public enum ThreadName {
               ACTIVE_LOAD_TSFILE_LOADER,
               ACTIVE_LOAD_DIR_SCANNER,
               ACTIVE_LOAD_METRICS_COLLECTOR,
+              LOAD_TSFILE_SCHEDULER,
               SETTLE,
               INFLUXDB_RPC_SERVICE,
               INFLUXDB_RPC_PROCESSOR,
@@ -392,7 +402,8 @@ public enum ThreadName {
               DATANODE_SHUTDOWN_HOOK,
               UPGRADE_TASK,
               REGION_MIGRATE,
-              STORAGE_ENGINE_RECOVER_TRIGGER));
+              STORAGE_ENGINE_RECOVER_TRIGGER,
+              DEVICE_TIME_INDEX_LOADER));
 
   private static final Set<ThreadName>[] threadNameSetList =
       new Set[] {
@@ -267,6 +267,23 @@ public class ColumnHeaderConstant {
   public static final String SCHEMA_CONSENSUS_PORT_TABLE_MODEL = "schema_consensus_port";
   public static final String DATA_CONSENSUS_PORT_TABLE_MODEL = "data_consensus_port";
 
+  public static final String FRAGMENT_INSTANCE_ID_TABLE_MODEL = "fragment_instance_id";
+  public static final String PLAN_NODE_ID_TABLE_MODEL = "plan_node_id";
+  public static final String DATA_REGION_ID_TABLE_MODEL = "data_region_id";
+  public static final String OPERATOR_TYPE_TABLE_MODEL = "operator_type";
+  public static final String EXECUTION_TIME_TABLE_MODEL = "execution_time";
+  public static final String OUTPUT_ROWS_TABLE_MODEL = "output_rows";
+  public static final String MEMORY_USAGE_TABLE_MODEL = "memory_usage";
+  public static final String BLOCK_QUEUED_TIME_TABLE_MODEL = "block_queued_time";
+  public static final String READY_QUEUED_TIME_TABLE_MODEL = "ready_queued_time";
+  public static final String CHUNK_CACHE_HIT_TABLE_MODEL = "chunk_cache_hit";
+  public static final String CHUNK_CACHE_MISS_TABLE_MODEL = "chunk_cache_miss";
+  public static final String TIMESERIES_METADATA_CACHE_HIT_TABLE_MODEL =
+      "timeseries_metadata_cache_hit";
+  public static final String TIMESERIES_METADATA_CACHE_MISS_TABLE_MODEL =
+      "timeseries_metadata_cache_miss";
+  public static final String IO_BYTES_TABLE_MODEL = "io_bytes";
+
   // column names for show space quota
   public static final String QUOTA_TYPE = "QuotaType";
   public static final String LIMIT = "Limit";
@@ -50,6 +50,7 @@ public class InformationSchema {
   public static final String NODES = "nodes";
   public static final String CONFIG_NODES = "config_nodes";
   public static final String DATA_NODES = "data_nodes";
+  public static final String QUERIES_PROFILE = "queries_profile";
 
   static {
     final TsTable queriesTable = new TsTable(QUERIES);
@@ -359,6 +360,64 @@ public class InformationSchema {
             ColumnHeaderConstant.SCHEMA_CONSENSUS_PORT_TABLE_MODEL, TSDataType.INT32));
     dataNodesTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
     schemaTables.put(DATA_NODES, dataNodesTable);
+
+    final TsTable queriesProfileTable = new TsTable(QUERIES_PROFILE);
+    queriesProfileTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.QUERY_ID_TABLE_MODEL, TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new TagColumnSchema(
+            ColumnHeaderConstant.FRAGMENT_INSTANCE_ID_TABLE_MODEL, TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.PLAN_NODE_ID_TABLE_MODEL, TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.DATA_NODE_ID_TABLE_MODEL, TSDataType.INT32));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.DATA_REGION_ID_TABLE_MODEL, TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.USER.toLowerCase(Locale.ENGLISH), TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.STATE.toLowerCase(Locale.ENGLISH), TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.START_TIME_TABLE_MODEL, TSDataType.TIMESTAMP));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.ELAPSED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.OPERATOR_TYPE_TABLE_MODEL, TSDataType.STRING));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.EXECUTION_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.OUTPUT_ROWS_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.MEMORY_USAGE_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.BLOCK_QUEUED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.READY_QUEUED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.CHUNK_CACHE_HIT_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.CHUNK_CACHE_MISS_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.TIMESERIES_METADATA_CACHE_HIT_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.TIMESERIES_METADATA_CACHE_MISS_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.IO_BYTES_TABLE_MODEL, TSDataType.INT64));
+    queriesProfileTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
+    schemaTables.put(QUERIES_PROFILE, queriesProfileTable);
   }
 
   public static Map<String, TsTable> getSchemaTables() {
@@ -69,12 +69,14 @@ public enum Metric {
   QUEUE("queue"),
   FLUSHING_MEM_TABLE_STATUS("flushing_mem_table_status"),
   DATA_REGION_MEM_COST("data_region_mem_cost"),
+  WAL_FREE_EXPOSURE("wal_free_exposure"),
   WAL_NODE_NUM("wal_node_num"),
   WAL_NODE_INFO("wal_node_info"),
   WAL_BUFFER("wal_buffer"),
   PENDING_FLUSH_TASK("pending_flush_task"),
   WAL_COST("wal_cost"),
   WAL_QUEUE_MEM_COST("wal_queue_mem_cost"),
+  WAL_RECOVER("wal_recover"),
   FLUSH_COST("flush_cost"),
   FLUSH_SUB_TASK_COST("flush_sub_task_cost"),
   MEMTABLE_THRESHOLD("memtable_threshold"),
@@ -82,6 +84,7 @@ public enum Metric {
   ACTIVE_MEMTABLE_COUNT("active_memtable_count"),
   ACTIVE_TIME_PARTITION_COUNT("active_time_partition_count"),
   MEMTABLE_LIVE_DURATION("memtable_live_duration"),
+  DATA_REGION_LOCK_HOLD_TIME("data_region_lock_hold_time"),
   PAM_ALLOCATED_COUNT("primitive_array_manager_allocated_count"),
   PAM_RELEASED_COUNT("primitive_array_manager_released_count"),
   PAM_ALLOCATED_FAILURE_COUNT("primitive_array_manager_allocated_failure_count"),
@@ -97,6 +100,7 @@ public enum Metric {
   COMPACTION_TASK_SELECTION_COST("compaction_task_selection_cost"),
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
   COMPACTION_TASK_SELECTED_FILE_SIZE("compaction_task_selected_file_size"),
+  COMPACTION_TASK_QUERY_BENEFIT("compaction_task_query_benefit"),
   COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE("compaction_selection_cached_time_index_size"),
   // schema engine related
   MEM("mem"),
@@ -129,6 +133,7 @@ public enum Metric {
   FRAGMENT_INSTANCE_MANAGER("fragment_instance_manager"),
   MEMORY_POOL("memory_pool"),
   LOCAL_EXECUTION_PLANNER("local_execution_planner"),
+  QUERY_PARTITION_SPILL("query_partition_spill"),
   QUERY_DISK_READ("query_disk_read"),
 
   // file related
@@ -202,11 +207,15 @@ public enum Metric {
   LOAD_DISK_IO("load_disk_io"),
   LOAD_TIME_COST("load_time_cost"),
   LOAD_POINT_COUNT("load_point_count"),
+  LOAD_PIECE_DISPATCH_SIZE("load_piece_dispatch_size"),
   MEMTABLE_POINT_COUNT("memtable_point_count"),
   BINARY_ALLOCATOR("binary_allocator"),
   // memory related
   MEMORY_THRESHOLD_SIZE("memory_threshold_size"),
   MEMORY_ACTUAL_SIZE("memory_actual_size"),
+  // io scheduler related
+  IO_SCHEDULER_THROUGHPUT("io_scheduler_throughput"),
+  IO_SCHEDULER_QUEUE_TIME("io_scheduler_queue_time"),
   ;
 
   final String value;
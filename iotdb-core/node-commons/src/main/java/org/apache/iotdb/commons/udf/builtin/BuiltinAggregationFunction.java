@@ -46,7 +46,8 @@ public enum BuiltinAggregationFunction {
   VAR_POP("var_pop"),
   VAR_SAMP("var_samp"),
   MAX_BY("max_by"),
-  MIN_BY("min_by");
+  MIN_BY("min_by"),
+  APPROX_PERCENTILE("approx_percentile");
 
   private final String functionName;
 
@@ -85,6 +86,8 @@ public enum BuiltinAggregationFunction {
       case "avg":
       case "sum":
       case "time_duration":
+      // only TsFiles with sketches can be calculated without reading the data
+      case "approx_percentile":
         return true;
       case "count_if":
       case "mode":
@@ -131,6 +134,7 @@ public enum BuiltinAggregationFunction {
       case "var_samp":
       case "max_by":
       case "min_by":
+      case "approx_percentile":
         return true;
       case "count_if":
       case "count_time":
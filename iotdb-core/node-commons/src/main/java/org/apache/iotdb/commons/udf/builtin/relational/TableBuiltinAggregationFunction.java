@@ -58,7 +58,8 @@ public enum TableBuiltinAggregationFunction {
   VAR_POP("var_pop"),
   VAR_SAMP("var_samp"),
   APPROX_COUNT_DISTINCT("approx_count_distinct"),
-  APPROX_MOST_FREQUENT("approx_most_frequent");
+  APPROX_MOST_FREQUENT("approx_most_frequent"),
+  APPROX_PERCENTILE("approx_percentile");
 
   private final String functionName;
 
@@ -242,6 +242,20 @@ struct TSInsertTabletReq {
   8: optional bool isAligned
   9: optional bool writeToTable
   10: optional list<byte> columnCategories
+  11: optional i64 preparedId
+}
+
+struct TSPrepareInsertTabletReq {
+  1: required i64 sessionId
+  2: required string prefixPath
+  3: required list<string> measurements
+  4: required list<i32> types
+  5: optional bool isAligned
+}
+
+struct TSPrepareInsertTabletResp {
+  1: required common.TSStatus status
+  2: optional i64 preparedId
 }
 
 struct TSInsertTabletsReq {
@@ -616,6 +630,10 @@ service IClientRPCService {
 
   common.TSStatus insertTablets(1:TSInsertTabletsReq req);
 
+  TSPrepareInsertTabletResp prepareInsertTablet(1:TSPrepareInsertTabletReq req);
+
+  common.TSStatus closePreparedInsertTablet(1:i64 sessionId, 2:i64 preparedId);
+
   common.TSStatus insertRecords(1:TSInsertRecordsReq req);
 
   common.TSStatus insertRecordsOfOneDevice(1:TSInsertRecordsOfOneDeviceReq req);